@@ -0,0 +1,80 @@
+package benchmark;
+
+import domain.Colectivo;
+import domain.Linea;
+import domain.Parada;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.AdministracionPasajeros;
+
+/**
+ * Mide {@link Colectivo#bajarPasajerosEn(Parada)}: antes de cada invocación se suben a un
+ * colectivo por línea todos los pasajeros de su recorrido, fuera de la medición,
+ * y luego se mide la bajada en cada parada.
+ * Los colectivos no tienen límite de capacidad, para que todos los pasajeros estén a bordo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BenchmarkBajada {
+    private static final long SEMILLA = 1;
+
+    @Param({"20", "200"})
+    int paradas;
+
+    @Param({"5", "20"})
+    int pasajeros;
+
+    @Param("12")
+    int lineas;
+
+    private RedSintetica red;
+    private List<Colectivo> colectivos;
+
+    @Setup(Level.Trial)
+    public void crearRed() {
+        red = new RedSintetica(paradas, lineas);
+    }
+
+    @Setup(Level.Invocation)
+    public void subirPasajeros() {
+        List<Linea> recorridos = red.crearLineas(red.crearParadas());
+        new AdministracionPasajeros(pasajeros, SEMILLA).generarPasajeros(recorridos);
+        colectivos = new ArrayList<>(recorridos.size());
+        for (Linea linea : recorridos) {
+            Colectivo colectivo = new Colectivo(colectivos.size(), linea, Integer.MAX_VALUE, 0);
+            List<Parada> recorrido = linea.getParadas();
+            for (int pos = 0; pos < recorrido.size(); pos++) {
+                colectivo.subirPasajerosDesdeParada(recorrido.get(pos), pos);
+            }
+            colectivos.add(colectivo);
+        }
+    }
+
+    @Benchmark
+    public long bajada() {
+        long bajaron = 0;
+        for (Colectivo colectivo : colectivos) {
+            for (Parada parada : colectivo.getLinea().getParadas()) {
+                bajaron += colectivo.bajarPasajerosEn(parada).size();
+            }
+        }
+        return bajaron;
+    }
+}
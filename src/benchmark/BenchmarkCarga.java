@@ -0,0 +1,85 @@
+package benchmark;
+
+import domain.Linea;
+import domain.Parada;
+import io.Datos;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import presentacion.NivelDetalle;
+import presentacion.SimulacionOutput;
+
+/**
+ * Mide la carga de la red con {@link Datos#cargarParadas()} y {@link Datos#cargarLineas(Map)}
+ * sobre archivos sintéticos escritos en un directorio temporal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BenchmarkCarga {
+
+    @Param({"20", "200"})
+    int paradas;
+
+    @Param("12")
+    int lineas;
+
+    private Path directorio;
+    private Datos datos;
+
+    @Setup(Level.Trial)
+    public void escribirArchivos() {
+        try {
+            directorio = Files.createTempDirectory("benchmark-red");
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el directorio temporal.", e);
+        }
+        Path archivoParadas = directorio.resolve("parada.txt");
+        Path archivoLineas = directorio.resolve("linea.txt");
+        new RedSintetica(paradas, lineas).escribirArchivos(archivoParadas, archivoLineas);
+        datos = new Datos(archivoParadas.toString(), archivoLineas.toString(),
+            SimulacionOutput.crearEnMemoria(NivelDetalle.RESUMEN));
+    }
+
+    @Benchmark
+    public long carga() {
+        Map<Integer, Parada> cargadas = datos.cargarParadas();
+        List<Linea> recorridos = datos.cargarLineas(cargadas);
+        long total = cargadas.size();
+        for (Linea linea : recorridos) {
+            total += linea.getParadas().size();
+        }
+        return total;
+    }
+
+    @TearDown(Level.Trial)
+    public void borrarArchivos() {
+        try {
+            Files.deleteIfExists(directorio.resolve("parada.txt"));
+            Files.deleteIfExists(directorio.resolve("linea.txt"));
+            Files.deleteIfExists(directorio);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo borrar el directorio temporal " + directorio, e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package benchmark;
+
+import config.Configuracion;
+import domain.Colectivo;
+import domain.Linea;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import logic.Simulador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import presentacion.NivelDetalle;
+import presentacion.SimulacionOutput;
+import util.AdministracionColectivos;
+import util.AdministracionPasajeros;
+
+/**
+ * Mide una corrida completa de {@link Simulador#ejecutar()} sobre una red sintética,
+ * con la configuración del archivo por defecto salvo la capacidad y las vueltas de los parámetros.
+ * La salida se retiene en memoria con nivel de detalle resumido. Los pasajeros y los colectivos
+ * se crean de nuevo antes de cada invocación, fuera de la medición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BenchmarkSimulacion {
+    private static final long SEMILLA = 1;
+
+    @Param({"20", "200"})
+    int paradas;
+
+    @Param({"5", "20"})
+    int pasajeros;
+
+    @Param("30")
+    int capacidad;
+
+    @Param("12")
+    int lineas;
+
+    @Param("3")
+    int vueltas;
+
+    private RedSintetica red;
+    private Configuracion config;
+    private List<Colectivo> colectivos;
+
+    @Setup(Level.Trial)
+    public void configurar() {
+        red = new RedSintetica(paradas, lineas);
+        Properties properties = Configuracion.leerPropiedades(Configuracion.ARCHIVO_CONFIG);
+        properties.setProperty("cantidadPasajeros", String.valueOf(capacidad));
+        properties.setProperty("cantidadAsientos", String.valueOf(capacidad / 2));
+        properties.setProperty("maxVueltas", String.valueOf(vueltas));
+        config = Configuracion.desde(properties);
+    }
+
+    @Setup(Level.Invocation)
+    public void generarPasajeros() {
+        List<Linea> recorridos = red.crearLineas(red.crearParadas());
+        new AdministracionPasajeros(pasajeros, SEMILLA).generarPasajeros(recorridos);
+        colectivos = AdministracionColectivos.generarColectivos(recorridos, config);
+    }
+
+    @Benchmark
+    public long simulacion() {
+        new Simulador(colectivos, SimulacionOutput.crearEnMemoria(NivelDetalle.RESUMEN), config).ejecutar();
+        long ocupacion = 0;
+        for (Colectivo colectivo : colectivos) {
+            ocupacion += colectivo.getSumaOcupacion();
+        }
+        return ocupacion;
+    }
+}
@@ -0,0 +1,80 @@
+package benchmark;
+
+import domain.Colectivo;
+import domain.Linea;
+import domain.Parada;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.AdministracionPasajeros;
+
+/**
+ * Mide {@link Colectivo#subirPasajerosDesdeParada(Parada, int)}: un colectivo por línea
+ * recorre una vez su línea subiendo pasajeros en cada parada, sin bajarlos.
+ * Como la subida vacía las paradas, los pasajeros se generan de nuevo antes de cada invocación,
+ * fuera de la medición. Con las redes medidas cada invocación dura decenas de microsegundos o más,
+ * frente a los que la lectura del reloj que JMH agrega por invocación es despreciable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BenchmarkSubida {
+    private static final long SEMILLA = 1;
+
+    @Param({"20", "200"})
+    int paradas;
+
+    @Param({"5", "20"})
+    int pasajeros;
+
+    @Param("30")
+    int capacidad;
+
+    @Param("12")
+    int lineas;
+
+    private RedSintetica red;
+    private List<Colectivo> colectivos;
+
+    @Setup(Level.Trial)
+    public void crearRed() {
+        red = new RedSintetica(paradas, lineas);
+    }
+
+    @Setup(Level.Invocation)
+    public void generarPasajeros() {
+        List<Linea> recorridos = red.crearLineas(red.crearParadas());
+        new AdministracionPasajeros(pasajeros, SEMILLA).generarPasajeros(recorridos);
+        colectivos = new ArrayList<>(recorridos.size());
+        for (Linea linea : recorridos) {
+            colectivos.add(new Colectivo(colectivos.size(), linea, capacidad, capacidad / 2));
+        }
+    }
+
+    @Benchmark
+    public long subida() {
+        long subieron = 0;
+        for (Colectivo colectivo : colectivos) {
+            List<Parada> recorrido = colectivo.getLinea().getParadas();
+            for (int pos = 0; pos < recorrido.size(); pos++) {
+                subieron += colectivo.subirPasajerosDesdeParada(recorrido.get(pos), pos).size();
+            }
+        }
+        return subieron;
+    }
+}
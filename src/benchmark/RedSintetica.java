@@ -0,0 +1,124 @@
+package benchmark;
+
+import domain.Linea;
+import domain.Parada;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Red de paradas y líneas generada para los benchmarks.
+ * Las paradas forman un anillo y cada línea recorre paradas consecutivas a partir de un
+ * desplazamiento de media línea respecto de la anterior, de modo que cada línea comparte
+ * la mitad de su recorrido con la siguiente, como ocurre con los troncales de la red real.
+ */
+public class RedSintetica {
+    private final int paradasPorLinea;
+    private final int cantidadLineas;
+    private final int cantidadParadas;
+
+    /**
+     * Define una red sintética.
+     * @param paradasPorLinea Cantidad de paradas del recorrido de cada línea.
+     * @param cantidadLineas Cantidad de líneas.
+     */
+    public RedSintetica(int paradasPorLinea, int cantidadLineas) {
+        if (paradasPorLinea < 2 || cantidadLineas < 1) {
+            throw new IllegalArgumentException("La red necesita al menos una línea de dos paradas.");
+        }
+        this.paradasPorLinea = paradasPorLinea;
+        this.cantidadLineas = cantidadLineas;
+        this.cantidadParadas = Math.max(paradasPorLinea, desplazamiento() * cantidadLineas);
+    }
+
+    /**
+     * Crea las paradas de la red, con IDs consecutivos desde 1.
+     * @return Mapa de paradas indexadas por su ID.
+     */
+    public Map<Integer, Parada> crearParadas() {
+        Map<Integer, Parada> paradas = new LinkedHashMap<>();
+        for (int id = 1; id <= cantidadParadas; id++) {
+            paradas.put(id, new Parada(id, direccion(id)));
+        }
+        return paradas;
+    }
+
+    /**
+     * Crea las líneas de la red sobre las paradas indicadas.
+     * @param paradas Paradas creadas con {@link #crearParadas()}.
+     * @return Lista de líneas.
+     */
+    public List<Linea> crearLineas(Map<Integer, Parada> paradas) {
+        List<Linea> lineas = new ArrayList<>(cantidadLineas);
+        for (int i = 0; i < cantidadLineas; i++) {
+            Linea.Builder linea = Linea.builder(codigo(i));
+            for (int j = 0; j < paradasPorLinea; j++) {
+                linea.agregarParada(paradas.get(idParada(i, j)));
+            }
+            lineas.add(linea.construir());
+        }
+        return lineas;
+    }
+
+    /**
+     * Escribe la red en el formato de {@code parada.txt} y {@code linea.txt}.
+     * @param archivoParadas Archivo de paradas a generar.
+     * @param archivoLineas Archivo de líneas a generar.
+     * @throws UncheckedIOException si no se pueden escribir los archivos.
+     */
+    public void escribirArchivos(Path archivoParadas, Path archivoLineas) {
+        try (BufferedWriter out = Files.newBufferedWriter(archivoParadas, StandardCharsets.UTF_8)) {
+            out.write("#id de la parada;direccion\n");
+            for (int id = 1; id <= cantidadParadas; id++) {
+                out.write(id + ";" + direccion(id) + ";\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir " + archivoParadas, e);
+        }
+
+        try (BufferedWriter out = Files.newBufferedWriter(archivoLineas, StandardCharsets.UTF_8)) {
+            out.write("#codigo de la linea;paradas\n");
+            for (int i = 0; i < cantidadLineas; i++) {
+                out.write(codigo(i));
+                out.write(';');
+                for (int j = 0; j < paradasPorLinea; j++) {
+                    out.write(idParada(i, j) + ";");
+                }
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir " + archivoLineas, e);
+        }
+    }
+
+    /**
+     * Obtiene la cantidad total de paradas de la red.
+     * @return Cantidad de paradas.
+     */
+    public int getCantidadParadas() {
+        return cantidadParadas;
+    }
+
+    private int desplazamiento() {
+        return Math.max(1, paradasPorLinea / 2);
+    }
+
+    private int idParada(int linea, int posicion) {
+        return (linea * desplazamiento() + posicion) % cantidadParadas + 1;
+    }
+
+    private static String codigo(int linea) {
+        return "S" + (linea + 1);
+    }
+
+    private static String direccion(int id) {
+        return "Calle " + (id / 100 + 1) + ", " + (id % 100) * 10;
+    }
+}
@@ -2,143 +2,668 @@ package config;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.SplittableRandom;
+import presentacion.NivelDetalle;
 
 /**
- * Clase utilitaria para la gestión de la configuración del sistema.
- * Carga los parámetros desde un archivo properties externo y provee métodos
- * estáticos para acceder a los valores de configuración necesarios en la simulación.
+ * Configuración inmutable de la simulación.
+ * Se construye una sola vez a partir de un archivo properties externo: todos los parámetros
+ * se leen, se convierten a valores primitivos y se validan en ese momento, de modo que
+ * los accesos durante la simulación no consultan ni parsean el archivo.
+ * Al no depender de estado estático, pueden ejecutarse en la misma JVM simulaciones
+ * con configuraciones distintas.
  */
-public class Configuracion {
-    private static final String ARCHIVO_CONFIG = "data/config.properties";
-    private static final Properties properties = new Properties();
+public final class Configuracion {
+    public static final String ARCHIVO_CONFIG = "data/config.properties";
     private static final String LINEA_KEY = "linea";
     private static final String PARADA_KEY = "parada";
     private static final String CANTIDAD_PASAJEROS_KEY = "cantidadPasajeros";
     private static final String MAX_PASAJEROS_POR_PARADA_KEY = "maxPasajerosPorParada";
-    private static final String MAX_VUELTAS_KEY = "maxVueltas"; 
+    private static final String MAX_VUELTAS_KEY = "maxVueltas";
     private static final String ARCHIVO_SALIDA_SIMULACION_KEY = "archivoSalidaSimulacion";
     private static final String CANTIDAD_ASIENTOS_KEY = "cantidadAsientos";
+    private static final String MODO_SIMULACION_KEY = "modoSimulacion";
+    private static final String TIEMPO_ENTRE_PARADAS_KEY = "tiempoEntreParadas";
+    private static final String TIEMPOS_TRAMO_KEY = "tiemposTramo";
+    private static final String TIEMPO_DETENCION_KEY = "tiempoDetencion";
+    private static final String TIEMPO_POR_PASAJERO_KEY = "tiempoPorPasajero";
+    private static final String HILOS_SIMULACION_KEY = "hilosSimulacion";
+    private static final String PARTICION_PARALELA_KEY = "particionParalela";
+    private static final String NIVEL_DETALLE_KEY = "nivelDetalle";
+    private static final String CAPACIDAD_BUFFER_SALIDA_KEY = "capacidadBufferSalida";
+    private static final String ARCHIVO_REGISTRO_EVENTOS_KEY = "archivoRegistroEventos";
+    private static final String SEMILLA_KEY = "semilla";
+    private static final String HILOS_CARGA_KEY = "hilosCarga";
+    private static final String CACHE_RED_KEY = "cacheRed";
+    private static final String HISTORIAL_OCUPACION_KEY = "historialOcupacion";
+    private static final String ALMACEN_PASAJEROS_KEY = "almacenPasajeros";
+    private static final String ARCHIVO_PASAJEROS_KEY = "archivoPasajeros";
+    private static final String LLEGADA_PASAJEROS_KEY = "llegadaPasajeros";
+    private static final String PASAJEROS_POR_HORA_KEY = "pasajerosPorHora";
+    private static final String PERFIL_LLEGADAS_KEY = "perfilLlegadas";
+    private static final String COLECTIVOS_POR_LINEA_KEY = "colectivosPorLinea";
+    private static final String FLOTA_POR_LINEA_KEY = "flotaPorLinea";
+    private static final String FRECUENCIA_DESPACHO_KEY = "frecuenciaDespacho";
+    private static final String INTERVALO_PUNTO_CONTROL_KEY = "intervaloPuntoControl";
+    private static final String ARCHIVO_PUNTO_CONTROL_KEY = "archivoPuntoControl";
+    private static final String REANUDAR_DESDE_KEY = "reanudarDesde";
+    private static final String INSTRUMENTACION_KEY = "instrumentacion";
+    private static final String MODO_EVENTOS = "eventos";
+    private static final String MODO_PASOS = "pasos";
+    private static final String PARTICION_COMPONENTES = "componentes";
+    private static final String PARTICION_LINEAS = "lineas";
+    private static final String ALMACEN_FUERA_DE_HEAP = "fueraDeHeap";
+    private static final String ALMACEN_HEAP = "heap";
+    private static final String LLEGADA_POISSON = "poisson";
+    private static final String LLEGADA_INICIO = "inicio";
+
+    private final String archivoLineas;
+    private final String archivoParadas;
+    private final int cantidadPasajeros;
+    private final int cantidadAsientos;
+    private final int maxPasajerosPorParada;
+    private final int maxVueltas;
+    private final String archivoSalidaSimulacion;
+    private final boolean motorEventos;
+    private final int tiempoEntreParadas;
+    private final Map<Long, Integer> tiemposTramo;
+    private final int tiempoDetencion;
+    private final int tiempoPorPasajero;
+    private final int hilosSimulacion;
+    private final boolean particionPorComponentes;
+    private final NivelDetalle nivelDetalle;
+    private final int capacidadBufferSalida;
+    private final String archivoRegistroEventos;
+    private final long semilla;
+    private final int hilosCarga;
+    private final boolean cacheRed;
+    private final boolean historialOcupacion;
+    private final boolean pasajerosFueraDeHeap;
+    private final String archivoPasajeros;
+    private final boolean llegadasPoisson;
+    private final int pasajerosPorHora;
+    private final double[] perfilLlegadas;
+    private final int colectivosPorLinea;
+    private final Map<String, Integer> flotaPorLinea;
+    private final int frecuenciaDespacho;
+    private final int intervaloPuntoControl;
+    private final String archivoPuntoControl;
+    private final String reanudarDesde;
+    private final boolean instrumentacion;
 
     /**
-     * Carga las propiedades desde el archivo de configuración al iniciar la clase.
-     * Si ocurre un error al cargar el archivo, se imprime un mensaje de error.
+     * Lee y valida todos los parámetros de las propiedades indicadas.
+     * @param properties Propiedades de configuración.
+     * @throws IllegalStateException si falta alguna propiedad o tiene un valor inválido.
      */
-    static {
-        try (FileInputStream fis = new FileInputStream(ARCHIVO_CONFIG)) {
+    private Configuracion(Properties properties) {
+        archivoLineas = obtenerTexto(properties, LINEA_KEY);
+        archivoParadas = obtenerTexto(properties, PARADA_KEY);
+        cantidadPasajeros = obtenerEntero(properties, CANTIDAD_PASAJEROS_KEY, 1);
+        cantidadAsientos = obtenerEntero(properties, CANTIDAD_ASIENTOS_KEY, 0);
+        maxPasajerosPorParada = obtenerEntero(properties, MAX_PASAJEROS_POR_PARADA_KEY, 1);
+        maxVueltas = obtenerEntero(properties, MAX_VUELTAS_KEY, 0);
+        archivoSalidaSimulacion = obtenerTexto(properties, ARCHIVO_SALIDA_SIMULACION_KEY);
+        motorEventos = obtenerOpcion(properties, MODO_SIMULACION_KEY, MODO_EVENTOS, MODO_PASOS);
+        tiempoEntreParadas = obtenerEntero(properties, TIEMPO_ENTRE_PARADAS_KEY, 0);
+        tiemposTramo = obtenerTramos(properties, TIEMPOS_TRAMO_KEY);
+        tiempoDetencion = obtenerEntero(properties, TIEMPO_DETENCION_KEY, 0);
+        tiempoPorPasajero = obtenerEntero(properties, TIEMPO_POR_PASAJERO_KEY, 0);
+        int hilos = obtenerEntero(properties, HILOS_SIMULACION_KEY, 0);
+        hilosSimulacion = hilos == 0 ? Runtime.getRuntime().availableProcessors() : hilos;
+        particionPorComponentes = obtenerOpcion(properties, PARTICION_PARALELA_KEY, PARTICION_COMPONENTES, PARTICION_LINEAS);
+        nivelDetalle = NivelDetalle.desdeTexto(obtenerTexto(properties, NIVEL_DETALLE_KEY));
+        capacidadBufferSalida = obtenerEntero(properties, CAPACIDAD_BUFFER_SALIDA_KEY, 0);
+        archivoRegistroEventos = obtenerTexto(properties, ARCHIVO_REGISTRO_EVENTOS_KEY).trim();
+        semilla = obtenerSemilla(properties);
+        int hilosParseo = obtenerEntero(properties, HILOS_CARGA_KEY, 0);
+        hilosCarga = hilosParseo == 0 ? Runtime.getRuntime().availableProcessors() : hilosParseo;
+        cacheRed = obtenerOpcion(properties, CACHE_RED_KEY, "si", "no");
+        historialOcupacion = obtenerOpcion(properties, HISTORIAL_OCUPACION_KEY, "si", "no");
+        pasajerosFueraDeHeap = obtenerOpcion(properties, ALMACEN_PASAJEROS_KEY, ALMACEN_FUERA_DE_HEAP, ALMACEN_HEAP);
+        archivoPasajeros = obtenerTexto(properties, ARCHIVO_PASAJEROS_KEY).trim();
+        llegadasPoisson = obtenerOpcion(properties, LLEGADA_PASAJEROS_KEY, LLEGADA_POISSON, LLEGADA_INICIO);
+        pasajerosPorHora = obtenerEntero(properties, PASAJEROS_POR_HORA_KEY, 1);
+        perfilLlegadas = obtenerPerfil(properties, PERFIL_LLEGADAS_KEY);
+        colectivosPorLinea = obtenerEntero(properties, COLECTIVOS_POR_LINEA_KEY, 1);
+        flotaPorLinea = obtenerFlota(properties, FLOTA_POR_LINEA_KEY);
+        frecuenciaDespacho = obtenerEntero(properties, FRECUENCIA_DESPACHO_KEY, 0);
+        intervaloPuntoControl = obtenerEntero(properties, INTERVALO_PUNTO_CONTROL_KEY, 0);
+        archivoPuntoControl = obtenerTexto(properties, ARCHIVO_PUNTO_CONTROL_KEY).trim();
+        reanudarDesde = obtenerTexto(properties, REANUDAR_DESDE_KEY).trim();
+        instrumentacion = obtenerOpcion(properties, INSTRUMENTACION_KEY, "si", "no");
+        if (cantidadAsientos > cantidadPasajeros) {
+            throw new IllegalStateException("'" + CANTIDAD_ASIENTOS_KEY + "' (" + cantidadAsientos + ") no puede superar '"
+                + CANTIDAD_PASAJEROS_KEY + "' (" + cantidadPasajeros + "), la capacidad de cada colectivo");
+        }
+        if (intervaloPuntoControl > 0 && archivoPuntoControl.isEmpty()) {
+            throw new IllegalStateException("'" + INTERVALO_PUNTO_CONTROL_KEY + "' requiere '" + ARCHIVO_PUNTO_CONTROL_KEY + "'");
+        }
+        if (!archivoRegistroEventos.isEmpty() && hilosSimulacion != 1) {
+            throw new IllegalStateException("'" + ARCHIVO_REGISTRO_EVENTOS_KEY + "' requiere '" + HILOS_SIMULACION_KEY + "=1'");
+        }
+        if ((intervaloPuntoControl > 0 || !reanudarDesde.isEmpty()) && hilosSimulacion != 1) {
+            throw new IllegalStateException("Los puntos de control requieren '" + HILOS_SIMULACION_KEY + "=1'");
+        }
+        if (hilosSimulacion > 1 && motorEventos && !particionPorComponentes
+                && (tiempoEntreParadas == 0 || tiemposTramo.containsValue(0))) {
+            throw new IllegalStateException("'" + PARTICION_PARALELA_KEY + "=" + PARTICION_LINEAS + "' con '"
+                + MODO_SIMULACION_KEY + "=" + MODO_EVENTOS + "' requiere '" + TIEMPO_ENTRE_PARADAS_KEY + "' y '"
+                + TIEMPOS_TRAMO_KEY + "' mayores que 0");
+        }
+        if (llegadasPoisson && (!motorEventos || hilosSimulacion != 1)) {
+            throw new IllegalStateException("'" + LLEGADA_PASAJEROS_KEY + "=" + LLEGADA_POISSON + "' requiere '"
+                + MODO_SIMULACION_KEY + "=" + MODO_EVENTOS + "' y '" + HILOS_SIMULACION_KEY + "=1'");
+        }
+    }
+
+    /**
+     * Carga la configuración desde el archivo por defecto ({@value #ARCHIVO_CONFIG}).
+     * @return Configuración cargada.
+     * @throws IllegalStateException si el archivo no se puede leer o algún parámetro es inválido.
+     */
+    public static Configuracion cargar() {
+        return cargar(ARCHIVO_CONFIG);
+    }
+
+    /**
+     * Carga la configuración desde el archivo indicado.
+     * @param archivo Ruta del archivo properties.
+     * @return Configuración cargada.
+     * @throws IllegalStateException si el archivo no se puede leer o algún parámetro es inválido.
+     */
+    public static Configuracion cargar(String archivo) {
+        return desde(leerPropiedades(archivo));
+    }
+
+    /**
+     * Lee las propiedades del archivo indicado sin validarlas, para poder modificar
+     * algunos parámetros antes de crear la configuración con {@link #desde(Properties)}.
+     * @param archivo Ruta del archivo properties.
+     * @return Propiedades leídas.
+     * @throws IllegalStateException si el archivo no se puede leer.
+     */
+    public static Properties leerPropiedades(String archivo) {
+        Properties properties = new Properties();
+        try (FileInputStream fis = new FileInputStream(archivo)) {
             properties.load(fis);
         } catch (IOException e) {
-            System.err.println("[!] Error al cargar el archivo de configuración: " + ARCHIVO_CONFIG);
+            throw new IllegalStateException("[!] Error al cargar el archivo de configuración: " + archivo, e);
         }
+        return properties;
     }
 
     /**
-     * Obtiene la ruta del archivo de líneas desde la configuración.
+     * Crea la configuración a partir de propiedades ya cargadas.
+     * @param properties Propiedades de configuración.
+     * @return Configuración validada.
+     * @throws IllegalStateException si falta alguna propiedad o tiene un valor inválido.
+     */
+    public static Configuracion desde(Properties properties) {
+        return new Configuracion(properties);
+    }
+
+    /**
+     * Obtiene la ruta del archivo de líneas.
      * @return Ruta del archivo de líneas.
-     * @throws IllegalStateException si la propiedad no está definida.
      */
-    public static String getArchivoLineas() {
-        String value = properties.getProperty(LINEA_KEY);
-        if (value == null) {
-            throw new IllegalStateException("Propiedad 'linea' no encontrada en el archivo de configuración.");
-        }
-        return value;
+    public String getArchivoLineas() {
+        return archivoLineas;
     }
 
     /**
-     * Obtiene la ruta del archivo de paradas desde la configuración.
+     * Obtiene la ruta del archivo de paradas.
      * @return Ruta del archivo de paradas.
-     * @throws IllegalStateException si la propiedad no está definida.
      */
-    public static String getArchivoParadas() {
-        String value = properties.getProperty(PARADA_KEY);
-        if (value == null) {
-            throw new IllegalStateException("Propiedad 'parada' no encontrada en el archivo de configuración.");
-        }
-        return value;
+    public String getArchivoParadas() {
+        return archivoParadas;
+    }
+
+    /**
+     * Obtiene la cantidad máxima de pasajeros por colectivo.
+     * @return Capacidad de cada colectivo.
+     */
+    public int getCantidadPasajeros() {
+        return cantidadPasajeros;
+    }
+
+    /**
+     * Obtiene la cantidad de asientos disponibles en los colectivos.
+     * @return Cantidad de asientos disponibles.
+     */
+    public int getCantidadAsientos() {
+        return cantidadAsientos;
+    }
+
+    /**
+     * Obtiene la cantidad máxima de pasajeros que puede generar cada línea por parada.
+     * @return Máximo de pasajeros por parada.
+     */
+    public int getMaxPasajerosPorParada() {
+        return maxPasajerosPorParada;
+    }
+
+    /**
+     * Obtiene la cantidad máxima de vueltas que puede realizar un colectivo en la simulación.
+     * @return Cantidad máxima de vueltas por colectivo.
+     */
+    public int getMaxVueltas() {
+        return maxVueltas;
+    }
+
+    /**
+     * Obtiene la ruta del archivo de salida para la simulación.
+     * @return Ruta del archivo de salida.
+     */
+    public String getArchivoSalidaSimulacion() {
+        return archivoSalidaSimulacion;
+    }
+
+    /**
+     * Indica si la simulación debe ejecutarse con el motor de eventos discretos
+     * ({@code modoSimulacion=eventos}) en lugar del recorrido parada por parada ({@code modoSimulacion=pasos}).
+     * @return true si se usa el motor de eventos discretos.
+     */
+    public boolean usarMotorEventos() {
+        return motorEventos;
+    }
+
+    /**
+     * Obtiene el tiempo de viaje, en segundos, que tarda un colectivo en recorrer un tramo entre dos paradas.
+     * @return Tiempo de viaje por tramo en segundos.
+     */
+    public int getTiempoEntreParadas() {
+        return tiempoEntreParadas;
+    }
+
+    /**
+     * Obtiene el tiempo de viaje, en segundos, del tramo entre dos paradas: el indicado para ese tramo
+     * en {@code tiemposTramo} o, si no figura, el tiempo general {@code tiempoEntreParadas}.
+     * @param idOrigen ID de la parada donde comienza el tramo.
+     * @param idDestino ID de la parada donde termina el tramo.
+     * @return Tiempo de viaje del tramo en segundos.
+     */
+    public int getTiempoTramo(int idOrigen, int idDestino) {
+        return tiemposTramo.getOrDefault(claveTramo(idOrigen, idDestino), tiempoEntreParadas);
+    }
+
+    /**
+     * Obtiene el tiempo fijo, en segundos, que un colectivo permanece detenido en cada parada.
+     * @return Tiempo de detención en segundos.
+     */
+    public int getTiempoDetencion() {
+        return tiempoDetencion;
+    }
+
+    /**
+     * Obtiene el tiempo adicional, en segundos, que demora cada pasajero que sube o baja en una parada.
+     * @return Tiempo por pasajero en segundos.
+     */
+    public int getTiempoPorPasajero() {
+        return tiempoPorPasajero;
+    }
+
+    /**
+     * Obtiene la cantidad de hilos con los que se ejecuta la simulación.
+     * Con 1 la simulación es secuencial; un 0 en el archivo equivale a un hilo por procesador disponible.
+     * @return Cantidad de hilos de simulación.
+     */
+    public int getHilosSimulacion() {
+        return hilosSimulacion;
+    }
+
+    /**
+     * Obtiene la cantidad de hilos con los que se parsean los archivos de paradas y líneas.
+     * Con 1 la carga es secuencial; un 0 en el archivo equivale a un hilo por procesador disponible.
+     * @return Cantidad de hilos de carga.
+     */
+    public int getHilosCarga() {
+        return hilosCarga;
+    }
+
+    /**
+     * Indica si la red se lee de una caché binaria junto al archivo de líneas
+     * cuando los archivos de texto no cambiaron ({@code cacheRed=si}).
+     * @return true si se usa la caché de la red.
+     */
+    public boolean usarCacheRed() {
+        return cacheRed;
+    }
+
+    /**
+     * Indica si los colectivos guardan la ocupación de cada tramo además de los acumulados
+     * ({@code historialOcupacion=si}).
+     * @return true si se guarda el historial de ocupación.
+     */
+    public boolean guardarHistorialOcupacion() {
+        return historialOcupacion;
+    }
+
+    /**
+     * Indica si los datos de los pasajeros se guardan fuera del heap
+     * ({@code almacenPasajeros=fueraDeHeap}) en lugar de en arreglos del heap ({@code heap}).
+     * @return true si se usa el almacén de pasajeros fuera del heap.
+     */
+    public boolean usarPasajerosFueraDeHeap() {
+        return pasajerosFueraDeHeap;
     }
 
     /**
-     * Obtiene la cantidad total de pasajeros a generar en la simulación.
-     * @return Cantidad de pasajeros.
+     * Obtiene la ruta del archivo mapeado donde se guardan los pasajeros fuera del heap.
+     * Si está vacía, se usa memoria directa.
+     * @return Ruta del archivo de pasajeros, o cadena vacía.
+     */
+    public String getArchivoPasajeros() {
+        return archivoPasajeros;
+    }
+
+    /**
+     * Indica si los pasajeros llegan a las paradas durante la simulación según un proceso de Poisson
+     * ({@code llegadaPasajeros=poisson}) en lugar de generarse todos al inicio ({@code inicio}).
+     * @return true si los pasajeros llegan a lo largo de la simulación.
+     */
+    public boolean usarLlegadasPoisson() {
+        return llegadasPoisson;
+    }
+
+    /**
+     * Obtiene la tasa media de llegada de pasajeros a cada parada de cada línea, por hora,
+     * que el perfil de llegadas escala según la hora del día.
+     * @return Pasajeros por hora con factor 1 en el perfil.
+     */
+    public int getPasajerosPorHora() {
+        return pasajerosPorHora;
+    }
+
+    /**
+     * Obtiene el perfil de llegadas: factores que multiplican la tasa de llegada en franjas
+     * iguales de un día de 24 horas, empezando en el instante 0 de la simulación.
+     * @return Copia de los factores del perfil.
+     */
+    public double[] getPerfilLlegadas() {
+        return perfilLlegadas.clone();
+    }
+
+    /**
+     * Obtiene la cantidad de colectivos de una línea: la indicada para ella en {@code flotaPorLinea}
+     * o, si no figura, la cantidad general {@code colectivosPorLinea}.
+     * @param codigoLinea Código de la línea.
+     * @return Cantidad de colectivos que recorren la línea.
+     */
+    public int getColectivosDeLinea(String codigoLinea) {
+        return flotaPorLinea.getOrDefault(codigoLinea, colectivosPorLinea);
+    }
+
+    /**
+     * Obtiene los códigos de las líneas con una cantidad de colectivos propia en {@code flotaPorLinea}.
+     * @return Códigos de línea, en el orden en que se configuraron.
+     */
+    public Set<String> getLineasConFlotaPropia() {
+        return flotaPorLinea.keySet();
+    }
+
+    /**
+     * Obtiene el intervalo, en segundos, entre las salidas de los colectivos de una misma línea.
+     * Si es 0, los colectivos de cada línea se reparten en partes iguales a lo largo de una vuelta.
+     * @return Intervalo entre salidas, o 0.
+     */
+    public int getFrecuenciaDespacho() {
+        return frecuenciaDespacho;
+    }
+
+    /**
+     * Indica cómo se reparten los colectivos entre hilos en la simulación paralela:
+     * por componente conexo de paradas compartidas ({@code particionParalela=componentes}),
+     * sin paradas en común entre hilos y con el mismo resultado que la simulación secuencial,
+     * o por línea ({@code particionParalela=lineas}), con las subidas en las paradas compartidas
+     * ordenadas por tiempo simulado y un resultado determinista para una cantidad de hilos dada.
+     * @return true si se particiona por componentes conexos.
+     */
+    public boolean particionarPorComponentes() {
+        return particionPorComponentes;
+    }
+
+    /**
+     * Obtiene el nivel de detalle de la salida, leído de "pasajero", "parada" o "resumen".
+     * @return Nivel de detalle.
+     */
+    public NivelDetalle getNivelDetalle() {
+        return nivelDetalle;
+    }
+
+    /**
+     * Obtiene la cantidad de mensajes que admite el buffer de salida asincrónica.
+     * Con 0 la salida se escribe de forma sincrónica desde el hilo de la simulación.
+     * @return Capacidad del buffer de salida.
+     */
+    public int getCapacidadBufferSalida() {
+        return capacidadBufferSalida;
+    }
+
+    /**
+     * Obtiene la ruta del registro binario de eventos de la simulación.
+     * @return Ruta del registro, o una cadena vacía si no se debe generar.
+     */
+    public String getArchivoRegistroEventos() {
+        return archivoRegistroEventos;
+    }
+
+    /**
+     * Obtiene cada cuánto se guarda un punto de control de la simulación: en pasos con el motor
+     * parada por parada, o en segundos simulados con el motor de eventos.
+     * @return Pasos o segundos entre puntos de control, o 0 si no se guardan.
+     */
+    public int getIntervaloPuntoControl() {
+        return intervaloPuntoControl;
+    }
+
+    /**
+     * Obtiene la ruta donde se guardan los puntos de control. Si contiene {@code {paso}}, se reemplaza
+     * por el paso o el instante de cada punto y se conservan todos; si no, cada punto reemplaza al anterior.
+     * @return Ruta de los puntos de control, o una cadena vacía si no se configuró.
+     */
+    public String getArchivoPuntoControl() {
+        return archivoPuntoControl;
+    }
+
+    /**
+     * Obtiene el punto de control desde el que se reanuda la simulación.
+     * @return Ruta del punto de control, o una cadena vacía para simular desde el principio.
+     */
+    public String getReanudarDesde() {
+        return reanudarDesde;
+    }
+
+    /**
+     * Indica si se miden los tiempos, la CPU y la memoria de cada fase de la corrida y se cuentan
+     * los eventos de la simulación ({@code instrumentacion=si}).
+     * @return true si la corrida se instrumenta.
+     */
+    public boolean usarInstrumentacion() {
+        return instrumentacion;
+    }
+
+    /**
+     * Obtiene la semilla de la generación de pasajeros. Si no se configuró una semilla,
+     * se sorteó una al cargar la configuración, de modo que la corrida pueda repetirse con ella.
+     * @return Semilla de la simulación.
+     */
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /**
+     * Obtiene la semilla configurada, o sortea una si la propiedad está vacía.
+     * @param properties Propiedades de configuración.
+     * @return Semilla de la simulación.
      * @throws IllegalStateException si la propiedad no está definida o es inválida.
      */
-    public static int getCantidadPasajeros() {
-        String value = properties.getProperty(CANTIDAD_PASAJEROS_KEY);
-        if (value == null) {
-            throw new IllegalStateException("Propiedad 'cantidadPasajeros' no encontrada en el archivo de configuración.");
+    private static long obtenerSemilla(Properties properties) {
+        String value = obtenerTexto(properties, SEMILLA_KEY).trim();
+        if (value.isEmpty()) {
+            return new SplittableRandom().nextLong();
         }
         try {
-            return Integer.parseInt(value);
+            return Long.parseLong(value);
         } catch (NumberFormatException e) {
-            throw new IllegalStateException("Valor inválido para 'cantidadPasajeros': " + value);
+            throw new IllegalStateException("Valor inválido para '" + SEMILLA_KEY + "': " + value);
         }
     }
 
     /**
-     * Obtiene la cantidad máxima de pasajeros que puede generar cada línea por parada.
-     * @return Máximo de pasajeros por parada.
+     * Obtiene una lista de factores no negativos separados por comas, con al menos uno positivo.
+     * @param properties Propiedades de configuración.
+     * @param clave Clave de la propiedad.
+     * @return Factores de la propiedad.
      * @throws IllegalStateException si la propiedad no está definida o es inválida.
      */
-    public static int getMaxPasajerosPorParada() {
-        String value = properties.getProperty(MAX_PASAJEROS_POR_PARADA_KEY);
-        if (value == null) {
-            throw new IllegalStateException("Propiedad 'maxPasajerosPorParada' no encontrada en el archivo de configuración.");
-        }
+    private static double[] obtenerPerfil(Properties properties, String clave) {
+        String value = obtenerTexto(properties, clave);
+        String[] partes = value.split(",");
+        double[] factores = new double[partes.length];
+        double maximo = 0;
         try {
-            return Integer.parseInt(value);
+            for (int i = 0; i < partes.length; i++) {
+                factores[i] = Double.parseDouble(partes[i].trim());
+                if (!(factores[i] >= 0) || Double.isInfinite(factores[i])) {
+                    throw new IllegalStateException("Valor inválido para '" + clave + "': " + value);
+                }
+                maximo = Math.max(maximo, factores[i]);
+            }
         } catch (NumberFormatException e) {
-            throw new IllegalStateException("Valor inválido para 'maxPasajerosPorParada': " + value);
+            throw new IllegalStateException("Valor inválido para '" + clave + "': " + value);
         }
+        if (maximo == 0) {
+            throw new IllegalStateException("Valor inválido para '" + clave + "': " + value + " (todos los factores son 0)");
+        }
+        return factores;
     }
 
     /**
-     * Obtiene la cantidad máxima de vueltas que puede realizar un colectivo en la simulación.
-     * El valor se obtiene desde el archivo de configuración utilizando la clave correspondiente.
-     * 
-     * @return Cantidad máxima de vueltas por colectivo.
-     * @throws NumberFormatException si el valor no es un número entero válido.
-     * @throws NullPointerException si la propiedad no está definida en el archivo de configuración.
+     * Obtiene una lista de pares {@code linea:cantidad} separados por comas, que puede estar vacía.
+     * @param properties Propiedades de configuración.
+     * @param clave Clave de la propiedad.
+     * @return Cantidad de colectivos por código de línea, en el orden de la propiedad.
+     * @throws IllegalStateException si la propiedad no está definida o es inválida.
      */
-    public static int getMaxVueltas() {
-        String value = properties.getProperty(MAX_VUELTAS_KEY);
-        if (value == null) {
-            throw new IllegalStateException("Propiedad 'maxVueltas' no encontrada en el archivo de configuración.");
+    private static Map<String, Integer> obtenerFlota(Properties properties, String clave) {
+        String value = obtenerTexto(properties, clave).trim();
+        Map<String, Integer> flota = new LinkedHashMap<>();
+        if (value.isEmpty()) return Collections.unmodifiableMap(flota);
+        for (String par : value.split(",")) {
+            int separador = par.lastIndexOf(':');
+            String codigo = separador < 0 ? "" : par.substring(0, separador).trim();
+            int cantidad;
+            try {
+                cantidad = Integer.parseInt(par.substring(separador + 1).trim());
+            } catch (NumberFormatException e) {
+                cantidad = 0;
+            }
+            if (codigo.isEmpty() || cantidad < 1 || flota.putIfAbsent(codigo, cantidad) != null) {
+                throw new IllegalStateException("Valor inválido para '" + clave + "': " + value
+                    + " (se espera 'linea:cantidad,...' con cantidades mayores que 0)");
+            }
         }
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            throw new IllegalStateException("Valor inválido para 'maxVueltas': " + value);
+        return Collections.unmodifiableMap(flota);
+    }
+
+    /**
+     * Obtiene una lista de tramos {@code origen-destino:segundos} separados por comas, que puede estar vacía.
+     * @param properties Propiedades de configuración.
+     * @param clave Clave de la propiedad.
+     * @return Tiempo de viaje por tramo, con la clave de {@link #claveTramo(int, int)}.
+     * @throws IllegalStateException si la propiedad no está definida o es inválida.
+     */
+    private static Map<Long, Integer> obtenerTramos(Properties properties, String clave) {
+        String value = obtenerTexto(properties, clave).trim();
+        Map<Long, Integer> tramos = new HashMap<>();
+        if (value.isEmpty()) return Collections.unmodifiableMap(tramos);
+        for (String tramo : value.split(",")) {
+            int guion = tramo.indexOf('-');
+            int separador = tramo.lastIndexOf(':');
+            boolean valido = guion > 0 && separador > guion;
+            if (valido) {
+                try {
+                    int origen = Integer.parseInt(tramo.substring(0, guion).trim());
+                    int destino = Integer.parseInt(tramo.substring(guion + 1, separador).trim());
+                    int segundos = Integer.parseInt(tramo.substring(separador + 1).trim());
+                    valido = segundos >= 0 && tramos.putIfAbsent(claveTramo(origen, destino), segundos) == null;
+                } catch (NumberFormatException e) {
+                    valido = false;
+                }
+            }
+            if (!valido) {
+                throw new IllegalStateException("Valor inválido para '" + clave + "': " + value
+                    + " (se espera 'origen-destino:segundos,...' sin tramos repetidos)");
+            }
         }
+        return Collections.unmodifiableMap(tramos);
     }
 
     /**
-     * Obtiene la ruta del archivo de salida para la simulación.
-     * Este archivo se utiliza para guardar los resultados de la simulación.
-     *
-     * @return Ruta del archivo de salida.
-     * @throws IllegalStateException si la propiedad no está definida en el archivo de configuración.
+     * Combina los IDs de las paradas de un tramo en una única clave.
+     */
+    private static long claveTramo(int idOrigen, int idDestino) {
+        return (long) idOrigen << 32 | (idDestino & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Obtiene el valor de texto de una propiedad obligatoria.
+     * @param properties Propiedades de configuración.
+     * @param clave Clave de la propiedad.
+     * @return Valor de la propiedad.
+     * @throws IllegalStateException si la propiedad no está definida.
      */
-    public static String getArchivoSalidaSimulacion() {
-        String value = properties.getProperty(ARCHIVO_SALIDA_SIMULACION_KEY);
+    private static String obtenerTexto(Properties properties, String clave) {
+        String value = properties.getProperty(clave);
         if (value == null) {
-            throw new IllegalStateException("Propiedad 'archivoSalidaSimulacion' no encontrada en el archivo de configuración.");
+            throw new IllegalStateException("Propiedad '" + clave + "' no encontrada en el archivo de configuración.");
         }
         return value;
     }
-    
+
     /**
-     * Obtiene la cantidad de asientos disponibles en los colectivos.
-     * Este valor se lee desde el archivo de configuración y se espera que sea un número entero.
-     *
-     * @return Cantidad de asientos disponibles.
+     * Obtiene el valor entero de una propiedad obligatoria, validando su valor mínimo.
+     * @param properties Propiedades de configuración.
+     * @param clave Clave de la propiedad.
+     * @param minimo Valor mínimo admitido.
+     * @return Valor entero de la propiedad.
      * @throws IllegalStateException si la propiedad no está definida o es inválida.
      */
-    public static int getCantidadAsientos() {
-        String value = properties.getProperty(CANTIDAD_ASIENTOS_KEY);
-        if (value == null) {
-            throw new IllegalStateException("Propiedad 'cantidadAsientos' no encontrada en el archivo de configuración.");
+    private static int obtenerEntero(Properties properties, String clave, int minimo) {
+        String value = obtenerTexto(properties, clave);
+        int numero;
+        try {
+            numero = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Valor inválido para '" + clave + "': " + value);
+        }
+        if (numero < minimo) {
+            throw new IllegalStateException("Valor inválido para '" + clave + "': " + value + " (mínimo " + minimo + ")");
         }
-        return Integer.parseInt(value);
+        return numero;
+    }
+
+    /**
+     * Obtiene una propiedad obligatoria que solo admite dos valores.
+     * @param properties Propiedades de configuración.
+     * @param clave Clave de la propiedad.
+     * @param verdadero Valor que se interpreta como true.
+     * @param falso Valor que se interpreta como false.
+     * @return true si la propiedad vale {@code verdadero}, false si vale {@code falso}.
+     * @throws IllegalStateException si la propiedad no está definida o tiene otro valor.
+     */
+    private static boolean obtenerOpcion(Properties properties, String clave, String verdadero, String falso) {
+        String value = obtenerTexto(properties, clave).trim();
+        if (verdadero.equalsIgnoreCase(value)) return true;
+        if (falso.equalsIgnoreCase(value)) return false;
+        throw new IllegalStateException("Valor inválido para '" + clave + "': " + value
+            + " (se espera '" + verdadero + "' o '" + falso + "')");
     }
-}
\ No newline at end of file
+}
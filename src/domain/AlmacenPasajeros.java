@@ -0,0 +1,171 @@
+package domain;
+
+/**
+ * Guarda los datos de todos los pasajeros indexados por ID de pasajero, en lugar de un objeto
+ * por pasajero. Las paradas y los colectivos guardan solo el ID, y los {@link Pasajero}
+ * que se obtienen del almacén son vistas livianas sobre sus datos.
+ *
+ * Por pasajero se guardan el origen y el destino, el instante de llegada a la parada,
+ * la cantidad de colectivos esperados, la calificación y el estado. Hay dos implementaciones: {@link AlmacenPasajerosEnArreglos},
+ * con arreglos primitivos en el heap, y {@link AlmacenPasajerosFueraDeHeap}, con buffers directos
+ * o un archivo mapeado en memoria, para poblaciones que no conviene mantener en el heap.
+ * Agregar pasajeros no es seguro para uso concurrente. Durante la simulación paralela varios hilos
+ * pueden consultar, modificar y dar de baja pasajeros a la vez siempre que sean pasajeros distintos,
+ * porque cada pasajero pertenece a un único grupo de colectivos; las implementaciones que comparten
+ * datos entre pasajeros, como la cuenta de los que siguen vivos en un segmento, la actualizan
+ * de forma atómica.
+ */
+public interface AlmacenPasajeros extends AutoCloseable {
+    /** El pasajero espera en su parada de origen. */
+    byte ESPERANDO = 0;
+    /** El pasajero viaja en un colectivo. */
+    byte A_BORDO = 1;
+    /** El pasajero bajó en su destino. */
+    byte BAJO = 2;
+
+    /** Calificación de un pasajero que todavía no subió: 1 (muy malo). */
+    byte SIN_CALIFICAR = 1;
+
+    /**
+     * Agrega un pasajero que espera en su origen desde el inicio de la simulación.
+     * Los IDs se asignan en orden, desde 0.
+     * @param origen Parada donde espera el pasajero.
+     * @param destino Parada de destino del pasajero.
+     * @return ID del pasajero agregado.
+     */
+    default int agregar(Parada origen, Parada destino) {
+        return agregar(origen, destino, 0);
+    }
+
+    /**
+     * Agrega un pasajero que llega a su origen en el instante indicado.
+     * Los IDs se asignan en orden, desde 0.
+     * @param origen Parada donde espera el pasajero.
+     * @param destino Parada de destino del pasajero.
+     * @param tiempoLlegada Instante simulado en que el pasajero llega a la parada.
+     * @return ID del pasajero agregado.
+     */
+    int agregar(Parada origen, Parada destino, int tiempoLlegada);
+
+    /**
+     * Obtiene la cantidad de pasajeros del almacén.
+     * @return Cantidad de pasajeros.
+     */
+    int getCantidad();
+
+    /**
+     * Indica si los datos de un pasajero todavía pueden consultarse. Deja de ser así cuando
+     * la implementación libera la memoria de los pasajeros que ya bajaron.
+     * @param id ID del pasajero.
+     * @return true si sus datos siguen en el almacén.
+     */
+    boolean estaDisponible(int id);
+
+    /**
+     * Obtiene la parada de origen de un pasajero.
+     * @param id ID del pasajero.
+     * @return Parada de origen.
+     */
+    Parada getOrigen(int id);
+
+    /**
+     * Obtiene la parada de destino de un pasajero.
+     * @param id ID del pasajero.
+     * @return Parada de destino.
+     */
+    Parada getDestino(int id);
+
+    /**
+     * Obtiene el instante simulado en que un pasajero llegó a su parada de origen.
+     * @param id ID del pasajero.
+     * @return Instante de llegada; 0 si esperaba desde el inicio.
+     */
+    int getTiempoLlegada(int id);
+
+    /**
+     * Incrementa en uno la cantidad de colectivos que esperó un pasajero.
+     * @param id ID del pasajero.
+     */
+    void incrementarEspera(int id);
+
+    /**
+     * Obtiene la cantidad de colectivos que esperó un pasajero antes de subir.
+     * @param id ID del pasajero.
+     * @return Cantidad de colectivos esperados.
+     */
+    int getColectivosEsperados(int id);
+
+    /**
+     * Asigna la calificación de satisfacción de un pasajero.
+     * @param id ID del pasajero.
+     * @param valor Calificación (1 a 5).
+     */
+    void setCalificacion(int id, int valor);
+
+    /**
+     * Obtiene la calificación de satisfacción de un pasajero.
+     * @param id ID del pasajero.
+     * @return Calificación asignada.
+     */
+    int getCalificacion(int id);
+
+    /**
+     * Asigna el estado de un pasajero.
+     * @param id ID del pasajero.
+     * @param estado {@link #ESPERANDO}, {@link #A_BORDO} o {@link #BAJO}.
+     */
+    void setEstado(int id, byte estado);
+
+    /**
+     * Obtiene el estado de un pasajero: {@link #ESPERANDO}, {@link #A_BORDO} o {@link #BAJO}.
+     * @param id ID del pasajero.
+     * @return Estado del pasajero.
+     */
+    byte getEstado(int id);
+
+    /**
+     * Califica a un pasajero al subir al colectivo y lo marca a bordo.
+     * La calificación se basa en la posición del pasajero al subir y la cantidad de asientos del colectivo.
+     * - 5: Consiguió asiento
+     * - 4: Viajó parado
+     * - 3: Esperó un colectivo para subir
+     * - 2: Esperó más de dos colectivos para subir
+     * - 1: Muy malo (por defecto si no se califica)
+     *
+     * @param id ID del pasajero.
+     * @param posicion Posición del pasajero al subir (0 es el primer asiento).
+     * @param cantidadAsientos Cantidad de asientos del colectivo.
+     */
+    default void calificarAlSubir(int id, int posicion, int cantidadAsientos) {
+        switch (getColectivosEsperados(id)) {
+            case 0 -> setCalificacion(id, posicion < cantidadAsientos ? 5 : 4); // Consiguió asiento o viajó parado
+            case 1 -> setCalificacion(id, 3); // Esperó un colectivo para subir
+            default -> setCalificacion(id, 2); // Esperó más de dos colectivos para subir
+        }
+        setEstado(id, A_BORDO);
+    }
+
+    /**
+     * Marca que un pasajero bajó en su destino. Las implementaciones pueden liberar entonces
+     * la memoria de los pasajeros que ya bajaron; de ellos solo se conserva el ID.
+     * @param id ID del pasajero.
+     */
+    default void registrarBajada(int id) {
+        setEstado(id, BAJO);
+    }
+
+    /**
+     * Obtiene la vista de un pasajero del almacén.
+     * @param id ID del pasajero.
+     * @return Pasajero con ese ID.
+     */
+    default Pasajero getPasajero(int id) {
+        return new Pasajero(this, id);
+    }
+
+    /**
+     * Libera los recursos del almacén. Después de cerrarlo no deben consultarse sus pasajeros.
+     */
+    @Override
+    default void close() {}
+}
@@ -0,0 +1,165 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Almacén de pasajeros en arreglos primitivos en el heap, indexados por ID de pasajero.
+ * Cada pasajero ocupa {@value #ENTEROS_POR_REGISTRO} enteros consecutivos de un segmento:
+ * origen y destino (índices en la tabla de paradas del almacén), instante de llegada, y en el
+ * último la cantidad de colectivos esperados, la calificación y el estado. Son 16 bytes por pasajero,
+ * frente a un objeto {@link Pasajero} con su encabezado y las referencias que lo apuntan.
+ *
+ * Todos los segmentos tienen la misma cantidad de registros, una potencia de dos. Cada segmento
+ * cuenta sus pasajeros que todavía no bajaron; cuando un segmento completo queda sin ninguno
+ * se libera, de modo que con llegadas graduales solo ocupan memoria los pasajeros que esperan
+ * o viajan. Los pasajeros de un segmento liberado ya no pueden consultarse. La cuenta de cada
+ * segmento es atómica porque en la simulación paralela bajan a la vez pasajeros de distintos
+ * grupos que comparten segmento; solo el hilo que la lleva a cero libera el segmento.
+ */
+public final class AlmacenPasajerosEnArreglos implements AlmacenPasajeros {
+    private static final int ENTEROS_POR_REGISTRO = 4;
+    private static final int BITS_REGISTRO = 2;
+    private static final int ORIGEN = 0;
+    private static final int DESTINO = 1;
+    private static final int LLEGADA = 2;
+    private static final int ESTADO = 3; // esperas << 16 | calificación << 8 | estado
+    private static final int MAXIMO_ESPERAS = 0xFFFF;
+    private static final int BITS_SEGMENTO_MINIMO = 4;
+    private static final int BITS_SEGMENTO_MAXIMO = 14; // 256 KB por segmento
+
+    private final TablaParadas paradas = new TablaParadas();
+    private final int bitsSegmento;
+    private final int mascara;
+    private int[][] segmentos = new int[0][];
+    private AtomicIntegerArray vivos = new AtomicIntegerArray(0);
+    private int cantidad = 0;
+
+    /**
+     * Crea un almacén vacío con segmentos del tamaño mínimo.
+     */
+    public AlmacenPasajerosEnArreglos() {
+        this(0);
+    }
+
+    /**
+     * Crea un almacén cuyos segmentos se dimensionan para la cantidad de pasajeros indicada.
+     * @param capacidad Cantidad de pasajeros que se espera agregar.
+     */
+    public AlmacenPasajerosEnArreglos(int capacidad) {
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(capacidad, 1) - 1);
+        this.bitsSegmento = Math.max(BITS_SEGMENTO_MINIMO, Math.min(bits, BITS_SEGMENTO_MAXIMO));
+        this.mascara = (1 << bitsSegmento) - 1;
+    }
+
+    @Override
+    public int agregar(Parada origen, Parada destino, int tiempoLlegada) {
+        int id = cantidad;
+        int numeroSegmento = id >>> bitsSegmento;
+        if ((id & mascara) == 0) {
+            if (numeroSegmento == segmentos.length) {
+                segmentos = Arrays.copyOf(segmentos, Math.max(4, segmentos.length * 2));
+                vivos = ampliar(vivos, segmentos.length);
+            }
+            segmentos[numeroSegmento] = new int[ENTEROS_POR_REGISTRO << bitsSegmento];
+            if (numeroSegmento > 0 && vivos.get(numeroSegmento - 1) == 0) segmentos[numeroSegmento - 1] = null;
+        }
+        int[] segmento = segmentos[numeroSegmento];
+        int posicion = (id & mascara) << BITS_REGISTRO;
+        segmento[posicion + ORIGEN] = paradas.indiceDe(origen);
+        segmento[posicion + DESTINO] = paradas.indiceDe(destino);
+        segmento[posicion + LLEGADA] = tiempoLlegada;
+        segmento[posicion + ESTADO] = SIN_CALIFICAR << 8 | ESPERANDO;
+        vivos.incrementAndGet(numeroSegmento);
+        cantidad++;
+        return id;
+    }
+
+    /**
+     * Copia los contadores de pasajeros vivos a un arreglo más largo; solo se llama al agregar pasajeros.
+     */
+    private static AtomicIntegerArray ampliar(AtomicIntegerArray vivos, int largo) {
+        AtomicIntegerArray ampliado = new AtomicIntegerArray(largo);
+        for (int i = 0; i < vivos.length(); i++) {
+            ampliado.set(i, vivos.get(i));
+        }
+        return ampliado;
+    }
+
+    private int leer(int id, int campo) {
+        return segmentos[id >>> bitsSegmento][((id & mascara) << BITS_REGISTRO) + campo];
+    }
+
+    private void escribirEstado(int id, int valor) {
+        segmentos[id >>> bitsSegmento][((id & mascara) << BITS_REGISTRO) + ESTADO] = valor;
+    }
+
+    @Override
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    @Override
+    public boolean estaDisponible(int id) {
+        return segmentos[id >>> bitsSegmento] != null;
+    }
+
+    @Override
+    public Parada getOrigen(int id) {
+        return paradas.get(leer(id, ORIGEN));
+    }
+
+    @Override
+    public Parada getDestino(int id) {
+        return paradas.get(leer(id, DESTINO));
+    }
+
+    @Override
+    public int getTiempoLlegada(int id) {
+        return leer(id, LLEGADA);
+    }
+
+    @Override
+    public void incrementarEspera(int id) {
+        int valor = leer(id, ESTADO);
+        if ((valor >>> 16) < MAXIMO_ESPERAS) escribirEstado(id, valor + (1 << 16));
+    }
+
+    @Override
+    public int getColectivosEsperados(int id) {
+        return leer(id, ESTADO) >>> 16;
+    }
+
+    @Override
+    public void setCalificacion(int id, int valor) {
+        escribirEstado(id, leer(id, ESTADO) & 0xFFFF00FF | (valor & 0xFF) << 8);
+    }
+
+    @Override
+    public int getCalificacion(int id) {
+        return leer(id, ESTADO) >>> 8 & 0xFF;
+    }
+
+    @Override
+    public void setEstado(int id, byte valor) {
+        escribirEstado(id, leer(id, ESTADO) & 0xFFFFFF00 | valor & 0xFF);
+    }
+
+    @Override
+    public byte getEstado(int id) {
+        return (byte) leer(id, ESTADO);
+    }
+
+    /**
+     * Marca que un pasajero bajó y libera su segmento si ya no queda nadie en él.
+     * @param id ID del pasajero.
+     */
+    @Override
+    public void registrarBajada(int id) {
+        setEstado(id, BAJO);
+        int numeroSegmento = id >>> bitsSegmento;
+        if (vivos.decrementAndGet(numeroSegmento) == 0 && numeroSegmento < (cantidad - 1) >>> bitsSegmento) {
+            segmentos[numeroSegmento] = null;
+        }
+    }
+}
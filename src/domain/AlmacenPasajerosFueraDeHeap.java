@@ -0,0 +1,241 @@
+package domain;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Almacén de pasajeros fuera del heap, en registros de {@value #TAMANO_REGISTRO} bytes dentro de
+ * segmentos de memoria directa o de un archivo mapeado en memoria. El recolector de basura no
+ * recorre estos datos, por lo que la simulación de poblaciones muy grandes puede correr con un heap
+ * chico y pausas predecibles; con un archivo, la población puede superar incluso la memoria física.
+ *
+ * Cada registro guarda, en el orden nativo de bytes: origen y destino (int, índices en la tabla
+ * de paradas del almacén, que sí está en el heap), instante de llegada (int), colectivos esperados
+ * (short, sin signo y saturado), calificación y estado (un byte cada uno). Todos los segmentos tienen
+ * la misma cantidad de registros, una potencia de dos, de modo que ubicar un pasajero es un
+ * desplazamiento y una máscara; al crecer se agregan segmentos sin copiar los existentes.
+ *
+ * Como en {@link AlmacenPasajerosEnArreglos}, un segmento en memoria directa cuyos pasajeros ya
+ * bajaron todos se suelta para que su memoria se libere. Los segmentos de un archivo se conservan,
+ * porque ocupan disco y no memoria. Como allí, la cuenta de pasajeros vivos de cada segmento
+ * es atómica para que los hilos de la simulación paralela puedan dar de baja pasajeros a la vez.
+ */
+public final class AlmacenPasajerosFueraDeHeap implements AlmacenPasajeros {
+    private static final int TAMANO_REGISTRO = 16;
+    private static final int BITS_REGISTRO = 4;
+    private static final int ORIGEN = 0;
+    private static final int DESTINO = 4;
+    private static final int LLEGADA = 8;
+    private static final int ESPERAS = 12;
+    private static final int CALIFICACION = 14;
+    private static final int ESTADO = 15;
+    private static final int MAXIMO_ESPERAS = 0xFFFF;
+    private static final int BITS_SEGMENTO_MINIMO = 4;
+    private static final int BITS_SEGMENTO_MAXIMO = 20; // 16 MB por segmento
+
+    private final TablaParadas paradas = new TablaParadas();
+    private final int bitsSegmento;
+    private final int mascara;
+    private final FileChannel canal;
+    private final Path archivo;
+    private ByteBuffer[] segmentos = new ByteBuffer[0];
+    private AtomicIntegerArray vivos = new AtomicIntegerArray(0);
+    private int cantidad = 0;
+
+    private AlmacenPasajerosFueraDeHeap(int capacidad, FileChannel canal, Path archivo) {
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(capacidad, 1) - 1);
+        this.bitsSegmento = Math.max(BITS_SEGMENTO_MINIMO, Math.min(bits, BITS_SEGMENTO_MAXIMO));
+        this.mascara = (1 << bitsSegmento) - 1;
+        this.canal = canal;
+        this.archivo = archivo;
+    }
+
+    /**
+     * Crea un almacén en memoria directa, fuera del heap.
+     * @param capacidad Cantidad de pasajeros que se espera agregar; define el tamaño de los segmentos.
+     * @return Almacén creado.
+     */
+    public static AlmacenPasajerosFueraDeHeap enMemoriaDirecta(int capacidad) {
+        return new AlmacenPasajerosFueraDeHeap(capacidad, null, null);
+    }
+
+    /**
+     * Crea un almacén sobre un archivo mapeado en memoria. El archivo se crea o se trunca y se abre
+     * para borrarse al cerrarlo: en sistemas tipo Unix se desvincula del directorio en el momento y el
+     * espacio se recupera cuando se liberan los mapeos; en Windows se borra al cerrarse el último mapeo.
+     * Así nunca se borra un archivo con regiones todavía mapeadas, y tampoco queda si el proceso termina
+     * sin cerrar el almacén.
+     * @param archivo Ruta del archivo donde se guardan los pasajeros.
+     * @param capacidad Cantidad de pasajeros que se espera agregar; define el tamaño de los segmentos.
+     * @return Almacén creado.
+     * @throws UncheckedIOException si no se puede crear el archivo.
+     */
+    public static AlmacenPasajerosFueraDeHeap enArchivo(String archivo, int capacidad) {
+        Path ruta = Path.of(archivo);
+        try {
+            FileChannel canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+            return new AlmacenPasajerosFueraDeHeap(capacidad, canal, ruta);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al crear el archivo de pasajeros: " + archivo, e);
+        }
+    }
+
+    @Override
+    public int agregar(Parada origen, Parada destino, int tiempoLlegada) {
+        int id = cantidad;
+        if ((id & mascara) == 0) {
+            agregarSegmento(id >>> bitsSegmento);
+        }
+        ByteBuffer segmento = segmentos[id >>> bitsSegmento];
+        int posicion = posicion(id);
+        segmento.putInt(posicion + ORIGEN, paradas.indiceDe(origen));
+        segmento.putInt(posicion + DESTINO, paradas.indiceDe(destino));
+        segmento.putInt(posicion + LLEGADA, tiempoLlegada);
+        segmento.putShort(posicion + ESPERAS, (short) 0);
+        segmento.put(posicion + CALIFICACION, SIN_CALIFICAR);
+        segmento.put(posicion + ESTADO, ESPERANDO);
+        vivos.incrementAndGet(id >>> bitsSegmento);
+        cantidad++;
+        return id;
+    }
+
+    /**
+     * Reserva un segmento más, en memoria directa o mapeando la siguiente región del archivo.
+     * @param numeroSegmento Número del segmento nuevo.
+     */
+    private void agregarSegmento(int numeroSegmento) {
+        int bytes = TAMANO_REGISTRO << bitsSegmento;
+        ByteBuffer segmento;
+        if (canal == null) {
+            segmento = ByteBuffer.allocateDirect(bytes);
+        } else {
+            try {
+                segmento = canal.map(FileChannel.MapMode.READ_WRITE, (long) numeroSegmento * bytes, bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al ampliar el archivo de pasajeros: " + archivo, e);
+            }
+        }
+        if (numeroSegmento == segmentos.length) {
+            segmentos = Arrays.copyOf(segmentos, Math.max(4, segmentos.length * 2));
+            vivos = ampliar(vivos, segmentos.length);
+        }
+        segmentos[numeroSegmento] = segmento.order(ByteOrder.nativeOrder());
+        if (canal == null && numeroSegmento > 0 && vivos.get(numeroSegmento - 1) == 0) segmentos[numeroSegmento - 1] = null;
+    }
+
+    /**
+     * Copia los contadores de pasajeros vivos a un arreglo más largo; solo se llama al agregar pasajeros.
+     */
+    private static AtomicIntegerArray ampliar(AtomicIntegerArray vivos, int largo) {
+        AtomicIntegerArray ampliado = new AtomicIntegerArray(largo);
+        for (int i = 0; i < vivos.length(); i++) {
+            ampliado.set(i, vivos.get(i));
+        }
+        return ampliado;
+    }
+
+    private ByteBuffer segmento(int id) {
+        return segmentos[id >>> bitsSegmento];
+    }
+
+    private int posicion(int id) {
+        return (id & mascara) << BITS_REGISTRO;
+    }
+
+    @Override
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    @Override
+    public boolean estaDisponible(int id) {
+        return segmentos[id >>> bitsSegmento] != null;
+    }
+
+    @Override
+    public Parada getOrigen(int id) {
+        return paradas.get(segmento(id).getInt(posicion(id) + ORIGEN));
+    }
+
+    @Override
+    public Parada getDestino(int id) {
+        return paradas.get(segmento(id).getInt(posicion(id) + DESTINO));
+    }
+
+    @Override
+    public int getTiempoLlegada(int id) {
+        return segmento(id).getInt(posicion(id) + LLEGADA);
+    }
+
+    @Override
+    public void incrementarEspera(int id) {
+        ByteBuffer segmento = segmento(id);
+        int posicion = posicion(id) + ESPERAS;
+        int esperas = Short.toUnsignedInt(segmento.getShort(posicion));
+        if (esperas < MAXIMO_ESPERAS) segmento.putShort(posicion, (short) (esperas + 1));
+    }
+
+    @Override
+    public int getColectivosEsperados(int id) {
+        return Short.toUnsignedInt(segmento(id).getShort(posicion(id) + ESPERAS));
+    }
+
+    @Override
+    public void setCalificacion(int id, int valor) {
+        segmento(id).put(posicion(id) + CALIFICACION, (byte) valor);
+    }
+
+    @Override
+    public int getCalificacion(int id) {
+        return segmento(id).get(posicion(id) + CALIFICACION);
+    }
+
+    @Override
+    public void setEstado(int id, byte valor) {
+        segmento(id).put(posicion(id) + ESTADO, valor);
+    }
+
+    @Override
+    public byte getEstado(int id) {
+        return segmento(id).get(posicion(id) + ESTADO);
+    }
+
+    /**
+     * Marca que un pasajero bajó y, en memoria directa, suelta su segmento si ya no queda nadie en él.
+     * @param id ID del pasajero.
+     */
+    @Override
+    public void registrarBajada(int id) {
+        setEstado(id, BAJO);
+        int numeroSegmento = id >>> bitsSegmento;
+        if (vivos.decrementAndGet(numeroSegmento) == 0 && canal == null && numeroSegmento < (cantidad - 1) >>> bitsSegmento) {
+            segmentos[numeroSegmento] = null;
+        }
+    }
+
+    /**
+     * Suelta los segmentos y, si el almacén usa un archivo, cierra el canal.
+     * Java no permite liberar un buffer directo ni deshacer un mapeo explícitamente: la memoria
+     * de los segmentos y los mapeos del archivo se liberan cuando el recolector descarta los buffers,
+     * y recién entonces el sistema recupera el espacio del archivo, que se abrió para borrarse al cerrar.
+     * @throws UncheckedIOException si no se puede cerrar el archivo.
+     */
+    @Override
+    public void close() {
+        segmentos = new ByteBuffer[0];
+        if (canal == null) return;
+        try {
+            canal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al cerrar el archivo de pasajeros: " + archivo, e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package domain;
+
+/**
+ * Cola de IDs de pasajeros en orden de llegada, sobre un arreglo circular de enteros.
+ */
+final class ColaPasajeros {
+    private int[] ids = new int[2];
+    private int inicio = 0;
+    private int tamano = 0;
+
+    /**
+     * Agrega un pasajero al final de la cola.
+     * @param id ID del pasajero.
+     */
+    void agregar(int id) {
+        if (tamano == ids.length) {
+            int[] nuevos = new int[ids.length * 2];
+            for (int i = 0; i < tamano; i++) {
+                nuevos[i] = ids[(inicio + i) & (ids.length - 1)];
+            }
+            ids = nuevos;
+            inicio = 0;
+        }
+        ids[(inicio + tamano++) & (ids.length - 1)] = id;
+    }
+
+    /**
+     * Obtiene el primer pasajero de la cola sin quitarlo. La cola no debe estar vacía.
+     * @return ID del primer pasajero.
+     */
+    int primero() {
+        return ids[inicio];
+    }
+
+    /**
+     * Quita el primer pasajero de la cola. La cola no debe estar vacía.
+     * @return ID del pasajero quitado.
+     */
+    int quitarPrimero() {
+        int id = ids[inicio];
+        inicio = (inicio + 1) & (ids.length - 1);
+        tamano--;
+        return id;
+    }
+
+    /**
+     * Quita un pasajero de cualquier posición de la cola, conservando el orden del resto.
+     * @param id ID del pasajero.
+     * @return true si el pasajero estaba en la cola.
+     */
+    boolean quitar(int id) {
+        for (int i = 0; i < tamano; i++) {
+            if (ids[(inicio + i) & (ids.length - 1)] == id) {
+                for (int j = i; j < tamano - 1; j++) {
+                    ids[(inicio + j) & (ids.length - 1)] = ids[(inicio + j + 1) & (ids.length - 1)];
+                }
+                tamano--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obtiene el pasajero en la posición indicada desde el principio de la cola.
+     */
+    int get(int posicion) {
+        return ids[(inicio + posicion) & (ids.length - 1)];
+    }
+
+    int tamano() {
+        return tamano;
+    }
+
+    boolean estaVacia() {
+        return tamano == 0;
+    }
+}
@@ -1,116 +1,298 @@
 package domain;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Representa un colectivo que realiza el recorrido de una línea determinada.
  * Gestiona los pasajeros a bordo y permite subir y bajar pasajeros en las paradas.
+ * Los pasajeros a bordo se agrupan según el índice de su parada de destino en la línea,
+ * de modo que bajar en una parada consiste en vaciar un único grupo. Cada grupo guarda
+ * solo los IDs de sus pasajeros, cuyos datos están en el {@link AlmacenPasajeros}.
+ * La ocupación por tramo se acumula en contadores primitivos (suma, cantidad, mínimo y máximo);
+ * el historial completo solo se guarda si se pide al crear el colectivo.
  */
 public class Colectivo {
+    private static final ListaPasajeros NINGUNO = new ListaPasajeros(null);
+
     private final int id;
     private final Linea linea;
-    private final List<Pasajero> pasajeros = new ArrayList<>();
-    private final List<Integer> ocupacionPorTramo = new ArrayList<>();
+    private final int capacidad;
+    private final int cantidadAsientos;
+    private final List<ListaPasajeros> pasajerosPorDestino = new ArrayList<>();
+    private int cantidadPasajeros = 0;
+    private long sumaOcupacion = 0;
+    private int tramosRegistrados = 0;
+    private int ocupacionMinima = Integer.MAX_VALUE;
+    private int ocupacionMaxima = 0;
+    private int[] historialOcupacion;
 
     /**
      * Crea un nuevo colectivo asociado a una línea.
      * @param id Identificador único del colectivo.
      * @param linea Línea que recorre el colectivo.
+     * @param capacidad Cantidad máxima de pasajeros que puede transportar.
+     * @param cantidadAsientos Cantidad de asientos del colectivo.
+     */
+    public Colectivo(int id, Linea linea, int capacidad, int cantidadAsientos) {
+        this(id, linea, capacidad, cantidadAsientos, false);
+    }
+
+    /**
+     * Crea un nuevo colectivo asociado a una línea, indicando si guarda el historial de ocupación.
+     * @param id Identificador único del colectivo.
+     * @param linea Línea que recorre el colectivo.
+     * @param capacidad Cantidad máxima de pasajeros que puede transportar.
+     * @param cantidadAsientos Cantidad de asientos del colectivo.
+     * @param guardarHistorial true para guardar la ocupación de cada tramo, además de los acumulados.
      */
-    public Colectivo(int id, Linea linea) {
+    public Colectivo(int id, Linea linea, int capacidad, int cantidadAsientos, boolean guardarHistorial) {
         this.id = id;
         this.linea = linea;
+        this.capacidad = capacidad;
+        this.cantidadAsientos = cantidadAsientos;
+        this.historialOcupacion = guardarHistorial ? new int[Math.max(linea.getParadas().size(), 1)] : null;
     }
 
     /**
-     * Permite que los pasajeros esperen en una parada suban al colectivo.
-     * Se verifica si el colectivo tiene espacio y si los pasajeros quieren subir.
+     * Permite que los pasajeros que esperan en una parada suban al colectivo.
+     * Solo se consideran los pasajeros cuyo destino está en el recorrido futuro del colectivo,
+     * que suben en orden de llegada mientras haya espacio.
      *
      * @param parada Parada desde donde se suben los pasajeros.
      * @param posicionActual Posición actual del colectivo en el recorrido.
-     * @param maxCapacidad Capacidad máxima del colectivo.
      * @return Lista de pasajeros que subieron al colectivo.
      */
-    public List<Pasajero> subirPasajerosDesdeParada(Parada parada, int posicionActual, int maxCapacidad) {
-        int espacioDisponible = maxCapacidad - pasajeros.size();
-        List<Pasajero> subieron = new ArrayList<>();
-        Iterator<Pasajero> it = parada.getPasajerosEsperando().iterator();
-        while (it.hasNext() && subieron.size() < espacioDisponible) {
-            Pasajero p = it.next();
-            if (puedeSubir(p, parada, posicionActual)) {
-                subieron.add(p);
-                it.remove();
-                p.calificarAlSubir(pasajeros.size() + subieron.size() - 1, maxCapacidad);
-            }
+    public ListaPasajeros subirPasajerosDesdeParada(Parada parada, int posicionActual) {
+        int espacioDisponible = capacidad - cantidadPasajeros;
+        List<Parada> recorrido = linea.getParadas();
+        List<Parada> recorridoFuturo = recorrido.subList(Math.min(posicionActual + 1, recorrido.size()), recorrido.size());
+        ListaPasajeros subieron = parada.retirarPasajerosHacia(recorridoFuturo, espacioDisponible);
+
+        AlmacenPasajeros almacen = subieron.getAlmacen();
+        for (int i = 0; i < subieron.size(); i++) {
+            int id = subieron.getId(i);
+            almacen.calificarAlSubir(id, cantidadPasajeros++, cantidadAsientos);
+            grupoDeDestino(linea.getIndiceParada(almacen.getDestino(id)), almacen).agregarId(id);
         }
-        pasajeros.addAll(subieron);
         return subieron;
     }
 
-    public boolean puedeSubir(Pasajero pasajero, Parada parada, int posicionActual) {
-        return destinoEstaEnRecorridoFuturo(pasajero.getDestino(), posicionActual)
-            && pasajero.quiereSubirA(this, parada);
-    }
-
     /**
-     * Verifica si el destino de un pasajero está en el recorrido futuro del colectivo.
-     * Esto se hace comparando la posición actual del colectivo con el índice de la parada destino.
-     *
-     * @param destino Parada de destino del pasajero.
-     * @param posicionActual Posición actual del colectivo en el recorrido.
-     * @return true si el destino está en el recorrido futuro, false en caso contrario.
+     * Obtiene el grupo de pasajeros a bordo que bajan en la parada del índice indicado,
+     * creándolo si todavía no existe.
+     * @param indiceDestino Índice de la parada de destino en el recorrido de la línea.
+     * @param almacen Almacén de los pasajeros del grupo.
+     * @return Grupo de pasajeros con ese destino.
      */
-    private boolean destinoEstaEnRecorridoFuturo(Parada destino, int posicionActual) {
-        Map<Parada, Integer> indiceParadas = linea.getMapaIndicesParadas();
-        Integer indiceDestino = indiceParadas.get(destino);
-        return indiceDestino != null && indiceDestino > posicionActual;
+    private ListaPasajeros grupoDeDestino(int indiceDestino, AlmacenPasajeros almacen) {
+        while (pasajerosPorDestino.size() <= indiceDestino) {
+            pasajerosPorDestino.add(null);
+        }
+        ListaPasajeros grupo = pasajerosPorDestino.get(indiceDestino);
+        if (grupo == null) {
+            grupo = new ListaPasajeros(almacen);
+            pasajerosPorDestino.set(indiceDestino, grupo);
+        }
+        return grupo;
     }
 
     /**
      * Permite que los pasajeros cuyo destino es la parada actual bajen del colectivo.
      * @param parada Parada actual.
-     * @return Lista de pasajeros que bajaron.
-     */
-    public List<Pasajero> bajarPasajerosEn(Parada parada) {
-        List<Pasajero> bajan = new ArrayList<>();
-        Iterator<Pasajero> it = pasajeros.iterator();
-        while (it.hasNext()) {
-            Pasajero p = it.next();
-            if (p.getDestino().equals(parada)) {
-                bajan.add(p);
-                it.remove();
-            }
+     * @return Lista de pasajeros que bajaron, en el orden en que subieron.
+     */
+    public ListaPasajeros bajarPasajerosEn(Parada parada) {
+        int indice = linea.getIndiceParada(parada);
+        if (indice < 0 || indice >= pasajerosPorDestino.size()) return NINGUNO;
+
+        ListaPasajeros bajan = pasajerosPorDestino.set(indice, null);
+        if (bajan == null) return NINGUNO;
+        for (int i = 0; i < bajan.size(); i++) {
+            bajan.getAlmacen().registrarBajada(bajan.getId(i));
         }
+        cantidadPasajeros -= bajan.size();
         return bajan;
     }
 
     /**
      * Registra la cantidad de pasajeros a bordo en el tramo actual del recorrido.
-     * Este método debe llamarse después de cada parada para llevar un historial de la ocupación del colectivo.
+     * Este método debe llamarse después de cada parada para acumular la ocupación del colectivo;
+     * no reserva memoria salvo para el historial, si está habilitado.
      */
     public void registrarOcupacionTramo() {
-        ocupacionPorTramo.add(pasajeros.size());
+        sumaOcupacion += cantidadPasajeros;
+        ocupacionMinima = Math.min(ocupacionMinima, cantidadPasajeros);
+        ocupacionMaxima = Math.max(ocupacionMaxima, cantidadPasajeros);
+        if (historialOcupacion != null) {
+            if (tramosRegistrados == historialOcupacion.length) {
+                historialOcupacion = Arrays.copyOf(historialOcupacion, historialOcupacion.length * 2);
+            }
+            historialOcupacion[tramosRegistrados] = cantidadPasajeros;
+        }
+        tramosRegistrados++;
+    }
+
+    /**
+     * Obtiene la cantidad de tramos registrados durante el recorrido.
+     * @return Cantidad de tramos.
+     */
+    public int getTramosRegistrados() {
+        return tramosRegistrados;
+    }
+
+    /**
+     * Obtiene la suma de la ocupación de todos los tramos registrados.
+     * @return Suma de pasajeros a bordo por tramo.
+     */
+    public long getSumaOcupacion() {
+        return sumaOcupacion;
+    }
+
+    /**
+     * Obtiene la ocupación media por tramo, en pasajeros.
+     * @return Ocupación media, o 0 si no se registró ningún tramo.
+     */
+    public double getOcupacionMedia() {
+        return tramosRegistrados == 0 ? 0 : (double) sumaOcupacion / tramosRegistrados;
+    }
+
+    /**
+     * Obtiene la menor ocupación registrada en un tramo.
+     * @return Ocupación mínima, o 0 si no se registró ningún tramo.
+     */
+    public int getOcupacionMinima() {
+        return tramosRegistrados == 0 ? 0 : ocupacionMinima;
+    }
+
+    /**
+     * Obtiene la mayor ocupación registrada en un tramo.
+     * @return Ocupación máxima, o 0 si no se registró ningún tramo.
+     */
+    public int getOcupacionMaxima() {
+        return ocupacionMaxima;
+    }
+
+    /**
+     * Indica si el colectivo guarda la ocupación de cada tramo.
+     * @return true si el historial de ocupación está habilitado.
+     */
+    public boolean guardaHistorialOcupacion() {
+        return historialOcupacion != null;
     }
 
     /**
-     * Devuelve la lista de ocupación registrada por tramo durante el recorrido del colectivo.
-     * Cada elemento de la lista representa la cantidad de pasajeros a bordo después de cada parada.
+     * Devuelve la ocupación registrada en cada tramo, en orden.
+     * Cada elemento representa la cantidad de pasajeros a bordo después de cada parada.
      *
-     * @return Lista de ocupación por tramo.
+     * @return Copia del historial de ocupación por tramo.
+     * @throws IllegalStateException si el colectivo se creó sin historial de ocupación.
      */
-    public List<Integer> getOcupacionPorTramo() {
-        return ocupacionPorTramo;
+    public int[] getHistorialOcupacion() {
+        if (historialOcupacion == null) {
+            throw new IllegalStateException("El colectivo " + id + " no guarda el historial de ocupación");
+        }
+        return Arrays.copyOf(historialOcupacion, tramosRegistrados);
     }
     
+    /**
+     * Escribe el estado del colectivo para un punto de control: los contadores de ocupación,
+     * el historial si se guarda y los IDs de los pasajeros a bordo, agrupados por índice de destino.
+     * @param out Destino del estado.
+     * @throws IOException si no se puede escribir.
+     */
+    public void guardarEstado(DataOutput out) throws IOException {
+        out.writeInt(cantidadPasajeros);
+        out.writeLong(sumaOcupacion);
+        out.writeInt(tramosRegistrados);
+        out.writeInt(ocupacionMinima);
+        out.writeInt(ocupacionMaxima);
+        out.writeBoolean(historialOcupacion != null);
+        if (historialOcupacion != null) {
+            for (int i = 0; i < tramosRegistrados; i++) {
+                out.writeInt(historialOcupacion[i]);
+            }
+        }
+
+        int grupos = 0;
+        for (ListaPasajeros grupo : pasajerosPorDestino) {
+            if (grupo != null && !grupo.isEmpty()) grupos++;
+        }
+        out.writeInt(grupos);
+        for (int indice = 0; indice < pasajerosPorDestino.size(); indice++) {
+            ListaPasajeros grupo = pasajerosPorDestino.get(indice);
+            if (grupo == null || grupo.isEmpty()) continue;
+            out.writeInt(indice);
+            out.writeInt(grupo.size());
+            for (int i = 0; i < grupo.size(); i++) {
+                out.writeInt(grupo.getId(i));
+            }
+        }
+    }
+
+    /**
+     * Restaura el estado guardado con {@link #guardarEstado(DataOutput)} en un colectivo recién creado
+     * de la misma línea. La capacidad y los asientos son los de este colectivo, no los guardados.
+     * @param in Origen del estado.
+     * @param almacen Almacén restaurado que guarda los pasajeros a bordo.
+     * @throws IOException si no se puede leer.
+     * @throws IllegalStateException si el colectivo guarda el historial de ocupación y el estado no lo tiene.
+     */
+    public void restaurarEstado(DataInput in, AlmacenPasajeros almacen) throws IOException {
+        cantidadPasajeros = in.readInt();
+        sumaOcupacion = in.readLong();
+        tramosRegistrados = in.readInt();
+        ocupacionMinima = in.readInt();
+        ocupacionMaxima = in.readInt();
+        boolean conHistorial = in.readBoolean();
+        if (historialOcupacion != null && !conHistorial) {
+            throw new IllegalStateException("El punto de control no tiene el historial de ocupación del colectivo " + id);
+        }
+        if (conHistorial) {
+            int[] historial = new int[Math.max(tramosRegistrados, 1)];
+            for (int i = 0; i < tramosRegistrados; i++) {
+                historial[i] = in.readInt();
+            }
+            if (historialOcupacion != null) historialOcupacion = historial;
+        }
+
+        pasajerosPorDestino.clear();
+        int grupos = in.readInt();
+        for (int g = 0; g < grupos; g++) {
+            ListaPasajeros grupo = grupoDeDestino(in.readInt(), almacen);
+            int tamano = in.readInt();
+            for (int i = 0; i < tamano; i++) {
+                grupo.agregarId(in.readInt());
+            }
+        }
+    }
+
     /**
      * Obtiene la cantidad de pasajeros actualmente a bordo del colectivo.
      * @return Cantidad de pasajeros.
      */
     public int getCantidadPasajeros() {
-        return pasajeros.size();
+        return cantidadPasajeros;
+    }
+
+    /**
+     * Obtiene la cantidad máxima de pasajeros que puede transportar el colectivo.
+     * @return Capacidad del colectivo.
+     */
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Indica si el colectivo alcanzó su capacidad máxima.
+     * @return true si no hay lugar para más pasajeros.
+     */
+    public boolean estaLleno() {
+        return cantidadPasajeros >= capacidad;
     }
 
     /**
@@ -130,10 +312,14 @@ public class Colectivo {
     }
 
     /**
-     * Obtiene la lista de pasajeros actualmente a bordo.
+     * Obtiene una copia de los pasajeros actualmente a bordo, ordenados por parada de destino.
      * @return Lista de pasajeros.
      */
     public List<Pasajero> getPasajeros() {
-        return pasajeros;
+        List<Pasajero> aBordo = new ArrayList<>(cantidadPasajeros);
+        for (ListaPasajeros grupo : pasajerosPorDestino) {
+            if (grupo != null) aBordo.addAll(grupo);
+        }
+        return aBordo;
     }
 }
\ No newline at end of file
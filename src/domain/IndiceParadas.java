@@ -0,0 +1,74 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice inmutable de la posición de cada parada en el recorrido de una línea, por ID de parada.
+ * Si los IDs del recorrido están concentrados en un rango acotado se usa un arreglo denso
+ * indexado por ID; si están dispersos, un arreglo de IDs ordenados con búsqueda binaria,
+ * para que cada línea ocupe memoria proporcional a su recorrido y no al mayor ID de la red.
+ */
+final class IndiceParadas {
+    private static final int FACTOR_DENSO = 4;
+    private static final int HOLGURA_DENSA = 64;
+
+    private final int idMinimo;
+    private final int[] posicionPorId; // Arreglo denso: posición de cada ID desde idMinimo, o -1.
+    private final int[] idsOrdenados; // Arreglo disperso: IDs ordenados y su posición en el recorrido.
+    private final int[] posicionesOrdenadas;
+
+    /**
+     * Construye el índice de un recorrido sin paradas repetidas.
+     * @param paradas Paradas del recorrido, en orden.
+     */
+    IndiceParadas(List<Parada> paradas) {
+        int n = paradas.size();
+        long minimo = Long.MAX_VALUE, maximo = Long.MIN_VALUE;
+        for (Parada p : paradas) {
+            minimo = Math.min(minimo, p.getId());
+            maximo = Math.max(maximo, p.getId());
+        }
+        long rango = n == 0 ? 0 : maximo - minimo + 1;
+
+        if (rango <= (long) FACTOR_DENSO * n + HOLGURA_DENSA) {
+            idMinimo = n == 0 ? 0 : (int) minimo;
+            posicionPorId = new int[(int) rango];
+            Arrays.fill(posicionPorId, -1);
+            for (int i = 0; i < n; i++) {
+                posicionPorId[paradas.get(i).getId() - idMinimo] = i;
+            }
+            idsOrdenados = null;
+            posicionesOrdenadas = null;
+        } else {
+            // Cada clave combina el ID (parte alta) con la posición (parte baja) para ordenar ambos juntos
+            long[] claves = new long[n];
+            for (int i = 0; i < n; i++) {
+                claves[i] = ((long) paradas.get(i).getId() << 32) | i;
+            }
+            Arrays.sort(claves);
+            idMinimo = 0;
+            posicionPorId = null;
+            idsOrdenados = new int[n];
+            posicionesOrdenadas = new int[n];
+            for (int i = 0; i < n; i++) {
+                idsOrdenados[i] = (int) (claves[i] >> 32);
+                posicionesOrdenadas[i] = (int) claves[i];
+            }
+        }
+    }
+
+    /**
+     * Obtiene la posición en el recorrido de la parada con el ID indicado.
+     * @param idParada ID de la parada.
+     * @return Posición en el recorrido, o -1 si la parada no pertenece a la línea.
+     */
+    int posicionDe(int idParada) {
+        if (posicionPorId != null) {
+            long i = (long) idParada - idMinimo;
+            return i >= 0 && i < posicionPorId.length ? posicionPorId[(int) i] : -1;
+        }
+        int i = Arrays.binarySearch(idsOrdenados, idParada);
+        return i >= 0 ? posicionesOrdenadas[i] : -1;
+    }
+}
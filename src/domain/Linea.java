@@ -1,67 +1,90 @@
 package domain;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-
-public class Linea {
+/**
+ * Representa una línea de colectivos con su recorrido de paradas.
+ * Una línea es inmutable: se arma con un {@link Builder} y al construirla se crea una sola vez
+ * el índice de la posición de cada parada en el recorrido.
+ */
+public final class Linea {
     private final String codigo;
     private final List<Parada> paradas;
-    private final Map<Parada, Integer> mapaIndicesParadas; 
+    private final IndiceParadas indiceParadas;
 
     /**
-     * Crea una nueva línea con el código especificado.
+     * Crea una línea con el recorrido ya armado.
      * @param codigo Código identificador de la línea.
+     * @param paradas Paradas del recorrido, sin repetir.
      */
-    public Linea(String codigo) {
+    private Linea(String codigo, List<Parada> paradas) {
         this.codigo = codigo;
-        this.paradas = new ArrayList<>();
-        this.mapaIndicesParadas = new HashMap<>();
+        this.paradas = Collections.unmodifiableList(paradas);
+        this.indiceParadas = new IndiceParadas(paradas);
     }
 
+    /**
+     * Crea una línea con el mismo código y el mismo índice de recorrido que otra.
+     * @param original Línea de la que se toman el código y el índice.
+     * @param paradas Paradas del recorrido, con los mismos IDs y en el mismo orden que en la original.
+     */
+    private Linea(Linea original, List<Parada> paradas) {
+        this.codigo = original.codigo;
+        this.paradas = Collections.unmodifiableList(paradas);
+        this.indiceParadas = original.indiceParadas;
+    }
 
     /**
-     * Agrega una parada a la línea y actualiza el mapa de índices.
-     * @param parada Parada a agregar.
+     * Crea una copia de la línea sobre otras instancias de sus paradas, buscadas por ID.
+     * El índice del recorrido depende solo de los IDs, por lo que se comparte con la original.
+     * @param paradasPorId Paradas de la copia, indexadas por ID; debe incluir todas las del recorrido.
+     * @return Línea con el mismo recorrido sobre las paradas indicadas.
      */
-    private void actualizarMapaIndices() {
-        mapaIndicesParadas.clear();
-        for (int i = 0; i < paradas.size(); i++) {
-            mapaIndicesParadas.put(paradas.get(i), i);
+    Linea copiarCon(Map<Integer, Parada> paradasPorId) {
+        List<Parada> copia = new ArrayList<>(paradas.size());
+        for (Parada parada : paradas) {
+            copia.add(paradasPorId.get(parada.getId()));
         }
+        return new Linea(this, copia);
     }
 
     /**
-     * Obtiene el mapa de índices de paradas para búsquedas optimizadas.
+     * Crea un builder para armar el recorrido de una línea.
+     * @param codigo Código identificador de la línea.
+     * @return Builder de la línea.
      */
-    public Map<Parada, Integer> getMapaIndicesParadas() {
-        return mapaIndicesParadas;
+    public static Builder builder(String codigo) {
+        return new Builder(codigo);
     }
 
     /**
-     * Verifica si una parada está después de cierta posición en el recorrido.
+     * Obtiene la posición de una parada en el recorrido de la línea.
+     * @param parada Parada a buscar.
+     * @return Índice de la parada en el recorrido, o -1 si no pertenece a la línea.
      */
-    public boolean paradaEstaEnPosicionFutura(Parada parada, int posicionActual) {
-        Integer indiceParada = mapaIndicesParadas.get(parada);
-        return indiceParada != null && indiceParada > posicionActual;
+    public int getIndiceParada(Parada parada) {
+        int indice = indiceParadas.posicionDe(parada.getId());
+        return indice >= 0 && paradas.get(indice) == parada ? indice : -1;
     }
 
     /**
-     * Agrega una parada a la línea si no está ya incluida y actualiza el mapa de índices.
-     * @param parada Parada a agregar.
+     * Verifica si una parada pertenece al recorrido de la línea.
+     * @param parada Parada a buscar.
+     * @return true si la línea pasa por la parada.
      */
-    public void agregarParada(Parada parada) {
-        if (!paradas.contains(parada)) {
-            paradas.add(parada);
-            actualizarMapaIndices(); // Actualiza el mapa cada vez que se agrega una parada
-        }
+    public boolean contieneParada(Parada parada) {
+        return getIndiceParada(parada) >= 0;
     }
 
     /**
      * Devuelve la lista de paradas de la línea.
-     * @return Lista de paradas.
+     * @return Lista de paradas, no modificable.
      */
     public List<Parada> getParadas() {
         return paradas;
@@ -74,4 +97,50 @@ public class Linea {
     public String getCodigo() {
         return codigo;
     }
-}
\ No newline at end of file
+
+    /**
+     * Arma el recorrido de una línea agregando paradas en orden y la construye al final.
+     * Cada parada se agrega en tiempo constante, por lo que armar un recorrido de n paradas es O(n).
+     */
+    public static final class Builder {
+        private final String codigo;
+        private final List<Parada> paradas = new ArrayList<>();
+        private final Set<Parada> agregadas = new HashSet<>();
+
+        private Builder(String codigo) {
+            this.codigo = codigo;
+        }
+
+        /**
+         * Agrega una parada al final del recorrido si no está ya incluida.
+         * @param parada Parada a agregar.
+         * @return Este builder.
+         */
+        public Builder agregarParada(Parada parada) {
+            if (agregadas.add(parada)) {
+                paradas.add(parada);
+            }
+            return this;
+        }
+
+        /**
+         * Agrega varias paradas al final del recorrido, omitiendo las ya incluidas.
+         * @param nuevas Paradas a agregar, en orden.
+         * @return Este builder.
+         */
+        public Builder agregarParadas(Collection<Parada> nuevas) {
+            for (Parada parada : nuevas) {
+                agregarParada(parada);
+            }
+            return this;
+        }
+
+        /**
+         * Construye la línea con el recorrido armado y su índice de paradas.
+         * @return Línea inmutable.
+         */
+        public Linea construir() {
+            return new Linea(codigo, new ArrayList<>(paradas));
+        }
+    }
+}
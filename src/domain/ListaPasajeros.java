@@ -0,0 +1,75 @@
+package domain;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Lista de pasajeros guardada como un arreglo de IDs sobre un {@link AlmacenPasajeros}.
+ * Los grupos de pasajeros de los colectivos y las listas que devuelven las paradas solo guardan
+ * enteros; cada {@link Pasajero} se crea al recorrer la lista como {@code List}, mientras que
+ * {@link #getId(int)} accede al ID sin crear objetos.
+ */
+public final class ListaPasajeros extends AbstractList<Pasajero> implements RandomAccess {
+    private static final int[] SIN_IDS = new int[0];
+
+    private final AlmacenPasajeros almacen;
+    private int[] ids;
+    private int tamano = 0;
+
+    /**
+     * Crea una lista vacía de pasajeros del almacén indicado.
+     * @param almacen Almacén de los pasajeros; puede ser null si la lista queda vacía.
+     */
+    ListaPasajeros(AlmacenPasajeros almacen) {
+        this(almacen, SIN_IDS, 0);
+    }
+
+    /**
+     * Crea una lista con los primeros {@code tamano} IDs del arreglo, sin copiarlo.
+     */
+    ListaPasajeros(AlmacenPasajeros almacen, int[] ids, int tamano) {
+        this.almacen = almacen;
+        this.ids = ids;
+        this.tamano = tamano;
+    }
+
+    /**
+     * Agrega un pasajero al final de la lista.
+     * @param id ID del pasajero.
+     */
+    void agregarId(int id) {
+        if (tamano == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(8, ids.length * 2));
+        }
+        ids[tamano++] = id;
+    }
+
+    /**
+     * Obtiene el ID del pasajero en la posición indicada, sin crear la vista del pasajero.
+     * @param indice Posición en la lista.
+     * @return ID del pasajero.
+     */
+    public int getId(int indice) {
+        if (indice >= tamano) throw new IndexOutOfBoundsException(indice);
+        return ids[indice];
+    }
+
+    /**
+     * Obtiene el almacén que guarda los datos de los pasajeros de la lista.
+     * @return Almacén de los pasajeros.
+     */
+    public AlmacenPasajeros getAlmacen() {
+        return almacen;
+    }
+
+    @Override
+    public Pasajero get(int indice) {
+        return almacen.getPasajero(getId(indice));
+    }
+
+    @Override
+    public int size() {
+        return tamano;
+    }
+}
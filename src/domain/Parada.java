@@ -1,12 +1,28 @@
 package domain;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 
+/**
+ * Representa una parada de colectivos.
+ * Los pasajeros que esperan se guardan en colas indexadas por su parada de destino,
+ * de modo que un colectivo solo recorre las colas de los destinos que atiende.
+ * Los pasajeros se identifican en orden de llegada, por lo que el menor id
+ * de cada cola es el que lleva más tiempo esperando.
+ * Las colas guardan solo el ID de cada pasajero; sus datos están en el {@link AlmacenPasajeros}
+ * del que provienen, que es el mismo para todos los pasajeros de la parada.
+ */
 public class Parada {
     private final String direccion;
     private final int id;
-    private final List<Pasajero> pasajerosEsperando = new ArrayList<>();
+    private final Map<Parada, ColaPasajeros> pasajerosPorDestino = new HashMap<>();
+    private AlmacenPasajeros almacen;
+    private int cantidadEsperando = 0;
 
     public Parada(int id, String direccion) {
         this.id = id;
@@ -30,20 +46,66 @@ public class Parada {
     }
 
     /**
-     * Obtiene la lista de pasajeros que están esperando en esta parada.
+     * Obtiene una copia de los pasajeros que están esperando en esta parada, en orden de llegada.
+     * Recorre todas las colas, por lo que no debe usarse en la subida de pasajeros.
      * @return Lista de pasajeros esperando.
      */
     public List<Pasajero> getPasajerosEsperando() {
-        return pasajerosEsperando;
+        int[] esperando = new int[cantidadEsperando];
+        int k = 0;
+        for (ColaPasajeros cola : pasajerosPorDestino.values()) {
+            for (int i = 0; i < cola.tamano(); i++) {
+                esperando[k++] = cola.get(i);
+            }
+        }
+        Arrays.sort(esperando);
+        return new ListaPasajeros(almacen, esperando, k);
     }
 
     /**
-     * Verifica si un pasajero está esperando en esta parada.
-     * @param p Pasajero a verificar.
-     * @return true si el pasajero está esperando, false en caso contrario.
+     * Obtiene la cantidad de pasajeros que están esperando en esta parada.
+     * @return Cantidad de pasajeros esperando.
+     */
+    public int getCantidadEsperando() {
+        return cantidadEsperando;
+    }
+
+    /**
+     * Cuenta los pasajeros que esperan en esta parada con destino en alguna de las paradas indicadas.
+     * @param destinos Paradas de destino a considerar.
+     * @return Cantidad de pasajeros esperando hacia esos destinos.
+     */
+    public int contarPasajerosHacia(Collection<Parada> destinos) {
+        int cantidad = 0;
+        for (Parada destino : destinos) {
+            ColaPasajeros cola = pasajerosPorDestino.get(destino);
+            if (cola != null) cantidad += cola.tamano();
+        }
+        return cantidad;
+    }
+
+    /**
+     * Agrega un pasajero a la cola de espera de su destino.
+     * @param p Pasajero que llega a la parada.
      */
     public void agregarPasajero(Pasajero p) {
-        pasajerosEsperando.add(p);
+        agregarPasajero(p.getAlmacen(), p.getId());
+    }
+
+    /**
+     * Agrega un pasajero, por su ID en el almacén, a la cola de espera de su destino.
+     * @param almacenPasajero Almacén que guarda los datos del pasajero.
+     * @param id ID del pasajero.
+     * @throws IllegalStateException si en la parada ya esperan pasajeros de otro almacén.
+     */
+    public void agregarPasajero(AlmacenPasajeros almacenPasajero, int id) {
+        if (almacen == null) {
+            almacen = almacenPasajero;
+        } else if (almacen != almacenPasajero) {
+            throw new IllegalStateException("La parada " + this.id + " ya tiene pasajeros de otro almacén");
+        }
+        pasajerosPorDestino.computeIfAbsent(almacen.getDestino(id), d -> new ColaPasajeros()).agregar(id);
+        cantidadEsperando++;
     }
 
     /**
@@ -51,6 +113,38 @@ public class Parada {
      * @param p Pasajero a eliminar.
      */
     public void quitarPasajero(Pasajero p) {
-        pasajerosEsperando.remove(p);
+        if (p.getAlmacen() != almacen) return;
+        ColaPasajeros cola = pasajerosPorDestino.get(p.getDestino());
+        if (cola != null && cola.quitar(p.getId())) {
+            cantidadEsperando--;
+        }
+    }
+
+    /**
+     * Retira de la parada, en orden de llegada, hasta {@code maximo} pasajeros cuyo destino
+     * es alguna de las paradas indicadas. Solo se recorren las colas de esos destinos,
+     * por lo que el costo depende de los pasajeros que suben y no del total que espera.
+     *
+     * @param destinos Paradas de destino que atiende el colectivo.
+     * @param maximo Cantidad máxima de pasajeros a retirar.
+     * @return Pasajeros retirados, en orden de llegada.
+     */
+    public ListaPasajeros retirarPasajerosHacia(Collection<Parada> destinos, int maximo) {
+        ListaPasajeros retirados = new ListaPasajeros(almacen);
+        if (maximo <= 0 || cantidadEsperando == 0) return retirados;
+
+        PriorityQueue<ColaPasajeros> colas = new PriorityQueue<>(Comparator.comparingInt(ColaPasajeros::primero));
+        for (Parada destino : destinos) {
+            ColaPasajeros cola = pasajerosPorDestino.get(destino);
+            if (cola != null && !cola.estaVacia()) colas.add(cola);
+        }
+
+        while (retirados.size() < maximo && !colas.isEmpty()) {
+            ColaPasajeros cola = colas.poll();
+            retirados.agregarId(cola.quitarPrimero());
+            if (!cola.estaVacia()) colas.add(cola);
+        }
+        cantidadEsperando -= retirados.size();
+        return retirados;
     }
-}
\ No newline at end of file
+}
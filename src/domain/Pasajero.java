@@ -1,94 +1,64 @@
 package domain;
 
-import config.Configuracion;
-
 /**
  * Representa un pasajero que viaja en un colectivo.
  * Cada pasajero tiene un identificador único y una parada de destino.
+ * Es una vista liviana sobre los datos del pasajero en un {@link AlmacenPasajeros}:
+ * se crea cuando se necesita y dos vistas del mismo pasajero son iguales.
  */
-public class Pasajero {
+public final class Pasajero {
+    private final AlmacenPasajeros almacen;
     private final int id;
-    private final Parada destino;
-    private int colectivosEsperados = 0;
-    private int calificacion = 1; // Por defecto, 1 (muy malo)
 
     /**
-     * Crea un nuevo pasajero con el id y destino especificados.
+     * Crea la vista del pasajero con el ID indicado en el almacén.
+     * @param almacen Almacén que guarda los datos del pasajero.
      * @param id Identificador único del pasajero.
-     * @param destino Parada de destino del pasajero.
      */
-    public Pasajero(int id, Parada destino) {
+    Pasajero(AlmacenPasajeros almacen, int id) {
+        this.almacen = almacen;
         this.id = id;
-        this.destino = destino;
     }
 
     /**
      * Califica al pasajero al subir al colectivo.
-     * La calificación se basa en la posición del pasajero al subir y la capacidad máxima del colectivo.
-     * - 5: Consiguió asiento
-     * - 4: Viajó parado
-     * - 3: Esperó un colectivo para subir
-     * - 2: Esperó más de dos colectivos para subir
-     * - 1: Muy malo (por defecto si no se califica)
-     *
      * @param posicion Posición del pasajero al subir (0 es el primer asiento).
-     * @param maxCapacidad Capacidad máxima del colectivo.
-     */
-    public void calificarAlSubir(int posicion, int maxCapacidad) {
-        int cantidadAsientos = Configuracion.getCantidadAsientos();
-        switch (colectivosEsperados) {
-            case 0 -> {
-                if (posicion < cantidadAsientos) {
-                    setCalificacion(5); // Consiguió asiento
-                } else {
-                    setCalificacion(4); // Viajó parado
-                }
-            }
-            case 1 -> setCalificacion(3); // Esperó un colectivo para subir
-            default -> setCalificacion(2); // Esperó más de dos colectivos para subir
-        }
-    }
-
-    /**
-     * Decide si el pasajero quiere subir al colectivo.
-     * Simplificado - la lógica de verificación del recorrido se maneja en Colectivo.
+     * @param cantidadAsientos Cantidad de asientos del colectivo.
+     * @see AlmacenPasajeros#calificarAlSubir(int, int, int)
      */
-    public boolean quiereSubirA(Colectivo colectivo, Parada parada) {
-        // Lógica simple: siempre quiere subir si la línea va a su destino
-        // La verificación de si el destino está en el recorrido futuro se hace en Colectivo
-        return colectivo.getLinea().getParadas().contains(destino);
+    public void calificarAlSubir(int posicion, int cantidadAsientos) {
+        almacen.calificarAlSubir(id, posicion, cantidadAsientos);
     }
-   
 
     /**
      * Incrementa en uno la cantidad de colectivos que el pasajero ha esperado.
      */
-    public void incrementarEspera() { 
-        colectivosEsperados++; 
+    public void incrementarEspera() {
+        almacen.incrementarEspera(id);
     }
-    
+
     /**
      * Devuelve la cantidad de colectivos que el pasajero ha esperado antes de subir.
      * @return Cantidad de colectivos esperados.
      */
-    public int getColectivosEsperados() { 
-        return colectivosEsperados; 
+    public int getColectivosEsperados() {
+        return almacen.getColectivosEsperados(id);
     }
-    
+
     /**
      * Asigna la calificación de satisfacción al pasajero.
      * @param calificacion Valor de calificación (1 a 5).
      */
-    public void setCalificacion(int calificacion) { 
-        this.calificacion = calificacion; 
+    public void setCalificacion(int calificacion) {
+        almacen.setCalificacion(id, calificacion);
     }
-    
+
     /**
      * Devuelve la calificación de satisfacción del pasajero.
      * @return Calificación asignada.
      */
-    public int getCalificacion() { 
-        return calificacion; 
+    public int getCalificacion() {
+        return almacen.getCalificacion(id);
     }
 
     /**
@@ -104,6 +74,24 @@ public class Pasajero {
      * @return Parada de destino.
      */
     public Parada getDestino() {
-        return destino;
+        return almacen.getDestino(id);
+    }
+
+    /**
+     * Devuelve el almacén que guarda los datos del pasajero.
+     * @return Almacén del pasajero.
+     */
+    public AlmacenPasajeros getAlmacen() {
+        return almacen;
+    }
+
+    @Override
+    public boolean equals(Object otro) {
+        return otro instanceof Pasajero p && p.almacen == almacen && p.id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(id);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Red de colectivos cargada: las paradas indexadas por ID y las líneas en el orden del archivo.
+ *
+ * @param paradas Paradas de la red, indexadas por su ID.
+ * @param lineas Líneas de la red.
+ */
+public record Red(Map<Integer, Parada> paradas, List<Linea> lineas) {
+
+    /**
+     * Crea una copia de la red sin pasajeros, con paradas y líneas nuevas y los mismos IDs.
+     * Las direcciones, los códigos y los índices de recorrido de las líneas se comparten
+     * con esta red, que no se modifica; por eso varias simulaciones pueden copiar a la vez
+     * una misma red cargada una sola vez y simular cada una sobre su copia.
+     * @return Red equivalente sin pasajeros esperando.
+     */
+    public Red copiaVacia() {
+        Map<Integer, Parada> nuevas = new HashMap<>(paradas.size() * 4 / 3 + 1);
+        for (Parada parada : paradas.values()) {
+            nuevas.put(parada.getId(), new Parada(parada.getId(), parada.getDireccion()));
+        }
+        for (Linea linea : lineas) {
+            for (Parada parada : linea.getParadas()) {
+                nuevas.computeIfAbsent(parada.getId(), id -> new Parada(id, parada.getDireccion()));
+            }
+        }
+        List<Linea> copias = new ArrayList<>(lineas.size());
+        for (Linea linea : lineas) {
+            copias.add(linea.copiarCon(nuevas));
+        }
+        return new Red(nuevas, copias);
+    }
+}
@@ -0,0 +1,39 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tabla de las paradas usadas por un almacén de pasajeros, para guardar el origen
+ * y el destino de cada pasajero como un índice entero en lugar de una referencia.
+ */
+final class TablaParadas {
+    private final List<Parada> paradas = new ArrayList<>();
+    private final Map<Parada, Integer> indiceDeParada = new IdentityHashMap<>();
+
+    /**
+     * Obtiene el índice de una parada en la tabla, agregándola si no estaba.
+     * @param parada Parada buscada.
+     * @return Índice de la parada.
+     */
+    int indiceDe(Parada parada) {
+        Integer indice = indiceDeParada.get(parada);
+        if (indice == null) {
+            indice = paradas.size();
+            paradas.add(parada);
+            indiceDeParada.put(parada, indice);
+        }
+        return indice;
+    }
+
+    /**
+     * Obtiene la parada con el índice indicado.
+     * @param indice Índice de la parada en la tabla.
+     * @return Parada correspondiente.
+     */
+    Parada get(int indice) {
+        return paradas.get(indice);
+    }
+}
@@ -0,0 +1,42 @@
+package io;
+
+import presentacion.SimulacionOutput;
+
+/**
+ * Destino de las advertencias que se producen al parsear el archivo de líneas.
+ * Permite mostrarlas directamente en la vista o registrarlas para reproducirlas después,
+ * ya sea en el orden del archivo al parsear en paralelo o al cargar la red desde la caché.
+ */
+interface Advertencias {
+
+    /**
+     * Informa una parada referenciada que no existe en el archivo de paradas.
+     * @param idParada ID de la parada no encontrada.
+     */
+    void paradaNoEncontrada(int idParada);
+
+    /**
+     * Informa un ID de parada que no es un número válido.
+     * @param idParada Texto del ID inválido.
+     */
+    void paradaNoValida(String idParada);
+
+    /**
+     * Crea un destino que muestra las advertencias en la vista.
+     * @param vista Vista donde se muestran las advertencias.
+     * @return Destino de advertencias.
+     */
+    static Advertencias hacia(SimulacionOutput vista) {
+        return new Advertencias() {
+            @Override
+            public void paradaNoEncontrada(int idParada) {
+                vista.mostrarAdvertenciaParadaNoEncontrada(idParada);
+            }
+
+            @Override
+            public void paradaNoValida(String idParada) {
+                vista.mostrarAdvertenciaParadaNoValida(idParada);
+            }
+        };
+    }
+}
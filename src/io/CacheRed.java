@@ -0,0 +1,282 @@
+package io;
+
+import domain.Linea;
+import domain.Parada;
+import domain.Red;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Caché binaria de la red ya resuelta, guardada junto al archivo de líneas, para no volver
+ * a parsear los archivos de texto en cada corrida.
+ *
+ * La caché guarda la huella de cada archivo de origen (tamaño, fecha de modificación y CRC32C
+ * del contenido) y solo se usa si coincide con la de los archivos actuales. Si el tamaño y la fecha
+ * coinciden, la caché se usa sin leer los archivos de origen; si solo cambió la fecha, se calcula el CRC32C
+ * del contenido y la caché se usa si no cambió. Como make, supone que un archivo que se modificó sin
+ * cambiar de tamaño también cambió de fecha. Formato, en big-endian:
+ * <pre>
+ * encabezado:  int marca, short versión, texto charset, huella paradas, huella líneas
+ * huella:      long tamaño, long modificación (ms), int crc32c
+ * paradas:     int cantidad, y por parada: int id, texto dirección
+ * líneas:      int cantidad, y por línea: texto código, int cantidad, int índice de cada parada en la tabla
+ * advertencias: int cantidad, y por advertencia: byte tipo (0 no encontrada, 1 no válida), int id o texto
+ * texto:       int largo en bytes, bytes UTF-8
+ * </pre>
+ * Se guarda el charset con que se decodificaron los textos, porque de él dependen las direcciones.
+ */
+final class CacheRed {
+    private static final int MARCA = 0x53524544; // "SRED"
+    private static final short VERSION = 1;
+    private static final String EXTENSION = ".red";
+    private static final int VENTANA_HASH = 1 << 30;
+    private static final byte NO_ENCONTRADA = 0;
+    private static final byte NO_VALIDA = 1;
+
+    /**
+     * Huella de un archivo de origen.
+     */
+    private record Huella(long tamano, long modificado, int crc) {
+        private boolean mismoContenido(Huella otra) {
+            return tamano == otra.tamano && crc == otra.crc;
+        }
+    }
+
+    private final Path archivoParadas;
+    private final Path archivoLineas;
+    private final Path archivo;
+    private Huella huellaParadas;
+    private Huella huellaLineas;
+
+    /**
+     * Crea la caché de la red formada por los archivos indicados.
+     * @param archivoParadas Ruta del archivo de paradas.
+     * @param archivoLineas Ruta del archivo de líneas; la caché se guarda junto a él.
+     */
+    CacheRed(String archivoParadas, String archivoLineas) {
+        this.archivoParadas = Path.of(archivoParadas);
+        this.archivoLineas = Path.of(archivoLineas);
+        this.archivo = Path.of(archivoLineas + EXTENSION);
+    }
+
+    /**
+     * Obtiene la ruta del archivo de caché.
+     * @return Ruta de la caché.
+     */
+    String getArchivo() {
+        return archivo.toString();
+    }
+
+    /**
+     * Lee la red de la caché si existe y corresponde a los archivos de origen actuales.
+     * Si la caché no existe, está desactualizada o dañada, devuelve null sin informar nada;
+     * en ese caso las huellas de los archivos de origen se calculan antes de parsearlos,
+     * para que una modificación posterior invalide la caché que se guarde.
+     *
+     * @param advertencias Destino donde se reproducen las advertencias guardadas con la red.
+     * @return Red leída, o null si hay que cargarla de los archivos de texto.
+     */
+    Red leer(Advertencias advertencias) {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (buffer.getInt() != MARCA || buffer.getShort() != VERSION) return descartar();
+            if (!Charset.defaultCharset().name().equals(leerTexto(buffer))) return descartar();
+            huellaParadas = verificarHuella(archivoParadas, leerHuella(buffer));
+            huellaLineas = verificarHuella(archivoLineas, leerHuella(buffer));
+            if (huellaParadas == null || huellaLineas == null) return descartar();
+
+            int cantidadParadas = buffer.getInt();
+            if (cantidadParadas < 0 || cantidadParadas > buffer.remaining()) return descartar();
+            Parada[] tabla = new Parada[cantidadParadas];
+            Map<Integer, Parada> paradas = new HashMap<>(cantidadParadas * 4 / 3 + 1);
+            for (int i = 0; i < cantidadParadas; i++) {
+                Parada parada = new Parada(buffer.getInt(), leerTexto(buffer));
+                tabla[i] = parada;
+                paradas.put(parada.getId(), parada);
+            }
+
+            int cantidadLineas = buffer.getInt();
+            if (cantidadLineas < 0 || cantidadLineas > buffer.remaining()) return descartar();
+            List<Linea> lineas = new ArrayList<>(cantidadLineas);
+            for (int i = 0; i < cantidadLineas; i++) {
+                Linea.Builder linea = Linea.builder(leerTexto(buffer));
+                int largo = buffer.getInt();
+                for (int j = 0; j < largo; j++) {
+                    linea.agregarParada(tabla[buffer.getInt()]);
+                }
+                lineas.add(linea.construir());
+            }
+
+            RegistroAdvertencias registro = new RegistroAdvertencias();
+            int cantidadAdvertencias = buffer.getInt();
+            for (int i = 0; i < cantidadAdvertencias; i++) {
+                if (buffer.get() == NO_VALIDA) {
+                    registro.paradaNoValida(leerTexto(buffer));
+                } else {
+                    registro.paradaNoEncontrada(buffer.getInt());
+                }
+            }
+            registro.reproducirEn(advertencias);
+            return new Red(paradas, lineas);
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            return descartar(); // Caché inexistente, ilegible o dañada: se regenera
+        }
+    }
+
+    /**
+     * Descarta la caché y calcula las huellas completas de los archivos de origen para guardarla de nuevo.
+     * @return null, para devolverlo desde {@link #leer(Advertencias)}.
+     */
+    private Red descartar() {
+        try {
+            huellaParadas = calcularHuella(archivoParadas);
+            huellaLineas = calcularHuella(archivoLineas);
+        } catch (IOException e) {
+            huellaParadas = null; // Los archivos de origen no se pueden leer: la carga normal informará el error
+            huellaLineas = null;
+        }
+        return null;
+    }
+
+    /**
+     * Guarda la red en la caché con las huellas calculadas en {@link #leer(Advertencias)}.
+     * Se escribe en un archivo temporal que luego reemplaza a la caché, para no dejar
+     * nunca una caché a medio escribir; si algo falla, el temporal se borra.
+     *
+     * @param red Red cargada de los archivos de texto.
+     * @param advertencias Advertencias que produjo la carga.
+     * @return true si se pudo guardar la caché.
+     */
+    boolean guardar(Red red, RegistroAdvertencias advertencias) {
+        if (huellaParadas == null || huellaLineas == null) return false;
+        Path temporal = Path.of(archivo + ".tmp");
+        try {
+            escribir(temporal, red, advertencias);
+            try {
+                Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            try {
+                Files.deleteIfExists(temporal); // Solo queda si la escritura o el reemplazo fallaron
+            } catch (IOException e) {
+                // No se pudo borrar: la próxima escritura lo reemplaza
+            }
+        }
+    }
+
+    /**
+     * Escribe la red y sus advertencias en el formato de la caché.
+     */
+    private void escribir(Path temporal, Red red, RegistroAdvertencias advertencias) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporal), 1 << 16))) {
+            out.writeInt(MARCA);
+            out.writeShort(VERSION);
+            escribirTexto(out, Charset.defaultCharset().name());
+            escribirHuella(out, huellaParadas);
+            escribirHuella(out, huellaLineas);
+
+            Map<Parada, Integer> posiciones = new IdentityHashMap<>();
+            out.writeInt(red.paradas().size());
+            for (Parada parada : red.paradas().values()) {
+                posiciones.put(parada, posiciones.size());
+                out.writeInt(parada.getId());
+                escribirTexto(out, parada.getDireccion());
+            }
+
+            out.writeInt(red.lineas().size());
+            for (Linea linea : red.lineas()) {
+                escribirTexto(out, linea.getCodigo());
+                out.writeInt(linea.getParadas().size());
+                for (Parada parada : linea.getParadas()) {
+                    out.writeInt(posiciones.get(parada));
+                }
+            }
+
+            out.writeInt(advertencias.getAdvertencias().size());
+            for (RegistroAdvertencias.Advertencia a : advertencias.getAdvertencias()) {
+                if (a.idNoValido() != null) {
+                    out.writeByte(NO_VALIDA);
+                    escribirTexto(out, a.idNoValido());
+                } else {
+                    out.writeByte(NO_ENCONTRADA);
+                    out.writeInt(a.idParada());
+                }
+            }
+        }
+    }
+
+    /**
+     * Compara un archivo de origen con su huella guardada: si el tamaño y la fecha coinciden no lee
+     * el archivo, y si solo cambió la fecha compara el CRC32C de su contenido.
+     * @return Huella actual del archivo, o null si su contenido cambió.
+     */
+    private static Huella verificarHuella(Path ruta, Huella guardada) throws IOException {
+        long tamano = Files.size(ruta);
+        if (tamano != guardada.tamano()) return null;
+        if (Files.getLastModifiedTime(ruta).toMillis() == guardada.modificado()) return guardada;
+        Huella actual = calcularHuella(ruta);
+        return actual.mismoContenido(guardada) ? actual : null;
+    }
+
+    /**
+     * Calcula la huella de un archivo, recorriendo su contenido mapeado para el CRC32C.
+     */
+    private static Huella calcularHuella(Path ruta) throws IOException {
+        long modificado = Files.getLastModifiedTime(ruta).toMillis();
+        CRC32C crc = new CRC32C();
+        long tamano;
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            tamano = canal.size();
+            for (long posicion = 0; posicion < tamano; posicion += VENTANA_HASH) {
+                crc.update(canal.map(FileChannel.MapMode.READ_ONLY, posicion, Math.min(VENTANA_HASH, tamano - posicion)));
+            }
+        }
+        return new Huella(tamano, modificado, (int) crc.getValue());
+    }
+
+    private static Huella leerHuella(ByteBuffer buffer) {
+        return new Huella(buffer.getLong(), buffer.getLong(), buffer.getInt());
+    }
+
+    private static void escribirHuella(DataOutputStream out, Huella huella) throws IOException {
+        out.writeLong(huella.tamano());
+        out.writeLong(huella.modificado());
+        out.writeInt(huella.crc());
+    }
+
+    private static String leerTexto(ByteBuffer buffer) {
+        int largo = buffer.getInt();
+        if (largo < 0 || largo > buffer.remaining()) throw new BufferUnderflowException();
+        byte[] bytes = new byte[largo];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void escribirTexto(DataOutputStream out, String texto) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
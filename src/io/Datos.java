@@ -2,25 +2,41 @@ package io;
 
 import domain.Linea;
 import domain.Parada;
-import java.io.BufferedReader;
-import java.io.FileReader;
+import domain.Red;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import logic.EventosJfr;
 import presentacion.SimulacionOutput;
 
 /**
  * Clase encargada de la carga de datos desde archivos de texto para la simulación.
  * Permite cargar las paradas y líneas de colectivos a partir de archivos configurados.
+ * Los archivos se leen mapeados en memoria y se parsean directamente sobre sus bytes,
+ * sin dividir cada línea en Strings, para que la carga de redes grandes no domine el arranque.
  */
 public class Datos { 
     private final String archivoParadas;
     private final String archivoLineas;
-    private static final String SEPARADOR = ";";
-    private static final String COMENTARIO = "#";
+    private static final byte SEPARADOR = ';';
     private final SimulacionOutput vista;
+    private final int hilos;
+
+    /**
+     * Interpreta una línea del archivo y devuelve el registro que define, o null si no define ninguno.
+     */
+    @FunctionalInterface
+    private interface Parser<T> {
+        T parsear(ByteBuffer buffer, int inicio, int fin, Advertencias advertencias);
+    }
+
+    /**
+     * Registros parseados en un fragmento del archivo, con las advertencias que produjeron.
+     */
+    private record Fragmento<T>(List<T> registros, RegistroAdvertencias advertencias) {}
 
     /**
      * Crea una instancia de Datos con los archivos de paradas y líneas especificados.
@@ -29,26 +45,40 @@ public class Datos {
      * @param vista Instancia de la vista para mostrar advertencias o mensajes.
      */
     public Datos(String archivoParadas, String archivoLineas, SimulacionOutput vista) {
+        this(archivoParadas, archivoLineas, vista, 1);
+    }
+
+    /**
+     * Crea una instancia de Datos que parsea los archivos en paralelo.
+     * Cada archivo se divide en fragmentos de líneas completas que se parsean en un pool
+     * de la cantidad de hilos indicada; los resultados y las advertencias se reúnen en el
+     * orden del archivo, por lo que la red cargada y los mensajes son los mismos que con un hilo.
+     *
+     * @param archivoParadas Ruta del archivo de paradas.
+     * @param archivoLineas Ruta del archivo de líneas.
+     * @param vista Instancia de la vista para mostrar advertencias o mensajes.
+     * @param hilos Cantidad de hilos para parsear; con 1 se parsea en el hilo actual.
+     */
+    public Datos(String archivoParadas, String archivoLineas, SimulacionOutput vista, int hilos) {
         this.archivoParadas = archivoParadas;
         this.archivoLineas = archivoLineas;
         this.vista = vista;
+        this.hilos = hilos;
     }
     
     /**
      * Carga las paradas desde el archivo configurado.
+     * El archivo se recorre mapeado en memoria y los campos se leen directamente de sus bytes.
      * @return Mapa de paradas, donde la clave es el ID de la parada y el valor es el objeto Parada.
      * @throws RuntimeException si ocurre un error de lectura del archivo.
      */
     public Map<Integer, Parada> cargarParadas() {
         Map<Integer, Parada> paradasMap = new HashMap<>();
 
-        try (BufferedReader br = new BufferedReader(new FileReader(archivoParadas))) {
-            String lineaTexto;
-            while ((lineaTexto = br.readLine()) != null) {
-                Parada parada = parsearParada(lineaTexto);
-                if (parada != null) {
-                    paradasMap.put(parada.getId(), parada);
-                }
+        try {
+            for (Parada parada : cargarRegistros(archivoParadas, (buffer, inicio, fin, advertencias) ->
+                    parsearParada(buffer, inicio, fin), Advertencias.hacia(vista))) {
+                paradasMap.put(parada.getId(), parada);
             }
         } catch (IOException e) {
             throw new RuntimeException("Error al cargar paradas desde archivo: " + archivoParadas, e);
@@ -57,79 +87,186 @@ public class Datos {
     }
 
     /**
-     * Parsea una línea de texto del archivo de paradas y crea un objeto Parada.
-     * @param lineaTexto Línea de texto a parsear.
+     * Parsea una línea del archivo de paradas ({@code id;direccion;}) y crea un objeto Parada.
+     * Solo la dirección se convierte en String; el ID se lee directamente de los bytes.
+     * @param buffer Buffer con el contenido del archivo.
+     * @param inicio Posición del primer byte de la línea.
+     * @param fin Posición siguiente al último byte de la línea.
      * @return Objeto Parada si la línea es válida, o null si es inválida o un comentario.
      */
-    private Parada parsearParada(String lineaTexto) {
-        if (lineaTexto.trim().isEmpty() || lineaTexto.startsWith(COMENTARIO)) return null;
-
-        String[] partes = lineaTexto.split(SEPARADOR);
-        if (partes.length >= 2) {
-            int id = Integer.parseInt(partes[0].trim());
-            String direccion = partes[1].trim();
-            return new Parada(id, direccion);
-        }
-        return null;
+    private static Parada parsearParada(ByteBuffer buffer, int inicio, int fin) {
+        if (LectorMapeado.esVaciaOComentario(buffer, inicio, fin)) return null;
+
+        int separador = LectorMapeado.buscar(buffer, inicio, fin, SEPARADOR);
+        if (!tieneSegundoCampo(buffer, separador, fin)) return null;
+
+        int finDireccion = LectorMapeado.buscar(buffer, separador + 1, fin, SEPARADOR);
+        int id = LectorMapeado.entero(buffer, inicio, separador);
+        String direccion = LectorMapeado.texto(buffer, separador + 1, finDireccion);
+        return new Parada(id, direccion);
     }
 
     /**
      * Carga las líneas de colectivos desde el archivo configurado, asociando las paradas previamente cargadas.
      * Si una parada referenciada en el archivo de líneas no existe, se muestra una advertencia por consola.
+     * Al parsear en paralelo, el mapa de paradas solo se lee.
      * @param paradas Mapa de paradas disponibles, indexadas por su ID.
      * @return Lista de objetos Linea cargados desde el archivo.
      * @throws RuntimeException si ocurre un error de lectura del archivo.
      */
     public List<Linea> cargarLineas(Map<Integer, Parada> paradas) {
-        List<Linea> lineas = new ArrayList<>();
-
-        try (BufferedReader br = new BufferedReader(new FileReader(archivoLineas))) {
-            String lineaTexto;
-            while ((lineaTexto = br.readLine()) != null) {
-                Linea linea = parsearLinea(lineaTexto, paradas);
-                if (linea != null) {
-                    lineas.add(linea);
-                }
-            }
+        return cargarLineas(paradas, Advertencias.hacia(vista));
+    }
+
+    /**
+     * Carga las líneas enviando las advertencias al destino indicado.
+     */
+    private List<Linea> cargarLineas(Map<Integer, Parada> paradas, Advertencias advertencias) {
+        try {
+            return cargarRegistros(archivoLineas, (buffer, inicio, fin, destino) ->
+                parsearLinea(buffer, inicio, fin, paradas, destino), advertencias);
         } catch (IOException e) {
             throw new RuntimeException("Error al cargar líneas desde archivo: " + archivoLineas, e);
         }
-        return lineas;
     }
 
     /**
-     * Parsea una línea de texto del archivo de líneas y crea un objeto Linea.
+     * Carga la red completa, opcionalmente a través de una caché binaria guardada junto al
+     * archivo de líneas ({@code <archivoLineas>.red}). Si la caché corresponde a los archivos
+     * actuales (mismo tamaño, fecha de modificación y hash), la red se lee de ella sin parsear
+     * los archivos de texto; si no, se parsean los archivos y se regenera la caché.
+     * En ambos casos se muestran las mismas advertencias. La carga se emite como evento
+     * {@link EventosJfr.CargaRed}.
+     *
+     * @param usarCache true para leer y guardar la caché de la red.
+     * @return Red cargada.
+     * @throws RuntimeException si ocurre un error de lectura de los archivos de texto.
+     */
+    public Red cargarRed(boolean usarCache) {
+        EventosJfr.CargaRed evento = new EventosJfr.CargaRed();
+        evento.begin();
+        Red red = leerRed(usarCache, evento);
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.paradas = red.paradas().size();
+            evento.lineas = red.lineas().size();
+            evento.commit();
+        }
+        return red;
+    }
+
+    /**
+     * Carga la red desde la caché o desde los archivos de texto, y anota en el evento de la carga si vino de la caché.
+     */
+    private Red leerRed(boolean usarCache, EventosJfr.CargaRed evento) {
+        if (!usarCache) {
+            Map<Integer, Parada> paradas = cargarParadas();
+            return new Red(paradas, cargarLineas(paradas));
+        }
+
+        CacheRed cache = new CacheRed(archivoParadas, archivoLineas);
+        Red red = cache.leer(Advertencias.hacia(vista));
+        evento.desdeCache = red != null;
+        if (red != null) return red;
+
+        Map<Integer, Parada> paradas = cargarParadas();
+        RegistroAdvertencias advertencias = new RegistroAdvertencias();
+        red = new Red(paradas, cargarLineas(paradas, advertencias));
+        advertencias.reproducirEn(Advertencias.hacia(vista));
+        if (!cache.guardar(red, advertencias)) {
+            vista.mostrarAdvertenciaCacheRed(cache.getArchivo());
+        }
+        return red;
+    }
+
+    /**
+     * Parsea todas las líneas de un archivo y devuelve los registros válidos en el orden del archivo.
+     * Con un solo hilo las advertencias se envían a medida que aparecen; en paralelo, cada fragmento
+     * las registra y se reproducen en el orden de los fragmentos.
+     *
+     * @param archivo Ruta del archivo.
+     * @param parser Parser de cada línea del archivo.
+     * @param advertencias Destino de las advertencias.
+     * @return Registros parseados.
+     * @throws IOException si el archivo no existe o no se puede leer.
+     */
+    private <T> List<T> cargarRegistros(String archivo, Parser<T> parser, Advertencias advertencias) throws IOException {
+        List<T> registros = new ArrayList<>();
+        if (hilos <= 1) {
+            LectorMapeado.recorrerLineas(archivo, (buffer, inicio, fin) -> {
+                T registro = parser.parsear(buffer, inicio, fin, advertencias);
+                if (registro != null) registros.add(registro);
+            });
+            return registros;
+        }
+
+        List<Fragmento<T>> fragmentos = LectorMapeado.procesarEnFragmentos(archivo, hilos, (buffer, desde, hasta) -> {
+            Fragmento<T> fragmento = new Fragmento<>(new ArrayList<>(), new RegistroAdvertencias());
+            LectorMapeado.recorrerLineas(buffer, desde, hasta, (b, inicio, fin) -> {
+                T registro = parser.parsear(b, inicio, fin, fragmento.advertencias());
+                if (registro != null) fragmento.registros().add(registro);
+            });
+            return fragmento;
+        });
+        for (Fragmento<T> fragmento : fragmentos) {
+            registros.addAll(fragmento.registros());
+            fragmento.advertencias().reproducirEn(advertencias);
+        }
+        return registros;
+    }
+
+    /**
+     * Parsea una línea del archivo de líneas ({@code codigo;id;id;...}) y crea un objeto Linea.
+     * Los IDs de las paradas se leen directamente de los bytes; solo el código de la línea
+     * y los IDs inválidos, para la advertencia, se convierten en String.
      * Si alguna parada referenciada no existe, muestra una advertencia y la omite.
-     * @param lineaTexto Línea de texto a parsear.
+     * @param buffer Buffer con el contenido del archivo.
+     * @param inicio Posición del primer byte de la línea.
+     * @param fin Posición siguiente al último byte de la línea.
      * @param paradas Mapa de paradas disponibles.
+     * @param advertencias Destino de las advertencias de la línea.
      * @return Objeto Linea si la línea es válida, o null si es inválida o un comentario.
      */
-    private Linea parsearLinea(String lineaTexto, Map<Integer, Parada> paradas) {
-        if (lineaTexto.trim().isEmpty() || lineaTexto.startsWith(COMENTARIO)) return null;
+    private static Linea parsearLinea(ByteBuffer buffer, int inicio, int fin, Map<Integer, Parada> paradas,
+                                      Advertencias advertencias) {
+        if (LectorMapeado.esVaciaOComentario(buffer, inicio, fin)) return null;
 
-        String[] partes = lineaTexto.split(SEPARADOR);
-        if (partes.length < 2) return null;
+        int separador = LectorMapeado.buscar(buffer, inicio, fin, SEPARADOR);
+        if (!tieneSegundoCampo(buffer, separador, fin)) return null;
 
-        String codigo = partes[0].trim();
-        Linea linea = new Linea(codigo);
+        String codigo = LectorMapeado.texto(buffer, inicio, separador);
+        Linea.Builder linea = Linea.builder(codigo);
 
-        for (int i = 1; i < partes.length; i++) {
-            String idStr = partes[i].trim();
-            if (!idStr.isEmpty()) {
+        int desde = separador + 1;
+        while (desde < fin) {
+            int hasta = LectorMapeado.buscar(buffer, desde, fin, SEPARADOR);
+            if (!LectorMapeado.estaVacio(buffer, desde, hasta)) {
                 try {
-                    int idParada = Integer.parseInt(idStr);
+                    int idParada = LectorMapeado.entero(buffer, desde, hasta);
                     Parada parada = paradas.get(idParada);
                     if (parada != null) {
                         linea.agregarParada(parada);
                     } else {
-                        vista.mostrarAdvertenciaParadaNoEncontrada(idParada);
+                        advertencias.paradaNoEncontrada(idParada);
                     }
                 } catch (NumberFormatException ex) {
-                    vista.mostrarAdvertenciaParadaNoValida(idStr);
+                    advertencias.paradaNoValida(LectorMapeado.texto(buffer, desde, hasta));
                 }
             }
+            desde = hasta + 1;
         }
-        return linea;
+        return linea.construir();
+    }
+
+    /**
+     * Indica si la línea tiene al menos dos campos, es decir, si después del primer separador
+     * queda algún campo no vacío, igual que si se la dividiera con {@code split(";")}.
+     * @param buffer Buffer con el contenido del archivo.
+     * @param separador Posición del primer separador, o {@code fin} si no hay.
+     * @param fin Posición siguiente al último byte de la línea.
+     */
+    private static boolean tieneSegundoCampo(ByteBuffer buffer, int separador, int fin) {
+        return separador < fin && LectorMapeado.contieneDistintoDe(buffer, separador + 1, fin, SEPARADOR);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,293 @@
+package io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Recorre las líneas de un archivo de texto mapeándolo en memoria, sin copiarlo a un buffer
+ * intermedio ni crear un String por línea. Cada línea se entrega como un rango de bytes del
+ * buffer mapeado, y los campos se convierten a texto solo cuando hace falta.
+ *
+ * Los archivos se mapean por ventanas que terminan en un fin de línea, por lo que también
+ * admite archivos más grandes que lo que puede direccionar un único buffer.
+ * Cada ventana también puede repartirse en fragmentos de líneas completas que se procesan en paralelo.
+ * Se asume una codificación compatible con ASCII, donde los bytes de ';', '\n' y '\r'
+ * no forman parte de otros caracteres.
+ */
+final class LectorMapeado {
+    private static final int VENTANA = 1 << 26;
+    private static final int FRAGMENTOS_POR_HILO = 4;
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    /**
+     * Recibe cada línea del archivo como un rango de bytes, sin el fin de línea.
+     */
+    @FunctionalInterface
+    interface ConsumidorLinea {
+        void aceptar(ByteBuffer buffer, int inicio, int fin);
+    }
+
+    /**
+     * Procesa el contenido de un fragmento del archivo, formado por líneas completas.
+     * @param <R> Tipo del resultado de cada fragmento.
+     */
+    @FunctionalInterface
+    interface ProcesadorFragmento<R> {
+        R procesar(ByteBuffer buffer, int inicio, int fin);
+    }
+
+    /**
+     * Recibe cada ventana mapeada del archivo; los primeros {@code limite} bytes son líneas completas.
+     */
+    @FunctionalInterface
+    private interface ConsumidorVentana {
+        void aceptar(ByteBuffer buffer, int limite);
+    }
+
+    private LectorMapeado() {}
+
+    /**
+     * Recorre todas las líneas del archivo en orden.
+     * Como {@link java.io.BufferedReader#readLine()}, acepta "\n", "\r" o "\r\n" como fin de línea.
+     *
+     * @param ruta Ruta del archivo.
+     * @param consumidor Receptor de cada línea.
+     * @throws IOException si el archivo no existe o no se puede leer.
+     */
+    static void recorrerLineas(String ruta, ConsumidorLinea consumidor) throws IOException {
+        recorrerVentanas(ruta, (buffer, limite) -> recorrerLineas(buffer, 0, limite, consumidor));
+    }
+
+    /**
+     * Divide el archivo en fragmentos de líneas completas y los procesa en paralelo con
+     * un pool de la cantidad de hilos indicada. Cada ventana mapeada se reparte en varios
+     * fragmentos por hilo para equilibrar la carga; los hilos solo leen el buffer mapeado.
+     *
+     * @param <R> Tipo del resultado de cada fragmento.
+     * @param ruta Ruta del archivo.
+     * @param hilos Cantidad de hilos del pool.
+     * @param procesador Procesador de cada fragmento; puede ejecutarse en cualquier hilo.
+     * @return Resultado de cada fragmento, en el orden del archivo.
+     * @throws IOException si el archivo no existe o no se puede leer.
+     */
+    static <R> List<R> procesarEnFragmentos(String ruta, int hilos, ProcesadorFragmento<R> procesador)
+            throws IOException {
+        List<R> resultados = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(hilos);
+        try {
+            recorrerVentanas(ruta, (buffer, limite) -> {
+                List<Callable<R>> tareas = new ArrayList<>();
+                int cantidad = hilos * FRAGMENTOS_POR_HILO;
+                int inicio = 0;
+                for (int k = 1; k <= cantidad && inicio < limite; k++) {
+                    int fin = k == cantidad ? limite : siguienteInicioDeLinea(buffer, (int) ((long) limite * k / cantidad), limite);
+                    if (fin <= inicio) continue;
+                    int desde = inicio;
+                    tareas.add(() -> procesador.procesar(buffer, desde, fin));
+                    inicio = fin;
+                }
+                for (Future<R> resultado : pool.invokeAll(tareas)) {
+                    resultados.add(esperar(resultado));
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+        return resultados;
+    }
+
+    /**
+     * Espera el resultado de un fragmento y propaga sin envolver las excepciones del procesador.
+     */
+    private static <R> R esperar(Future<R> resultado) {
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Carga en paralelo interrumpida.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException("Error en la carga en paralelo.", e.getCause());
+        }
+    }
+
+    /**
+     * Mapea el archivo por ventanas que terminan en un fin de línea y entrega cada una en orden.
+     */
+    private static void recorrerVentanas(String ruta, ConsumidorVentana consumidor) throws IOException {
+        try (FileChannel canal = FileChannel.open(Path.of(ruta), StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            long posicion = 0;
+            long ventana = VENTANA;
+            while (posicion < tamano) {
+                long largo = Math.min(ventana, tamano - posicion);
+                MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, posicion, largo);
+                int limite = (int) largo;
+                if (posicion + largo < tamano) {
+                    limite = ultimoFinDeLinea(buffer, limite) + 1;
+                    if (limite == 0) {
+                        // Ninguna línea termina dentro de la ventana: se vuelve a mapear una más grande
+                        ventana = Math.min(ventana * 2, Integer.MAX_VALUE);
+                        continue;
+                    }
+                }
+                consumidor.aceptar(buffer, limite);
+                posicion += limite;
+            }
+        }
+    }
+
+    /**
+     * Entrega al consumidor cada línea del rango indicado del buffer.
+     * El rango debe empezar al comienzo de una línea.
+     *
+     * @param buffer Buffer con el contenido del archivo.
+     * @param desde Posición del primer byte del rango.
+     * @param limite Posición siguiente al último byte del rango.
+     * @param consumidor Receptor de cada línea.
+     */
+    static void recorrerLineas(ByteBuffer buffer, int desde, int limite, ConsumidorLinea consumidor) {
+        int inicio = desde;
+        int i = desde;
+        while (i < limite) {
+            byte b = buffer.get(i);
+            if (b == '\n' || b == '\r') {
+                consumidor.aceptar(buffer, inicio, i);
+                i++;
+                if (b == '\r' && i < limite && buffer.get(i) == '\n') i++;
+                inicio = i;
+            } else {
+                i++;
+            }
+        }
+        if (inicio < limite) consumidor.aceptar(buffer, inicio, limite);
+    }
+
+    /**
+     * Busca el comienzo de la primera línea que empieza después de la posición indicada.
+     * Un "\r\n" se saltea completo para no partirlo entre dos fragmentos.
+     * @return Posición del comienzo de la línea, o {@code limite} si no hay otra línea.
+     */
+    private static int siguienteInicioDeLinea(ByteBuffer buffer, int desde, int limite) {
+        for (int i = desde; i < limite; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n') return i + 1;
+            if (b == '\r') return i + 1 < limite && buffer.get(i + 1) == '\n' ? i + 2 : i + 1;
+        }
+        return limite;
+    }
+
+    /**
+     * Busca el último fin de línea de los primeros {@code limite} bytes del buffer.
+     * @return Índice del último '\n' o '\r', o -1 si no hay ninguno.
+     */
+    private static int ultimoFinDeLinea(ByteBuffer buffer, int limite) {
+        for (int i = limite - 1; i >= 0; i--) {
+            byte b = buffer.get(i);
+            if (b == '\n' || b == '\r') return i;
+        }
+        return -1;
+    }
+
+    // =========================
+    // Acceso a campos dentro de una línea
+    // =========================
+
+    /**
+     * Indica si la línea está vacía (solo espacios) o es un comentario que empieza con '#'.
+     */
+    static boolean esVaciaOComentario(ByteBuffer buffer, int inicio, int fin) {
+        if (inicio < fin && buffer.get(inicio) == '#') return true;
+        return saltearEspacios(buffer, inicio, fin) == fin;
+    }
+
+    /**
+     * Busca la primera aparición de un byte en el rango.
+     * @return Índice del byte, o {@code fin} si no aparece.
+     */
+    static int buscar(ByteBuffer buffer, int inicio, int fin, byte valor) {
+        for (int i = inicio; i < fin; i++) {
+            if (buffer.get(i) == valor) return i;
+        }
+        return fin;
+    }
+
+    /**
+     * Indica si el rango contiene algún byte distinto del indicado.
+     */
+    static boolean contieneDistintoDe(ByteBuffer buffer, int inicio, int fin, byte valor) {
+        for (int i = inicio; i < fin; i++) {
+            if (buffer.get(i) != valor) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Convierte un campo en texto, sin los espacios iniciales y finales como {@link String#trim()}.
+     */
+    static String texto(ByteBuffer buffer, int inicio, int fin) {
+        inicio = saltearEspacios(buffer, inicio, fin);
+        fin = recortarEspacios(buffer, inicio, fin);
+        byte[] bytes = new byte[fin - inicio];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(inicio + i);
+        }
+        return new String(bytes, CHARSET);
+    }
+
+    /**
+     * Indica si el campo queda vacío al quitarle los espacios.
+     */
+    static boolean estaVacio(ByteBuffer buffer, int inicio, int fin) {
+        return saltearEspacios(buffer, inicio, fin) == fin;
+    }
+
+    /**
+     * Convierte un campo en entero sin crear un String en el caso habitual de un número
+     * de hasta nueve dígitos. En cualquier otro caso delega en {@link Integer#parseInt(String)},
+     * por lo que acepta y rechaza exactamente los mismos valores.
+     *
+     * @throws NumberFormatException si el campo no es un entero válido.
+     */
+    static int entero(ByteBuffer buffer, int inicio, int fin) {
+        int desde = saltearEspacios(buffer, inicio, fin);
+        int hasta = recortarEspacios(buffer, desde, fin);
+        int i = desde;
+        boolean negativo = false;
+        if (i < hasta && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negativo = buffer.get(i) == '-';
+            i++;
+        }
+        if (i == hasta || hasta - i > 9) return Integer.parseInt(texto(buffer, desde, hasta));
+
+        int valor = 0;
+        for (; i < hasta; i++) {
+            int digito = buffer.get(i) - '0';
+            if (digito < 0 || digito > 9) return Integer.parseInt(texto(buffer, desde, hasta));
+            valor = valor * 10 + digito;
+        }
+        return negativo ? -valor : valor;
+    }
+
+    private static int saltearEspacios(ByteBuffer buffer, int inicio, int fin) {
+        while (inicio < fin && (buffer.get(inicio) & 0xFF) <= ' ') inicio++;
+        return inicio;
+    }
+
+    private static int recortarEspacios(ByteBuffer buffer, int inicio, int fin) {
+        while (fin > inicio && (buffer.get(fin - 1) & 0xFF) <= ' ') fin--;
+        return fin;
+    }
+}
@@ -0,0 +1,153 @@
+package io;
+
+import domain.Colectivo;
+import domain.Parada;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import presentacion.SimulacionOutput;
+
+/**
+ * Lee un registro binario generado por {@link RegistroEventosBinario} y regenera
+ * el texto de la simulación a través de la vista, con los mismos mensajes que la salida original.
+ * Necesita la red y los colectivos con los que se generó el registro para obtener
+ * direcciones y códigos de línea a partir de los IDs. Los registros se reproducen en el orden del archivo,
+ * que es el del tiempo simulado porque el registro solo se genera con un hilo de simulación.
+ */
+public class LectorRegistroEventos {
+    private static final int TAMANO_BUFFER = RegistroEventosBinario.TAMANO_REGISTRO * 52_428; // ~1 MB
+
+    private final String ruta;
+    private final Map<Integer, Parada> paradas;
+    private final Map<Integer, Colectivo> colectivos = new HashMap<>();
+    private final Map<Integer, int[]> pasajerosAtendidos = new HashMap<>(); // {bajaron, subieron} por colectivo
+
+    /**
+     * Crea un lector para el registro indicado.
+     * @param ruta Ruta del registro binario.
+     * @param paradas Paradas de la red, indexadas por su ID.
+     * @param colectivos Colectivos de la simulación registrada.
+     */
+    public LectorRegistroEventos(String ruta, Map<Integer, Parada> paradas, List<Colectivo> colectivos) {
+        this.ruta = ruta;
+        this.paradas = paradas;
+        for (Colectivo c : colectivos) {
+            this.colectivos.put(c.getId(), c);
+        }
+    }
+
+    /**
+     * Recorre el registro y muestra cada evento en la vista.
+     * @param vista Vista donde se regenera el texto.
+     * @throws RuntimeException si el archivo no se puede leer, no es un registro válido
+     *         o no corresponde a la red cargada.
+     */
+    public void reproducir(SimulacionOutput vista) {
+        try (FileChannel canal = FileChannel.open(Path.of(ruta), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BUFFER);
+            boolean motorEventos = leerEncabezado(canal, buffer);
+
+            while (canal.read(buffer) >= 0 || buffer.position() > 0) {
+                buffer.flip();
+                if (buffer.remaining() < RegistroEventosBinario.TAMANO_REGISTRO) {
+                    if (buffer.hasRemaining()) {
+                        throw new IllegalStateException("Registro de eventos truncado: " + ruta);
+                    }
+                    break;
+                }
+                while (buffer.remaining() >= RegistroEventosBinario.TAMANO_REGISTRO) {
+                    reproducirRegistro(buffer, motorEventos, vista);
+                }
+                buffer.compact();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer el registro de eventos: " + ruta, e);
+        }
+    }
+
+    /**
+     * Lee y valida el encabezado del registro.
+     * @return true si el registro se generó con el motor de eventos.
+     */
+    private boolean leerEncabezado(FileChannel canal, ByteBuffer buffer) throws IOException {
+        buffer.limit(RegistroEventosBinario.TAMANO_ENCABEZADO);
+        while (buffer.hasRemaining() && canal.read(buffer) >= 0) {
+            // Lee hasta completar el encabezado
+        }
+        buffer.flip();
+        if (buffer.remaining() < RegistroEventosBinario.TAMANO_ENCABEZADO
+                || buffer.getInt() != RegistroEventosBinario.MARCA) {
+            throw new IllegalStateException("El archivo no es un registro de eventos: " + ruta);
+        }
+        short version = buffer.getShort();
+        if (version != RegistroEventosBinario.VERSION) {
+            throw new IllegalStateException("Versión de registro de eventos no soportada: " + version);
+        }
+        boolean motorEventos = buffer.get() == 1;
+        buffer.clear();
+        return motorEventos;
+    }
+
+    /**
+     * Lee un registro del buffer y muestra el mensaje correspondiente.
+     */
+    private void reproducirRegistro(ByteBuffer buffer, boolean motorEventos, SimulacionOutput vista) {
+        byte tipo = buffer.get();
+        buffer.position(buffer.position() + 3);
+        int tiempo = buffer.getInt();
+        int idColectivo = buffer.getInt();
+        int idParada = buffer.getInt();
+        int valor = buffer.getInt();
+
+        switch (tipo) {
+            case RegistroEventosBinario.INSTANTE -> {
+                if (motorEventos) vista.mostrarInstante(tiempo);
+                else vista.mostrarInicioParada(tiempo);
+            }
+            case RegistroEventosBinario.LLEGADA -> {
+                int[] atendidos = pasajerosAtendidos.computeIfAbsent(idColectivo, id -> new int[2]);
+                atendidos[0] = 0;
+                atendidos[1] = 0;
+                vista.mostrarLlegadaColectivo(colectivo(idColectivo), parada(idParada));
+            }
+            case RegistroEventosBinario.BAJADA -> {
+                pasajerosAtendidos.computeIfAbsent(idColectivo, id -> new int[2])[0]++;
+                vista.mostrarPasajeroBajo(valor);
+            }
+            case RegistroEventosBinario.SUBIDA -> {
+                pasajerosAtendidos.computeIfAbsent(idColectivo, id -> new int[2])[1]++;
+                vista.mostrarPasajeroSubio(valor);
+            }
+            case RegistroEventosBinario.ESTADO -> {
+                int[] atendidos = pasajerosAtendidos.computeIfAbsent(idColectivo, id -> new int[2]);
+                vista.mostrarEstadoColectivo(colectivo(idColectivo), atendidos[0], atendidos[1], valor);
+            }
+            case RegistroEventosBinario.SIN_LUGAR ->
+                vista.mostrarAdvertenciaColectivoLleno(colectivo(idColectivo), parada(idParada), valor);
+            case RegistroEventosBinario.FIN_RECORRIDO ->
+                vista.mostrarFinRecorrido(colectivo(idColectivo));
+            default -> throw new IllegalStateException("Tipo de evento desconocido en el registro: " + tipo);
+        }
+    }
+
+    private Colectivo colectivo(int id) {
+        Colectivo c = colectivos.get(id);
+        if (c == null) {
+            throw new IllegalStateException("El registro referencia un colectivo inexistente: " + id);
+        }
+        return c;
+    }
+
+    private Parada parada(int id) {
+        Parada p = paradas.get(id);
+        if (p == null) {
+            throw new IllegalStateException("El registro referencia una parada inexistente: " + id);
+        }
+        return p;
+    }
+}
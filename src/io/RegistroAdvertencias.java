@@ -0,0 +1,49 @@
+package io;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guarda advertencias en el orden en que se producen para reproducirlas después en otro destino.
+ */
+final class RegistroAdvertencias implements Advertencias {
+
+    /**
+     * Advertencia registrada: una parada no encontrada, o un ID inválido si {@code idNoValido} no es null.
+     */
+    record Advertencia(int idParada, String idNoValido) {}
+
+    private final List<Advertencia> advertencias = new ArrayList<>();
+
+    @Override
+    public void paradaNoEncontrada(int idParada) {
+        advertencias.add(new Advertencia(idParada, null));
+    }
+
+    @Override
+    public void paradaNoValida(String idParada) {
+        advertencias.add(new Advertencia(0, idParada));
+    }
+
+    /**
+     * Reproduce las advertencias registradas, en orden, en otro destino.
+     * @param destino Destino de las advertencias.
+     */
+    void reproducirEn(Advertencias destino) {
+        for (Advertencia a : advertencias) {
+            if (a.idNoValido() != null) {
+                destino.paradaNoValida(a.idNoValido());
+            } else {
+                destino.paradaNoEncontrada(a.idParada());
+            }
+        }
+    }
+
+    /**
+     * Devuelve las advertencias registradas.
+     * @return Lista de advertencias, en el orden en que se produjeron.
+     */
+    List<Advertencia> getAdvertencias() {
+        return advertencias;
+    }
+}
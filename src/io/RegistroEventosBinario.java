@@ -0,0 +1,137 @@
+package io;
+
+import domain.Colectivo;
+import domain.Parada;
+import domain.ListaPasajeros;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import logic.ObservadorSimulacion;
+
+/**
+ * Registra los eventos de la simulación en un archivo binario de registros de tamaño fijo.
+ * Es una alternativa compacta a la salida de texto: cada evento ocupa {@value #TAMANO_REGISTRO} bytes
+ * y se escribe mediante un {@link FileChannel} desde un buffer directo.
+ * El texto legible se regenera cuando se necesita con {@link LectorRegistroEventos}.
+ *
+ * Formato: un encabezado de {@value #TAMANO_ENCABEZADO} bytes (marca, versión y motor usado)
+ * seguido de registros con tipo (1 byte), 3 bytes reservados, tiempo, colectivo, parada y valor
+ * (4 bytes cada uno). El valor es el ID del pasajero en subidas y bajadas, la cantidad a bordo
+ * en el estado del colectivo y la cantidad que quedó esperando cuando el colectivo se llena.
+ *
+ * Los registros se escriben en el orden en que llegan las notificaciones, sin sincronización: la configuración
+ * solo admite el registro con un hilo de simulación, de modo que quedan en el orden del tiempo simulado.
+ */
+public class RegistroEventosBinario implements ObservadorSimulacion, AutoCloseable {
+    static final int MARCA = 0x53434556; // "SCEV"
+    static final short VERSION = 1;
+    static final int TAMANO_ENCABEZADO = 8;
+    static final int TAMANO_REGISTRO = 20;
+
+    static final byte INSTANTE = 1;
+    static final byte LLEGADA = 2;
+    static final byte BAJADA = 3;
+    static final byte SUBIDA = 4;
+    static final byte ESTADO = 5;
+    static final byte SIN_LUGAR = 6;
+    static final byte FIN_RECORRIDO = 7;
+
+    private static final int TAMANO_BUFFER = TAMANO_REGISTRO * 52_428; // ~1 MB
+    private static final int SIN_DATO = -1;
+
+    private final String ruta;
+    private final FileChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER);
+
+    /**
+     * Crea el archivo de registro y escribe su encabezado.
+     * @param ruta Ruta del archivo de registro.
+     * @param motorEventos true si los tiempos son segundos del motor de eventos, false si son pasos.
+     * @throws UncheckedIOException si no se puede crear el archivo.
+     */
+    public RegistroEventosBinario(String ruta, boolean motorEventos) {
+        this.ruta = ruta;
+        try {
+            this.canal = FileChannel.open(Path.of(ruta), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al crear el registro de eventos: " + ruta, e);
+        }
+        buffer.putInt(MARCA).putShort(VERSION).put((byte) (motorEventos ? 1 : 0)).put((byte) 0);
+    }
+
+    @Override
+    public void alIniciarInstante(long tiempo) {
+        registrar(INSTANTE, tiempo, SIN_DATO, SIN_DATO, SIN_DATO);
+    }
+
+    @Override
+    public void alLlegarColectivo(long tiempo, Colectivo colectivo, Parada parada) {
+        registrar(LLEGADA, tiempo, colectivo.getId(), parada.getId(), SIN_DATO);
+    }
+
+    @Override
+    public void alAtenderParada(long tiempo, Colectivo colectivo, Parada parada,
+                                             ListaPasajeros bajaron, ListaPasajeros subieron) {
+        for (int i = 0; i < bajaron.size(); i++) {
+            registrar(BAJADA, tiempo, colectivo.getId(), parada.getId(), bajaron.getId(i));
+        }
+        for (int i = 0; i < subieron.size(); i++) {
+            registrar(SUBIDA, tiempo, colectivo.getId(), parada.getId(), subieron.getId(i));
+        }
+        registrar(ESTADO, tiempo, colectivo.getId(), parada.getId(), colectivo.getCantidadPasajeros());
+    }
+
+    @Override
+    public void alQuedarPasajerosSinLugar(long tiempo, Colectivo colectivo, Parada parada, int esperando) {
+        registrar(SIN_LUGAR, tiempo, colectivo.getId(), parada.getId(), esperando);
+    }
+
+    @Override
+    public void alFinalizarRecorrido(long tiempo, Colectivo colectivo) {
+        registrar(FIN_RECORRIDO, tiempo, colectivo.getId(), SIN_DATO, SIN_DATO);
+    }
+
+    /**
+     * Escribe lo pendiente y cierra el archivo.
+     * @throws UncheckedIOException si ocurre un error de escritura.
+     */
+    @Override
+    public void close() {
+        try {
+            vaciar();
+            canal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al cerrar el registro de eventos: " + ruta, e);
+        }
+    }
+
+    /**
+     * Agrega un registro al buffer, escribiéndolo en el archivo si no hay lugar.
+     */
+    private void registrar(byte tipo, long tiempo, int colectivo, int parada, int valor) {
+        if (buffer.remaining() < TAMANO_REGISTRO) {
+            try {
+                vaciar();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al escribir el registro de eventos: " + ruta, e);
+            }
+        }
+        buffer.put(tipo).put((byte) 0).putShort((short) 0)
+              .putInt(Math.toIntExact(tiempo))
+              .putInt(colectivo)
+              .putInt(parada)
+              .putInt(valor);
+    }
+
+    private void vaciar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+}
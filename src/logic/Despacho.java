@@ -0,0 +1,44 @@
+package logic;
+
+import domain.Colectivo;
+import domain.Linea;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Calcula cuándo sale cada colectivo a recorrer su línea. Los colectivos de una misma línea
+ * salen uno tras otro, en el orden de la lista, separados por un intervalo fijo o,
+ * si no se indica, repartidos en partes iguales a lo largo de una vuelta.
+ * El primero de cada línea sale en el instante 0.
+ */
+final class Despacho {
+
+    private Despacho() {}
+
+    /**
+     * Calcula la salida de cada colectivo, en las unidades de tiempo del motor.
+     * @param colectivos Colectivos a despachar.
+     * @param intervalo Intervalo entre salidas de una misma línea; 0 para repartirlas a lo largo de la vuelta.
+     * @param duracionVuelta Duración estimada de una vuelta de cada línea, usada si el intervalo es 0.
+     * @return Instante de salida de cada colectivo, en el orden de la lista.
+     */
+    static long[] calcularSalidas(List<Colectivo> colectivos, long intervalo, ToLongFunction<Linea> duracionVuelta) {
+        Map<Linea, Integer> flota = new HashMap<>();
+        for (Colectivo c : colectivos) {
+            flota.merge(c.getLinea(), 1, Integer::sum);
+        }
+
+        Map<Linea, Integer> despachados = new HashMap<>();
+        long[] salidas = new long[colectivos.size()];
+        for (int i = 0; i < salidas.length; i++) {
+            Linea linea = colectivos.get(i).getLinea();
+            int orden = despachados.merge(linea, 1, Integer::sum) - 1;
+            if (orden == 0) continue;
+            long separacion = intervalo > 0 ? intervalo : duracionVuelta.applyAsLong(linea) / flota.get(linea);
+            salidas[i] = orden * separacion;
+        }
+        return salidas;
+    }
+}
@@ -0,0 +1,34 @@
+package logic;
+
+import domain.Colectivo;
+
+/**
+ * Evento programado en la agenda del motor de eventos discretos.
+ * Los eventos se ordenan por tiempo y, a igual tiempo, por orden de programación,
+ * de modo que la simulación sea determinística.
+ *
+ * @param tiempo Instante simulado, en segundos, en que ocurre el evento.
+ * @param secuencia Número de orden en que se programó el evento.
+ * @param tipo Tipo de evento.
+ * @param colectivo Colectivo involucrado.
+ * @param posicion Posición del colectivo en el recorrido de su línea.
+ */
+record Evento(long tiempo, long secuencia, Tipo tipo, Colectivo colectivo, int posicion)
+        implements Comparable<Evento> {
+
+    /**
+     * Tipos de eventos que maneja el simulador.
+     */
+    enum Tipo {
+        /** El colectivo llega a la parada de la posición indicada. */
+        LLEGADA,
+        /** El colectivo parte de la parada de la posición indicada hacia la siguiente. */
+        PARTIDA
+    }
+
+    @Override
+    public int compareTo(Evento otro) {
+        int porTiempo = Long.compare(tiempo, otro.tiempo);
+        return porTiempo != 0 ? porTiempo : Long.compare(secuencia, otro.secuencia);
+    }
+}
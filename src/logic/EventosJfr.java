@@ -0,0 +1,171 @@
+package logic;
+
+import domain.Colectivo;
+import domain.Parada;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Eventos propios que la simulación emite a Java Flight Recorder, para ubicar en JDK Mission Control
+ * las paradas y líneas lentas junto a las pausas del recolector de basura y la E/S de la misma grabación.
+ * Se habilitan, deshabilitan o filtran por duración con la configuración estándar de JFR, en un archivo .jfc
+ * pasado en {@code -XX:StartFlightRecording:settings=...} (por ejemplo, {@code enabled=false} para
+ * {@code simulacion.Subidas} o {@code threshold=2 ms} para {@code simulacion.AtencionParada}).
+ * Sin una grabación activa no se registra nada: cada evento se crea, se inicia y se descarta
+ * sin completar sus campos, lo que el compilador JIT reduce a casi nada.
+ *
+ * El tiempo simulado es el número de paso en el motor parada por parada
+ * y el instante en segundos en el motor de eventos, como en {@link ObservadorSimulacion}.
+ */
+public final class EventosJfr {
+    private static final String CATEGORIA = "Simulación de colectivos";
+
+    private EventosJfr() {}
+
+    /**
+     * Base de los eventos que ocurren en una parada: identifican al colectivo, su línea y la parada.
+     */
+    @Category({CATEGORIA, "Paradas"})
+    @StackTrace(false)
+    abstract static class EventoParada extends Event {
+        @Label("Línea")
+        String linea;
+
+        @Label("Colectivo")
+        int colectivo;
+
+        @Label("Parada")
+        int parada;
+
+        @Label("Tiempo simulado")
+        @Description("Paso en el motor parada por parada o segundo en el motor de eventos.")
+        long tiempo;
+
+        @Label("Pasajeros")
+        int pasajeros;
+
+        /**
+         * Termina el evento y lo registra si la grabación lo requiere; si no, no completa sus campos.
+         * @param c Colectivo en la parada.
+         * @param p Parada.
+         * @param tiempoSimulado Paso o instante simulado.
+         * @param cantidad Pasajeros involucrados.
+         */
+        void registrar(Colectivo c, Parada p, long tiempoSimulado, int cantidad) {
+            end();
+            if (!shouldCommit()) return;
+            linea = c.getLinea().getCodigo();
+            colectivo = c.getId();
+            parada = p.getId();
+            tiempo = tiempoSimulado;
+            pasajeros = cantidad;
+            commit();
+        }
+    }
+
+    /**
+     * Atención completa de un colectivo en una parada, desde su llegada: bajadas, subidas,
+     * mensajes, observadores y registro de la ocupación. Los pasajeros son los que bajaron y subieron.
+     */
+    @Name("simulacion.AtencionParada")
+    @Label("Atención de parada")
+    @Description("Llegada de un colectivo a una parada y atención completa de sus pasajeros.")
+    public static final class AtencionParada extends EventoParada {}
+
+    /**
+     * Bajada de los pasajeros cuyo destino es la parada.
+     */
+    @Name("simulacion.Bajadas")
+    @Label("Bajadas")
+    @Description("Bajada de los pasajeros que llegaron a destino.")
+    public static final class Bajadas extends EventoParada {}
+
+    /**
+     * Subida de los pasajeros que esperan en la parada, incluida la espera del cerrojo
+     * si la parada es compartida entre hilos.
+     */
+    @Name("simulacion.Subidas")
+    @Label("Subidas")
+    @Description("Subida de los pasajeros que esperan en la parada, con la espera del cerrojo si es compartida.")
+    public static final class Subidas extends EventoParada {}
+
+    /**
+     * El colectivo quedó lleno y los pasajeros indicados quedaron esperando.
+     */
+    @Name("simulacion.ColectivoLleno")
+    @Label("Colectivo lleno")
+    @Description("Pasajeros que quisieron subir y quedaron esperando porque el colectivo estaba lleno.")
+    public static final class ColectivoLleno extends EventoParada {}
+
+    /**
+     * Fin de una vuelta del recorrido de un colectivo.
+     */
+    @Name("simulacion.FinRecorrido")
+    @Label("Fin de recorrido")
+    @Category({CATEGORIA, "Colectivos"})
+    @StackTrace(false)
+    public static final class FinRecorrido extends Event {
+        @Label("Línea")
+        String linea;
+
+        @Label("Colectivo")
+        int colectivo;
+
+        @Label("Vuelta")
+        int vuelta;
+
+        @Label("Tiempo simulado")
+        long tiempo;
+
+        /**
+         * Registra el fin de la vuelta si la grabación lo requiere.
+         * @param c Colectivo que terminó la vuelta.
+         * @param numeroVuelta Número de la vuelta terminada, desde 1.
+         * @param tiempoSimulado Paso o instante simulado.
+         */
+        public static void registrar(Colectivo c, int numeroVuelta, long tiempoSimulado) {
+            FinRecorrido evento = new FinRecorrido();
+            if (!evento.shouldCommit()) return;
+            evento.linea = c.getLinea().getCodigo();
+            evento.colectivo = c.getId();
+            evento.vuelta = numeroVuelta;
+            evento.tiempo = tiempoSimulado;
+            evento.commit();
+        }
+    }
+
+    /**
+     * Carga de las paradas y las líneas, desde los archivos de texto o desde la caché binaria.
+     */
+    @Name("simulacion.CargaRed")
+    @Label("Carga de la red")
+    @Category({CATEGORIA, "Carga"})
+    public static final class CargaRed extends Event {
+        @Label("Paradas")
+        public int paradas;
+
+        @Label("Líneas")
+        public int lineas;
+
+        @Label("Desde la caché")
+        public boolean desdeCache;
+    }
+
+    /**
+     * Sorteo y creación de los pasajeros iniciales.
+     */
+    @Name("simulacion.GeneracionPasajeros")
+    @Label("Generación de pasajeros")
+    @Category({CATEGORIA, "Carga"})
+    public static final class GeneracionPasajeros extends Event {
+        @Label("Líneas")
+        public int lineas;
+
+        @Label("Pasajeros")
+        public long pasajeros;
+    }
+}
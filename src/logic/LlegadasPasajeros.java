@@ -0,0 +1,38 @@
+package logic;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Incorpora pasajeros a las paradas a medida que avanza el tiempo simulado, en lugar de
+ * generarlos todos antes de empezar. El motor de eventos lo invoca antes de procesar cada evento,
+ * de modo que un colectivo solo encuentra a los pasajeros que ya llegaron a la parada.
+ */
+public interface LlegadasPasajeros {
+
+    /** Sin llegadas durante la simulación: todos los pasajeros se generan al inicio. */
+    LlegadasPasajeros NINGUNA = tiempo -> {};
+
+    /**
+     * Agrega a sus paradas los pasajeros que llegan hasta el instante indicado, inclusive.
+     * Los instantes sucesivos nunca son menores que los anteriores.
+     * @param tiempo Instante simulado, en segundos.
+     */
+    void generarHasta(long tiempo);
+
+    /**
+     * Escribe lo necesario para continuar las llegadas desde un punto de control. Sin llegadas no hay nada que guardar.
+     * @param out Destino del estado.
+     * @throws IOException si no se puede escribir.
+     */
+    default void guardarEstado(DataOutput out) throws IOException {}
+
+    /**
+     * Continúa las llegadas desde el estado guardado con {@link #guardarEstado(DataOutput)}, sin volver
+     * a agregar los pasajeros que ya habían llegado, que se restauran con el resto del punto de control.
+     * @param in Origen del estado.
+     * @throws IOException si no se puede leer.
+     */
+    default void restaurarEstado(DataInput in) throws IOException {}
+}
@@ -0,0 +1,101 @@
+package logic;
+
+import domain.Colectivo;
+import domain.Parada;
+import domain.ListaPasajeros;
+import java.util.List;
+
+/**
+ * Recibe los eventos que ocurren durante la simulación, además de los mensajes que se muestran
+ * en la vista. Permite registrar o analizar la simulación sin modificar los motores.
+ * Todos los métodos tienen una implementación vacía, por lo que cada observador
+ * solo redefine los eventos que le interesan.
+ *
+ * El tiempo de cada evento es el número de paso en el motor parada por parada
+ * y el tiempo simulado en segundos en el motor de eventos.
+ * En la simulación paralela los métodos pueden invocarse desde varios hilos a la vez.
+ */
+public interface ObservadorSimulacion {
+
+    /** Observador que ignora todos los eventos. */
+    ObservadorSimulacion NINGUNO = new ObservadorSimulacion() {};
+
+    /**
+     * Se invoca al comenzar un nuevo paso o instante de la simulación.
+     * @param tiempo Paso o instante que comienza.
+     */
+    default void alIniciarInstante(long tiempo) {}
+
+    /**
+     * Se invoca cuando un colectivo llega a una parada, antes de que bajen y suban pasajeros.
+     * @param tiempo Paso o instante del evento.
+     * @param colectivo Colectivo que llega.
+     * @param parada Parada a la que llega.
+     */
+    default void alLlegarColectivo(long tiempo, Colectivo colectivo, Parada parada) {}
+
+    /**
+     * Se invoca después de que bajan y suben los pasajeros en una parada.
+     * @param tiempo Paso o instante del evento.
+     * @param colectivo Colectivo atendido.
+     * @param parada Parada atendida.
+     * @param bajaron Pasajeros que bajaron, como IDs en su almacén.
+     * @param subieron Pasajeros que subieron, como IDs en su almacén.
+     */
+    default void alAtenderParada(long tiempo, Colectivo colectivo, Parada parada,
+                                 ListaPasajeros bajaron, ListaPasajeros subieron) {}
+
+    /**
+     * Se invoca cuando el colectivo queda lleno en una parada.
+     * @param tiempo Paso o instante del evento.
+     * @param colectivo Colectivo lleno.
+     * @param parada Parada donde se llenó.
+     * @param esperando Pasajeros que querían subir y quedaron esperando.
+     */
+    default void alQuedarPasajerosSinLugar(long tiempo, Colectivo colectivo, Parada parada, int esperando) {}
+
+    /**
+     * Se invoca cuando un colectivo completa una vuelta de su recorrido.
+     * @param tiempo Paso o instante del evento.
+     * @param colectivo Colectivo que terminó la vuelta.
+     */
+    default void alFinalizarRecorrido(long tiempo, Colectivo colectivo) {}
+
+    /**
+     * Combina varios observadores en uno que reenvía cada evento a todos, en el orden dado.
+     * @param observadores Observadores a combinar.
+     * @return Observador combinado.
+     */
+    static ObservadorSimulacion combinar(List<ObservadorSimulacion> observadores) {
+        if (observadores.isEmpty()) return NINGUNO;
+        if (observadores.size() == 1) return observadores.get(0);
+        List<ObservadorSimulacion> todos = List.copyOf(observadores);
+        return new ObservadorSimulacion() {
+            @Override
+            public void alIniciarInstante(long tiempo) {
+                for (ObservadorSimulacion o : todos) o.alIniciarInstante(tiempo);
+            }
+
+            @Override
+            public void alLlegarColectivo(long tiempo, Colectivo colectivo, Parada parada) {
+                for (ObservadorSimulacion o : todos) o.alLlegarColectivo(tiempo, colectivo, parada);
+            }
+
+            @Override
+            public void alAtenderParada(long tiempo, Colectivo colectivo, Parada parada,
+                                        ListaPasajeros bajaron, ListaPasajeros subieron) {
+                for (ObservadorSimulacion o : todos) o.alAtenderParada(tiempo, colectivo, parada, bajaron, subieron);
+            }
+
+            @Override
+            public void alQuedarPasajerosSinLugar(long tiempo, Colectivo colectivo, Parada parada, int esperando) {
+                for (ObservadorSimulacion o : todos) o.alQuedarPasajerosSinLugar(tiempo, colectivo, parada, esperando);
+            }
+
+            @Override
+            public void alFinalizarRecorrido(long tiempo, Colectivo colectivo) {
+                for (ObservadorSimulacion o : todos) o.alFinalizarRecorrido(tiempo, colectivo);
+            }
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ordena en el tiempo simulado las subidas de pasajeros en una parada recorrida por colectivos
+ * de distintos grupos de una simulación paralela.
+ * Antes de cada ventana de tiempo, cada grupo reserva un turno por cada vez que uno de sus colectivos
+ * va a atender la parada; los turnos se ordenan por instante y luego por el orden indicado al reservar.
+ * Durante la ventana, cada grupo espera su turno antes de subir pasajeros y lo cede al terminar.
+ * Si en la ventana la parada la atiende un solo grupo, no hace falta esperar ni bloquearla.
+ */
+final class ParadaCompartida {
+    private static final Comparator<Turno> ORDEN = Comparator.comparingLong(Turno::instante).thenComparingLong(Turno::orden);
+
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private final Condition turnoCedido = cerrojo.newCondition();
+    private final List<Turno> reservas = new ArrayList<>();
+    private int[] grupos = new int[0];
+    private int siguiente = 0;
+    private boolean exclusiva = false;
+
+    /**
+     * Turno de un grupo para atender la parada.
+     * @param instante Paso o instante simulado en que se atiende la parada.
+     * @param orden Desempate entre turnos del mismo instante.
+     * @param grupo Grupo al que pertenece el colectivo.
+     */
+    private record Turno(long instante, long orden, int grupo) {}
+
+    /**
+     * Reserva un turno para la próxima ventana. Se invoca desde un solo hilo, entre dos ventanas.
+     * @param instante Paso o instante simulado en que un colectivo del grupo atiende la parada.
+     * @param orden Desempate entre turnos del mismo instante.
+     * @param grupo Grupo al que pertenece el colectivo.
+     */
+    void reservar(long instante, long orden, int grupo) {
+        reservas.add(new Turno(instante, orden, grupo));
+    }
+
+    /**
+     * Ordena los turnos reservados y los deja listos para la próxima ventana.
+     * Se invoca desde un solo hilo, entre dos ventanas, después de todas las reservas.
+     */
+    void planificar() {
+        reservas.sort(ORDEN);
+        grupos = new int[reservas.size()];
+        exclusiva = !reservas.isEmpty();
+        for (int i = 0; i < grupos.length; i++) {
+            grupos[i] = reservas.get(i).grupo();
+            exclusiva &= grupos[i] == grupos[0];
+        }
+        siguiente = 0;
+        reservas.clear();
+    }
+
+    /**
+     * Espera a que sea el turno del grupo y bloquea la parada hasta {@link #cederTurno()}.
+     * @param grupo Grupo del colectivo que va a atender la parada.
+     * @throws IllegalStateException si el grupo no tenía turno reservado o si el hilo se interrumpe.
+     */
+    void esperarTurno(int grupo) {
+        if (exclusiva) return;
+        cerrojo.lock();
+        try {
+            while (siguiente < grupos.length && grupos[siguiente] != grupo) {
+                turnoCedido.await();
+            }
+        } catch (InterruptedException e) {
+            cerrojo.unlock();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulación paralela interrumpida.", e);
+        }
+        if (siguiente >= grupos.length) {
+            cerrojo.unlock();
+            throw new IllegalStateException("El grupo " + grupo + " atiende una parada compartida sin turno reservado.");
+        }
+    }
+
+    /**
+     * Pasa al turno siguiente y desbloquea la parada.
+     */
+    void cederTurno() {
+        if (exclusiva) return;
+        siguiente++;
+        turnoCedido.signalAll();
+        cerrojo.unlock();
+    }
+}
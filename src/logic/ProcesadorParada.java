@@ -0,0 +1,117 @@
+package logic;
+
+import domain.Colectivo;
+import domain.Parada;
+import domain.ListaPasajeros;
+import java.util.Map;
+import presentacion.SimulacionOutput;
+
+/**
+ * Reúne las acciones que ocurren cuando un colectivo se detiene en una parada.
+ * Es compartido por los distintos motores de simulación para que la bajada y subida
+ * de pasajeros, los mensajes y el registro de ocupación se resuelvan siempre igual.
+ */
+class ProcesadorParada {
+    private final SimulacionOutput vista;
+    private final Map<Parada, ParadaCompartida> compartidas;
+    private final int grupo;
+    private ObservadorSimulacion observador = ObservadorSimulacion.NINGUNO;
+
+    /**
+     * Crea un procesador de paradas para una simulación de un solo hilo.
+     * @param vista Vista donde se muestran los eventos.
+     */
+    ProcesadorParada(SimulacionOutput vista) {
+        this(vista, Map.of(), 0);
+    }
+
+    /**
+     * Crea un procesador de paradas que respeta los turnos de las paradas compartidas con otros grupos.
+     * Solo las paradas presentes en el mapa esperan turno; el resto se accede sin sincronización.
+     *
+     * @param vista Vista donde se muestran los eventos.
+     * @param compartidas Turnos de cada parada compartida entre grupos.
+     * @param grupo Grupo de colectivos que atiende este procesador.
+     */
+    ProcesadorParada(SimulacionOutput vista, Map<Parada, ParadaCompartida> compartidas, int grupo) {
+        this.vista = vista;
+        this.compartidas = compartidas;
+        this.grupo = grupo;
+    }
+
+    /**
+     * Define el observador que recibe los eventos de cada parada atendida.
+     * @param observador Observador de la simulación.
+     */
+    void setObservador(ObservadorSimulacion observador) {
+        this.observador = observador;
+    }
+
+    /**
+     * Procesa todas las acciones que ocurren cuando un colectivo llega a una parada.
+     * Esto incluye mostrar la llegada, gestionar la bajada y subida de pasajeros,
+     * mostrar los eventos ocurridos, actualizar el estado del colectivo,
+     * registrar la ocupación del tramo y mostrar advertencias si el colectivo está lleno.
+     * Si la parada es compartida con otro grupo, la subida espera el turno del colectivo en la parada.
+     * La atención, las bajadas, las subidas y el colectivo lleno se emiten como eventos de {@link EventosJfr}.
+     *
+     * @param colectivo El colectivo que está procesando la parada.
+     * @param actual La parada actual donde se encuentra el colectivo.
+     * @param pos La posición actual del colectivo en la lista de paradas.
+     * @param tiempo Paso o instante simulado en que se atiende la parada.
+     * @return Cantidad de pasajeros que bajaron o subieron en la parada.
+     */
+    int procesar(Colectivo colectivo, Parada actual, int pos, long tiempo) {
+        EventosJfr.AtencionParada atencion = new EventosJfr.AtencionParada();
+        atencion.begin();
+        vista.mostrarLlegadaColectivo(colectivo, actual);
+        observador.alLlegarColectivo(tiempo, colectivo, actual);
+
+        EventosJfr.Bajadas eventoBajadas = new EventosJfr.Bajadas();
+        eventoBajadas.begin();
+        ListaPasajeros bajaron = colectivo.bajarPasajerosEn(actual);
+        eventoBajadas.registrar(colectivo, actual, tiempo, bajaron.size());
+        ListaPasajeros subieron;
+        int esperandoSinLugar = 0;
+
+        EventosJfr.Subidas eventoSubidas = new EventosJfr.Subidas();
+        eventoSubidas.begin();
+        ParadaCompartida compartida = compartidas.get(actual);
+        if (compartida != null) compartida.esperarTurno(grupo);
+        try {
+            subieron = colectivo.subirPasajerosDesdeParada(actual, pos);
+            if (colectivo.estaLleno())
+                esperandoSinLugar = contarPasajerosSinLugar(colectivo, actual);
+        } finally {
+            if (compartida != null) compartida.cederTurno();
+        }
+        eventoSubidas.registrar(colectivo, actual, tiempo, subieron.size());
+
+        vista.mostrarEventosPasajeros(bajaron, subieron);
+        vista.mostrarEstadoColectivo(colectivo, bajaron.size(), subieron.size());
+        observador.alAtenderParada(tiempo, colectivo, actual, bajaron, subieron);
+        colectivo.registrarOcupacionTramo();
+
+        if (colectivo.estaLleno()) {
+            vista.mostrarAdvertenciaColectivoLleno(colectivo, actual, esperandoSinLugar);
+            observador.alQuedarPasajerosSinLugar(tiempo, colectivo, actual, esperandoSinLugar);
+            new EventosJfr.ColectivoLleno().registrar(colectivo, actual, tiempo, esperandoSinLugar);
+        }
+
+        atencion.registrar(colectivo, actual, tiempo, bajaron.size() + subieron.size());
+        return bajaron.size() + subieron.size();
+    }
+
+    /**
+     * Cuenta cuántos pasajeros en la parada actual desean subir al colectivo,
+     * es decir, cuyo destino está en el recorrido de su línea, pero no pueden hacerlo
+     * porque el colectivo ya alcanzó su capacidad máxima.
+     *
+     * @param colectivo El colectivo que está lleno.
+     * @param actual La parada actual donde se encuentran los pasajeros esperando.
+     * @return Cantidad de pasajeros que quedaron esperando.
+     */
+    private int contarPasajerosSinLugar(Colectivo colectivo, Parada actual) {
+        return actual.contarPasajerosHacia(colectivo.getLinea().getParadas());
+    }
+}
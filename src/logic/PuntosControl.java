@@ -0,0 +1,18 @@
+package logic;
+
+/**
+ * Guarda puntos de control de una simulación: el estado completo entre dos pasos, o entre dos eventos,
+ * a partir del cual la simulación puede reanudarse y continuar igual que sin interrumpirse.
+ * El motor decide cuándo guardar; la implementación decide dónde y qué más guardar junto al motor.
+ */
+public interface PuntosControl {
+
+    /** No guarda ningún punto de control. */
+    PuntosControl NINGUNO = simulador -> {};
+
+    /**
+     * Se invoca entre dos pasos o dos eventos, cuando corresponde guardar un punto de control.
+     * @param simulador Simulador detenido, cuyo estado se escribe con {@link SimulacionReanudable#guardarEstado}.
+     */
+    void guardar(SimulacionReanudable simulador);
+}
@@ -0,0 +1,28 @@
+package logic;
+
+/**
+ * Motor de simulación que avanza por ventanas de tiempo simulado, coordinado con los que simulan
+ * el resto de los colectivos en otros hilos. Lo implementan el motor parada por parada ({@link Simulador})
+ * y el de eventos ({@link SimuladorEventos}) para {@link SimuladorParalelo}.
+ */
+interface SimulacionPorVentanas {
+
+    /**
+     * Obtiene el paso o instante simulado del próximo evento pendiente.
+     * @return Próximo paso o instante, o {@link Long#MAX_VALUE} si la simulación terminó.
+     */
+    long getProximoInstante();
+
+    /**
+     * Reserva un turno en cada parada compartida que atenderán los colectivos antes del límite.
+     * Todas esas atenciones deben conocerse antes de empezar la ventana.
+     * @param limite Paso o instante simulado en que termina la ventana, sin incluirlo.
+     */
+    void reservarTurnos(long limite);
+
+    /**
+     * Procesa en orden todos los eventos anteriores al límite.
+     * @param limite Paso o instante simulado en que termina la ventana, sin incluirlo.
+     */
+    void avanzarHasta(long limite);
+}
@@ -0,0 +1,36 @@
+package logic;
+
+import domain.AlmacenPasajeros;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Motor de simulación que puede guardar su estado en un punto de control y reanudarse desde él.
+ * Lo implementan el motor parada por parada ({@link Simulador}) y el de eventos ({@link SimuladorEventos}).
+ */
+public interface SimulacionReanudable {
+
+    /**
+     * Obtiene hasta dónde avanzó la simulación al guardar el punto de control, en las unidades
+     * del motor: los pasos completados, o el instante simulado hasta el que se procesaron los eventos.
+     * @return Avance de la simulación.
+     */
+    long getAvance();
+
+    /**
+     * Escribe el estado del motor, con sus colectivos, para reanudarlo más adelante.
+     * @param out Destino del estado.
+     * @throws IOException si no se puede escribir.
+     */
+    void guardarEstado(DataOutput out) throws IOException;
+
+    /**
+     * Restaura el estado guardado con {@link #guardarEstado(DataOutput)} antes de ejecutar la simulación.
+     * @param in Origen del estado.
+     * @param almacen Almacén restaurado que guarda los pasajeros a bordo.
+     * @throws IOException si no se puede leer.
+     * @throws IllegalStateException si los colectivos no coinciden con los guardados.
+     */
+    void restaurarEstado(DataInput in, AlmacenPasajeros almacen) throws IOException;
+}
@@ -2,25 +2,64 @@ package logic;
 
 import config.Configuracion;
 import domain.*;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
 import presentacion.SimulacionOutput;
-import util.EstadisticasSimulacion;
 
 /**
- * Clase principal encargada de simular el recorrido de colectivos,
- * la subida y bajada de pasajeros, y la recopilación de estadísticas finales.
+ * Clase principal encargada de simular el recorrido de colectivos
+ * y la subida y bajada de pasajeros en cada parada.
+ * Si una línea tiene varios colectivos, salen de la primera parada con el intervalo configurado,
+ * contado en paradas a razón del tiempo entre paradas, y cada uno hace sus vueltas por separado.
+ * Entre dos pasos puede guardar puntos de control, y puede reanudarse desde uno de ellos.
+ * En la simulación paralela avanza por ventanas de pasos, coordinado con otros grupos.
  */
-public class Simulador {
-    private final int MAX_CAPACIDAD = Configuracion.getCantidadPasajeros();
+public class Simulador implements SimulacionReanudable, SimulacionPorVentanas {
     private final SimulacionOutput vista;
     private final List<Colectivo> colectivos;
     private final Map<Colectivo, Integer> posiciones = new HashMap<>();
     private final Map<Colectivo, Integer> vueltas = new HashMap<>();
-    private final int MAX_VUELTAS = Configuracion.getMaxVueltas();
+    private final int MAX_VUELTAS;
+    private final long[] salidas;
+    private final ProcesadorParada procesador;
+    private final Map<Parada, ParadaCompartida> compartidas;
+    private final int grupo;
+    private ObservadorSimulacion observador = ObservadorSimulacion.NINGUNO;
+    private PuntosControl puntosControl = PuntosControl.NINGUNO;
+    private int intervaloPuntosControl = 0;
+    private int numeroParada = 1;
+    private boolean terminado = false;
     
-    public Simulador(List<Colectivo> colectivos, SimulacionOutput vista) {
+    /**
+     * Crea un simulador parada por parada.
+     * @param colectivos Colectivos a simular.
+     * @param vista Vista donde se muestran los eventos.
+     * @param config Configuración de la simulación.
+     */
+    public Simulador(List<Colectivo> colectivos, SimulacionOutput vista, Configuracion config) {
+        this(colectivos, vista, config, Map.of(), 0);
+    }
+
+    /**
+     * Crea un simulador para un grupo que comparte paradas con otros hilos.
+     * @param colectivos Colectivos del grupo, en el orden de la simulación completa.
+     * @param vista Vista donde se muestran los eventos.
+     * @param config Configuración de la simulación.
+     * @param compartidas Turnos de cada parada compartida con otros grupos.
+     * @param grupo Número del grupo.
+     */
+    Simulador(List<Colectivo> colectivos, SimulacionOutput vista, Configuracion config,
+              Map<Parada, ParadaCompartida> compartidas, int grupo) {
         this.colectivos = colectivos;
         this.vista = vista;
+        this.MAX_VUELTAS = config.getMaxVueltas();
+        this.salidas = Despacho.calcularSalidas(colectivos, intervaloEnParadas(config),
+            linea -> linea.getParadas().size() + 1);
+        this.procesador = new ProcesadorParada(vista, compartidas, grupo);
+        this.compartidas = compartidas;
+        this.grupo = grupo;
         inicializarColectivos();
     }
 
@@ -36,26 +75,174 @@ public class Simulador {
     }
 
     /**
-     * Ejecuta la simulación completa, procesando las paradas y mostrando estadísticas finales.
+     * Convierte el intervalo de despacho configurado, en segundos, a una cantidad de paradas.
+     * @param config Configuración de la simulación.
+     * @return Paradas entre salidas de una misma línea, o 0 para repartirlas a lo largo de la vuelta.
+     */
+    private static long intervaloEnParadas(Configuracion config) {
+        int frecuencia = config.getFrecuenciaDespacho();
+        if (frecuencia == 0) return 0;
+        int porParada = Math.max(config.getTiempoEntreParadas(), 1);
+        return (frecuencia + porParada - 1) / porParada;
+    }
+
+    /**
+     * Define el observador que recibe los eventos de la simulación.
+     * @param observador Observador de la simulación.
+     */
+    public void setObservador(ObservadorSimulacion observador) {
+        this.observador = observador;
+        procesador.setObservador(observador);
+    }
+
+    /**
+     * Define cada cuántos pasos se guarda un punto de control y quién lo guarda.
+     * @param intervalo Pasos entre puntos de control; 0 para no guardar ninguno.
+     * @param puntosControl Destino de los puntos de control.
+     */
+    public void setPuntosControl(int intervalo, PuntosControl puntosControl) {
+        this.intervaloPuntosControl = intervalo;
+        this.puntosControl = puntosControl;
+    }
+
+    /**
+     * Ejecuta la simulación completa, recorriendo las paradas hasta que todos los colectivos
+     * completan sus vueltas, desde el primer paso o desde el estado restaurado.
+     * Las estadísticas finales se muestran aparte.
      */
     public void ejecutar() {
-        int numeroParada = 1;
+        avanzarHasta(Long.MAX_VALUE);
+    }
 
-        boolean hayColectivosEnCirculacion;
-        do {
+    /**
+     * Ejecuta los pasos anteriores al límite, mientras queden colectivos en circulación.
+     * @param limite Paso en que termina la ventana, sin incluirlo.
+     */
+    @Override
+    public void avanzarHasta(long limite) {
+        while (!terminado && numeroParada < limite) {
             vista.mostrarInicioParada(numeroParada);
-            hayColectivosEnCirculacion = false;
+            observador.alIniciarInstante(numeroParada);
+            boolean hayColectivosEnCirculacion = false;
 
-            for (Colectivo colectivo : colectivos) {
-                if (procesarColectivoEnParada(colectivo)) {
+            for (int i = 0; i < colectivos.size(); i++) {
+                if (procesarColectivoEnParada(colectivos.get(i), salidas[i])) {
                     hayColectivosEnCirculacion = true;
                 }
             }
 
             numeroParada++;
-        } while (hayColectivosEnCirculacion);
+            if (hayColectivosEnCirculacion && intervaloPuntosControl > 0 && (numeroParada - 1) % intervaloPuntosControl == 0) {
+                puntosControl.guardar(this);
+            }
+            terminado = !hayColectivosEnCirculacion;
+        }
+    }
+
+    /**
+     * Obtiene el próximo paso que se ejecutará.
+     * @return Número del paso, o {@link Long#MAX_VALUE} si ya no quedan colectivos en circulación.
+     */
+    @Override
+    public long getProximoInstante() {
+        return terminado ? Long.MAX_VALUE : numeroParada;
+    }
+
+    /**
+     * Reserva un turno por cada parada compartida que los colectivos atenderán antes del límite,
+     * desempatando por ID de colectivo las de un mismo paso, como en el orden de la simulación secuencial.
+     * El recorrido no depende de los pasajeros, así que se anticipa avanzando una copia de la posición
+     * y las vueltas de cada colectivo.
+     * @param limite Paso en que termina la ventana, sin incluirlo.
+     */
+    @Override
+    public void reservarTurnos(long limite) {
+        if (compartidas.isEmpty() || terminado) return;
+        for (int i = 0; i < colectivos.size(); i++) {
+            Colectivo colectivo = colectivos.get(i);
+            List<Parada> paradas = colectivo.getLinea().getParadas();
+            int pos = posiciones.get(colectivo);
+            int vueltasHechas = vueltas.get(colectivo);
+            for (long paso = numeroParada; paso < limite && vueltasHechas < MAX_VUELTAS; paso++) {
+                if (paso <= salidas[i]) continue;
+                if (pos < paradas.size()) {
+                    ParadaCompartida compartida = compartidas.get(paradas.get(pos));
+                    if (compartida != null) compartida.reservar(paso, colectivo.getId(), grupo);
+                    pos++;
+                } else {
+                    vueltasHechas++;
+                    pos = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Escribe el estado del simulador entre dos pasos: el próximo paso y, por colectivo,
+     * su línea, su salida, su posición, sus vueltas y su propio estado.
+     * @param out Destino del estado.
+     * @throws IOException si no se puede escribir.
+     */
+    @Override
+    public void guardarEstado(DataOutput out) throws IOException {
+        out.writeInt(numeroParada);
+        out.writeInt(colectivos.size());
+        for (int i = 0; i < colectivos.size(); i++) {
+            Colectivo colectivo = colectivos.get(i);
+            out.writeUTF(colectivo.getLinea().getCodigo());
+            out.writeLong(salidas[i]);
+            out.writeInt(posiciones.get(colectivo));
+            out.writeInt(vueltas.get(colectivo));
+            colectivo.guardarEstado(out);
+        }
+    }
+
+    /**
+     * Restaura el estado guardado con {@link #guardarEstado(DataOutput)} antes de ejecutar la simulación.
+     * Los colectivos deben ser los mismos, en el mismo orden; el resto de la configuración,
+     * como la cantidad de vueltas o la capacidad, puede cambiar para continuar con otra variante.
+     * @param in Origen del estado.
+     * @param almacen Almacén restaurado que guarda los pasajeros a bordo.
+     * @throws IOException si no se puede leer.
+     * @throws IllegalStateException si los colectivos no coinciden con los guardados.
+     */
+    @Override
+    public void restaurarEstado(DataInput in, AlmacenPasajeros almacen) throws IOException {
+        numeroParada = in.readInt();
+        int cantidad = in.readInt();
+        if (cantidad != colectivos.size()) {
+            throw new IllegalStateException("El punto de control tiene " + cantidad
+                + " colectivos y la simulación " + colectivos.size());
+        }
+        for (int i = 0; i < cantidad; i++) {
+            Colectivo colectivo = colectivos.get(i);
+            String codigo = in.readUTF();
+            if (!codigo.equals(colectivo.getLinea().getCodigo())) {
+                throw new IllegalStateException("El colectivo " + colectivo.getId() + " recorre la línea "
+                    + colectivo.getLinea().getCodigo() + " y en el punto de control la " + codigo);
+            }
+            salidas[i] = in.readLong();
+            posiciones.put(colectivo, in.readInt());
+            vueltas.put(colectivo, in.readInt());
+            colectivo.restaurarEstado(in, almacen);
+        }
+    }
 
-        EstadisticasSimulacion.mostrarEstadisticasFinales(colectivos, MAX_CAPACIDAD, vista);
+    /**
+     * Obtiene el próximo paso que ejecutará la simulación.
+     * @return Número del próximo paso, desde 1.
+     */
+    public int getPaso() {
+        return numeroParada;
+    }
+
+    /**
+     * Obtiene la cantidad de pasos completados.
+     * @return Pasos completados.
+     */
+    @Override
+    public long getAvance() {
+        return numeroParada - 1;
     }
 
     /**
@@ -63,17 +250,23 @@ public class Simulador {
      * Si el colectivo ha completado su recorrido, se registra el fin del recorrido.
      * Si no, se procesa la parada actual y se actualiza la posición del colectivo.
      *
+     * Un colectivo que todavía no salió sigue en circulación sin avanzar.
+     *
      * @param colectivo El colectivo que llega a la parada.
+     * @param salida Paso a partir del cual el colectivo comienza su recorrido.
      * @return true si el colectivo sigue en circulación, false si ha finalizado su recorrido.
      */
-    private boolean procesarColectivoEnParada(Colectivo colectivo) {
+    private boolean procesarColectivoEnParada(Colectivo colectivo, long salida) {
         int pos = posiciones.get(colectivo);
         List<Parada> paradas = colectivo.getLinea().getParadas();
 
         if (vueltas.get(colectivo) < MAX_VUELTAS) {
-            if (pos < paradas.size()) {
+            if (numeroParada <= salida) {
+                return true;
+            } else if (pos < paradas.size()) {
                 Parada actual = paradas.get(pos);
-                procesarParada(colectivo, actual, pos);
+                procesador.procesar(colectivo, actual, pos, numeroParada);
+                posiciones.put(colectivo, pos + 1);
                 return true;
             } else {
                 return procesarFinDeRecorrido(colectivo);
@@ -82,55 +275,6 @@ public class Simulador {
         return false;
     }
 
-    /**
-     * Procesa todas las acciones que ocurren cuando un colectivo llega a una parada.
-     * Esto incluye mostrar la llegada, gestionar la bajada y subida de pasajeros,
-     * mostrar los eventos ocurridos, actualizar el estado del colectivo,
-     * registrar la ocupación del tramo, mostrar advertencias si el colectivo está lleno,
-     * y avanzar la posición del colectivo al siguiente tramo.
-     *
-     * @param colectivo El colectivo que está procesando la parada.
-     * @param actual La parada actual donde se encuentra el colectivo.
-     * @param pos La posición actual del colectivo en la lista de paradas.
-     */
-    private void procesarParada(Colectivo colectivo, Parada actual, int pos) {
-        vista.mostrarLlegadaColectivo(colectivo, actual);
-
-        List<Pasajero> bajaron = colectivo.bajarPasajerosEn(actual);
-        List<Pasajero> subieron = colectivo.subirPasajerosDesdeParada(actual, pos, MAX_CAPACIDAD);
-
-        vista.mostrarEventosPasajeros(bajaron, subieron);
-        vista.mostrarEstadoColectivo(colectivo, bajaron.size(), subieron.size());
-        colectivo.registrarOcupacionTramo();
-
-        if (colectivo.getCantidadPasajeros() == MAX_CAPACIDAD) 
-            mostrarAdvertenciaColectivoLleno(colectivo, actual);
-
-        posiciones.put(colectivo, pos + 1);
-    }
-
-    /**
-     * Muestra una advertencia cuando el colectivo está lleno y hay pasajeros esperando
-     * en la parada actual que podrían haber subido si hubiera espacio disponible.
-     *
-     * Cuenta cuántos pasajeros en la parada actual desean y pueden subir al colectivo,
-     * pero no pueden hacerlo porque el colectivo ya alcanzó su capacidad máxima.
-     * Luego, muestra esta información a través de la vista.
-     *
-     * @param colectivo El colectivo que está lleno.
-     * @param actual La parada actual donde se encuentran los pasajeros esperando.
-     */
-    private void mostrarAdvertenciaColectivoLleno(Colectivo colectivo, Parada actual) {
-        int esperando = 0;
-        for (Pasajero p : actual.getPasajerosEsperando()) {
-            if (p.quiereSubirA(colectivo, actual)) {
-                esperando++;
-            }
-        }
-        vista.mostrarAdvertenciaColectivoLleno(colectivo, actual, esperando);
-    }
-
-
     /**
      * Procesa el fin del recorrido de un colectivo.
      * Muestra el mensaje de fin de recorrido, incrementa el contador de vueltas,
@@ -141,9 +285,11 @@ public class Simulador {
      */
     private boolean procesarFinDeRecorrido(Colectivo colectivo) {
         vista.mostrarFinRecorrido(colectivo);
+        observador.alFinalizarRecorrido(numeroParada, colectivo);
 
         int vueltasActuales = vueltas.get(colectivo) + 1;
         vueltas.put(colectivo, vueltasActuales);
+        EventosJfr.FinRecorrido.registrar(colectivo, vueltasActuales, numeroParada);
 
         boolean sigueEnCirculacion = vueltasActuales < MAX_VUELTAS;
 
@@ -0,0 +1,395 @@
+package logic;
+
+import config.Configuracion;
+import domain.AlmacenPasajeros;
+import domain.Colectivo;
+import domain.Linea;
+import domain.Parada;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import presentacion.SimulacionOutput;
+
+/**
+ * Motor de simulación por eventos discretos.
+ * En lugar de avanzar todos los colectivos una parada por iteración, mantiene una agenda
+ * de eventos de llegada y partida ordenada por tiempo simulado, y solo procesa el colectivo
+ * involucrado en cada evento. El tiempo de viaje de cada tramo, propio del tramo o el general,
+ * y el tiempo de detención en las paradas se obtienen de la configuración. Si una línea tiene varios colectivos,
+ * salen de la primera parada con el intervalo configurado y cada uno hace sus vueltas por separado.
+ * Entre dos eventos puede guardar puntos de control, cada tantos segundos simulados, y puede reanudarse
+ * desde uno de ellos. En la simulación paralela avanza por ventanas de tiempo, coordinado con otros grupos.
+ */
+public class SimuladorEventos implements SimulacionReanudable, SimulacionPorVentanas {
+    private final int MAX_VUELTAS;
+    private final int TIEMPO_ENTRE_PARADAS;
+    private final int TIEMPO_DETENCION;
+    private final int TIEMPO_POR_PASAJERO;
+    private final int FRECUENCIA_DESPACHO;
+    private final SimulacionOutput vista;
+    private final List<Colectivo> colectivos;
+    private final ProcesadorParada procesador;
+    private final Map<Parada, ParadaCompartida> compartidas;
+    private final int grupo;
+    private final PriorityQueue<Evento> agenda = new PriorityQueue<>();
+    private final Map<Colectivo, Integer> vueltas = new HashMap<>();
+    private final Map<Linea, long[]> tiemposDeViaje = new HashMap<>();
+    private ObservadorSimulacion observador = ObservadorSimulacion.NINGUNO;
+    private LlegadasPasajeros llegadas = LlegadasPasajeros.NINGUNA;
+    private PuntosControl puntosControl = PuntosControl.NINGUNO;
+    private int intervaloPuntosControl = 0;
+    private long reloj = 0;
+    private long secuencia = 0;
+    private long ultimoInstanteMostrado = -1;
+    private long ultimoPuntoControl = 0;
+
+    /**
+     * Crea un simulador por eventos discretos.
+     * @param colectivos Colectivos a simular.
+     * @param vista Vista donde se muestran los eventos.
+     * @param config Configuración de la simulación.
+     */
+    public SimuladorEventos(List<Colectivo> colectivos, SimulacionOutput vista, Configuracion config) {
+        this(colectivos, vista, config, Map.of(), 0);
+    }
+
+    /**
+     * Crea un simulador de eventos para un grupo que comparte paradas con otros hilos.
+     * @param colectivos Colectivos del grupo.
+     * @param vista Vista donde se muestran los eventos.
+     * @param config Configuración de la simulación.
+     * @param compartidas Turnos de cada parada compartida con otros grupos.
+     * @param grupo Número del grupo, que desempata los turnos de un mismo instante.
+     */
+    SimuladorEventos(List<Colectivo> colectivos, SimulacionOutput vista, Configuracion config,
+                     Map<Parada, ParadaCompartida> compartidas, int grupo) {
+        this.colectivos = colectivos;
+        this.vista = vista;
+        this.MAX_VUELTAS = config.getMaxVueltas();
+        this.TIEMPO_ENTRE_PARADAS = config.getTiempoEntreParadas();
+        this.TIEMPO_DETENCION = config.getTiempoDetencion();
+        this.TIEMPO_POR_PASAJERO = config.getTiempoPorPasajero();
+        this.FRECUENCIA_DESPACHO = config.getFrecuenciaDespacho();
+        this.procesador = new ProcesadorParada(vista, compartidas, grupo);
+        this.compartidas = compartidas;
+        this.grupo = grupo;
+        for (Colectivo c : colectivos) {
+            tiemposDeViaje.computeIfAbsent(c.getLinea(), linea -> calcularTiemposDeViaje(linea, config));
+        }
+        inicializarColectivos();
+    }
+
+    /**
+     * Programa la llegada de cada colectivo a la primera parada de su línea en su instante de salida.
+     * Sin intervalo configurado, las salidas de una línea se reparten a lo largo de una vuelta
+     * estimada sin contar el tiempo de subida y bajada de pasajeros: la detención en cada parada,
+     * el viaje por cada tramo y el regreso a la primera parada.
+     */
+    private void inicializarColectivos() {
+        long[] salidas = Despacho.calcularSalidas(colectivos, FRECUENCIA_DESPACHO, linea -> {
+            long vuelta = (long) linea.getParadas().size() * TIEMPO_DETENCION + TIEMPO_ENTRE_PARADAS;
+            for (long tramo : tiemposDeViaje.get(linea)) {
+                vuelta += tramo;
+            }
+            return vuelta;
+        });
+        for (int i = 0; i < colectivos.size(); i++) {
+            Colectivo c = colectivos.get(i);
+            vueltas.put(c, 0);
+            if (MAX_VUELTAS > 0) {
+                programar(salidas[i], Evento.Tipo.LLEGADA, c, 0);
+            }
+        }
+    }
+
+    /**
+     * Define el observador que recibe los eventos de la simulación.
+     * @param observador Observador de la simulación.
+     */
+    public void setObservador(ObservadorSimulacion observador) {
+        this.observador = observador;
+        procesador.setObservador(observador);
+    }
+
+    /**
+     * Define el proceso de llegada de pasajeros durante la simulación.
+     * Por defecto no llegan pasajeros nuevos: solo están los generados antes de empezar.
+     * @param llegadas Proceso de llegada de pasajeros.
+     */
+    public void setLlegadas(LlegadasPasajeros llegadas) {
+        this.llegadas = llegadas;
+    }
+
+    /**
+     * Define cada cuántos segundos simulados se guarda un punto de control y quién lo guarda.
+     * Cada punto se guarda antes del primer evento que ocurre en un múltiplo del intervalo o después,
+     * con todos los eventos anteriores ya procesados.
+     * @param intervalo Segundos simulados entre puntos de control; 0 para no guardar ninguno.
+     * @param puntosControl Destino de los puntos de control.
+     */
+    public void setPuntosControl(int intervalo, PuntosControl puntosControl) {
+        this.intervaloPuntosControl = intervalo;
+        this.puntosControl = puntosControl;
+    }
+
+    /**
+     * Ejecuta la simulación completa procesando los eventos de la agenda en orden cronológico
+     * hasta agotarla, desde el principio o desde el estado restaurado. Las estadísticas finales se muestran aparte.
+     */
+    public void ejecutar() {
+        avanzarHasta(Long.MAX_VALUE);
+    }
+
+    /**
+     * Procesa en orden cronológico los eventos de la agenda anteriores al límite.
+     * @param limite Instante simulado en que termina la ventana, sin incluirlo.
+     */
+    @Override
+    public void avanzarHasta(long limite) {
+        while (!agenda.isEmpty() && agenda.peek().tiempo() < limite) {
+            if (intervaloPuntosControl > 0 && agenda.peek().tiempo() >= ultimoPuntoControl + intervaloPuntosControl) {
+                ultimoPuntoControl = agenda.peek().tiempo() / intervaloPuntosControl * intervaloPuntosControl;
+                puntosControl.guardar(this);
+            }
+            Evento evento = agenda.poll();
+            reloj = evento.tiempo();
+            llegadas.generarHasta(reloj);
+
+            if (evento.tipo() == Evento.Tipo.LLEGADA) {
+                if (reloj != ultimoInstanteMostrado) {
+                    vista.mostrarInstante(reloj);
+                    observador.alIniciarInstante(reloj);
+                    ultimoInstanteMostrado = reloj;
+                }
+                procesarLlegada(evento.colectivo(), evento.posicion());
+            } else {
+                procesarPartida(evento.colectivo(), evento.posicion());
+            }
+        }
+    }
+
+    /**
+     * Obtiene el instante del próximo evento de la agenda.
+     * @return Instante simulado, o {@link Long#MAX_VALUE} si la agenda está vacía.
+     */
+    @Override
+    public long getProximoInstante() {
+        return agenda.isEmpty() ? Long.MAX_VALUE : agenda.peek().tiempo();
+    }
+
+    /**
+     * Reserva un turno por cada llegada a una parada compartida anterior al límite, desempatando
+     * por grupo las llegadas de un mismo instante. Todas están en la agenda si la ventana no supera
+     * el menor tiempo de viaje de un tramo ni el tiempo entre vueltas, porque cada llegada se programa
+     * al partir de la parada anterior o al terminar la vuelta.
+     * @param limite Instante simulado en que termina la ventana, sin incluirlo.
+     */
+    @Override
+    public void reservarTurnos(long limite) {
+        if (compartidas.isEmpty()) return;
+        for (Evento evento : agenda) {
+            List<Parada> paradas = evento.colectivo().getLinea().getParadas();
+            if (evento.tipo() == Evento.Tipo.LLEGADA && evento.tiempo() < limite && evento.posicion() < paradas.size()) {
+                ParadaCompartida compartida = compartidas.get(paradas.get(evento.posicion()));
+                if (compartida != null) compartida.reservar(evento.tiempo(), grupo, grupo);
+            }
+        }
+    }
+
+    /**
+     * Procesa la llegada de un colectivo a una posición de su recorrido.
+     * Si la posición está fuera del recorrido, el colectivo terminó la vuelta.
+     * En caso contrario se atiende la parada y se programa la partida según
+     * la cantidad de pasajeros que subieron y bajaron.
+     *
+     * @param colectivo Colectivo que llega.
+     * @param pos Posición en el recorrido de la línea.
+     */
+    private void procesarLlegada(Colectivo colectivo, int pos) {
+        List<Parada> paradas = colectivo.getLinea().getParadas();
+        if (pos >= paradas.size()) {
+            procesarFinDeRecorrido(colectivo);
+            return;
+        }
+
+        int atendidos = procesador.procesar(colectivo, paradas.get(pos), pos, reloj);
+        long detencion = TIEMPO_DETENCION + (long) atendidos * TIEMPO_POR_PASAJERO;
+        programar(reloj + detencion, Evento.Tipo.PARTIDA, colectivo, pos);
+    }
+
+    /**
+     * Procesa la partida de un colectivo desde una parada, programando su llegada
+     * a la siguiente. Al partir de la última parada el colectivo llega de inmediato
+     * al final del recorrido.
+     *
+     * @param colectivo Colectivo que parte.
+     * @param pos Posición de la parada desde la que parte.
+     */
+    private void procesarPartida(Colectivo colectivo, int pos) {
+        int siguiente = pos + 1;
+        boolean esUltimaParada = siguiente >= colectivo.getLinea().getParadas().size();
+        long llegada = esUltimaParada ? reloj : reloj + tiempoDeViaje(colectivo, pos);
+        programar(llegada, Evento.Tipo.LLEGADA, colectivo, siguiente);
+    }
+
+    /**
+     * Procesa el fin del recorrido de un colectivo.
+     * Muestra el mensaje de fin de recorrido, incrementa el contador de vueltas
+     * y, si aún no alcanzó el máximo, programa la llegada a la primera parada.
+     *
+     * @param colectivo El colectivo que ha finalizado su recorrido.
+     */
+    private void procesarFinDeRecorrido(Colectivo colectivo) {
+        vista.mostrarFinRecorrido(colectivo);
+        observador.alFinalizarRecorrido(reloj, colectivo);
+
+        int vueltasActuales = vueltas.get(colectivo) + 1;
+        vueltas.put(colectivo, vueltasActuales);
+        EventosJfr.FinRecorrido.registrar(colectivo, vueltasActuales, reloj);
+
+        if (vueltasActuales < MAX_VUELTAS)
+            programar(reloj + TIEMPO_ENTRE_PARADAS, Evento.Tipo.LLEGADA, colectivo, 0); // Reinicia el recorrido
+    }
+
+    /**
+     * Devuelve el tiempo de viaje, en segundos, del tramo que parte de la posición indicada.
+     *
+     * @param colectivo Colectivo que recorre el tramo.
+     * @param desde Posición de la parada donde comienza el tramo.
+     * @return Tiempo de viaje del tramo.
+     */
+    private long tiempoDeViaje(Colectivo colectivo, int desde) {
+        return tiemposDeViaje.get(colectivo.getLinea())[desde];
+    }
+
+    /**
+     * Obtiene de la configuración el tiempo de viaje de cada tramo del recorrido de una línea.
+     *
+     * @param linea Línea cuyo recorrido se consulta.
+     * @param config Configuración de la simulación.
+     * @return Tiempo de viaje del tramo que parte de cada posición, salvo la última.
+     */
+    private static long[] calcularTiemposDeViaje(Linea linea, Configuracion config) {
+        List<Parada> paradas = linea.getParadas();
+        long[] tiempos = new long[Math.max(paradas.size() - 1, 0)];
+        for (int i = 0; i < tiempos.length; i++) {
+            tiempos[i] = config.getTiempoTramo(paradas.get(i).getId(), paradas.get(i + 1).getId());
+        }
+        return tiempos;
+    }
+
+    /**
+     * Agrega un evento a la agenda.
+     */
+    private void programar(long tiempo, Evento.Tipo tipo, Colectivo colectivo, int posicion) {
+        agenda.add(new Evento(tiempo, secuencia++, tipo, colectivo, posicion));
+    }
+
+    /**
+     * Obtiene el instante del último punto de control: los eventos anteriores a él ya se procesaron.
+     * @return Instante simulado, en segundos.
+     */
+    @Override
+    public long getAvance() {
+        return ultimoPuntoControl;
+    }
+
+    /**
+     * Escribe el estado del simulador entre dos eventos: el reloj, el número de secuencia del próximo
+     * evento, el último instante mostrado y el del último punto de control; por colectivo, su línea,
+     * sus vueltas y su propio estado; los eventos pendientes, con el colectivo por su posición en la lista;
+     * y el estado de las llegadas de pasajeros.
+     * @param out Destino del estado.
+     * @throws IOException si no se puede escribir.
+     */
+    @Override
+    public void guardarEstado(DataOutput out) throws IOException {
+        out.writeLong(reloj);
+        out.writeLong(secuencia);
+        out.writeLong(ultimoInstanteMostrado);
+        out.writeLong(ultimoPuntoControl);
+        Map<Colectivo, Integer> indices = new IdentityHashMap<>();
+        out.writeInt(colectivos.size());
+        for (int i = 0; i < colectivos.size(); i++) {
+            Colectivo colectivo = colectivos.get(i);
+            indices.put(colectivo, i);
+            out.writeUTF(colectivo.getLinea().getCodigo());
+            out.writeInt(vueltas.get(colectivo));
+            colectivo.guardarEstado(out);
+        }
+
+        List<Evento> pendientes = new ArrayList<>(agenda);
+        pendientes.sort(null);
+        out.writeInt(pendientes.size());
+        for (Evento evento : pendientes) {
+            out.writeLong(evento.tiempo());
+            out.writeLong(evento.secuencia());
+            out.writeByte(evento.tipo().ordinal());
+            out.writeInt(indices.get(evento.colectivo()));
+            out.writeInt(evento.posicion());
+        }
+        llegadas.guardarEstado(out);
+    }
+
+    /**
+     * Restaura el estado guardado con {@link #guardarEstado(DataOutput)} antes de ejecutar la simulación,
+     * reemplazando la agenda inicial. Las llegadas de pasajeros deben definirse antes, con {@link #setLlegadas},
+     * y ser las de la corrida guardada. Los colectivos deben ser los mismos, en el mismo orden;
+     * el resto de la configuración, como la cantidad de vueltas o la capacidad, puede cambiar.
+     * @param in Origen del estado.
+     * @param almacen Almacén restaurado que guarda los pasajeros a bordo.
+     * @throws IOException si no se puede leer.
+     * @throws IllegalStateException si los colectivos o los eventos no coinciden con la simulación.
+     */
+    @Override
+    public void restaurarEstado(DataInput in, AlmacenPasajeros almacen) throws IOException {
+        reloj = in.readLong();
+        secuencia = in.readLong();
+        ultimoInstanteMostrado = in.readLong();
+        ultimoPuntoControl = in.readLong();
+        int cantidad = in.readInt();
+        if (cantidad != colectivos.size()) {
+            throw new IllegalStateException("El punto de control tiene " + cantidad
+                + " colectivos y la simulación " + colectivos.size());
+        }
+        for (Colectivo colectivo : colectivos) {
+            String codigo = in.readUTF();
+            if (!codigo.equals(colectivo.getLinea().getCodigo())) {
+                throw new IllegalStateException("El colectivo " + colectivo.getId() + " recorre la línea "
+                    + colectivo.getLinea().getCodigo() + " y en el punto de control la " + codigo);
+            }
+            vueltas.put(colectivo, in.readInt());
+            colectivo.restaurarEstado(in, almacen);
+        }
+
+        agenda.clear();
+        Evento.Tipo[] tipos = Evento.Tipo.values();
+        int eventos = in.readInt();
+        for (int i = 0; i < eventos; i++) {
+            long tiempo = in.readLong();
+            long numero = in.readLong();
+            int tipo = in.readByte();
+            int indice = in.readInt();
+            int posicion = in.readInt();
+            if (tipo < 0 || tipo >= tipos.length || indice < 0 || indice >= colectivos.size()) {
+                throw new IllegalStateException("Evento inválido en el punto de control");
+            }
+            agenda.add(new Evento(tiempo, numero, tipos[tipo], colectivos.get(indice), posicion));
+        }
+        llegadas.restaurarEstado(in);
+    }
+
+    /**
+     * Devuelve el instante simulado actual, en segundos.
+     * @return Tiempo simulado.
+     */
+    public long getReloj() {
+        return reloj;
+    }
+}
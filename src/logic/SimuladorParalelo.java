@@ -0,0 +1,339 @@
+package logic;
+
+import config.Configuracion;
+import domain.Colectivo;
+import domain.Linea;
+import domain.Parada;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import presentacion.SimulacionOutput;
+
+/**
+ * Ejecuta la simulación repartiendo los colectivos entre varios hilos.
+ * Las líneas, o los componentes conexos de líneas con paradas en común, se reparten en tantos grupos
+ * como hilos, equilibrando las paradas que recorren; cada grupo se simula con el motor configurado
+ * en su propio hilo.
+ *
+ * Los grupos avanzan juntos por ventanas de tiempo simulado: cada uno procesa sus eventos hasta el final
+ * de la ventana y espera a los demás en una barrera antes de empezar la siguiente. Con el motor de eventos
+ * la ventana no supera el menor tiempo de viaje de un tramo ni el tiempo entre vueltas, de modo que todas
+ * las llegadas de la ventana ya están programadas al empezarla; con el de pasos dura {@value #PASOS_POR_VENTANA}
+ * pasos, porque el recorrido no depende de los pasajeros. Antes de cada ventana, los grupos reservan un turno
+ * en cada parada compartida que van a atender y las subidas se hacen en el orden del tiempo simulado;
+ * solo esperan las paradas que atiende más de un grupo en la ventana.
+ *
+ * Por componentes ningún grupo comparte paradas con otro y el resultado es el mismo que el de la simulación
+ * secuencial. Por línea, las atenciones de una parada compartida en un mismo paso siguen el orden de los
+ * colectivos, como en la simulación secuencial; en un mismo instante del motor de eventos, en cambio,
+ * sube primero el grupo de menor número, así que el resultado es determinista para una cantidad de hilos dada
+ * pero puede diferir del secuencial cuando dos colectivos de distintos grupos llegan a la vez a una parada.
+ *
+ * Cada grupo escribe su salida en memoria y, al terminar cada ventana, se vuelca en la vista en el orden
+ * de los grupos, de modo que los mensajes de distintos hilos no se mezclan y la memoria retenida no pasa
+ * de la salida de una ventana.
+ */
+public class SimuladorParalelo {
+    static final int PASOS_POR_VENTANA = 32;
+
+    private final SimulacionOutput vista;
+    private final Configuracion config;
+    private final List<Colectivo> colectivos;
+    private final int hilos;
+    private final boolean porComponentes;
+    private final boolean motorEventos;
+    private ObservadorSimulacion observador = ObservadorSimulacion.NINGUNO;
+
+    /**
+     * Crea un simulador paralelo.
+     * @param colectivos Colectivos a simular.
+     * @param vista Vista donde se muestran los eventos y estadísticas.
+     * @param config Configuración de la simulación, incluida la cantidad de hilos.
+     */
+    public SimuladorParalelo(List<Colectivo> colectivos, SimulacionOutput vista, Configuracion config) {
+        this.colectivos = colectivos;
+        this.vista = vista;
+        this.config = config;
+        this.hilos = config.getHilosSimulacion();
+        this.porComponentes = config.particionarPorComponentes();
+        this.motorEventos = config.usarMotorEventos();
+    }
+
+    /**
+     * Define el observador que recibe los eventos de todos los grupos.
+     * Debe admitir invocaciones concurrentes desde distintos hilos.
+     * @param observador Observador de la simulación.
+     */
+    public void setObservador(ObservadorSimulacion observador) {
+        this.observador = observador;
+    }
+
+    /**
+     * Ejecuta la simulación de todos los grupos en paralelo, volcando su salida en la vista al final
+     * de cada ventana. Las estadísticas finales se muestran aparte.
+     */
+    public void ejecutar() {
+        List<List<Colectivo>> grupos = agrupar();
+        Map<Parada, ParadaCompartida> compartidas = crearParadasCompartidas(grupos);
+
+        List<SimulacionOutput> salidas = new ArrayList<>();
+        List<SimulacionPorVentanas> motores = new ArrayList<>();
+        for (int g = 0; g < grupos.size(); g++) {
+            SimulacionOutput salida = vista.crearEnMemoria();
+            salidas.add(salida);
+            motores.add(crearMotor(grupos.get(g), salida, compartidas, g));
+        }
+
+        Ventanas ventanas = new Ventanas(motores, salidas, compartidas.values(),
+            motorEventos ? calcularVentanaEventos() : PASOS_POR_VENTANA);
+        CyclicBarrier barrera = new CyclicBarrier(motores.size(), ventanas::preparar);
+
+        ExecutorService pool = Executors.newFixedThreadPool(motores.size());
+        CompletionService<Void> completados = new ExecutorCompletionService<>(pool);
+        for (SimulacionPorVentanas motor : motores) {
+            completados.submit(() -> {
+                barrera.await();
+                while (!ventanas.terminada()) {
+                    motor.avanzarHasta(ventanas.limite());
+                    barrera.await();
+                }
+                return null;
+            });
+        }
+        Throwable error = null;
+        try {
+            // Si falla la preparación de una ventana, los demás grupos terminan con la barrera rota:
+            // se sigue esperando hasta encontrar el error original
+            for (int i = 0; i < motores.size() && (error == null || error instanceof BrokenBarrierException); i++) {
+                try {
+                    completados.take().get();
+                } catch (ExecutionException e) {
+                    if (error == null || !(e.getCause() instanceof BrokenBarrierException)) error = e.getCause();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulación paralela interrumpida.", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        if (error != null) {
+            throw new IllegalStateException("Error en la simulación paralela.", error);
+        }
+    }
+
+    /**
+     * Avance común de los grupos. Entre dos ventanas, con todos los grupos detenidos en la barrera,
+     * vuelca la salida de la ventana terminada y prepara la siguiente a partir del próximo evento pendiente.
+     * Los hilos leen el límite y el fin después de la barrera, que publica lo escrito al prepararlos.
+     */
+    private final class Ventanas {
+        private final List<SimulacionPorVentanas> motores;
+        private final List<SimulacionOutput> salidas;
+        private final Iterable<ParadaCompartida> compartidas;
+        private final long ancho;
+        private long limite = 0;
+        private boolean terminada = false;
+
+        Ventanas(List<SimulacionPorVentanas> motores, List<SimulacionOutput> salidas,
+                 Iterable<ParadaCompartida> compartidas, long ancho) {
+            this.motores = motores;
+            this.salidas = salidas;
+            this.compartidas = compartidas;
+            this.ancho = ancho;
+        }
+
+        /**
+         * Vuelca la salida de la ventana terminada y planifica la siguiente, que empieza en el próximo
+         * evento pendiente de cualquier grupo; si no queda ninguno, la simulación terminó.
+         */
+        void preparar() {
+            for (SimulacionOutput salida : salidas) {
+                salida.volcarEn(vista);
+            }
+            long inicio = Long.MAX_VALUE;
+            for (SimulacionPorVentanas motor : motores) {
+                inicio = Math.min(inicio, motor.getProximoInstante());
+            }
+            if (inicio == Long.MAX_VALUE) {
+                terminada = true;
+                return;
+            }
+            limite = inicio + ancho;
+            for (SimulacionPorVentanas motor : motores) {
+                motor.reservarTurnos(limite);
+            }
+            for (ParadaCompartida compartida : compartidas) {
+                compartida.planificar();
+            }
+        }
+
+        long limite() {
+            return limite;
+        }
+
+        boolean terminada() {
+            return terminada;
+        }
+    }
+
+    /**
+     * Crea el motor configurado para un grupo de colectivos.
+     */
+    private SimulacionPorVentanas crearMotor(List<Colectivo> grupo, SimulacionOutput salida,
+                                             Map<Parada, ParadaCompartida> compartidas, int numero) {
+        if (motorEventos) {
+            SimuladorEventos simulador = new SimuladorEventos(grupo, salida, config, compartidas, numero);
+            simulador.setObservador(observador);
+            return simulador;
+        }
+        Simulador simulador = new Simulador(grupo, salida, config, compartidas, numero);
+        simulador.setObservador(observador);
+        return simulador;
+    }
+
+    /**
+     * Calcula el ancho de las ventanas del motor de eventos: el menor tiempo que puede pasar entre que se
+     * programa la llegada de un colectivo a una parada y la llegada misma, sea por el viaje de un tramo
+     * o por el tiempo entre vueltas. Con un tiempo nulo la ventana es de un segundo, lo que solo vale
+     * sin paradas compartidas entre grupos; la configuración lo rechaza al particionar por línea.
+     * @return Ancho de la ventana en segundos simulados.
+     */
+    private long calcularVentanaEventos() {
+        long ancho = config.getTiempoEntreParadas();
+        for (Colectivo c : colectivos) {
+            List<Parada> paradas = c.getLinea().getParadas();
+            for (int i = 0; i + 1 < paradas.size(); i++) {
+                ancho = Math.min(ancho, config.getTiempoTramo(paradas.get(i).getId(), paradas.get(i + 1).getId()));
+            }
+        }
+        return Math.max(ancho, 1);
+    }
+
+    /**
+     * Reparte los colectivos en a lo sumo tantos grupos como hilos. Las unidades de reparto, líneas
+     * o componentes según la configuración, se asignan de la más cargada a la menos al grupo con menos
+     * paradas por recorrer; dentro de cada grupo los colectivos conservan el orden de la lista.
+     * @return Grupos de colectivos, ninguno vacío.
+     */
+    List<List<Colectivo>> agrupar() {
+        List<List<Colectivo>> unidades = porComponentes ? agruparPorComponente() : agruparPorLinea();
+        int cantidad = Math.min(hilos, unidades.size());
+        long[] cargas = new long[cantidad];
+        Map<Colectivo, Integer> grupoDe = new IdentityHashMap<>();
+
+        List<Integer> orden = new ArrayList<>();
+        for (int i = 0; i < unidades.size(); i++) orden.add(i);
+        orden.sort(Comparator.comparingLong((Integer i) -> -carga(unidades.get(i))));
+        for (int unidad : orden) {
+            int destino = 0;
+            for (int g = 1; g < cantidad; g++) {
+                if (cargas[g] < cargas[destino]) destino = g;
+            }
+            cargas[destino] += carga(unidades.get(unidad));
+            for (Colectivo c : unidades.get(unidad)) {
+                grupoDe.put(c, destino);
+            }
+        }
+
+        List<List<Colectivo>> grupos = new ArrayList<>();
+        for (int g = 0; g < cantidad; g++) grupos.add(new ArrayList<>());
+        for (Colectivo c : colectivos) {
+            grupos.get(grupoDe.get(c)).add(c);
+        }
+        return grupos;
+    }
+
+    /**
+     * Estima el trabajo de una unidad de reparto por las paradas que recorren sus colectivos en cada vuelta.
+     */
+    private static long carga(List<Colectivo> unidad) {
+        long paradas = 0;
+        for (Colectivo c : unidad) {
+            paradas += c.getLinea().getParadas().size();
+        }
+        return paradas;
+    }
+
+    /**
+     * Agrupa los colectivos por línea, respetando el orden en que aparecen.
+     * @return Un grupo de colectivos por cada línea.
+     */
+    private List<List<Colectivo>> agruparPorLinea() {
+        Map<Linea, List<Colectivo>> porLinea = new LinkedHashMap<>();
+        for (Colectivo c : colectivos) {
+            porLinea.computeIfAbsent(c.getLinea(), l -> new ArrayList<>()).add(c);
+        }
+        return new ArrayList<>(porLinea.values());
+    }
+
+    /**
+     * Agrupa los colectivos por componente conexo: dos líneas quedan en el mismo grupo
+     * si comparten alguna parada, directamente o a través de otras líneas.
+     * @return Un grupo de colectivos por cada componente, sin paradas en común entre grupos.
+     */
+    private List<List<Colectivo>> agruparPorComponente() {
+        List<List<Colectivo>> porLinea = agruparPorLinea();
+        int[] padre = new int[porLinea.size()];
+        for (int i = 0; i < padre.length; i++) padre[i] = i;
+
+        Map<Parada, Integer> primeraLinea = new HashMap<>();
+        for (int i = 0; i < porLinea.size(); i++) {
+            for (Parada parada : porLinea.get(i).get(0).getLinea().getParadas()) {
+                Integer otra = primeraLinea.putIfAbsent(parada, i);
+                if (otra != null) {
+                    padre[raiz(padre, i)] = raiz(padre, otra);
+                }
+            }
+        }
+
+        Map<Integer, List<Colectivo>> componentes = new LinkedHashMap<>();
+        for (int i = 0; i < porLinea.size(); i++) {
+            componentes.computeIfAbsent(raiz(padre, i), r -> new ArrayList<>()).addAll(porLinea.get(i));
+        }
+        return new ArrayList<>(componentes.values());
+    }
+
+    /**
+     * Busca el representante del componente de una línea, comprimiendo el camino recorrido.
+     */
+    private static int raiz(int[] padre, int i) {
+        while (padre[i] != i) {
+            padre[i] = padre[padre[i]];
+            i = padre[i];
+        }
+        return i;
+    }
+
+    /**
+     * Crea los turnos de cada parada recorrida por más de un grupo.
+     * @param grupos Grupos de colectivos que se simulan en paralelo.
+     * @return Turnos de cada parada compartida entre grupos.
+     */
+    static Map<Parada, ParadaCompartida> crearParadasCompartidas(List<List<Colectivo>> grupos) {
+        Map<Parada, Integer> grupoDeParada = new HashMap<>();
+        Map<Parada, ParadaCompartida> compartidas = new HashMap<>();
+        for (int g = 0; g < grupos.size(); g++) {
+            for (Colectivo c : grupos.get(g)) {
+                for (Parada parada : c.getLinea().getParadas()) {
+                    Integer otro = grupoDeParada.putIfAbsent(parada, g);
+                    if (otro != null && otro != g) {
+                        compartidas.putIfAbsent(parada, new ParadaCompartida());
+                    }
+                }
+            }
+        }
+        return compartidas;
+    }
+}
@@ -0,0 +1,34 @@
+package main;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lee los argumentos {@code clave=valor} de las herramientas de línea de comandos.
+ */
+final class Argumentos {
+
+    private Argumentos() {}
+
+    /**
+     * Combina los argumentos recibidos con los valores por defecto.
+     * Solo se aceptan las claves presentes en los valores por defecto.
+     *
+     * @param args Argumentos de la línea de comandos.
+     * @param porDefecto Valor por defecto de cada clave admitida.
+     * @return Valor de cada clave, o null si algún argumento no es válido (ya informado por la salida de errores).
+     */
+    static Map<String, String> leer(String[] args, Map<String, String> porDefecto) {
+        Map<String, String> opciones = new LinkedHashMap<>(porDefecto);
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 0 || !opciones.containsKey(arg.substring(0, igual))) {
+                System.err.println("[!] Argumento no reconocido: " + arg);
+                System.err.println("    Claves admitidas: " + String.join(", ", porDefecto.keySet()));
+                return null;
+            }
+            opciones.put(arg.substring(0, igual), arg.substring(igual + 1));
+        }
+        return opciones;
+    }
+}
@@ -0,0 +1,182 @@
+package main;
+
+import config.Configuracion;
+import domain.Red;
+import io.Datos;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import presentacion.SimulacionOutput;
+import util.BarridoParametros;
+import util.CorridaSimulacion;
+import util.EstadisticaMuestral;
+
+/**
+ * Simula la combinación de varios valores de parámetros de la configuración sobre la red cargada una sola vez,
+ * con la misma demanda en todas las combinaciones, y muestra los indicadores de cada una. Opcionalmente busca,
+ * para cada combinación de los demás parámetros, el menor valor de uno de ellos que alcanza un índice de satisfacción.
+ *
+ * Uso: {@code java main.BarrerParametros [clave=valor ...]}. Cada parámetro barrible
+ * ({@link BarridoParametros#PARAMETROS}) acepta una lista de valores separados por comas, y cada valor puede ser
+ * un rango {@code desde:hasta[:paso]}; vacío = el valor del archivo de configuración. Además: {@code replicas}
+ * (semillas por combinación), {@code hilos} (0 = uno por procesador), {@code confianza} (nivel de los intervalos),
+ * {@code buscar} y {@code objetivo} (parámetro e índice de satisfacción de la búsqueda; vacío = barrer toda la grilla)
+ * y {@code salida} (archivo CSV con los resultados). Un barrido se rechaza si alguna combinación es una
+ * configuración inválida, como una capacidad menor que {@code cantidadAsientos}; la búsqueda descarta esos valores.
+ * Ejemplos: {@code java main.BarrerParametros cantidadPasajeros=40:120:20 maxVueltas=1,2,3 replicas=5}
+ * y {@code java main.BarrerParametros cantidadPasajeros=40:200:10 maxVueltas=1,2 buscar=cantidadPasajeros objetivo=0.8}
+ */
+public class BarrerParametros {
+    public static void main(String[] args) {
+        Map<String, String> porDefecto = new LinkedHashMap<>();
+        for (String parametro : BarridoParametros.PARAMETROS) {
+            porDefecto.put(parametro, "");
+        }
+        porDefecto.put("replicas", "1");
+        porDefecto.put("hilos", "0");
+        porDefecto.put("confianza", "0.95");
+        porDefecto.put("buscar", "");
+        porDefecto.put("objetivo", "");
+        porDefecto.put("salida", "");
+        Map<String, String> opciones = Argumentos.leer(args, porDefecto);
+        if (opciones == null) return;
+
+        Map<String, List<Integer>> grilla = new LinkedHashMap<>();
+        for (String parametro : BarridoParametros.PARAMETROS) {
+            if (!opciones.get(parametro).isEmpty()) {
+                grilla.put(parametro, leerValores(parametro, opciones.get(parametro)));
+            }
+        }
+        String buscar = opciones.get("buscar");
+        if (!buscar.isEmpty() && (!grilla.containsKey(buscar) || opciones.get("objetivo").isEmpty())) {
+            System.err.println("[!] 'buscar' requiere un rango para ese parámetro y un 'objetivo'.");
+            return;
+        }
+
+        Properties properties = Configuracion.leerPropiedades(Configuracion.ARCHIVO_CONFIG);
+        Configuracion config = Configuracion.desde(properties);
+        Datos datos = new Datos(config.getArchivoParadas(), config.getArchivoLineas(), new SimulacionOutput(), config.getHilosCarga());
+        Red red = datos.cargarRed(config.usarCacheRed());
+
+        int hilos = Integer.parseInt(opciones.get("hilos"));
+        if (hilos == 0) hilos = Runtime.getRuntime().availableProcessors();
+        int replicas = Integer.parseInt(opciones.get("replicas"));
+        double confianza = Double.parseDouble(opciones.get("confianza"));
+        BarridoParametros barrido = new BarridoParametros(red, properties, replicas, hilos);
+
+        System.out.printf(Locale.ROOT, "Semilla base: %d | Réplicas por combinación: %d | Hilos: %d%n",
+            barrido.getSemilla(), replicas, hilos);
+        long inicio = System.nanoTime();
+        List<BarridoParametros.Punto> puntos = new ArrayList<>();
+        try {
+            if (buscar.isEmpty()) {
+                puntos.addAll(barrido.barrer(grilla));
+                for (BarridoParametros.Punto punto : puntos) {
+                    System.out.println(formatear(punto, replicas, confianza));
+                }
+            } else {
+                double objetivo = Double.parseDouble(opciones.get("objetivo"));
+                for (BarridoParametros.Busqueda busqueda : barrido.buscar(grilla, buscar, objetivo)) {
+                    puntos.add(busqueda.punto());
+                    System.out.printf(Locale.ROOT, "%s (%d valores simulados)%n  %s%n",
+                        busqueda.alcanzaObjetivo() ? "Menor valor que alcanza el objetivo" : "No se alcanza el objetivo",
+                        busqueda.evaluados(), formatear(busqueda.punto(), replicas, confianza));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("[!] " + e.getMessage());
+            return;
+        }
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        System.out.printf(Locale.ROOT, "%n%d combinaciones en %d ms%n", puntos.size(), milisegundos);
+
+        String salida = opciones.get("salida");
+        if (!salida.isEmpty()) {
+            exportarCsv(puntos, confianza, Path.of(salida));
+            System.out.println("Resultados exportados a " + salida);
+        }
+    }
+
+    /**
+     * Lee una lista de valores separados por comas, donde cada uno puede ser un rango {@code desde:hasta[:paso]}.
+     * @throws IllegalArgumentException si algún valor no es válido.
+     */
+    private static List<Integer> leerValores(String parametro, String texto) {
+        List<Integer> valores = new ArrayList<>();
+        try {
+            for (String parte : texto.split(",")) {
+                String[] rango = parte.trim().split(":");
+                int desde = Integer.parseInt(rango[0].trim());
+                int hasta = rango.length > 1 ? Integer.parseInt(rango[1].trim()) : desde;
+                int paso = rango.length > 2 ? Integer.parseInt(rango[2].trim()) : 1;
+                if (rango.length > 3 || paso < 1 || hasta < desde) {
+                    throw new IllegalArgumentException("rango inválido: " + parte);
+                }
+                for (int valor = desde; valor <= hasta; valor += paso) {
+                    valores.add(valor);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valores inválidos para '" + parametro + "': " + texto, e);
+        }
+        return valores;
+    }
+
+    /**
+     * Formatea el resultado de una combinación como una fila de texto legible.
+     */
+    private static String formatear(BarridoParametros.Punto punto, int replicas, double confianza) {
+        StringBuilder texto = new StringBuilder();
+        punto.valores().forEach((parametro, valor) -> texto.append(parametro).append('=').append(valor).append(' '));
+        texto.append('|');
+        for (int i = 0; i < CorridaSimulacion.INDICADORES.size(); i++) {
+            EstadisticaMuestral estadistica = punto.estadisticas().get(i);
+            texto.append(String.format(Locale.ROOT, " %s=%.4f", CorridaSimulacion.INDICADORES.get(i), estadistica.getMedia()));
+            if (replicas > 1) {
+                texto.append(String.format(Locale.ROOT, " ± %.4f", estadistica.getSemiamplitud(confianza)));
+            }
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Exporta los resultados en CSV, con una fila por combinación y la media y la semiamplitud
+     * del intervalo de confianza de cada indicador.
+     */
+    private static void exportarCsv(List<BarridoParametros.Punto> puntos, double confianza, Path archivo) {
+        try (BufferedWriter out = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            List<String> columnas = new ArrayList<>();
+            if (!puntos.isEmpty()) {
+                columnas.addAll(puntos.get(0).valores().keySet());
+            }
+            for (String indicador : CorridaSimulacion.INDICADORES) {
+                columnas.add("\"" + indicador + "\"");
+                columnas.add("\"" + indicador + " (semiamplitud)\"");
+            }
+            out.write(String.join(",", columnas));
+            out.newLine();
+            for (BarridoParametros.Punto punto : puntos) {
+                List<String> fila = new ArrayList<>();
+                punto.valores().values().forEach(valor -> fila.add(String.valueOf(valor)));
+                for (EstadisticaMuestral estadistica : punto.estadisticas()) {
+                    double semiamplitud = estadistica.getCantidad() < 2 ? 0 : estadistica.getSemiamplitud(confianza);
+                    fila.add(String.format(Locale.ROOT, "%.6f", estadistica.getMedia()));
+                    fila.add(String.format(Locale.ROOT, "%.6f", semiamplitud));
+                }
+                out.write(String.join(",", fila));
+                out.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al exportar los resultados a " + archivo, e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package main;
+
+import config.Configuracion;
+import domain.*;
+import io.Datos;
+import io.LectorRegistroEventos;
+import java.util.List;
+import presentacion.NivelDetalle;
+import presentacion.SimulacionOutput;
+import util.AdministracionColectivos;
+
+/**
+ * Convierte un registro binario de eventos en el texto legible de la simulación.
+ * Carga la misma red de paradas y líneas de la configuración para resolver los IDs del registro.
+ *
+ * Uso: {@code java main.DecodificarRegistro [registro] [salida]}. Si no se indican,
+ * se usa el registro configurado y la salida se guarda junto a él con extensión ".txt".
+ */
+public class DecodificarRegistro {
+    public static void main(String[] args) {
+        Configuracion config = Configuracion.cargar();
+        String archivoRegistro = args.length > 0 ? args[0] : config.getArchivoRegistroEventos();
+        if (archivoRegistro.isEmpty()) {
+            System.err.println("[!] No se indicó el registro de eventos a decodificar.");
+            return;
+        }
+        String archivoSalida = args.length > 1 ? args[1] : archivoRegistro + ".txt";
+
+        SimulacionOutput vista = SimulacionOutput.crearConArchivo(archivoSalida,
+            NivelDetalle.PASAJERO, config.getCapacidadBufferSalida());
+
+        // Cargar la red y generar los colectivos igual que en la simulación registrada
+        Datos datos = new Datos(config.getArchivoParadas(), config.getArchivoLineas(), vista, config.getHilosCarga());
+        Red red = datos.cargarRed(config.usarCacheRed());
+        List<Colectivo> colectivos = AdministracionColectivos.generarColectivos(red.lineas(), config);
+
+        new LectorRegistroEventos(archivoRegistro, red.paradas(), colectivos).reproducir(vista);
+        vista.cerrarArchivo();
+    }
+}
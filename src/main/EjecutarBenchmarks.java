@@ -0,0 +1,75 @@
+package main;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ejecuta con JMH los benchmarks de subida, bajada, carga de la red y simulación completa
+ * sobre redes sintéticas, para comparar el rendimiento entre versiones.
+ *
+ * Uso: {@code java main.EjecutarBenchmarks [clave=valor ...]}, con las clases compiladas por Maven
+ * en el classpath, donde los parámetros de la red admiten listas separadas por comas y se mide cada
+ * combinación; cada benchmark usa solo los parámetros que declara. Claves:
+ * {@code benchmarks} (subida,bajada,carga,simulacion), {@code paradas}, {@code pasajeros},
+ * {@code capacidad}, {@code lineas}, {@code vueltas}, {@code calentamiento}, {@code iteraciones}
+ * y {@code salida} (archivo JSON de JMH donde se exportan los resultados).
+ * Ejemplo: {@code java main.EjecutarBenchmarks benchmarks=subida paradas=50,500 salida=bench.json}
+ *
+ * Para usar todas las opciones de JMH, {@code mvn -P benchmarks package} genera
+ * {@code target/benchmarks.jar}, que se ejecuta con {@code java -jar target/benchmarks.jar}.
+ */
+public class EjecutarBenchmarks {
+    private static final Map<String, String> BENCHMARKS = new LinkedHashMap<>();
+    static {
+        BENCHMARKS.put("subida", "benchmark.BenchmarkSubida");
+        BENCHMARKS.put("bajada", "benchmark.BenchmarkBajada");
+        BENCHMARKS.put("carga", "benchmark.BenchmarkCarga");
+        BENCHMARKS.put("simulacion", "benchmark.BenchmarkSimulacion");
+    }
+    private static final String[] PARAMETROS = {"paradas", "pasajeros", "capacidad", "lineas", "vueltas"};
+
+    public static void main(String[] args) throws RunnerException {
+        Map<String, String> porDefecto = new LinkedHashMap<>();
+        porDefecto.put("benchmarks", String.join(",", BENCHMARKS.keySet()));
+        porDefecto.put("paradas", "20,200");
+        porDefecto.put("pasajeros", "5,20");
+        porDefecto.put("capacidad", "30");
+        porDefecto.put("lineas", "12");
+        porDefecto.put("vueltas", "3");
+        porDefecto.put("calentamiento", "5");
+        porDefecto.put("iteraciones", "10");
+        porDefecto.put("salida", "");
+        Map<String, String> opciones = Argumentos.leer(args, porDefecto);
+        if (opciones == null) return;
+
+        ChainedOptionsBuilder jmh = new OptionsBuilder()
+            .warmupIterations(Integer.parseInt(opciones.get("calentamiento")))
+            .measurementIterations(Integer.parseInt(opciones.get("iteraciones")));
+        boolean alguno = false;
+        for (String nombre : opciones.get("benchmarks").split(",")) {
+            String clase = BENCHMARKS.get(nombre.trim());
+            if (clase == null) {
+                System.err.println("[!] Benchmark desconocido: " + nombre);
+                continue;
+            }
+            jmh.include("^" + clase.replace(".", "\\.") + "\\.");
+            alguno = true;
+        }
+        if (!alguno) return;
+        for (String parametro : PARAMETROS) {
+            jmh.param(parametro, opciones.get(parametro).split(","));
+        }
+
+        String salida = opciones.get("salida");
+        if (!salida.isEmpty()) {
+            jmh.resultFormat(ResultFormatType.JSON).result(salida);
+        }
+        new Runner(jmh.build()).run();
+        if (!salida.isEmpty()) System.out.println("Resultados exportados a " + salida);
+    }
+}
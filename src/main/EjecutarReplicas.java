@@ -0,0 +1,108 @@
+package main;
+
+import config.Configuracion;
+import domain.Red;
+import io.Datos;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import presentacion.SimulacionOutput;
+import util.EjecutorReplicas;
+import util.EstadisticaMuestral;
+
+/**
+ * Ejecuta réplicas independientes de la simulación configurada en paralelo, en una sola JVM
+ * y sobre la red cargada una sola vez, y muestra la media de cada indicador con su intervalo de confianza.
+ *
+ * Uso: {@code java main.EjecutarReplicas [clave=valor ...]}. Claves: {@code minimo} y {@code maximo}
+ * (cantidad de réplicas), {@code hilos} (0 = uno por procesador), {@code confianza} (nivel de los intervalos),
+ * {@code precision} (semiamplitud relativa a la media con la que se detiene antes del máximo; 0 = nunca)
+ * y {@code salida} (archivo CSV con los indicadores de cada réplica).
+ * Ejemplo: {@code java main.EjecutarReplicas maximo=500 precision=0.005 salida=replicas.csv}
+ */
+public class EjecutarReplicas {
+    public static void main(String[] args) {
+        Map<String, String> porDefecto = new LinkedHashMap<>();
+        porDefecto.put("minimo", "10");
+        porDefecto.put("maximo", "100");
+        porDefecto.put("hilos", "0");
+        porDefecto.put("confianza", "0.95");
+        porDefecto.put("precision", "0.01");
+        porDefecto.put("salida", "");
+        Map<String, String> opciones = Argumentos.leer(args, porDefecto);
+        if (opciones == null) return;
+
+        Configuracion config = Configuracion.cargar();
+        Datos datos = new Datos(config.getArchivoParadas(), config.getArchivoLineas(), new SimulacionOutput(), config.getHilosCarga());
+        Red red = datos.cargarRed(config.usarCacheRed());
+
+        int hilos = Integer.parseInt(opciones.get("hilos"));
+        if (hilos == 0) hilos = Runtime.getRuntime().availableProcessors();
+        double confianza = Double.parseDouble(opciones.get("confianza"));
+        EjecutorReplicas ejecutor = new EjecutorReplicas(red, config, hilos);
+
+        System.out.printf(Locale.ROOT, "Semilla base: %d | Hilos: %d%n", config.getSemilla(), hilos);
+        long inicio = System.nanoTime();
+        EjecutorReplicas.Resultado resultado = ejecutor.ejecutar(
+            Integer.parseInt(opciones.get("minimo")), Integer.parseInt(opciones.get("maximo")),
+            confianza, Double.parseDouble(opciones.get("precision")),
+            replica -> System.out.println(formatear(replica)));
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+
+        System.out.printf(Locale.ROOT, "%n%d réplicas en %d ms (%s)%n", resultado.replicas().size(), milisegundos,
+            resultado.convergio() ? "se alcanzó la precisión" : "se alcanzó el máximo");
+        for (int i = 0; i < EjecutorReplicas.INDICADORES.size(); i++) {
+            EstadisticaMuestral estadistica = resultado.estadisticas().get(i);
+            System.out.printf(Locale.ROOT, "%-26s %14.4f ± %-12.4f IC %.0f%% | desvío %.4f | min %.4f | max %.4f%n",
+                EjecutorReplicas.INDICADORES.get(i), estadistica.getMedia(), estadistica.getSemiamplitud(confianza),
+                confianza * 100, estadistica.getDesvio(), estadistica.getMinimo(), estadistica.getMaximo());
+        }
+
+        String salida = opciones.get("salida");
+        if (!salida.isEmpty()) {
+            exportarCsv(resultado.replicas(), Path.of(salida));
+            System.out.println("Réplicas exportadas a " + salida);
+        }
+    }
+
+    /**
+     * Formatea una réplica como una fila de texto legible.
+     */
+    private static String formatear(EjecutorReplicas.Replica replica) {
+        StringBuilder texto = new StringBuilder(String.format(Locale.ROOT, "Réplica %d (semilla %d):",
+            replica.numero(), replica.semilla()));
+        for (int i = 0; i < EjecutorReplicas.INDICADORES.size(); i++) {
+            texto.append(String.format(Locale.ROOT, " %s=%.4f", EjecutorReplicas.INDICADORES.get(i), replica.indicadores()[i]));
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Exporta los indicadores de cada réplica en CSV, con una fila por réplica.
+     */
+    private static void exportarCsv(List<EjecutorReplicas.Replica> replicas, Path archivo) {
+        try (BufferedWriter out = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            out.write("replica,semilla");
+            for (String indicador : EjecutorReplicas.INDICADORES) {
+                out.write(",\"" + indicador + "\"");
+            }
+            out.newLine();
+            for (EjecutorReplicas.Replica replica : replicas) {
+                out.write(replica.numero() + "," + replica.semilla());
+                for (double valor : replica.indicadores()) {
+                    out.write("," + String.format(Locale.ROOT, "%.6f", valor));
+                }
+                out.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al exportar las réplicas a " + archivo, e);
+        }
+    }
+}
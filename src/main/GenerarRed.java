@@ -0,0 +1,41 @@
+package main;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import util.GeneradorRed;
+
+/**
+ * Genera archivos de paradas y líneas sintéticos para pruebas de carga.
+ *
+ * Uso: {@code java main.GenerarRed [clave=valor ...]}. Claves: {@code paradas}, {@code lineas},
+ * {@code largoMinimo}, {@code largoMaximo}, {@code solapamiento} (entre 0 y 1), {@code semilla},
+ * {@code archivoParadas} y {@code archivoLineas}. Los archivos generados pueden usarse
+ * indicándolos en las claves {@code parada} y {@code linea} de {@code config.properties}.
+ * Ejemplo: {@code java main.GenerarRed paradas=1000000 lineas=5000 largoMaximo=300}
+ */
+public class GenerarRed {
+    public static void main(String[] args) {
+        Map<String, String> porDefecto = new LinkedHashMap<>();
+        porDefecto.put("paradas", "10000");
+        porDefecto.put("lineas", "200");
+        porDefecto.put("largoMinimo", "20");
+        porDefecto.put("largoMaximo", "60");
+        porDefecto.put("solapamiento", "0.3");
+        porDefecto.put("semilla", "1");
+        porDefecto.put("archivoParadas", "data/parada_sintetica.txt");
+        porDefecto.put("archivoLineas", "data/linea_sintetica.txt");
+        Map<String, String> opciones = Argumentos.leer(args, porDefecto);
+        if (opciones == null) return;
+
+        GeneradorRed generador = new GeneradorRed(
+            Integer.parseInt(opciones.get("paradas")), Integer.parseInt(opciones.get("lineas")),
+            Integer.parseInt(opciones.get("largoMinimo")), Integer.parseInt(opciones.get("largoMaximo")),
+            Double.parseDouble(opciones.get("solapamiento")), Long.parseLong(opciones.get("semilla")));
+
+        long inicio = System.nanoTime();
+        generador.generar(Path.of(opciones.get("archivoParadas")), Path.of(opciones.get("archivoLineas")));
+        System.out.printf("Red generada en %s y %s (%d ms)%n", opciones.get("archivoParadas"),
+            opciones.get("archivoLineas"), (System.nanoTime() - inicio) / 1_000_000);
+    }
+}
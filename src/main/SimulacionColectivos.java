@@ -3,38 +3,116 @@ package main;
 import config.Configuracion;
 import domain.*;
 import io.Datos;
+import io.RegistroEventosBinario;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import logic.LlegadasPasajeros;
+import logic.ObservadorSimulacion;
 import logic.Simulador;
+import logic.SimuladorEventos;
+import logic.SimuladorParalelo;
 import presentacion.SimulacionOutput;
 import util.*;
 
 public class SimulacionColectivos {
     public static void main(String[] args) {
 
+        // Cargar y validar la configuración una única vez
+        Configuracion config = Configuracion.cargar();
+
         // Configurar la salida de la simulación a un archivo o consola
-        SimulacionOutput vista = SimulacionOutput.crearConArchivo(Configuracion.getArchivoSalidaSimulacion());
+        SimulacionOutput vista = SimulacionOutput.crearConArchivo(config.getArchivoSalidaSimulacion(),
+            config.getNivelDetalle(), config.getCapacidadBufferSalida());
+
+        // Medir el tiempo, la CPU y la memoria de cada fase de la corrida si está configurado
+        Instrumentacion instrumentacion = Instrumentacion.crear(config);
+        instrumentacion.iniciarFase("Carga de la red");
     
         // Cargar archivos de paradas y líneas usando la configuración
-        Datos datos = new Datos(Configuracion.getArchivoParadas(), Configuracion.getArchivoLineas(), vista);
-        
-        // Cargar las paradas desde el archivo y almacenarlas en un mapa (id -> Parada)
-        Map<Integer,Parada> paradas = datos.cargarParadas();
+        Datos datos = new Datos(config.getArchivoParadas(), config.getArchivoLineas(), vista, config.getHilosCarga());
         
-        // Cargar las líneas desde el archivo y asociarles las paradas correspondientes
-        List<Linea> lineas = datos.cargarLineas(paradas);
+        // Cargar las paradas y las líneas, desde la caché binaria si los archivos no cambiaron
+        Red red = datos.cargarRed(config.usarCacheRed());
+        List<Linea> lineas = red.lineas();
     
         // Generar los colectivos para cada línea
-        List<Colectivo> colectivos = AdministracionColectivos.generarColectivos(lineas);
-        
-        // Generar los pasajeros y asignarlos a las paradas
-        AdministracionPasajeros.generarPasajeros(lineas);
-        
-        // Crear el simulador y ejecutar la simulación
-        Simulador simulador = new Simulador(colectivos, vista);
-        simulador.ejecutar();
+        instrumentacion.iniciarFase("Generación de pasajeros");
+        List<Colectivo> colectivos = AdministracionColectivos.generarColectivos(lineas, config);
         
-        // Cerrar el archivo de salida si se está utilizando
-        vista.cerrarArchivo();
+        // Generar los pasajeros a partir de la semilla y guardarlos en el almacén configurado:
+        // todos al inicio o a medida que llegan a las paradas durante la simulación,
+        // o recrearlos desde un punto de control para reanudar una simulación guardada
+        AdministracionPasajeros administracion = new AdministracionPasajeros(config);
+        ArchivoPuntoControl.Lectura reanudacion = config.getReanudarDesde().isEmpty()
+            ? null : ArchivoPuntoControl.abrir(config.getReanudarDesde(), lineas);
+        long semilla = reanudacion != null ? reanudacion.getSemilla() : config.getSemilla();
+        vista.mostrarSemilla(semilla);
+        AlmacenPasajeros pasajeros;
+        LlegadasPasajeros llegadas = LlegadasPasajeros.NINGUNA;
+        if (reanudacion != null) {
+            pasajeros = reanudacion.leerPasajeros(administracion::crearAlmacen);
+        } else if (config.usarLlegadasPoisson()) {
+            pasajeros = administracion.crearAlmacen(GeneradorLlegadas.estimarLlegadasPorHora(lineas, config.getPasajerosPorHora()));
+        } else {
+            pasajeros = administracion.generarPasajeros(lineas);
+        }
+        if (config.usarLlegadasPoisson()) {
+            llegadas = new GeneradorLlegadas(lineas, pasajeros, config.getPasajerosPorHora(), config.getPerfilLlegadas(), semilla);
+        }
+
+        // Calcular las estadísticas a medida que avanza la simulación
+        RecolectorEstadisticas estadisticas = new RecolectorEstadisticas(pasajeros::getCantidad);
+
+        // Abrir el registro binario de eventos si está configurado; el registro, los pasajeros y la salida
+        // se cierran aunque la simulación falle, para no perder lo ya registrado ni dejar el archivo de pasajeros
+        String archivoRegistro = config.getArchivoRegistroEventos();
+        RegistroEventosBinario registro = archivoRegistro.isEmpty()
+            ? null : new RegistroEventosBinario(archivoRegistro, config.usarMotorEventos());
+        try (registro; pasajeros) {
+            List<ObservadorSimulacion> observadores = new ArrayList<>();
+            if (instrumentacion.estaActiva()) observadores.add(instrumentacion);
+            observadores.add(estadisticas);
+            if (registro != null) observadores.add(registro);
+            ObservadorSimulacion observador = ObservadorSimulacion.combinar(observadores);
+
+            // Crear el simulador según el modo configurado y ejecutar la simulación
+            instrumentacion.iniciarFase("Simulación");
+            if (config.getHilosSimulacion() > 1) {
+                SimuladorParalelo simulador = new SimuladorParalelo(colectivos, vista, config);
+                simulador.setObservador(observador);
+                simulador.ejecutar();
+            } else if (config.usarMotorEventos()) {
+                SimuladorEventos simulador = new SimuladorEventos(colectivos, vista, config);
+                simulador.setObservador(observador);
+                simulador.setLlegadas(llegadas);
+                if (reanudacion != null) {
+                    try (reanudacion) {
+                        reanudacion.leerSimulacion(simulador, estadisticas);
+                    }
+                }
+                simulador.setPuntosControl(config.getIntervaloPuntoControl(),
+                    new ArchivoPuntoControl(config.getArchivoPuntoControl(), lineas, pasajeros, estadisticas, semilla));
+                simulador.ejecutar();
+            } else {
+                Simulador simulador = new Simulador(colectivos, vista, config);
+                simulador.setObservador(observador);
+                if (reanudacion != null) {
+                    try (reanudacion) {
+                        reanudacion.leerSimulacion(simulador, estadisticas);
+                    }
+                }
+                simulador.setPuntosControl(config.getIntervaloPuntoControl(),
+                    new ArchivoPuntoControl(config.getArchivoPuntoControl(), lineas, pasajeros, estadisticas, semilla));
+                simulador.ejecutar();
+            }
+
+            // Mostrar las estadísticas finales de la simulación y, si se instrumentó, las mediciones de la corrida
+            instrumentacion.iniciarFase("Estadísticas finales");
+            EstadisticasSimulacion.mostrarEstadisticasFinales(colectivos, estadisticas, config.getCantidadPasajeros(), vista);
+            instrumentacion.terminar();
+            instrumentacion.mostrarResumen(vista);
+        } finally {
+            vista.cerrarArchivo();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package presentacion;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Escribe la salida de la simulación desde un hilo dedicado.
+ * Los mensajes se encolan en un buffer circular acotado; el hilo escritor los retira en lotes
+ * y los escribe de una sola vez en la consola y en el archivo de salida. Si el buffer se llena,
+ * quien encola espera a que el escritor libere lugar, lo que limita la memoria usada.
+ */
+class EscritorAsincronico {
+    private final BlockingQueue<Mensaje> cola;
+    private final PrintStream archivo;
+    private final int tamanoLote;
+    private final Thread hilo;
+
+    /**
+     * Mensaje pendiente de escritura.
+     * @param texto Texto ya formateado, con su salto de línea.
+     * @param error true si debe mostrarse por la salida de errores.
+     */
+    private record Mensaje(String texto, boolean error) {}
+
+    private static final Mensaje FIN = new Mensaje("", false);
+
+    /**
+     * Crea el escritor e inicia su hilo.
+     * @param capacidad Cantidad máxima de mensajes pendientes.
+     * @param archivo Archivo de salida, o null si solo se escribe en consola.
+     */
+    EscritorAsincronico(int capacidad, PrintStream archivo) {
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.archivo = archivo;
+        this.tamanoLote = capacidad;
+        this.hilo = new Thread(this::escribirEnLotes, "escritor-simulacion");
+        this.hilo.setDaemon(true);
+        this.hilo.start();
+    }
+
+    /**
+     * Encola un texto para que lo escriba el hilo escritor, esperando si el buffer está lleno.
+     * @param texto Texto a escribir.
+     * @param error true si debe mostrarse por la salida de errores.
+     */
+    void encolar(String texto, boolean error) {
+        poner(new Mensaje(texto, error));
+    }
+
+    /**
+     * Espera a que se escriban todos los mensajes pendientes y termina el hilo escritor.
+     */
+    void cerrar() {
+        poner(FIN);
+        try {
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void poner(Mensaje mensaje) {
+        try {
+            cola.put(mensaje);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido al escribir la salida de la simulación.", e);
+        }
+    }
+
+    /**
+     * Ciclo del hilo escritor: retira todos los mensajes disponibles y los escribe juntos
+     * hasta recibir la marca de fin.
+     */
+    private void escribirEnLotes() {
+        List<Mensaje> lote = new ArrayList<>(tamanoLote);
+        StringBuilder salida = new StringBuilder();
+        StringBuilder errores = new StringBuilder();
+        StringBuilder todo = new StringBuilder();
+        boolean terminado = false;
+
+        while (!terminado) {
+            try {
+                lote.add(cola.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            cola.drainTo(lote, tamanoLote);
+
+            for (Mensaje m : lote) {
+                if (m == FIN) {
+                    terminado = true;
+                    break;
+                }
+                (m.error() ? errores : salida).append(m.texto());
+                if (archivo != null) todo.append(m.texto());
+            }
+            lote.clear();
+
+            if (errores.length() > 0) System.err.print(errores);
+            if (salida.length() > 0) System.out.print(salida);
+            if (todo.length() > 0) archivo.print(todo);
+            salida.setLength(0);
+            errores.setLength(0);
+            todo.setLength(0);
+        }
+        System.out.flush();
+    }
+}
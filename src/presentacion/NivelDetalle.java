@@ -0,0 +1,39 @@
+package presentacion;
+
+/**
+ * Nivel de detalle de los mensajes que muestra la simulación.
+ * Cada nivel incluye los mensajes de los niveles anteriores.
+ */
+public enum NivelDetalle {
+    /** Solo advertencias de carga y estadísticas finales. */
+    RESUMEN,
+    /** Además, la llegada y el estado de cada colectivo en cada parada. */
+    PARADA,
+    /** Además, cada pasajero que sube o baja. */
+    PASAJERO;
+
+    /**
+     * Indica si este nivel incluye los mensajes del nivel indicado.
+     * @param otro Nivel de detalle requerido por un mensaje.
+     * @return true si el mensaje debe mostrarse.
+     */
+    public boolean incluye(NivelDetalle otro) {
+        return ordinal() >= otro.ordinal();
+    }
+
+    /**
+     * Obtiene el nivel de detalle a partir de su nombre, sin distinguir mayúsculas.
+     * @param texto Nombre del nivel ("resumen", "parada" o "pasajero").
+     * @return Nivel de detalle correspondiente.
+     * @throws IllegalStateException si el nombre no corresponde a ningún nivel.
+     */
+    public static NivelDetalle desdeTexto(String texto) {
+        for (NivelDetalle nivel : values()) {
+            if (nivel.name().equalsIgnoreCase(texto.trim())) {
+                return nivel;
+            }
+        }
+        throw new IllegalStateException("Valor inválido para 'nivelDetalle': " + texto
+            + " (se espera 'resumen', 'parada' o 'pasajero')");
+    }
+}
@@ -1,20 +1,37 @@
 package presentacion;
 
 import domain.Colectivo;
+import domain.ListaPasajeros;
 import domain.Parada;
 import domain.Pasajero;
+import java.io.BufferedOutputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Clase encargada de mostrar los eventos y estados de la simulación por consola.
  * Centraliza todos los mensajes de salida para separar la lógica de presentación del resto del sistema.
- * Permite opcionalmente guardar la salida en un archivo.
+ * Permite opcionalmente guardar la salida en un archivo, elegir el nivel de detalle de los mensajes
+ * y delegar la escritura en un hilo dedicado para que la simulación no espere a la E/S.
  */
 public class SimulacionOutput {
+    private static final int TAMANO_BUFFER_ARCHIVO = 1 << 16;
 
     private PrintStream archivoOut = null;
+    private List<Mensaje> bufferEnMemoria = null; // Salida retenida hasta volcarla en otra vista.
+    private EscritorAsincronico escritor = null;
+    private NivelDetalle nivel = NivelDetalle.PASAJERO;
+    private boolean silenciosa = false; // Descarta toda la salida sin formatearla.
+    private long mensajesEscritos = 0;
+    private long caracteresEscritos = 0;
+
+    /**
+     * Mensaje retenido en memoria junto con la salida por la que debe mostrarse.
+     */
+    private record Mensaje(String texto, boolean error) {}
 
     public SimulacionOutput() {} // Constructor por defecto: solo salida por consola.
 
@@ -24,7 +41,7 @@ public class SimulacionOutput {
      * @throws FileNotFoundException Si no se puede crear el archivo.
      */
     public SimulacionOutput(String rutaArchivo) throws FileNotFoundException {
-        archivoOut = new PrintStream(rutaArchivo);
+        archivoOut = new PrintStream(new BufferedOutputStream(new FileOutputStream(rutaArchivo), TAMANO_BUFFER_ARCHIVO));
     }
 
     // =========================
@@ -36,8 +53,7 @@ public class SimulacionOutput {
      * @param mensaje Mensaje a imprimir.
      */
     private void imprimir(String mensaje) {
-        System.out.println(mensaje);
-        if (archivoOut != null) archivoOut.println(mensaje);
+        escribir(mensaje + System.lineSeparator(), false);
     }
 
     /**
@@ -45,8 +61,7 @@ public class SimulacionOutput {
      * @param mensaje Mensaje de error a imprimir.
      */
     private void imprimirError(String mensaje) {
-        System.err.println(mensaje);
-        if (archivoOut != null) archivoOut.println(mensaje);
+        escribir(mensaje + System.lineSeparator(), true);
     }
 
     /**
@@ -55,8 +70,37 @@ public class SimulacionOutput {
      * @param args Argumentos para el formato.
      */
     private void imprimirf(String formato, Object... args) {
-        System.out.printf(formato, args);
-        if (archivoOut != null) archivoOut.printf(formato, args);
+        escribir(String.format(formato, args), false);
+    }
+
+    /**
+     * Escribe un texto ya formateado, sin agregar salto de línea. Según cómo se creó la vista,
+     * el texto se retiene en memoria, se encola para el hilo escritor o se escribe directamente
+     * en la consola y en el archivo si está definido.
+     * @param texto Texto a escribir.
+     * @param error true si debe mostrarse por la salida de errores.
+     */
+    private void escribir(String texto, boolean error) {
+        if (silenciosa) return;
+        mensajesEscritos++;
+        caracteresEscritos += texto.length();
+        if (bufferEnMemoria != null) {
+            bufferEnMemoria.add(new Mensaje(texto, error));
+        } else if (escritor != null) {
+            escritor.encolar(texto, error);
+        } else {
+            (error ? System.err : System.out).print(texto);
+            if (archivoOut != null) archivoOut.print(texto);
+        }
+    }
+
+    /**
+     * Indica si los mensajes del nivel indicado deben mostrarse.
+     * @param requerido Nivel de detalle del mensaje.
+     * @return true si el nivel configurado incluye el mensaje.
+     */
+    private boolean muestra(NivelDetalle requerido) {
+        return !silenciosa && nivel.incluye(requerido);
     }
 
     // =========================
@@ -65,8 +109,13 @@ public class SimulacionOutput {
 
     /**
      * Cierra el archivo de salida si está abierto.
+     * Si la salida es asincrónica, espera a que el hilo escritor termine de escribir lo pendiente.
      */
     public void cerrarArchivo() {
+        if (escritor != null) {
+            escritor.cerrar();
+            escritor = null;
+        }
         if (archivoOut != null) archivoOut.close();
     }
 
@@ -85,6 +134,91 @@ public class SimulacionOutput {
         }
     }
 
+    /**
+     * Crea una vista que guarda la salida en el archivo indicado con el nivel de detalle dado.
+     * Si la capacidad del buffer es mayor a cero, los mensajes se encolan en un buffer circular
+     * de esa capacidad y un hilo dedicado los escribe en lotes; con 0 la escritura es sincrónica.
+     *
+     * @param rutaArchivo Ruta del archivo de salida.
+     * @param nivel Nivel de detalle de los mensajes.
+     * @param capacidadBuffer Cantidad de mensajes que admite el buffer asincrónico, o 0 para escribir sin hilo.
+     * @return Vista configurada.
+     */
+    public static SimulacionOutput crearConArchivo(String rutaArchivo, NivelDetalle nivel, int capacidadBuffer) {
+        SimulacionOutput vista = crearConArchivo(rutaArchivo);
+        vista.nivel = nivel;
+        if (capacidadBuffer > 0) {
+            vista.escritor = new EscritorAsincronico(capacidadBuffer, vista.archivoOut);
+        }
+        return vista;
+    }
+
+    /**
+     * Crea una vista con el mismo nivel de detalle que retiene la salida en memoria en lugar de mostrarla.
+     * Se usa para que cada hilo de una simulación paralela genere su salida sin mezclarse
+     * con la de los demás; luego se vuelca en orden con {@link #volcarEn(SimulacionOutput)}.
+     * Si esta vista es silenciosa, la nueva también lo es y no retiene nada.
+     * @return Vista con salida en memoria.
+     */
+    public SimulacionOutput crearEnMemoria() {
+        SimulacionOutput vista = new SimulacionOutput();
+        vista.nivel = nivel;
+        vista.silenciosa = silenciosa;
+        vista.bufferEnMemoria = new ArrayList<>();
+        return vista;
+    }
+
+    /**
+     * Crea una vista que retiene en memoria la salida con el nivel de detalle indicado.
+     * Sirve para ejecutar simulaciones sin mostrar nada, por ejemplo en los benchmarks.
+     * @param nivel Nivel de detalle de los mensajes.
+     * @return Vista con salida en memoria.
+     */
+    public static SimulacionOutput crearEnMemoria(NivelDetalle nivel) {
+        SimulacionOutput vista = new SimulacionOutput();
+        vista.nivel = nivel;
+        return vista.crearEnMemoria();
+    }
+
+    /**
+     * Crea una vista que descarta toda la salida, incluso las advertencias y las estadísticas.
+     * Sirve para ejecutar muchas simulaciones sin retener mensajes, como en las réplicas de Monte Carlo.
+     * @return Vista silenciosa.
+     */
+    public static SimulacionOutput crearSilenciosa() {
+        SimulacionOutput vista = new SimulacionOutput();
+        vista.silenciosa = true;
+        return vista;
+    }
+
+    /**
+     * Vuelca en otra vista la salida retenida en memoria y vacía el buffer.
+     * @param destino Vista donde se escribe la salida retenida.
+     */
+    public void volcarEn(SimulacionOutput destino) {
+        if (bufferEnMemoria == null) return;
+        for (Mensaje mensaje : bufferEnMemoria) {
+            destino.escribir(mensaje.texto(), mensaje.error());
+        }
+        bufferEnMemoria.clear();
+    }
+
+    /**
+     * Obtiene la cantidad de mensajes escritos en esta vista, incluidos los volcados desde otras.
+     * @return Mensajes escritos.
+     */
+    public long getMensajesEscritos() {
+        return mensajesEscritos;
+    }
+
+    /**
+     * Obtiene la cantidad de caracteres escritos en esta vista, incluidos los volcados desde otras.
+     * @return Caracteres escritos.
+     */
+    public long getCaracteresEscritos() {
+        return caracteresEscritos;
+    }
+
     // =========================
     // Métodos de eventos generales (inicio/finalización, advertencias)
     // =========================
@@ -94,9 +228,28 @@ public class SimulacionOutput {
      * @param numeroParada Número de la parada actual.
      */
     public void mostrarInicioParada(final int numeroParada) {
+        if (!muestra(NivelDetalle.PARADA)) return;
         imprimir("=================\n=== PARADA " + numeroParada + " === \n=================");
     }
 
+    /**
+     * Muestra el instante simulado en que ocurren los siguientes eventos.
+     * @param segundos Tiempo simulado en segundos desde el inicio.
+     */
+    public void mostrarInstante(final long segundos) {
+        if (!muestra(NivelDetalle.PARADA)) return;
+        imprimir(String.format("=================\n=== %02d:%02d:%02d === \n=================",
+            segundos / 3600, (segundos / 60) % 60, segundos % 60));
+    }
+
+    /**
+     * Muestra la semilla con la que se generaron los pasajeros, para poder repetir la corrida.
+     * @param semilla Semilla de la simulación.
+     */
+    public void mostrarSemilla(final long semilla) {
+        imprimir("🎲 Semilla de la simulación: " + semilla);
+    }
+
     /**
      * Muestra el mensaje de finalización de la simulación.
      */
@@ -120,6 +273,14 @@ public class SimulacionOutput {
         imprimirError("[!] ID de parada no válido en archivo de líneas: " + idStr);
     }
 
+    /**
+     * Muestra una advertencia cuando no se puede guardar la caché binaria de la red.
+     * @param archivo Ruta del archivo de caché.
+     */
+    public void mostrarAdvertenciaCacheRed(String archivo) {
+        imprimirError("[!] No se pudo guardar la caché de la red en: " + archivo);
+    }
+
     // =========================
     // Métodos de eventos de colectivos
     // =========================
@@ -130,6 +291,7 @@ public class SimulacionOutput {
      * @param p Parada a la que llegó el colectivo.
      */
     public void mostrarLlegadaColectivo(final Colectivo c, final Parada p) {
+        if (!muestra(NivelDetalle.PARADA)) return;
         imprimir("🚌 Línea " + c.getLinea().getCodigo() + " llegó a " + p.getDireccion());
     }
 
@@ -138,6 +300,7 @@ public class SimulacionOutput {
      * @param c Colectivo que finalizó su recorrido.
      */
     public void mostrarFinRecorrido(final Colectivo c) {
+        if (!muestra(NivelDetalle.PARADA)) return;
         imprimir("✅ Colectivo de línea " + c.getLinea().getCodigo() + " finalizó su recorrido.");
     }
 
@@ -148,7 +311,19 @@ public class SimulacionOutput {
      * @param subieron Cantidad de pasajeros que subieron.
      */
     public void mostrarEstadoColectivo(final Colectivo c, final int bajaron, final int subieron) {
-        imprimir("👥 Bajaron: " + bajaron + " | Subieron: " + subieron + " | A bordo: " + c.getCantidadPasajeros());
+        mostrarEstadoColectivo(c, bajaron, subieron, c.getCantidadPasajeros());
+    }
+
+    /**
+     * Muestra el estado de un colectivo después de una parada, con la cantidad a bordo indicada.
+     * @param c Colectivo.
+     * @param bajaron Cantidad de pasajeros que bajaron.
+     * @param subieron Cantidad de pasajeros que subieron.
+     * @param aBordo Cantidad de pasajeros a bordo al partir de la parada.
+     */
+    public void mostrarEstadoColectivo(final Colectivo c, final int bajaron, final int subieron, final int aBordo) {
+        if (!muestra(NivelDetalle.PARADA)) return;
+        imprimir("👥 Bajaron: " + bajaron + " | Subieron: " + subieron + " | A bordo: " + aBordo);
     }
 
     /**
@@ -169,6 +344,113 @@ public class SimulacionOutput {
         imprimirf("⭐ Índice de satisfacción: %.2f%n", indice);
     }
 
+    /**
+     * Muestra qué porcentaje de los pasajeros recibió cada calificación, de la mejor a la peor.
+     * @param distribucion Cantidad de pasajeros por calificación, indexada de 1 a 5.
+     * @param total Cantidad total de pasajeros.
+     */
+    public void mostrarDistribucionCalificaciones(final long[] distribucion, final long total) {
+        StringBuilder sb = new StringBuilder("📊 Calificaciones:");
+        for (int c = distribucion.length - 1; c >= 1; c--) {
+            double porcentaje = total == 0 ? 0 : 100.0 * distribucion[c] / total;
+            sb.append(String.format(" %d★ %.1f%%", c, porcentaje));
+            if (c > 1) sb.append(" |");
+        }
+        imprimir(sb.toString());
+    }
+
+    /**
+     * Muestra la media, los percentiles 50, 90 y 99 y el máximo de una distribución.
+     * @param nombre Nombre de la magnitud.
+     * @param media Media de la distribución.
+     * @param p50 Percentil 50 (mediana).
+     * @param p90 Percentil 90.
+     * @param p99 Percentil 99.
+     * @param maximo Valor máximo.
+     */
+    public void mostrarDistribucion(final String nombre, final double media, final long p50,
+                                    final long p90, final long p99, final long maximo) {
+        imprimirf("📈 %s - Media: %.2f | p50: %d | p90: %d | p99: %d | Máx: %d%n", nombre, media, p50, p90, p99, maximo);
+    }
+
+    /**
+     * Muestra los totales de una línea al finalizar la simulación.
+     * @param codigo Código de la línea.
+     * @param subidas Pasajeros que subieron.
+     * @param bajadas Pasajeros que bajaron.
+     * @param sinLugar Pasajeros que quedaron esperando porque el colectivo estaba lleno.
+     * @param ocupacionMedia Cantidad media de pasajeros a bordo al partir de cada parada.
+     * @param ocupacionP90 Percentil 90 de la cantidad de pasajeros a bordo.
+     */
+    public void mostrarEstadisticasLinea(final String codigo, final long subidas, final long bajadas,
+                                         final long sinLugar, final double ocupacionMedia, final long ocupacionP90) {
+        imprimirf("🛣️ Línea %s - Subidas: %d | Bajadas: %d | Sin lugar: %d | A bordo media: %.2f | A bordo p90: %d%n",
+            codigo, subidas, bajadas, sinLugar, ocupacionMedia, ocupacionP90);
+    }
+
+    /**
+     * Muestra una de las paradas donde más pasajeros quedaron sin lugar.
+     * @param parada Parada.
+     * @param sinLugar Pasajeros que quedaron esperando porque el colectivo estaba lleno.
+     * @param subidas Pasajeros que subieron en la parada.
+     */
+    public void mostrarParadaSinLugar(final Parada parada, final long sinLugar, final long subidas) {
+        imprimirf("🚫 %s - Sin lugar: %d | Subidas: %d%n", parada.getDireccion(), sinLugar, subidas);
+    }
+
+    /**
+     * Muestra las mediciones de una fase de la corrida instrumentada. Los valores negativos no están disponibles.
+     * @param nombre Nombre de la fase.
+     * @param milisegundos Tiempo transcurrido.
+     * @param milisegundosCpu Tiempo de CPU del hilo que ejecutó la fase.
+     * @param bytes Memoria asignada por el hilo que ejecutó la fase.
+     */
+    public void mostrarFaseInstrumentacion(final String nombre, final long milisegundos, final long milisegundosCpu,
+                                           final long bytes) {
+        imprimirf("⏱️ %s - Tiempo: %d ms | CPU: %s | Asignado: %s%n", nombre, milisegundos,
+            milisegundosCpu < 0 ? "n/d" : milisegundosCpu + " ms", formatearBytes(bytes));
+    }
+
+    /**
+     * Muestra las mediciones de un hilo que atendió paradas en la corrida instrumentada.
+     * Los valores negativos no están disponibles.
+     * @param nombre Nombre del hilo.
+     * @param paradas Paradas atendidas por el hilo.
+     * @param milisegundosAtencion Tiempo atendiendo paradas: bajadas, subidas y sus mensajes.
+     * @param bytes Memoria asignada entre la primera y la última parada del hilo.
+     * @param bytesPorSegundo Ritmo de asignación de memoria del hilo.
+     */
+    public void mostrarHiloInstrumentacion(final String nombre, final long paradas, final long milisegundosAtencion,
+                                           final long bytes, final double bytesPorSegundo) {
+        imprimirf("🧵 Hilo %s - Paradas: %d | Atención: %d ms | Asignado: %s | Ritmo: %s/s%n", nombre, paradas,
+            milisegundosAtencion, formatearBytes(bytes), formatearBytes((long) bytesPorSegundo));
+    }
+
+    /**
+     * Muestra los contadores de la simulación instrumentada.
+     * @param paradas Paradas atendidas.
+     * @param paradasPorSegundo Paradas atendidas por segundo de simulación.
+     * @param subidas Pasajeros que subieron.
+     * @param bajadas Pasajeros que bajaron.
+     * @param sinLugar Pasajeros que quedaron esperando porque el colectivo estaba lleno.
+     * @param mensajes Mensajes escritos en la salida.
+     * @param caracteres Caracteres escritos en la salida.
+     */
+    public void mostrarContadoresInstrumentacion(final long paradas, final double paradasPorSegundo, final long subidas,
+                                                 final long bajadas, final long sinLugar,
+                                                 final long mensajes, final long caracteres) {
+        imprimirf("🔢 Paradas atendidas: %d (%.0f/s) | Subidas: %d | Bajadas: %d | Sin lugar: %d%n",
+            paradas, paradasPorSegundo, subidas, bajadas, sinLugar);
+        imprimirf("🔢 Mensajes de salida: %d (%d caracteres)%n", mensajes, caracteres);
+    }
+
+    /**
+     * Formatea una cantidad de memoria en megabytes, o "n/d" si no está disponible.
+     */
+    private static String formatearBytes(final long bytes) {
+        return bytes < 0 ? "n/d" : String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
     /**
      * Muestra una advertencia si el colectivo está lleno y hay pasajeros esperando en la parada actual.
      * @param colectivo Colectivo que está lleno.
@@ -188,6 +470,7 @@ public class SimulacionOutput {
      * @param cantidad Cantidad de pasajeros que quedaron esperando.
      */
     public void mostrarColectivoLlenoYPasajerosEsperando(final Colectivo c, final Parada p, final int cantidad) {
+        if (!muestra(NivelDetalle.PARADA)) return;
         imprimir("⚠️ Colectivo de línea " + c.getLinea().getCodigo() +
             " está lleno en " + p.getDireccion() +
             ". Quedaron " + cantidad + " pasajeros esperando.");
@@ -202,7 +485,16 @@ public class SimulacionOutput {
      * @param p Pasajero que sube.
      */
     public void mostrarPasajeroSubio(final Pasajero p) {
-        imprimir("🔺 Pasajero " + p.getId() + " subió");
+        mostrarPasajeroSubio(p.getId());
+    }
+
+    /**
+     * Muestra el mensaje cuando un pasajero sube al colectivo.
+     * @param idPasajero ID del pasajero que sube.
+     */
+    public void mostrarPasajeroSubio(final int idPasajero) {
+        if (!muestra(NivelDetalle.PASAJERO)) return;
+        imprimir("🔺 Pasajero " + idPasajero + " subió");
     }
 
     /**
@@ -210,7 +502,16 @@ public class SimulacionOutput {
      * @param p Pasajero que baja.
      */
     public void mostrarPasajeroBajo(final Pasajero p) {
-        imprimir("🔻 Pasajero " + p.getId() + " bajó");
+        mostrarPasajeroBajo(p.getId());
+    }
+
+    /**
+     * Muestra el mensaje cuando un pasajero baja del colectivo.
+     * @param idPasajero ID del pasajero que baja.
+     */
+    public void mostrarPasajeroBajo(final int idPasajero) {
+        if (!muestra(NivelDetalle.PASAJERO)) return;
+        imprimir("🔻 Pasajero " + idPasajero + " bajó");
     }
 
     /**
@@ -218,12 +519,13 @@ public class SimulacionOutput {
      * @param bajaron Lista de pasajeros que bajaron del colectivo.
      * @param subieron Lista de pasajeros que subieron al colectivo.
      */
-    public void mostrarEventosPasajeros(List<Pasajero> bajaron, List<Pasajero> subieron) {
-        for (Pasajero p : bajaron) {
-            mostrarPasajeroBajo(p);
+    public void mostrarEventosPasajeros(ListaPasajeros bajaron, ListaPasajeros subieron) {
+        if (!muestra(NivelDetalle.PASAJERO)) return;
+        for (int i = 0; i < bajaron.size(); i++) {
+            mostrarPasajeroBajo(bajaron.getId(i));
         }
-        for (Pasajero p : subieron) {
-            mostrarPasajeroSubio(p);
+        for (int i = 0; i < subieron.size(); i++) {
+            mostrarPasajeroSubio(subieron.getId(i));
         }
     }
 }
\ No newline at end of file
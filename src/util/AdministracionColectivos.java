@@ -1,8 +1,11 @@
 package util;
 
+import config.Configuracion;
 import domain.*;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Clase utilitaria para la administración y generación de colectivos.
@@ -10,21 +13,38 @@ import java.util.List;
 public class AdministracionColectivos {
 
     /**
-     * Genera una lista de colectivos, uno por cada línea recibida.
-     * Asigna un identificador único incremental a cada colectivo.
+     * Genera la flota de cada línea recibida: tantos colectivos como indique la configuración
+     * para la línea, uno por defecto. Los colectivos de una misma línea quedan consecutivos
+     * en la lista, en su orden de salida, y cada uno recibe un identificador único incremental.
      *
      * @param lineas Lista de líneas para las cuales se deben crear colectivos.
+     * @param config Configuración con la flota por línea, la capacidad, los asientos y el historial de ocupación.
      * @return Lista de colectivos generados, cada uno asociado a una línea.
+     * @throws IllegalStateException si la configuración indica una flota para una línea que no existe.
      */
-    public static List<Colectivo> generarColectivos(List<Linea> lineas){
+    public static List<Colectivo> generarColectivos(List<Linea> lineas, Configuracion config){
+        Set<String> codigos = new HashSet<>();
+        for (Linea linea : lineas) {
+            codigos.add(linea.getCodigo());
+        }
+        for (String codigo : config.getLineasConFlotaPropia()) {
+            if (!codigos.contains(codigo)) {
+                throw new IllegalStateException("La línea '" + codigo + "' de 'flotaPorLinea' no existe.");
+            }
+        }
+
         List<Colectivo> colectivos = new ArrayList<>();
         int id = 0;
 
         for(Linea linea: lineas) {
-            Colectivo colectivo = new Colectivo(id++, linea);
-            colectivos.add(colectivo);
+            int flota = config.getColectivosDeLinea(linea.getCodigo());
+            for (int i = 0; i < flota; i++) {
+                Colectivo colectivo = new Colectivo(id++, linea, config.getCantidadPasajeros(), config.getCantidadAsientos(),
+                    config.guardarHistorialOcupacion());
+                colectivos.add(colectivo);
+            }
         }
 
         return colectivos;
     }
-}
\ No newline at end of file
+}
@@ -1,84 +1,242 @@
 package util;
 
 import config.Configuracion;
+import domain.AlmacenPasajeros;
+import domain.AlmacenPasajerosEnArreglos;
+import domain.AlmacenPasajerosFueraDeHeap;
 import domain.Linea;
 import domain.Parada;
-import domain.Pasajero;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import logic.EventosJfr;
 
 /**
- * Clase utilitaria para la administración y generación de pasajeros
- * en las distintas líneas y paradas del sistema de simulación de colectivos.
+ * Clase encargada de la generación de pasajeros en las distintas líneas y paradas
+ * del sistema de simulación de colectivos.
+ *
+ * La generación es reproducible: a partir de la semilla se deriva un flujo aleatorio
+ * independiente por línea, por lo que los sorteos de cada línea pueden hacerse en paralelo
+ * y la misma semilla produce siempre los mismos pasajeros, con los mismos IDs y destinos.
+ * No guarda estado global: cada instancia devuelve los pasajeros que genera, en un
+ * {@link AlmacenPasajeros} dimensionado de antemano con la demanda sorteada, en el heap
+ * o fuera de él según cómo se cree el generador. La demanda sorteada puede guardarse aparte
+ * y usarse para crear los mismos pasajeros en varias copias de la red.
  */
 public class AdministracionPasajeros {
-    private static final Random random = new Random();
-    private static final List<Pasajero> todosLosPasajeros = new ArrayList<>();
-    private static final int MAX_PASAJEROS_POR_PARADA = Configuracion.getMaxPasajerosPorParada();
+    private final int maxPasajerosPorParada;
+    private final long semilla;
+    private final IntFunction<AlmacenPasajeros> crearAlmacen;
+
+    /**
+     * Demanda sorteada para una línea: cantidad de pasajeros por parada de origen
+     * y el índice de destino de cada pasajero, en orden de generación.
+     */
+    private record DemandaLinea(int[] cantidades, int[] destinos) {}
+
+    /**
+     * Demanda sorteada para todas las líneas de una red, por posición de la línea.
+     * Es inmutable, por lo que puede compartirse entre hilos y usarse con cualquier copia
+     * de la red que tenga las mismas líneas en el mismo orden.
+     */
+    public static final class Demanda {
+        private final DemandaLinea[] lineas;
+        private final int cantidadPasajeros;
+
+        private Demanda(DemandaLinea[] lineas) {
+            this.lineas = lineas;
+            int total = 0;
+            for (DemandaLinea demanda : lineas) {
+                total += demanda.destinos().length;
+            }
+            this.cantidadPasajeros = total;
+        }
+
+        /**
+         * Obtiene la cantidad total de pasajeros de la demanda.
+         * @return Cantidad de pasajeros.
+         */
+        public int getCantidadPasajeros() {
+            return cantidadPasajeros;
+        }
+    }
+
+    /**
+     * Crea un generador de pasajeros.
+     * @param maxPasajerosPorParada Cantidad máxima de pasajeros que genera cada línea por parada.
+     * @param semilla Semilla de la que se derivan los flujos aleatorios de cada línea.
+     */
+    public AdministracionPasajeros(int maxPasajerosPorParada, long semilla) {
+        this(maxPasajerosPorParada, semilla, AlmacenPasajerosEnArreglos::new);
+    }
+
+    /**
+     * Crea un generador de pasajeros que los guarda en el almacén indicado.
+     * @param maxPasajerosPorParada Cantidad máxima de pasajeros que genera cada línea por parada.
+     * @param semilla Semilla de la que se derivan los flujos aleatorios de cada línea.
+     * @param crearAlmacen Crea el almacén a partir de la cantidad total de pasajeros sorteada.
+     */
+    public AdministracionPasajeros(int maxPasajerosPorParada, long semilla, IntFunction<AlmacenPasajeros> crearAlmacen) {
+        this.maxPasajerosPorParada = maxPasajerosPorParada;
+        this.semilla = semilla;
+        this.crearAlmacen = crearAlmacen;
+    }
+
+    /**
+     * Crea un generador de pasajeros con la demanda, la semilla y el almacén de la configuración:
+     * arreglos en el heap, memoria directa o un archivo mapeado si se indicó uno.
+     * @param config Configuración de la simulación.
+     */
+    public AdministracionPasajeros(Configuracion config) {
+        this(config.getMaxPasajerosPorParada(), config.getSemilla(), almacenDe(config));
+    }
+
+    private static IntFunction<AlmacenPasajeros> almacenDe(Configuracion config) {
+        if (!config.usarPasajerosFueraDeHeap()) return AlmacenPasajerosEnArreglos::new;
+        String archivo = config.getArchivoPasajeros();
+        if (archivo.isEmpty()) return AlmacenPasajerosFueraDeHeap::enMemoriaDirecta;
+        return capacidad -> AlmacenPasajerosFueraDeHeap.enArchivo(archivo, capacidad);
+    }
+
+    /**
+     * Crea un almacén vacío del tipo de este generador, para agregar pasajeros a medida que llegan.
+     * @param capacidad Cantidad de pasajeros que se espera tener a la vez; define el tamaño de los segmentos.
+     * @return Almacén vacío.
+     */
+    public AlmacenPasajeros crearAlmacen(int capacidad) {
+        return crearAlmacen.apply(capacidad);
+    }
 
     /**
      * Genera pasajeros para cada línea proporcionada, asignando IDs únicos y
      * distribuyéndolos aleatoriamente entre las paradas de cada línea.
+     * Los sorteos de las líneas se hacen en paralelo; luego los pasajeros se crean
+     * y se agregan a sus paradas en el orden de las líneas. La generación se emite como evento
+     * {@link EventosJfr.GeneracionPasajeros}.
      *
      * @param lineas Lista de líneas sobre las que se generarán los pasajeros.
+     * @return Almacén con todos los pasajeros generados.
      */
-    public static void generarPasajeros(List<Linea> lineas) {
-        int idPasajero = 0;
+    public AlmacenPasajeros generarPasajeros(List<Linea> lineas) {
+        EventosJfr.GeneracionPasajeros evento = new EventosJfr.GeneracionPasajeros();
+        evento.begin();
+        AlmacenPasajeros pasajeros = crearPasajeros(lineas, sortearDemanda(lineas));
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.lineas = lineas.size();
+            evento.pasajeros = pasajeros.getCantidad();
+            evento.commit();
+        }
+        return pasajeros;
+    }
 
-        for (Linea linea : lineas) {
-            idPasajero = generarPasajerosParaLinea(linea, idPasajero);
+    /**
+     * Sortea la demanda de cada línea sin crear los pasajeros. Los sorteos de las líneas
+     * se hacen en paralelo, cada uno con el flujo aleatorio que le corresponde según la semilla.
+     *
+     * @param lineas Lista de líneas sobre las que se sortea la demanda.
+     * @return Demanda sorteada, en el orden de las líneas.
+     */
+    public Demanda sortearDemanda(List<Linea> lineas) {
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        SplittableRandom[] flujos = new SplittableRandom[lineas.size()];
+        for (int i = 0; i < flujos.length; i++) {
+            flujos[i] = raiz.split();
         }
+
+        DemandaLinea[] demandas = new DemandaLinea[lineas.size()];
+        IntStream.range(0, lineas.size()).parallel()
+            .forEach(i -> demandas[i] = sortearDemanda(lineas.get(i), flujos[i]));
+        return new Demanda(demandas);
     }
 
     /**
-     * Genera pasajeros para una línea específica, asignando IDs consecutivos a partir de un valor inicial.
-     * Los pasajeros se distribuyen aleatoriamente entre las paradas de la línea.
+     * Crea los pasajeros de una demanda ya sorteada y los agrega a sus paradas, en el orden de las líneas.
+     * Con la misma demanda se obtienen los mismos pasajeros, con los mismos IDs, que con {@link #generarPasajeros}.
      *
-     * @param linea Línea sobre la que se generarán los pasajeros.
-     * @param idInicial ID inicial a asignar al primer pasajero generado.
-     * @return El siguiente ID disponible después de generar los pasajeros.
+     * @param lineas Líneas sobre las que se sorteó la demanda, o una copia con las mismas líneas en el mismo orden.
+     * @param demanda Demanda sorteada.
+     * @return Almacén con todos los pasajeros creados.
+     * @throws IllegalArgumentException si la demanda corresponde a otra cantidad de líneas.
      */
-    private static int generarPasajerosParaLinea(Linea linea, int idInicial) {
-        List<Parada> paradas = linea.getParadas();
-        int idPasajero = idInicial;
-        int cantidadParadas = paradas.size() - 1;
+    public AlmacenPasajeros crearPasajeros(List<Linea> lineas, Demanda demanda) {
+        if (demanda.lineas.length != lineas.size()) {
+            throw new IllegalArgumentException("La demanda tiene " + demanda.lineas.length
+                + " líneas y la red " + lineas.size() + ".");
+        }
+        AlmacenPasajeros pasajeros = crearAlmacen.apply(demanda.getCantidadPasajeros());
+        for (int i = 0; i < lineas.size(); i++) {
+            crearPasajeros(lineas.get(i), demanda.lineas[i], pasajeros);
+        }
+        return pasajeros;
+    }
 
-        for (int i = 0; i < cantidadParadas; i++) {
-            Parada origen = paradas.get(i);
-            int cantidad = random.nextInt(MAX_PASAJEROS_POR_PARADA) + 1;
+    /**
+     * Sortea la demanda de una línea: para cada parada salvo la última, una cantidad de pasajeros
+     * entre 1 y el máximo configurado, y para cada pasajero una parada de destino posterior al origen.
+     *
+     * @param linea Línea sobre la que se sortea la demanda.
+     * @param flujo Flujo aleatorio propio de la línea.
+     * @return Demanda sorteada.
+     */
+    private DemandaLinea sortearDemanda(Linea linea, SplittableRandom flujo) {
+        int cantidadParadas = linea.getParadas().size();
+        int[] cantidades = new int[Math.max(cantidadParadas - 1, 0)];
+        int total = 0;
+        for (int i = 0; i < cantidades.length; i++) {
+            cantidades[i] = flujo.nextInt(maxPasajerosPorParada) + 1;
+            total += cantidades[i];
+        }
 
-            for (int j = 0; j < cantidad; j++) {
-                Parada destino = elegirDestinoAleatorio(paradas, i);
-                Pasajero pasajero = new Pasajero(idPasajero++, destino);
-                origen.agregarPasajero(pasajero);
-                todosLosPasajeros.add(pasajero);
+        int[] destinos = new int[total];
+        int k = 0;
+        for (int i = 0; i < cantidades.length; i++) {
+            for (int j = 0; j < cantidades[i]; j++) {
+                destinos[k++] = elegirDestinoAleatorio(flujo, cantidadParadas, i);
             }
         }
+        return new DemandaLinea(cantidades, destinos);
+    }
 
-        return idPasajero;
+    /**
+     * Crea los pasajeros sorteados para una línea, asignando IDs consecutivos a continuación
+     * de los ya generados, y los agrega a su parada de origen.
+     *
+     * @param linea Línea de los pasajeros.
+     * @param demanda Demanda sorteada para la línea.
+     * @param pasajeros Almacén donde se acumulan todos los pasajeros generados.
+     */
+    private static void crearPasajeros(Linea linea, DemandaLinea demanda, AlmacenPasajeros pasajeros) {
+        List<Parada> paradas = linea.getParadas();
+        int k = 0;
+        for (int i = 0; i < demanda.cantidades().length; i++) {
+            Parada origen = paradas.get(i);
+            for (int j = 0; j < demanda.cantidades()[i]; j++) {
+                int id = pasajeros.agregar(origen, paradas.get(demanda.destinos()[k++]));
+                origen.agregarPasajero(pasajeros, id);
+            }
+        }
     }
 
     /**
      * Elige aleatoriamente una parada de destino distinta a la de origen,
      * asegurando que el destino esté después del origen en la lista de paradas.
      *
-     * @param paradas Lista de paradas de la línea.
+     * @param flujo Flujo aleatorio de la línea.
+     * @param cantidadParadas Cantidad de paradas de la línea.
      * @param origenIndex Índice de la parada de origen.
-     * @return Parada de destino seleccionada aleatoriamente.
+     * @return Índice de la parada de destino seleccionada aleatoriamente.
      */
-    private static Parada elegirDestinoAleatorio(List<Parada> paradas, int origenIndex) {
-        int destinoIndex = origenIndex + 1 + random.nextInt(paradas.size() - origenIndex - 1);
-        return paradas.get(destinoIndex);
+    private static int elegirDestinoAleatorio(SplittableRandom flujo, int cantidadParadas, int origenIndex) {
+        return origenIndex + 1 + flujo.nextInt(cantidadParadas - origenIndex - 1);
     }
 
     /**
-     * Devuelve la lista de todos los pasajeros generados en la simulación.
-     *
-     * @return Lista de todos los pasajeros.
+     * Devuelve la semilla de la que se derivan los flujos aleatorios.
+     * @return Semilla de generación.
      */
-    public static List<Pasajero> getTodosLosPasajeros() {
-        return todosLosPasajeros;
+    public long getSemilla() {
+        return semilla;
     }
 }
-
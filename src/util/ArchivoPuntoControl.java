@@ -0,0 +1,332 @@
+package util;
+
+import domain.AlmacenPasajeros;
+import domain.Linea;
+import domain.Parada;
+import domain.Pasajero;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import logic.PuntosControl;
+import logic.SimulacionReanudable;
+
+/**
+ * Guarda y lee puntos de control de la simulación, con cualquiera de los dos motores, en un archivo
+ * binario compacto, con todo el estado necesario para reanudarla y obtener el mismo resultado que sin
+ * interrumpirla: los pasajeros, las colas de las paradas, el simulador con sus colectivos (y, en el motor
+ * de eventos, la agenda y las llegadas de pasajeros) y las estadísticas acumuladas.
+ *
+ * Con todos los pasajeros sorteados al comenzar, el generador ya no consume números aleatorios: su estado
+ * queda determinado por la semilla, que se guarda, y por los pasajeros ya creados. Con llegadas durante
+ * la simulación, el generador de llegadas se reanuda a partir de la misma semilla ({@link GeneradorLlegadas}).
+ * Desde un mismo punto de control pueden reanudarse varias corridas con otra configuración, como otra
+ * cantidad de vueltas o de asientos, mientras el motor y los colectivos sean los mismos.
+ *
+ * Formato, en big-endian, seguido del CRC32C de todo lo anterior:
+ * <pre>
+ * encabezado:  int marca, short versión, long semilla, UTF clase del motor
+ * pasajeros:   int cantidad, y en orden de ID, por pasajero: byte estado, int ID parada origen,
+ *              int ID parada destino, int llegada, short colectivos esperados, byte calificación;
+ *              o, por cada tramo de pasajeros liberados del almacén: byte -1, int cantidad
+ * paradas:     int cantidad con pasajeros esperando, y por parada: int ID, int cantidad, int ID de cada pasajero
+ * simulador:   ver {@link SimulacionReanudable#guardarEstado} en cada motor
+ * estadísticas: ver {@link RecolectorEstadisticas}
+ * </pre>
+ * Cada punto se escribe en un archivo temporal que luego reemplaza al destino, para no dejar nunca
+ * un punto de control a medio escribir.
+ */
+public class ArchivoPuntoControl implements PuntosControl {
+    /**
+     * Texto de la ruta que se reemplaza, en cada punto de control, por la cantidad de pasos completados
+     * o por el instante simulado del punto, según el motor.
+     */
+    public static final String PASO = "{paso}";
+
+    private static final int MARCA = 0x53504354; // "SPCT"
+    private static final short VERSION = 2;
+    private static final byte LIBERADOS = -1;
+
+    private final String archivo;
+    private final List<Linea> lineas;
+    private final AlmacenPasajeros pasajeros;
+    private final RecolectorEstadisticas estadisticas;
+    private final long semilla;
+
+    /**
+     * Crea el destino de los puntos de control de una simulación.
+     * @param archivo Ruta de los puntos de control; si contiene {@value #PASO}, se guarda uno por paso.
+     * @param lineas Líneas simuladas, cuyas paradas guardan a los pasajeros que esperan.
+     * @param pasajeros Almacén de los pasajeros de la simulación.
+     * @param estadisticas Estadísticas que se acumulan durante la simulación.
+     * @param semilla Semilla con la que se generaron los pasajeros.
+     */
+    public ArchivoPuntoControl(String archivo, List<Linea> lineas, AlmacenPasajeros pasajeros,
+                               RecolectorEstadisticas estadisticas, long semilla) {
+        this.archivo = archivo;
+        this.lineas = lineas;
+        this.pasajeros = pasajeros;
+        this.estadisticas = estadisticas;
+        this.semilla = semilla;
+    }
+
+    /**
+     * Escribe el punto de control del paso o del instante en que se detuvo el simulador.
+     * @param simulador Simulador detenido entre dos pasos o dos eventos.
+     * @throws UncheckedIOException si no se puede escribir el archivo.
+     */
+    @Override
+    public void guardar(SimulacionReanudable simulador) {
+        Path destino = Path.of(archivo.replace(PASO, String.valueOf(simulador.getAvance())));
+        Path temporal = Path.of(destino + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporal), 1 << 16), crc))) {
+            out.writeInt(MARCA);
+            out.writeShort(VERSION);
+            out.writeLong(semilla);
+            out.writeUTF(simulador.getClass().getName());
+            guardarPasajeros(out);
+            guardarParadas(out);
+            simulador.guardarEstado(out);
+            estadisticas.guardarEstado(out);
+            out.writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al guardar el punto de control: " + temporal, e);
+        }
+
+        try {
+            try {
+                Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al guardar el punto de control: " + destino, e);
+        }
+    }
+
+    /**
+     * Escribe los datos de cada pasajero; los que el almacén ya liberó se agrupan en tramos.
+     */
+    private void guardarPasajeros(DataOutputStream out) throws IOException {
+        int cantidad = pasajeros.getCantidad();
+        out.writeInt(cantidad);
+        int id = 0;
+        while (id < cantidad) {
+            if (!pasajeros.estaDisponible(id)) {
+                int desde = id;
+                while (id < cantidad && !pasajeros.estaDisponible(id)) id++;
+                out.writeByte(LIBERADOS);
+                out.writeInt(id - desde);
+                continue;
+            }
+            out.writeByte(pasajeros.getEstado(id));
+            out.writeInt(pasajeros.getOrigen(id).getId());
+            out.writeInt(pasajeros.getDestino(id).getId());
+            out.writeInt(pasajeros.getTiempoLlegada(id));
+            out.writeShort(pasajeros.getColectivosEsperados(id));
+            out.writeByte(pasajeros.getCalificacion(id));
+            id++;
+        }
+    }
+
+    /**
+     * Escribe, por parada, los pasajeros que esperan en orden de llegada.
+     */
+    private void guardarParadas(DataOutputStream out) throws IOException {
+        Map<Integer, Parada> conPasajeros = new LinkedHashMap<>();
+        for (Parada parada : paradasDe(lineas).values()) {
+            if (parada.getCantidadEsperando() > 0) conPasajeros.put(parada.getId(), parada);
+        }
+        out.writeInt(conPasajeros.size());
+        for (Parada parada : conPasajeros.values()) {
+            List<Pasajero> esperando = parada.getPasajerosEsperando();
+            out.writeInt(parada.getId());
+            out.writeInt(esperando.size());
+            for (Pasajero pasajero : esperando) {
+                out.writeInt(pasajero.getId());
+            }
+        }
+    }
+
+    /**
+     * Abre un punto de control para reanudar una simulación sobre una red sin pasajeros.
+     * @param archivo Ruta del punto de control.
+     * @param lineas Líneas de la red, que deben contener las paradas y líneas del punto de control.
+     * @return Lectura del punto de control, que debe cerrarse.
+     * @throws UncheckedIOException si no se puede abrir el archivo.
+     * @throws IllegalStateException si el archivo no es un punto de control de esta versión.
+     */
+    public static Lectura abrir(String archivo, List<Linea> lineas) {
+        return new Lectura(archivo, lineas);
+    }
+
+    /**
+     * Lectura de un punto de control, en el orden en que se guardó: primero los pasajeros
+     * y las paradas, con {@link #leerPasajeros}, y luego el simulador y las estadísticas,
+     * con {@link #leerSimulacion}, que además verifica que el archivo esté completo y sin daños.
+     */
+    public static final class Lectura implements AutoCloseable {
+        private final String archivo;
+        private final Map<Integer, Parada> paradas;
+        private final Map<String, Linea> lineas = new HashMap<>();
+        private final CRC32C crc = new CRC32C();
+        private final DataInputStream in;
+        private final long semilla;
+        private final String motor;
+        private AlmacenPasajeros pasajeros;
+
+        private Lectura(String archivo, List<Linea> lineas) {
+            this.archivo = archivo;
+            this.paradas = paradasDe(lineas);
+            for (Linea linea : lineas) {
+                this.lineas.put(linea.getCodigo(), linea);
+            }
+            try {
+                this.in = new DataInputStream(new CheckedInputStream(
+                    new BufferedInputStream(Files.newInputStream(Path.of(archivo)), 1 << 16), crc));
+                if (in.readInt() != MARCA || in.readShort() != VERSION) {
+                    in.close();
+                    throw new IllegalStateException("[!] " + archivo + " no es un punto de control válido");
+                }
+                this.semilla = in.readLong();
+                this.motor = in.readUTF();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al leer el punto de control: " + archivo, e);
+            }
+        }
+
+        /**
+         * Obtiene la semilla con la que se generaron los pasajeros de la simulación guardada.
+         * @return Semilla guardada.
+         */
+        public long getSemilla() {
+            return semilla;
+        }
+
+        /**
+         * Recrea los pasajeros con sus mismos IDs y datos y los agrega a las colas de sus paradas.
+         * @param crearAlmacen Crea el almacén a partir de la cantidad de pasajeros.
+         * @return Almacén con los pasajeros restaurados.
+         * @throws UncheckedIOException si no se puede leer el archivo.
+         * @throws IllegalStateException si el punto de control nombra una parada que no está en la red.
+         */
+        public AlmacenPasajeros leerPasajeros(IntFunction<AlmacenPasajeros> crearAlmacen) {
+            try {
+                int cantidad = in.readInt();
+                pasajeros = crearAlmacen.apply(cantidad);
+                while (pasajeros.getCantidad() < cantidad) {
+                    byte estado = in.readByte();
+                    if (estado == LIBERADOS) {
+                        int liberados = in.readInt();
+                        for (int i = 0; i < liberados; i++) {
+                            pasajeros.registrarBajada(pasajeros.agregar(null, null, 0));
+                        }
+                        continue;
+                    }
+                    Parada origen = parada(in.readInt());
+                    Parada destino = parada(in.readInt());
+                    int id = pasajeros.agregar(origen, destino, in.readInt());
+                    int esperas = in.readUnsignedShort();
+                    for (int i = 0; i < esperas; i++) {
+                        pasajeros.incrementarEspera(id);
+                    }
+                    pasajeros.setCalificacion(id, in.readByte());
+                    if (estado == AlmacenPasajeros.BAJO) {
+                        pasajeros.registrarBajada(id);
+                    } else {
+                        pasajeros.setEstado(id, estado);
+                    }
+                }
+
+                int conPasajeros = in.readInt();
+                for (int i = 0; i < conPasajeros; i++) {
+                    Parada parada = parada(in.readInt());
+                    int esperando = in.readInt();
+                    for (int j = 0; j < esperando; j++) {
+                        parada.agregarPasajero(pasajeros, in.readInt());
+                    }
+                }
+                return pasajeros;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al leer el punto de control: " + archivo, e);
+            }
+        }
+
+        /**
+         * Restaura el simulador, con sus colectivos, y las estadísticas acumuladas, y verifica
+         * el CRC del archivo. Debe llamarse después de {@link #leerPasajeros}.
+         * @param simulador Simulador recién creado, del mismo motor y con los mismos colectivos que
+         *                  la simulación guardada; en el motor de eventos, ya con sus llegadas de pasajeros.
+         * @param estadisticas Estadísticas recién creadas.
+         * @throws UncheckedIOException si no se puede leer el archivo.
+         * @throws IllegalStateException si el archivo está dañado o no corresponde a la simulación.
+         */
+        public void leerSimulacion(SimulacionReanudable simulador, RecolectorEstadisticas estadisticas) {
+            if (pasajeros == null) {
+                throw new IllegalStateException("Los pasajeros del punto de control todavía no se leyeron");
+            }
+            if (!motor.equals(simulador.getClass().getName())) {
+                throw new IllegalStateException("[!] El punto de control " + archivo + " es del motor " + motor
+                    + " y la simulación usa " + simulador.getClass().getName());
+            }
+            try {
+                simulador.restaurarEstado(in, pasajeros);
+                estadisticas.restaurarEstado(in, lineas, paradas);
+                int calculado = (int) crc.getValue();
+                if (in.readInt() != calculado || in.read() != -1) {
+                    throw new IllegalStateException("[!] El punto de control " + archivo + " está dañado");
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al leer el punto de control: " + archivo, e);
+            }
+        }
+
+        private Parada parada(int id) {
+            Parada parada = paradas.get(id);
+            if (parada == null) throw new IllegalStateException("La parada " + id + " no está en la red");
+            return parada;
+        }
+
+        /**
+         * Cierra el archivo del punto de control.
+         * @throws UncheckedIOException si no se puede cerrar.
+         */
+        @Override
+        public void close() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al cerrar el punto de control: " + archivo, e);
+            }
+        }
+    }
+
+    /**
+     * Reúne las paradas recorridas por las líneas, por ID, en orden de recorrido.
+     */
+    private static Map<Integer, Parada> paradasDe(List<Linea> lineas) {
+        Map<Integer, Parada> paradas = new LinkedHashMap<>();
+        for (Linea linea : lineas) {
+            for (Parada parada : linea.getParadas()) {
+                paradas.putIfAbsent(parada.getId(), parada);
+            }
+        }
+        return paradas;
+    }
+}
@@ -0,0 +1,352 @@
+package util;
+
+import config.Configuracion;
+import domain.Red;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Simula combinaciones de valores de parámetros enteros de la configuración sobre una misma red,
+ * cargada una sola vez, para comparar sus indicadores. Cada combinación se simula con las mismas
+ * semillas, derivadas de la semilla de la configuración como en {@link EjecutorReplicas}, y la demanda
+ * de cada semilla se sortea una sola vez y se reutiliza en todas las combinaciones: las diferencias
+ * entre combinaciones se deben solo a los parámetros y no al azar de los pasajeros.
+ *
+ * Además del barrido completo de la grilla, permite buscar por bisección el menor valor de un parámetro
+ * con el que el índice de satisfacción medio alcanza un objetivo, para cada combinación de los demás.
+ * La búsqueda supone que la satisfacción no disminuye al aumentar el parámetro, como ocurre con la
+ * capacidad o la flota, y simula unos pocos valores en lugar de todo el rango. Los valores que con los demás
+ * parámetros forman una configuración inválida, como una capacidad menor que la cantidad de asientos, se descartan.
+ *
+ * Las corridas de todas las combinaciones y semillas pendientes se ejecutan en paralelo
+ * y sus resultados se reúnen en orden, por lo que no dependen de la cantidad de hilos.
+ */
+public class BarridoParametros {
+    /** Parámetros enteros de la configuración que pueden barrerse. */
+    public static final List<String> PARAMETROS = List.of(
+        "cantidadPasajeros", "cantidadAsientos", "maxVueltas", "colectivosPorLinea", "frecuenciaDespacho");
+
+    private final Red red;
+    private final Properties base;
+    private final int hilos;
+    private final long semillaBase;
+    private final long[] semillas;
+    private final AdministracionPasajeros.Demanda[] demandas;
+
+    /**
+     * Resultado de una combinación de parámetros.
+     * @param valores Valor de cada parámetro barrido.
+     * @param estadisticas Estadística de cada indicador sobre las semillas, en el orden de {@link CorridaSimulacion#INDICADORES}.
+     */
+    public record Punto(Map<String, Integer> valores, List<EstadisticaMuestral> estadisticas) {
+
+        /**
+         * Obtiene el índice de satisfacción medio de la combinación.
+         * @return Media del índice de satisfacción.
+         */
+        public double getSatisfaccion() {
+            return estadisticas.get(CorridaSimulacion.SATISFACCION).getMedia();
+        }
+    }
+
+    /**
+     * Resultado de la búsqueda para una combinación de los demás parámetros.
+     * @param punto Combinación con el menor valor del parámetro que alcanza el objetivo o,
+     *              si ninguno lo alcanza, con el mayor valor del rango.
+     * @param alcanzaObjetivo true si el punto alcanza el objetivo.
+     * @param evaluados Cantidad de valores del parámetro que se simularon.
+     */
+    public record Busqueda(Punto punto, boolean alcanzaObjetivo, int evaluados) {}
+
+    /**
+     * Crea un barrido de parámetros.
+     * @param red Red cargada, compartida por todas las corridas; no se modifica.
+     * @param base Propiedades de configuración de las que parte cada combinación.
+     * @param replicas Cantidad de semillas que se simulan por combinación.
+     * @param hilos Cantidad de corridas que se simulan a la vez.
+     * @throws IllegalStateException si la configuración base es inválida.
+     */
+    public BarridoParametros(Red red, Properties base, int replicas, int hilos) {
+        if (replicas < 1 || hilos < 1) {
+            throw new IllegalArgumentException("Se necesitan al menos una réplica y un hilo.");
+        }
+        this.red = red;
+        this.base = base;
+        this.hilos = hilos;
+
+        Configuracion config = Configuracion.desde(base);
+        this.semillaBase = config.getSemilla();
+        SplittableRandom raiz = new SplittableRandom(semillaBase);
+        this.semillas = new long[replicas];
+        this.demandas = new AdministracionPasajeros.Demanda[replicas];
+        for (int i = 0; i < replicas; i++) {
+            semillas[i] = raiz.nextLong();
+            if (!config.usarLlegadasPoisson()) {
+                demandas[i] = new AdministracionPasajeros(config.getMaxPasajerosPorParada(), semillas[i])
+                    .sortearDemanda(red.lineas());
+            }
+        }
+    }
+
+    /**
+     * Obtiene la semilla de la que se derivan las semillas de cada réplica.
+     * @return Semilla de la configuración base.
+     */
+    public long getSemilla() {
+        return semillaBase;
+    }
+
+    /**
+     * Simula todas las combinaciones de la grilla.
+     * @param grilla Valores de cada parámetro; las combinaciones se recorren variando primero el último.
+     * @return Resultado de cada combinación, en orden.
+     * @throws IllegalArgumentException si una combinación es una configuración inválida, antes de simular.
+     */
+    public List<Punto> barrer(Map<String, List<Integer>> grilla) {
+        return evaluar(combinaciones(grilla));
+    }
+
+    /**
+     * Busca por bisección, para cada combinación de los demás parámetros de la grilla, el menor de los
+     * valores del parámetro indicado con el que el índice de satisfacción medio alcanza el objetivo.
+     * Solo se simulan valores de la grilla, de modo que un rango con paso nunca devuelve un valor
+     * intermedio. Los valores que con los demás parámetros forman una configuración inválida no se simulan.
+     * Todas las búsquedas avanzan a la vez, de a un valor por ronda.
+     *
+     * @param grilla Valores de cada parámetro; los del parámetro buscado se recorren de menor a mayor.
+     * @param parametro Parámetro que se busca.
+     * @param objetivo Índice de satisfacción que debe alcanzarse, entre 0 y 1.
+     * @return Resultado de la búsqueda para cada combinación de los demás parámetros, en orden.
+     * @throws IllegalArgumentException si para alguna combinación de los demás parámetros ningún valor
+     *         del parámetro buscado forma una configuración válida.
+     */
+    public List<Busqueda> buscar(Map<String, List<Integer>> grilla, String parametro, double objetivo) {
+        List<Integer> rango = grilla.get(parametro);
+        if (rango == null || rango.isEmpty()) {
+            throw new IllegalArgumentException("No se indicó el rango de '" + parametro + "'.");
+        }
+        Map<String, List<Integer>> demas = new LinkedHashMap<>(grilla);
+        demas.remove(parametro);
+
+        List<Biseccion> busquedas = new ArrayList<>();
+        for (Map<String, Integer> fijos : combinaciones(demas)) {
+            List<Integer> candidatos = new ArrayList<>();
+            for (int valor : new TreeSet<>(rango)) {
+                Map<String, Integer> valores = new LinkedHashMap<>(fijos);
+                valores.put(parametro, valor);
+                if (esValida(valores)) candidatos.add(valor);
+            }
+            if (candidatos.isEmpty()) {
+                throw new IllegalArgumentException("Ningún valor de '" + parametro
+                    + "' forma una configuración válida" + (fijos.isEmpty() ? "." : " con " + describir(fijos) + "."));
+            }
+            busquedas.add(new Biseccion(fijos, parametro, candidatos, objetivo));
+        }
+
+        while (true) {
+            List<Map<String, Integer>> pendientes = new ArrayList<>();
+            List<Biseccion> duenos = new ArrayList<>();
+            for (Biseccion busqueda : busquedas) {
+                for (Map<String, Integer> valores : busqueda.siguientes()) {
+                    pendientes.add(valores);
+                    duenos.add(busqueda);
+                }
+            }
+            if (pendientes.isEmpty()) break;
+            List<Punto> puntos = evaluar(pendientes);
+            for (int i = 0; i < puntos.size(); i++) {
+                duenos.get(i).registrar(puntos.get(i));
+            }
+        }
+
+        List<Busqueda> resultados = new ArrayList<>();
+        for (Biseccion busqueda : busquedas) {
+            resultados.add(busqueda.resultado());
+        }
+        return resultados;
+    }
+
+    /**
+     * Búsqueda por bisección del menor valor de un parámetro que alcanza el objetivo,
+     * con los demás parámetros fijos. La bisección se hace sobre las posiciones de los valores
+     * candidatos, ordenados: primero se simulan los extremos; luego, mientras el objetivo se alcance
+     * en el extremo superior y no en el inferior, el candidato del medio.
+     */
+    private static final class Biseccion {
+        private final Map<String, Integer> fijos;
+        private final String parametro;
+        private final List<Integer> candidatos;
+        private final double objetivo;
+        private final Map<Integer, Punto> evaluados = new HashMap<>();
+        private int bajo;
+        private int alto;
+
+        private Biseccion(Map<String, Integer> fijos, String parametro, List<Integer> candidatos, double objetivo) {
+            this.fijos = fijos;
+            this.parametro = parametro;
+            this.candidatos = candidatos;
+            this.bajo = 0;
+            this.alto = candidatos.size() - 1;
+            this.objetivo = objetivo;
+        }
+
+        /**
+         * Obtiene las combinaciones que deben simularse en la próxima ronda; ninguna si la búsqueda terminó.
+         */
+        private List<Map<String, Integer>> siguientes() {
+            List<Map<String, Integer>> valores = new ArrayList<>();
+            if (!evaluados.containsKey(alto)) valores.add(con(alto));
+            if (!evaluados.containsKey(bajo)) valores.add(con(bajo));
+            if (!valores.isEmpty() || terminada()) return valores;
+            valores.add(con(bajo + (alto - bajo) / 2));
+            return valores;
+        }
+
+        private boolean terminada() {
+            return !alcanza(alto) || alcanza(bajo) || alto - bajo <= 1;
+        }
+
+        private void registrar(Punto punto) {
+            int posicion = candidatos.indexOf(punto.valores().get(parametro));
+            evaluados.put(posicion, punto);
+            if (posicion != bajo && posicion != alto) {
+                if (alcanza(posicion)) alto = posicion; else bajo = posicion;
+            }
+        }
+
+        private boolean alcanza(int posicion) {
+            return evaluados.get(posicion).getSatisfaccion() >= objetivo;
+        }
+
+        private Busqueda resultado() {
+            if (!alcanza(alto)) return new Busqueda(evaluados.get(alto), false, evaluados.size());
+            int encontrado = alcanza(bajo) ? bajo : alto;
+            return new Busqueda(evaluados.get(encontrado), true, evaluados.size());
+        }
+
+        private Map<String, Integer> con(int posicion) {
+            Map<String, Integer> valores = new LinkedHashMap<>(fijos);
+            valores.put(parametro, candidatos.get(posicion));
+            return valores;
+        }
+    }
+
+    /**
+     * Simula cada combinación con todas las semillas, en paralelo.
+     * @param combinaciones Valor de cada parámetro en cada combinación.
+     * @return Resultado de cada combinación, en el mismo orden.
+     */
+    private List<Punto> evaluar(List<Map<String, Integer>> combinaciones) {
+        List<Configuracion> configuraciones = new ArrayList<>();
+        for (Map<String, Integer> valores : combinaciones) {
+            try {
+                configuraciones.add(configurar(valores));
+            } catch (IllegalStateException e) {
+                throw new IllegalArgumentException("La combinación " + describir(valores)
+                    + " no es una configuración válida: " + e.getMessage(), e);
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<double[]>> corridas = new ArrayList<>();
+            for (Configuracion config : configuraciones) {
+                for (int s = 0; s < semillas.length; s++) {
+                    long semilla = semillas[s];
+                    AdministracionPasajeros.Demanda demanda = demandas[s];
+                    Callable<double[]> corrida = () -> CorridaSimulacion.simular(red, config, semilla, demanda);
+                    corridas.add(pool.submit(corrida));
+                }
+            }
+
+            List<Punto> puntos = new ArrayList<>();
+            int k = 0;
+            for (Map<String, Integer> valores : combinaciones) {
+                List<EstadisticaMuestral> estadisticas = new ArrayList<>();
+                for (int i = 0; i < CorridaSimulacion.INDICADORES.size(); i++) {
+                    estadisticas.add(new EstadisticaMuestral());
+                }
+                for (int s = 0; s < semillas.length; s++) {
+                    double[] indicadores = corridas.get(k++).get();
+                    for (int i = 0; i < indicadores.length; i++) {
+                        estadisticas.get(i).agregar(indicadores[i]);
+                    }
+                }
+                puntos.add(new Punto(valores, estadisticas));
+            }
+            return puntos;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Barrido de parámetros interrumpido.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en una corrida del barrido de parámetros.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Crea la configuración de una combinación a partir de la configuración base.
+     * @throws IllegalStateException si la combinación es una configuración inválida.
+     */
+    private Configuracion configurar(Map<String, Integer> valores) {
+        Properties properties = new Properties();
+        properties.putAll(base);
+        valores.forEach((clave, valor) -> properties.setProperty(clave, String.valueOf(valor)));
+        return Configuracion.desde(properties);
+    }
+
+    /**
+     * Indica si una combinación forma una configuración válida junto con la configuración base.
+     */
+    private boolean esValida(Map<String, Integer> valores) {
+        try {
+            configurar(valores);
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Describe una combinación como {@code clave=valor} separados por espacios.
+     */
+    private static String describir(Map<String, Integer> valores) {
+        List<String> partes = new ArrayList<>();
+        valores.forEach((clave, valor) -> partes.add(clave + "=" + valor));
+        return String.join(" ", partes);
+    }
+
+    /**
+     * Arma el producto cartesiano de los valores de cada parámetro, variando primero el último.
+     * @param grilla Valores de cada parámetro.
+     * @return Combinaciones, con los parámetros en el orden de la grilla; una vacía si la grilla está vacía.
+     */
+    private static List<Map<String, Integer>> combinaciones(Map<String, List<Integer>> grilla) {
+        List<Map<String, Integer>> combinaciones = new ArrayList<>();
+        combinaciones.add(new LinkedHashMap<>());
+        for (Map.Entry<String, List<Integer>> parametro : grilla.entrySet()) {
+            List<Map<String, Integer>> extendidas = new ArrayList<>();
+            for (Map<String, Integer> combinacion : combinaciones) {
+                for (int valor : parametro.getValue()) {
+                    Map<String, Integer> extendida = new LinkedHashMap<>(combinacion);
+                    extendida.put(parametro.getKey(), valor);
+                    extendidas.add(extendida);
+                }
+            }
+            combinaciones = extendidas;
+        }
+        return combinaciones;
+    }
+}
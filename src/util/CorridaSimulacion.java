@@ -0,0 +1,114 @@
+package util;
+
+import config.Configuracion;
+import domain.AlmacenPasajeros;
+import domain.AlmacenPasajerosEnArreglos;
+import domain.AlmacenPasajerosFueraDeHeap;
+import domain.Colectivo;
+import domain.Linea;
+import domain.Red;
+import java.util.List;
+import java.util.function.IntFunction;
+import logic.LlegadasPasajeros;
+import logic.Simulador;
+import logic.SimuladorEventos;
+import presentacion.SimulacionOutput;
+
+/**
+ * Ejecuta una corrida completa y aislada de la simulación sobre una copia vacía de una red
+ * compartida, sin salida, y devuelve sus indicadores. Varias corridas pueden ejecutarse a la vez
+ * sobre la misma red, cada una con su configuración y su semilla, como en las réplicas de Monte Carlo
+ * y en el barrido de parámetros.
+ *
+ * Cada corrida usa el motor secuencial configurado, sin importar la cantidad de hilos de simulación.
+ * Los pasajeros se guardan en el heap o en memoria directa según la configuración;
+ * el archivo de pasajeros no se usa, porque las corridas simultáneas lo compartirían.
+ */
+public final class CorridaSimulacion {
+    /** Nombres de los indicadores de una corrida, en el orden de sus valores. */
+    public static final List<String> INDICADORES = List.of(
+        "Índice de satisfacción", "Ocupación media", "Espera media hasta subir", "Espera p90 hasta subir",
+        "Pasajeros sin lugar", "Pasajeros generados");
+
+    /** Posición del índice de satisfacción en los indicadores. */
+    public static final int SATISFACCION = 0;
+
+    private CorridaSimulacion() {}
+
+    /**
+     * Simula una corrida sorteando la demanda con la semilla indicada.
+     * @param red Red compartida; no se modifica.
+     * @param config Configuración de la corrida.
+     * @param semilla Semilla de los pasajeros.
+     * @return Valor de cada indicador, en el orden de {@link #INDICADORES}.
+     */
+    public static double[] simular(Red red, Configuracion config, long semilla) {
+        return simular(red, config, semilla, null);
+    }
+
+    /**
+     * Simula una corrida con una demanda ya sorteada, de modo que varias corridas con distinta
+     * configuración atiendan exactamente a los mismos pasajeros. Con llegadas de Poisson la demanda
+     * no se usa: las llegadas se generan durante la corrida a partir de la semilla.
+     *
+     * @param red Red compartida; no se modifica.
+     * @param config Configuración de la corrida.
+     * @param semilla Semilla de los pasajeros.
+     * @param demanda Demanda sorteada sobre las líneas de la red, o null para sortearla con la semilla.
+     * @return Valor de cada indicador, en el orden de {@link #INDICADORES}.
+     */
+    public static double[] simular(Red red, Configuracion config, long semilla, AdministracionPasajeros.Demanda demanda) {
+        List<Linea> lineas = red.copiaVacia().lineas();
+        List<Colectivo> colectivos = AdministracionColectivos.generarColectivos(lineas, config);
+        IntFunction<AlmacenPasajeros> crearAlmacen = config.usarPasajerosFueraDeHeap()
+            ? AlmacenPasajerosFueraDeHeap::enMemoriaDirecta : AlmacenPasajerosEnArreglos::new;
+        AdministracionPasajeros administracion =
+            new AdministracionPasajeros(config.getMaxPasajerosPorParada(), semilla, crearAlmacen);
+
+        LlegadasPasajeros llegadas = LlegadasPasajeros.NINGUNA;
+        AlmacenPasajeros pasajeros;
+        if (config.usarLlegadasPoisson()) {
+            pasajeros = administracion.crearAlmacen(GeneradorLlegadas.estimarLlegadasPorHora(lineas, config.getPasajerosPorHora()));
+            llegadas = new GeneradorLlegadas(lineas, pasajeros, config.getPasajerosPorHora(), config.getPerfilLlegadas(), semilla);
+        } else if (demanda != null) {
+            pasajeros = administracion.crearPasajeros(lineas, demanda);
+        } else {
+            pasajeros = administracion.generarPasajeros(lineas);
+        }
+
+        try (pasajeros) {
+            RecolectorEstadisticas recolector = new RecolectorEstadisticas(pasajeros::getCantidad);
+            SimulacionOutput vista = SimulacionOutput.crearSilenciosa();
+            if (config.usarMotorEventos()) {
+                SimuladorEventos simulador = new SimuladorEventos(colectivos, vista, config);
+                simulador.setObservador(recolector);
+                simulador.setLlegadas(llegadas);
+                simulador.ejecutar();
+            } else {
+                Simulador simulador = new Simulador(colectivos, vista, config);
+                simulador.setObservador(recolector);
+                simulador.ejecutar();
+            }
+            return indicadores(colectivos, recolector, config.getCantidadPasajeros());
+        }
+    }
+
+    /**
+     * Calcula los indicadores de una corrida terminada.
+     */
+    private static double[] indicadores(List<Colectivo> colectivos, RecolectorEstadisticas recolector, int capacidad) {
+        double ocupacion = 0;
+        for (Colectivo colectivo : colectivos) {
+            ocupacion += colectivo.getOcupacionMedia() / capacidad;
+        }
+        HistogramaEnteros espera = recolector.getEsperaHastaSubir();
+        return new double[] {
+            recolector.getIndiceSatisfaccion(),
+            colectivos.isEmpty() ? 0 : ocupacion / colectivos.size(),
+            espera.getMedia(),
+            espera.percentil(0.9),
+            recolector.getSinLugar(),
+            recolector.getPasajerosGenerados()
+        };
+    }
+}
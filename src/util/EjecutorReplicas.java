@@ -0,0 +1,145 @@
+package util;
+
+import config.Configuracion;
+import domain.Red;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Ejecuta réplicas independientes de la simulación (método de Monte Carlo) y estima la media
+ * de sus indicadores con intervalos de confianza. Todas las réplicas parten de una misma red,
+ * cargada una sola vez y sin modificarla: cada una simula sobre su propia copia vacía de la red
+ * y con su propia semilla, derivada de la semilla de la configuración.
+ *
+ * Las réplicas se ejecutan en paralelo, cada una como una {@link CorridaSimulacion}, con tantas en curso
+ * como hilos: cada vez que una termina se lanza la siguiente, sin esperar a las más lentas.
+ * Sus resultados se acumulan en orden de réplica en cuanto están todas las anteriores, y la ejecución
+ * se detiene en la primera réplica, desde el mínimo indicado, en que todos los intervalos son
+ * suficientemente angostos; las réplicas posteriores ya simuladas se descartan. Así, con la misma
+ * semilla, el resultado no depende de la cantidad de hilos ni del orden en que terminan las réplicas.
+ */
+public class EjecutorReplicas {
+    /** Nombres de los indicadores que se estiman en cada réplica, en el orden de sus valores. */
+    public static final List<String> INDICADORES = CorridaSimulacion.INDICADORES;
+
+    private final Red red;
+    private final Configuracion config;
+    private final int hilos;
+
+    /**
+     * Resultado de una réplica.
+     * @param numero Número de la réplica, desde 1.
+     * @param semilla Semilla con la que se generaron sus pasajeros.
+     * @param indicadores Valor de cada indicador, en el orden de {@link #INDICADORES}.
+     */
+    public record Replica(int numero, long semilla, double[] indicadores) {}
+
+    /**
+     * Resultado del conjunto de réplicas.
+     * @param replicas Réplicas usadas en la estimación, en orden.
+     * @param estadisticas Estadística de cada indicador sobre las réplicas, en el orden de {@link #INDICADORES}.
+     * @param convergio true si se alcanzó la precisión pedida antes del máximo de réplicas.
+     */
+    public record Resultado(List<Replica> replicas, List<EstadisticaMuestral> estadisticas, boolean convergio) {}
+
+    /**
+     * Crea un ejecutor de réplicas.
+     * @param red Red cargada, compartida por todas las réplicas; no se modifica.
+     * @param config Configuración de cada réplica; se ignora la cantidad de hilos de simulación.
+     * @param hilos Cantidad de réplicas que se simulan a la vez.
+     */
+    public EjecutorReplicas(Red red, Configuracion config, int hilos) {
+        if (hilos < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un hilo.");
+        }
+        this.red = red;
+        this.config = config;
+        this.hilos = hilos;
+    }
+
+    /**
+     * Ejecuta réplicas hasta que el intervalo de confianza de cada indicador tenga una semiamplitud
+     * no mayor a la precisión relativa indicada por su media, o hasta el máximo de réplicas.
+     *
+     * @param minimo Cantidad mínima de réplicas antes de evaluar la precisión, al menos 2.
+     * @param maximo Cantidad máxima de réplicas.
+     * @param confianza Nivel de confianza de los intervalos, entre 0 y 1.
+     * @param precision Semiamplitud máxima relativa a la media (por ejemplo 0.01); 0 ejecuta el máximo.
+     * @param alTerminar Recibe cada réplica aceptada, en orden.
+     * @return Réplicas aceptadas y estadísticas de los indicadores.
+     */
+    public Resultado ejecutar(int minimo, int maximo, double confianza, double precision, Consumer<Replica> alTerminar) {
+        if (minimo < 2 || maximo < minimo) {
+            throw new IllegalArgumentException("Se necesitan al menos 2 réplicas y un máximo no menor al mínimo.");
+        }
+        SplittableRandom raiz = new SplittableRandom(config.getSemilla());
+        List<Replica> replicas = new ArrayList<>();
+        List<EstadisticaMuestral> estadisticas = new ArrayList<>();
+        for (int i = 0; i < INDICADORES.size(); i++) {
+            estadisticas.add(new EstadisticaMuestral());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        CompletionService<Replica> completadas = new ExecutorCompletionService<>(pool);
+        Map<Integer, Replica> adelantadas = new HashMap<>();
+        try {
+            int enviadas = 0;
+            while (enviadas < Math.min(hilos, maximo)) {
+                enviar(completadas, ++enviadas, raiz.nextLong());
+            }
+            while (replicas.size() < maximo) {
+                // Cada réplica que termina libera un hilo para la siguiente, aunque no pueda acumularse todavía
+                Replica terminada = completadas.take().get();
+                adelantadas.put(terminada.numero(), terminada);
+                if (enviadas < maximo) {
+                    enviar(completadas, ++enviadas, raiz.nextLong());
+                }
+                Replica replica;
+                while ((replica = adelantadas.remove(replicas.size() + 1)) != null) {
+                    replicas.add(replica);
+                    for (int i = 0; i < estadisticas.size(); i++) {
+                        estadisticas.get(i).agregar(replica.indicadores()[i]);
+                    }
+                    alTerminar.accept(replica);
+                    if (replicas.size() >= minimo && alcanzoPrecision(estadisticas, confianza, precision)) {
+                        return new Resultado(replicas, estadisticas, true);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Réplicas interrumpidas.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en una réplica de la simulación.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Resultado(replicas, estadisticas, false);
+    }
+
+    private void enviar(CompletionService<Replica> completadas, int numero, long semilla) {
+        completadas.submit(() -> new Replica(numero, semilla, CorridaSimulacion.simular(red, config, semilla)));
+    }
+
+    /**
+     * Indica si el intervalo de confianza de todos los indicadores es suficientemente angosto.
+     */
+    private static boolean alcanzoPrecision(List<EstadisticaMuestral> estadisticas, double confianza, double precision) {
+        if (precision <= 0) return false;
+        for (EstadisticaMuestral estadistica : estadisticas) {
+            if (estadistica.getSemiamplitud(confianza) > precision * Math.abs(estadistica.getMedia())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
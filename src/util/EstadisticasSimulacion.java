@@ -1,59 +1,101 @@
 package util;
 
 import domain.Colectivo;
-import domain.Pasajero;
+import domain.Linea;
+import domain.Parada;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import presentacion.SimulacionOutput;
 
 public class EstadisticasSimulacion {
+    private static final int PARADAS_SIN_LUGAR_MOSTRADAS = 5;
 
     /**
-     * Muestra las estadísticas finales de la simulación, incluyendo el índice de satisfacción
-     * y la ocupación promedio por colectivo.
+     * Muestra las estadísticas finales de la simulación, incluyendo el índice de satisfacción,
+     * la ocupación promedio por colectivo y las distribuciones y totales calculados durante la corrida.
      *
      * @param colectivos Lista de colectivos que participaron en la simulación.
+     * @param recolector Recolector que observó la simulación.
      * @param maxCapacidad Capacidad máxima de cada colectivo.
      * @param vista Instancia de VistaPorConsola para mostrar los resultados.
      */
-    public static void mostrarEstadisticasFinales(List<Colectivo> colectivos, int maxCapacidad, SimulacionOutput vista) {
+    public static void mostrarEstadisticasFinales(List<Colectivo> colectivos, RecolectorEstadisticas recolector,
+                                                  int maxCapacidad, SimulacionOutput vista) {
         vista.mostrarFinSimulacion();
-        mostrarIndiceSatisfaccion(util.AdministracionPasajeros.getTodosLosPasajeros(), vista);
+        vista.mostrarIndiceSatisfaccion(recolector.getIndiceSatisfaccion());
         mostrarOcupacionPromedioPorColectivo(colectivos, maxCapacidad, vista);
+        mostrarDistribuciones(recolector, vista);
+        mostrarTotalesPorLinea(colectivos, recolector, vista);
+        mostrarParadasSinLugar(recolector, vista);
     }
 
     /**
-     * Calcula y muestra el índice de satisfacción promedio de los pasajeros.
-     * El índice se calcula como la suma de las calificaciones dividida por el máximo posible.
+     * Calcula y muestra la ocupación promedio de cada colectivo durante la simulación.
+     * La ocupación promedio se calcula como el promedio de la ocupación relativa por tramo,
+     * a partir de los acumulados de cada colectivo.
      *
-     * @param todos Lista de todos los pasajeros.
-     * @param vista Instancia de VistaPorConsola para mostrar el resultado.
+     * @param colectivos Lista de colectivos simulados.
+     * @param maxCapacidad Capacidad máxima de cada colectivo.
+     * @param vista Instancia de VistaPorConsola para mostrar los resultados.
      */
-    public static void mostrarIndiceSatisfaccion(List<Pasajero> todos, SimulacionOutput vista) {
-        int suma = 0;
-        for (Pasajero p : todos) {
-            suma += p.getCalificacion();
+    public static void mostrarOcupacionPromedioPorColectivo(List<Colectivo> colectivos, int maxCapacidad, SimulacionOutput vista) {
+        for (Colectivo colectivo : colectivos) {
+            double promedio = colectivo.getOcupacionMedia() / maxCapacidad;
+            vista.mostrarOcupacionPromedio(colectivo, promedio);
         }
-        double indice = (double) suma / (todos.size() * 5);
-        vista.mostrarIndiceSatisfaccion(indice);
     }
 
     /**
-     * Calcula y muestra la ocupación promedio de cada colectivo durante la simulación.
-     * La ocupación promedio se calcula como el promedio de la ocupación relativa por tramo.
+     * Muestra la distribución de calificaciones, del tiempo hasta subir y de la ocupación por tramo.
+     *
+     * @param recolector Recolector que observó la simulación.
+     * @param vista Vista donde se muestran los resultados.
+     */
+    private static void mostrarDistribuciones(RecolectorEstadisticas recolector, SimulacionOutput vista) {
+        vista.mostrarDistribucionCalificaciones(recolector.getDistribucionCalificaciones(), recolector.getPasajerosGenerados());
+        mostrarDistribucion("Tiempo hasta subir", recolector.getEsperaHastaSubir(), vista);
+        mostrarDistribucion("Pasajeros a bordo por tramo", recolector.getOcupacionPorTramo(), vista);
+    }
+
+    private static void mostrarDistribucion(String nombre, HistogramaEnteros histograma, SimulacionOutput vista) {
+        vista.mostrarDistribucion(nombre, histograma.getMedia(), histograma.percentil(0.5),
+            histograma.percentil(0.9), histograma.percentil(0.99), histograma.getMaximo());
+    }
+
+    /**
+     * Muestra las subidas, bajadas, pasajeros sin lugar y ocupación de cada línea,
+     * en el orden en que aparecen los colectivos.
      *
      * @param colectivos Lista de colectivos simulados.
-     * @param maxCapacidad Capacidad máxima de cada colectivo.
-     * @param vista Instancia de VistaPorConsola para mostrar los resultados.
+     * @param recolector Recolector que observó la simulación.
+     * @param vista Vista donde se muestran los resultados.
      */
-    public static void mostrarOcupacionPromedioPorColectivo(List<Colectivo> colectivos, int maxCapacidad, SimulacionOutput vista) {
+    private static void mostrarTotalesPorLinea(List<Colectivo> colectivos, RecolectorEstadisticas recolector,
+                                               SimulacionOutput vista) {
+        Set<Linea> lineas = new LinkedHashSet<>();
         for (Colectivo colectivo : colectivos) {
-            List<Integer> ocupaciones = colectivo.getOcupacionPorTramo();
-            double sumaOcupacion = 0;
-            for (int ocupacion : ocupaciones) {
-                sumaOcupacion += (double) ocupacion / maxCapacidad;
-            }
-            double promedio = ocupaciones.isEmpty() ? 0 : sumaOcupacion / ocupaciones.size();
-            vista.mostrarOcupacionPromedio(colectivo, promedio);
+            lineas.add(colectivo.getLinea());
+        }
+        for (Linea linea : lineas) {
+            RecolectorEstadisticas.Contadores contadores = recolector.getContadores(linea);
+            if (contadores == null) continue;
+            vista.mostrarEstadisticasLinea(linea.getCodigo(), contadores.getSubidas(), contadores.getBajadas(),
+                contadores.getSinLugar(), contadores.getOcupacion().getMedia(), contadores.getOcupacion().percentil(0.9));
+        }
+    }
+
+    /**
+     * Muestra las paradas donde más pasajeros quedaron sin lugar.
+     *
+     * @param recolector Recolector que observó la simulación.
+     * @param vista Vista donde se muestran los resultados.
+     */
+    private static void mostrarParadasSinLugar(RecolectorEstadisticas recolector, SimulacionOutput vista) {
+        for (Map.Entry<Parada, RecolectorEstadisticas.Contadores> entrada
+                : recolector.getParadasConMasSinLugar(PARADAS_SIN_LUGAR_MOSTRADAS)) {
+            vista.mostrarParadaSinLugar(entrada.getKey(), entrada.getValue().getSinLugar(), entrada.getValue().getSubidas());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,205 @@
+package util;
+
+import config.Configuracion;
+import domain.AlmacenPasajeros;
+import domain.Linea;
+import domain.Parada;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import logic.LlegadasPasajeros;
+
+/**
+ * Genera los pasajeros a medida que avanza el tiempo simulado: a cada parada de cada línea,
+ * salvo la última, llegan pasajeros según un proceso de Poisson cuya tasa sigue un perfil
+ * por hora del día. Solo se crean los pasajeros que llegan hasta el instante pedido, por lo que
+ * en memoria están únicamente los que esperan o viajan, y no toda la demanda de la corrida.
+ *
+ * La tasa variable se obtiene por aceptación y rechazo: se sortean llegadas con la tasa máxima
+ * del perfil y cada una se acepta con probabilidad igual al factor de su franja dividido por el máximo.
+ * Cada par (línea, parada) tiene su propio flujo aleatorio derivado de la semilla, así que la misma
+ * semilla produce siempre las mismas llegadas. Los pasajeros se agregan en orden de llegada
+ * (a igual instante, en el orden de las líneas y paradas), por lo que sus IDs siguen ese orden.
+ *
+ * Como el estado de los flujos aleatorios no puede leerse, un punto de control guarda solo el último
+ * instante generado: al reanudar, un generador nuevo con la misma semilla vuelve a sortear las llegadas
+ * hasta ese instante sin agregar los pasajeros, que ya están en el punto de control, y sigue igual
+ * que si no se hubiera interrumpido. Sortear es mucho más barato que simular, así que repetirlo no pesa.
+ */
+public class GeneradorLlegadas implements LlegadasPasajeros {
+    private static final double SEGUNDOS_POR_DIA = 24 * 3600;
+
+    private final AlmacenPasajeros pasajeros;
+    private final double[] perfil;
+    private final double duracionFranja;
+    private final double factorMaximo;
+    private final double tasaMaxima; // llegadas por segundo con el factor máximo
+    private final PriorityQueue<Flujo> proximas = new PriorityQueue<>();
+    private final int cantidadFlujos;
+    private long generadoHasta = -1;
+
+    /**
+     * Llegadas a una parada de una línea: la próxima llegada candidata y el flujo aleatorio propio.
+     */
+    private static final class Flujo implements Comparable<Flujo> {
+        private final List<Parada> paradas;
+        private final int indiceOrigen;
+        private final int orden;
+        private final SplittableRandom azar;
+        private double siguiente = 0;
+
+        private Flujo(List<Parada> paradas, int indiceOrigen, int orden, SplittableRandom azar) {
+            this.paradas = paradas;
+            this.indiceOrigen = indiceOrigen;
+            this.orden = orden;
+            this.azar = azar;
+        }
+
+        @Override
+        public int compareTo(Flujo otro) {
+            int porTiempo = Double.compare(siguiente, otro.siguiente);
+            return porTiempo != 0 ? porTiempo : Integer.compare(orden, otro.orden);
+        }
+    }
+
+    /**
+     * Crea un generador de llegadas.
+     * @param lineas Líneas en cuyas paradas llegan pasajeros.
+     * @param pasajeros Almacén donde se agregan los pasajeros que llegan.
+     * @param pasajerosPorHora Tasa de llegada a cada parada de cada línea con factor 1.
+     * @param perfil Factores de la tasa en franjas iguales de un día, desde el instante 0.
+     * @param semilla Semilla de la que se derivan los flujos aleatorios.
+     */
+    public GeneradorLlegadas(List<Linea> lineas, AlmacenPasajeros pasajeros, int pasajerosPorHora,
+                             double[] perfil, long semilla) {
+        this.pasajeros = pasajeros;
+        this.perfil = perfil.clone();
+        this.duracionFranja = SEGUNDOS_POR_DIA / perfil.length;
+        double maximo = 0;
+        for (double factor : perfil) {
+            maximo = Math.max(maximo, factor);
+        }
+        this.factorMaximo = maximo;
+        this.tasaMaxima = pasajerosPorHora * maximo / 3600.0;
+
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        int orden = 0;
+        for (Linea linea : lineas) {
+            List<Parada> paradas = linea.getParadas();
+            for (int i = 0; i < paradas.size() - 1; i++) {
+                Flujo flujo = new Flujo(paradas, i, orden++, raiz.split());
+                avanzar(flujo);
+                proximas.add(flujo);
+            }
+        }
+        this.cantidadFlujos = orden;
+    }
+
+    /**
+     * Crea un generador con la tasa, el perfil y la semilla de la configuración.
+     * @param lineas Líneas en cuyas paradas llegan pasajeros.
+     * @param pasajeros Almacén donde se agregan los pasajeros que llegan.
+     * @param config Configuración de la simulación.
+     */
+    public GeneradorLlegadas(List<Linea> lineas, AlmacenPasajeros pasajeros, Configuracion config) {
+        this(lineas, pasajeros, config.getPasajerosPorHora(), config.getPerfilLlegadas(), config.getSemilla());
+    }
+
+    /**
+     * Estima cuántos pasajeros llegan en una hora con factor 1 en el perfil, para dimensionar el almacén.
+     * @param lineas Líneas en cuyas paradas llegan pasajeros.
+     * @param pasajerosPorHora Tasa de llegada a cada parada de cada línea con factor 1.
+     * @return Cantidad estimada de llegadas por hora, acotada a un int.
+     */
+    public static int estimarLlegadasPorHora(List<Linea> lineas, int pasajerosPorHora) {
+        long flujos = 0;
+        for (Linea linea : lineas) {
+            flujos += Math.max(linea.getParadas().size() - 1, 0);
+        }
+        return (int) Math.min(flujos * pasajerosPorHora, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Agrega a su parada de origen cada pasajero que llega hasta el instante indicado,
+     * con un destino elegido al azar entre las paradas siguientes de la línea.
+     * @param tiempo Instante simulado, en segundos.
+     */
+    @Override
+    public void generarHasta(long tiempo) {
+        sortearHasta(tiempo, true);
+    }
+
+    /**
+     * Escribe la cantidad de flujos, para verificar que la red sea la misma, y el último instante generado.
+     * @param out Destino del estado.
+     * @throws IOException si no se puede escribir.
+     */
+    @Override
+    public void guardarEstado(DataOutput out) throws IOException {
+        out.writeInt(cantidadFlujos);
+        out.writeLong(generadoHasta);
+    }
+
+    /**
+     * Vuelve a sortear las llegadas hasta el instante guardado, sin agregar los pasajeros.
+     * Debe llamarse sobre un generador recién creado con la semilla de la corrida guardada.
+     * @param in Origen del estado.
+     * @throws IOException si no se puede leer.
+     * @throws IllegalStateException si el generador ya generó llegadas o la red no coincide.
+     */
+    @Override
+    public void restaurarEstado(DataInput in) throws IOException {
+        if (generadoHasta >= 0) {
+            throw new IllegalStateException("El generador de llegadas ya comenzó a generar pasajeros");
+        }
+        int flujos = in.readInt();
+        if (flujos != cantidadFlujos) {
+            throw new IllegalStateException("El punto de control tiene " + flujos
+                + " flujos de llegadas y la simulación " + cantidadFlujos);
+        }
+        sortearHasta(in.readLong(), false);
+    }
+
+    /**
+     * Sortea las llegadas hasta el instante indicado, inclusive, y agrega los pasajeros si se pide.
+     */
+    private void sortearHasta(long tiempo, boolean agregar) {
+        while (!proximas.isEmpty() && proximas.peek().siguiente <= tiempo) {
+            Flujo flujo = proximas.poll();
+            Parada origen = flujo.paradas.get(flujo.indiceOrigen);
+            int cantidadDestinos = flujo.paradas.size() - flujo.indiceOrigen - 1;
+            Parada destino = flujo.paradas.get(flujo.indiceOrigen + 1 + flujo.azar.nextInt(cantidadDestinos));
+            if (agregar) {
+                int llegada = (int) Math.min((long) Math.ceil(flujo.siguiente), Integer.MAX_VALUE);
+                origen.agregarPasajero(pasajeros, pasajeros.agregar(origen, destino, llegada));
+            }
+            avanzar(flujo);
+            proximas.add(flujo);
+        }
+        generadoHasta = Math.max(generadoHasta, tiempo);
+    }
+
+    /**
+     * Sortea la próxima llegada aceptada de un flujo, posterior a la actual.
+     */
+    private void avanzar(Flujo flujo) {
+        if (tasaMaxima == 0) {
+            flujo.siguiente = Double.POSITIVE_INFINITY;
+            return;
+        }
+        do {
+            flujo.siguiente += -Math.log(1 - flujo.azar.nextDouble()) / tasaMaxima;
+        } while (flujo.azar.nextDouble() * factorMaximo >= factor(flujo.siguiente));
+    }
+
+    /**
+     * Obtiene el factor del perfil para la franja horaria del instante indicado.
+     */
+    private double factor(double tiempo) {
+        int franja = (int) ((tiempo % SEGUNDOS_POR_DIA) / duracionFranja);
+        return perfil[Math.min(franja, perfil.length - 1)];
+    }
+}
@@ -0,0 +1,126 @@
+package util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Genera redes sintéticas de paradas y líneas con el formato de {@code parada.txt}
+ * y {@code linea.txt}, para probar la carga y la simulación a escala de una ciudad.
+ *
+ * Cada línea tiene un largo sorteado entre un mínimo y un máximo. Cada parada de su recorrido
+ * es, con probabilidad igual al solapamiento, una parada ya usada por otra línea, y si no,
+ * una parada todavía no usada; así el solapamiento controla cuántas paradas se comparten.
+ * Los recorridos se escriben a medida que se sortean y solo se guarda un entero por parada,
+ * por lo que se pueden generar redes de millones de paradas.
+ * La misma semilla produce siempre los mismos archivos.
+ */
+public class GeneradorRed {
+    private static final int TAMANO_BUFFER = 1 << 16;
+
+    private final int cantidadParadas;
+    private final int cantidadLineas;
+    private final int largoMinimo;
+    private final int largoMaximo;
+    private final double solapamiento;
+    private final long semilla;
+
+    /**
+     * Define la red a generar.
+     * @param cantidadParadas Cantidad de paradas de la red.
+     * @param cantidadLineas Cantidad de líneas.
+     * @param largoMinimo Cantidad mínima de paradas por línea.
+     * @param largoMaximo Cantidad máxima de paradas por línea.
+     * @param solapamiento Probabilidad, entre 0 y 1, de que una parada del recorrido sea compartida con otra línea.
+     * @param semilla Semilla del generador aleatorio.
+     * @throws IllegalArgumentException si algún parámetro es inválido.
+     */
+    public GeneradorRed(int cantidadParadas, int cantidadLineas, int largoMinimo, int largoMaximo,
+                        double solapamiento, long semilla) {
+        if (cantidadParadas < 2 || cantidadLineas < 1) {
+            throw new IllegalArgumentException("La red necesita al menos dos paradas y una línea.");
+        }
+        if (largoMinimo < 2 || largoMaximo < largoMinimo || largoMaximo > cantidadParadas) {
+            throw new IllegalArgumentException("El largo de las líneas debe estar entre 2 y la cantidad de paradas.");
+        }
+        if (solapamiento < 0 || solapamiento > 1) {
+            throw new IllegalArgumentException("El solapamiento debe estar entre 0 y 1.");
+        }
+        this.cantidadParadas = cantidadParadas;
+        this.cantidadLineas = cantidadLineas;
+        this.largoMinimo = largoMinimo;
+        this.largoMaximo = largoMaximo;
+        this.solapamiento = solapamiento;
+        this.semilla = semilla;
+    }
+
+    /**
+     * Genera la red y la escribe en los archivos indicados.
+     * @param archivoParadas Archivo de paradas a generar.
+     * @param archivoLineas Archivo de líneas a generar.
+     * @throws UncheckedIOException si no se pueden escribir los archivos.
+     */
+    public void generar(Path archivoParadas, Path archivoLineas) {
+        escribirParadas(archivoParadas);
+        escribirLineas(archivoLineas);
+    }
+
+    /**
+     * Escribe todas las paradas de la red, con IDs consecutivos desde 1.
+     */
+    private void escribirParadas(Path archivo) {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(archivo), StandardCharsets.UTF_8), TAMANO_BUFFER)) {
+            out.write("#id de la parada;direccion\n");
+            for (int id = 1; id <= cantidadParadas; id++) {
+                out.write(id + ";Calle " + (id / 100 + 1) + ", " + (id % 100) * 10 + ";\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir " + archivo, e);
+        }
+    }
+
+    /**
+     * Sortea y escribe el recorrido de cada línea.
+     * Las paradas nuevas se toman en orden de ID, por lo que las ya usadas son siempre
+     * las de ID 1 a {@code cantidadUsadas} y sortear una compartida es sortear un ID en ese rango.
+     * La marca de cada parada indica la última línea que la recorrió, para no repetir
+     * paradas dentro de un mismo recorrido.
+     */
+    private void escribirLineas(Path archivo) {
+        SplittableRandom random = new SplittableRandom(semilla);
+        int[] marca = new int[cantidadParadas + 1];
+        int cantidadUsadas = 0;
+
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(archivo), StandardCharsets.UTF_8), TAMANO_BUFFER)) {
+            out.write("#codigo de la linea;paradas\n");
+            for (int linea = 1; linea <= cantidadLineas; linea++) {
+                int largo = largoMinimo + random.nextInt(largoMaximo - largoMinimo + 1);
+                out.write("G" + linea + ";");
+                for (int i = 0; i < largo; i++) {
+                    // Si todas las paradas usadas ya están en este recorrido, se fuerza una nueva
+                    boolean nueva = cantidadUsadas < cantidadParadas
+                        && (i >= cantidadUsadas || random.nextDouble() >= solapamiento);
+                    int parada;
+                    if (nueva) {
+                        parada = ++cantidadUsadas;
+                    } else {
+                        do {
+                            parada = 1 + random.nextInt(cantidadUsadas);
+                        } while (marca[parada] == linea);
+                    }
+                    marca[parada] = linea;
+                    out.write(parada + ";");
+                }
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir " + archivo, e);
+        }
+    }
+}
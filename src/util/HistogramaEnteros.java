@@ -0,0 +1,187 @@
+package util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Histograma de valores enteros no negativos que se actualiza en tiempo constante y sin crear objetos.
+ * Los valores menores que {@value #EXACTOS} se cuentan exactamente; los mayores se agrupan en
+ * intervalos cuyo ancho es a lo sumo 1/{@value #SUBINTERVALOS} del valor, por lo que los percentiles
+ * tienen un error relativo acotado sin importar el rango de los datos.
+ * La memoria depende solo del mayor valor registrado, no de la cantidad de registros.
+ * No es seguro para uso concurrente.
+ */
+public final class HistogramaEnteros {
+    private static final int EXACTOS = 1024;
+    private static final int SUBINTERVALOS = EXACTOS / 2;
+    private static final int BITS_SUBINTERVALOS = Integer.numberOfTrailingZeros(SUBINTERVALOS);
+
+    private long[] cuentas = new long[64];
+    private long cantidad = 0;
+    private long suma = 0;
+    private long minimo = Long.MAX_VALUE;
+    private long maximo = 0;
+
+    /**
+     * Registra una ocurrencia del valor indicado.
+     * @param valor Valor a registrar.
+     * @throws IllegalArgumentException si el valor es negativo.
+     */
+    public void registrar(long valor) {
+        registrar(valor, 1);
+    }
+
+    /**
+     * Registra varias ocurrencias del valor indicado.
+     * @param valor Valor a registrar.
+     * @param veces Cantidad de ocurrencias.
+     * @throws IllegalArgumentException si el valor es negativo.
+     */
+    public void registrar(long valor, long veces) {
+        if (valor < 0) throw new IllegalArgumentException("Valor negativo en el histograma: " + valor);
+        if (veces <= 0) return;
+        int indice = indice(valor);
+        if (indice >= cuentas.length) {
+            cuentas = Arrays.copyOf(cuentas, Math.max(indice + 1, cuentas.length * 2));
+        }
+        cuentas[indice] += veces;
+        cantidad += veces;
+        suma += valor * veces;
+        minimo = Math.min(minimo, valor);
+        maximo = Math.max(maximo, valor);
+    }
+
+    /**
+     * Calcula el valor del percentil indicado: el menor valor tal que al menos esa fracción
+     * de los registros es menor o igual a él.
+     * @param fraccion Fracción entre 0 y 1 (por ejemplo 0.9 para el percentil 90).
+     * @return Valor del percentil, o 0 si no hay registros.
+     */
+    public long percentil(double fraccion) {
+        if (cantidad == 0) return 0;
+        long objetivo = Math.max(1, (long) Math.ceil(fraccion * cantidad));
+        long acumulado = 0;
+        for (int i = 0; i < cuentas.length; i++) {
+            acumulado += cuentas[i];
+            if (acumulado >= objetivo) {
+                return Math.min(Math.max(limiteSuperior(i), minimo), maximo);
+            }
+        }
+        return maximo;
+    }
+
+    /**
+     * Obtiene la cantidad de valores registrados.
+     * @return Cantidad de registros.
+     */
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Obtiene la suma exacta de los valores registrados.
+     * @return Suma de los valores.
+     */
+    public long getSuma() {
+        return suma;
+    }
+
+    /**
+     * Obtiene la media exacta de los valores registrados.
+     * @return Media, o 0 si no hay registros.
+     */
+    public double getMedia() {
+        return cantidad == 0 ? 0 : (double) suma / cantidad;
+    }
+
+    /**
+     * Obtiene el menor valor registrado.
+     * @return Valor mínimo, o 0 si no hay registros.
+     */
+    public long getMinimo() {
+        return cantidad == 0 ? 0 : minimo;
+    }
+
+    /**
+     * Obtiene el mayor valor registrado.
+     * @return Valor máximo, o 0 si no hay registros.
+     */
+    public long getMaximo() {
+        return maximo;
+    }
+
+    /**
+     * Agrega los registros de otro histograma a este, como si se hubieran registrado aquí.
+     * @param otro Histograma cuyos registros se suman; no se modifica.
+     */
+    void sumar(HistogramaEnteros otro) {
+        if (otro.cantidad == 0) return;
+        if (otro.cuentas.length > cuentas.length) {
+            cuentas = Arrays.copyOf(cuentas, otro.cuentas.length);
+        }
+        for (int i = 0; i < otro.cuentas.length; i++) {
+            cuentas[i] += otro.cuentas[i];
+        }
+        cantidad += otro.cantidad;
+        suma += otro.suma;
+        minimo = Math.min(minimo, otro.minimo);
+        maximo = Math.max(maximo, otro.maximo);
+    }
+
+    /**
+     * Escribe los registros del histograma para un punto de control; solo los intervalos hasta el último usado.
+     * @param out Destino del estado.
+     * @throws IOException si no se puede escribir.
+     */
+    void guardarEstado(DataOutput out) throws IOException {
+        int usados = cuentas.length;
+        while (usados > 0 && cuentas[usados - 1] == 0) usados--;
+        out.writeInt(usados);
+        for (int i = 0; i < usados; i++) {
+            out.writeLong(cuentas[i]);
+        }
+        out.writeLong(cantidad);
+        out.writeLong(suma);
+        out.writeLong(minimo);
+        out.writeLong(maximo);
+    }
+
+    /**
+     * Reemplaza los registros del histograma por los guardados con {@link #guardarEstado(DataOutput)}.
+     * @param in Origen del estado.
+     * @throws IOException si no se puede leer.
+     */
+    void restaurarEstado(DataInput in) throws IOException {
+        int usados = in.readInt();
+        cuentas = new long[Math.max(64, usados)];
+        for (int i = 0; i < usados; i++) {
+            cuentas[i] = in.readLong();
+        }
+        cantidad = in.readLong();
+        suma = in.readLong();
+        minimo = in.readLong();
+        maximo = in.readLong();
+    }
+
+    /**
+     * Calcula el intervalo de un valor: el propio valor si es menor que {@value #EXACTOS},
+     * o un intervalo de ancho potencia de dos según su orden de magnitud.
+     */
+    private static int indice(long valor) {
+        if (valor < EXACTOS) return (int) valor;
+        int desplazamiento = 63 - Long.numberOfLeadingZeros(valor) - BITS_SUBINTERVALOS;
+        return EXACTOS + (desplazamiento - 1) * SUBINTERVALOS + (int) (valor >>> desplazamiento) - SUBINTERVALOS;
+    }
+
+    /**
+     * Calcula el mayor valor que cae en el intervalo indicado.
+     */
+    private static long limiteSuperior(int indice) {
+        if (indice < EXACTOS) return indice;
+        int desplazamiento = (indice - EXACTOS) / SUBINTERVALOS + 1;
+        long base = (long) ((indice - EXACTOS) % SUBINTERVALOS + SUBINTERVALOS) << desplazamiento;
+        return base + (1L << desplazamiento) - 1;
+    }
+}
@@ -0,0 +1,338 @@
+package util;
+
+import config.Configuracion;
+import domain.Colectivo;
+import domain.ListaPasajeros;
+import domain.Parada;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import logic.ObservadorSimulacion;
+import presentacion.SimulacionOutput;
+
+/**
+ * Mide en qué se va el tiempo de una corrida. Divide la corrida en fases (carga de la red, generación
+ * de pasajeros, simulación, estadísticas) y de cada una guarda el tiempo transcurrido y la CPU y la memoria
+ * asignada del hilo que la ejecuta. Como observador de la simulación cuenta las paradas atendidas, las subidas,
+ * las bajadas y los pasajeros sin lugar, y en cada hilo que atiende paradas acumula el tiempo entre la llegada
+ * del colectivo y el fin de su atención, que incluye las bajadas, las subidas y el formateo de sus mensajes,
+ * y la memoria asignada entre su primera y su última parada, de donde sale su ritmo de asignación.
+ *
+ * Mientras la corrida avanza, los contadores se exponen por JMX como {@value #NOMBRE_JMX};
+ * al terminar, el resumen se muestra en la vista. Sin instrumentación se usa {@link #DESACTIVADA},
+ * que no se registra como observador y cuyos métodos de fases no hacen nada.
+ * Los contadores admiten la simulación paralela; las fases se inician y terminan desde un solo hilo.
+ */
+public final class Instrumentacion implements ObservadorSimulacion, InstrumentacionMBean {
+
+    /** Nombre con el que se registra el MBean en el servidor de la plataforma. */
+    public static final String NOMBRE_JMX = "simulacion:type=Instrumentacion";
+
+    /** Instrumentación que no mide nada. */
+    public static final Instrumentacion DESACTIVADA = new Instrumentacion(false);
+
+    private static final double NANOS_POR_SEGUNDO = 1e9;
+    private static final long NANOS_POR_MILISEGUNDO = 1_000_000;
+
+    private final boolean activa;
+    private final ThreadMXBean cpu;
+    private final com.sun.management.ThreadMXBean memoria; // null si la JVM no mide la memoria por hilo.
+    private final List<Fase> fases = new ArrayList<>();
+    private volatile Inicio enCurso = null;
+    private final LongAdder paradas = new LongAdder();
+    private final LongAdder subidas = new LongAdder();
+    private final LongAdder bajadas = new LongAdder();
+    private final LongAdder sinLugar = new LongAdder();
+    private final List<HiloSimulacion> hilos = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<HiloSimulacion> hiloActual = ThreadLocal.withInitial(this::registrarHilo);
+
+    /**
+     * Mediciones de una fase terminada. Los valores que la JVM no informa valen -1.
+     * @param nombre Nombre de la fase.
+     * @param nanos Tiempo transcurrido.
+     * @param nanosCpu Tiempo de CPU del hilo que ejecutó la fase.
+     * @param bytes Memoria asignada por el hilo que ejecutó la fase.
+     * @param paradas Paradas atendidas durante la fase, en cualquier hilo.
+     */
+    public record Fase(String nombre, long nanos, long nanosCpu, long bytes, long paradas) {}
+
+    /**
+     * Lecturas tomadas al comenzar la fase en curso.
+     */
+    private record Inicio(String nombre, long nanos, long nanosCpu, long bytes, long paradas) {}
+
+    /**
+     * Mediciones de un hilo que atiende paradas. Solo las escribe ese hilo; son volátiles
+     * para que JMX y el resumen las lean mientras la simulación avanza.
+     */
+    private static final class HiloSimulacion {
+        private final String nombre;
+        private long llegada = 0;
+        private volatile long paradas = 0;
+        private volatile long nanosAtencion = 0;
+        private volatile long nanosPrimera = 0;
+        private volatile long nanosUltima = 0;
+        private volatile long bytesPrimera = -1;
+        private volatile long bytesUltima = -1;
+
+        private HiloSimulacion(String nombre) {
+            this.nombre = nombre;
+        }
+
+        private long getBytes() {
+            return bytesPrimera < 0 ? -1 : bytesUltima - bytesPrimera;
+        }
+    }
+
+    private Instrumentacion(boolean activa) {
+        this.activa = activa;
+        this.cpu = activa ? ManagementFactory.getThreadMXBean() : null;
+        this.memoria = activa && cpu instanceof com.sun.management.ThreadMXBean m
+            && m.isThreadAllocatedMemorySupported() && m.isThreadAllocatedMemoryEnabled() ? m : null;
+    }
+
+    /**
+     * Crea la instrumentación según la configuración y, si está activa, registra su MBean.
+     * @param config Configuración de la simulación.
+     * @return Instrumentación activa, o {@link #DESACTIVADA}.
+     * @throws IllegalStateException si el MBean no puede registrarse.
+     */
+    public static Instrumentacion crear(Configuracion config) {
+        if (!config.usarInstrumentacion()) return DESACTIVADA;
+        Instrumentacion instrumentacion = new Instrumentacion(true);
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(NOMBRE_JMX);
+            if (servidor.isRegistered(nombre)) servidor.unregisterMBean(nombre);
+            servidor.registerMBean(instrumentacion, nombre);
+        } catch (JMException e) {
+            throw new IllegalStateException("No se pudo registrar el MBean " + NOMBRE_JMX, e);
+        }
+        return instrumentacion;
+    }
+
+    /**
+     * Indica si la instrumentación mide la corrida y debe agregarse a los observadores de la simulación.
+     * @return true si está activa.
+     */
+    public boolean estaActiva() {
+        return activa;
+    }
+
+    /**
+     * Termina la fase en curso, si la hay, y comienza una nueva.
+     * @param nombre Nombre de la nueva fase.
+     */
+    public synchronized void iniciarFase(String nombre) {
+        if (!activa) return;
+        cerrarFase();
+        enCurso = new Inicio(nombre, System.nanoTime(), nanosCpu(), bytesHilo(), paradas.sum());
+    }
+
+    /**
+     * Termina la última fase y retira el MBean del servidor de la plataforma.
+     * @throws IllegalStateException si el MBean no puede retirarse.
+     */
+    public synchronized void terminar() {
+        if (!activa) return;
+        cerrarFase();
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(NOMBRE_JMX);
+            if (servidor.isRegistered(nombre)) servidor.unregisterMBean(nombre);
+        } catch (JMException e) {
+            throw new IllegalStateException("No se pudo retirar el MBean " + NOMBRE_JMX, e);
+        }
+    }
+
+    /**
+     * Obtiene las mediciones de las fases terminadas, en orden.
+     * @return Fases terminadas.
+     */
+    public synchronized List<Fase> getFases() {
+        return List.copyOf(fases);
+    }
+
+    /**
+     * Muestra en la vista las mediciones de cada fase, de cada hilo que atendió paradas
+     * y los contadores de la simulación. Debe invocarse después de {@link #terminar()}.
+     * @param vista Vista donde se muestra el resumen.
+     */
+    public void mostrarResumen(SimulacionOutput vista) {
+        if (!activa) return;
+        for (Fase fase : getFases()) {
+            vista.mostrarFaseInstrumentacion(fase.nombre(), fase.nanos() / NANOS_POR_MILISEGUNDO,
+                milisegundos(fase.nanosCpu()), fase.bytes());
+        }
+        for (HiloSimulacion hilo : hilos) {
+            long nanos = hilo.nanosUltima - hilo.nanosPrimera;
+            double bytesPorSegundo = hilo.getBytes() < 0 || nanos == 0 ? -1 : hilo.getBytes() * NANOS_POR_SEGUNDO / nanos;
+            vista.mostrarHiloInstrumentacion(hilo.nombre, hilo.paradas, hilo.nanosAtencion / NANOS_POR_MILISEGUNDO,
+                hilo.getBytes(), bytesPorSegundo);
+        }
+        vista.mostrarContadoresInstrumentacion(getParadasAtendidas(), getRitmoSimulacion(), getSubidas(), getBajadas(),
+            getSinLugar(), vista.getMensajesEscritos(), vista.getCaracteresEscritos());
+    }
+
+    @Override
+    public void alLlegarColectivo(long tiempo, Colectivo colectivo, Parada parada) {
+        hiloActual.get().llegada = System.nanoTime();
+    }
+
+    @Override
+    public void alAtenderParada(long tiempo, Colectivo colectivo, Parada parada,
+                                ListaPasajeros bajaron, ListaPasajeros subieron) {
+        HiloSimulacion hilo = hiloActual.get();
+        long ahora = System.nanoTime();
+        hilo.nanosAtencion += ahora - hilo.llegada;
+        hilo.nanosUltima = ahora;
+        hilo.bytesUltima = bytesHilo();
+        if (hilo.paradas++ == 0) {
+            hilo.nanosPrimera = ahora;
+            hilo.bytesPrimera = hilo.bytesUltima;
+        }
+        paradas.increment();
+        bajadas.add(bajaron.size());
+        subidas.add(subieron.size());
+    }
+
+    @Override
+    public void alQuedarPasajerosSinLugar(long tiempo, Colectivo colectivo, Parada parada, int esperando) {
+        sinLugar.add(esperando);
+    }
+
+    @Override
+    public String getFase() {
+        Inicio inicio = enCurso;
+        return inicio == null ? "" : inicio.nombre();
+    }
+
+    @Override
+    public long getMilisegundosFase() {
+        Inicio inicio = enCurso;
+        return inicio == null ? 0 : (System.nanoTime() - inicio.nanos()) / NANOS_POR_MILISEGUNDO;
+    }
+
+    @Override
+    public long getParadasAtendidas() {
+        return paradas.sum();
+    }
+
+    @Override
+    public long getSubidas() {
+        return subidas.sum();
+    }
+
+    @Override
+    public long getBajadas() {
+        return bajadas.sum();
+    }
+
+    @Override
+    public long getSinLugar() {
+        return sinLugar.sum();
+    }
+
+    @Override
+    public double getParadasPorSegundo() {
+        Inicio inicio = enCurso;
+        if (inicio == null) return 0;
+        long nanos = System.nanoTime() - inicio.nanos();
+        return nanos == 0 ? 0 : (paradas.sum() - inicio.paradas()) * NANOS_POR_SEGUNDO / nanos;
+    }
+
+    @Override
+    public long getMilisegundosAtencion() {
+        long nanos = 0;
+        for (HiloSimulacion hilo : hilos) {
+            nanos += hilo.nanosAtencion;
+        }
+        return nanos / NANOS_POR_MILISEGUNDO;
+    }
+
+    @Override
+    public long getBytesAsignados() {
+        if (memoria == null) return -1;
+        long bytes = 0;
+        for (HiloSimulacion hilo : hilos) {
+            bytes += Math.max(hilo.getBytes(), 0);
+        }
+        return bytes;
+    }
+
+    @Override
+    public synchronized String getResumen() {
+        StringBuilder texto = new StringBuilder();
+        for (Fase fase : fases) {
+            texto.append(String.format(Locale.ROOT, "%s: %d ms, CPU %d ms, asignado %d B%n", fase.nombre(),
+                fase.nanos() / NANOS_POR_MILISEGUNDO, milisegundos(fase.nanosCpu()), fase.bytes()));
+        }
+        for (HiloSimulacion hilo : hilos) {
+            texto.append(String.format(Locale.ROOT, "Hilo %s: %d paradas, atención %d ms, asignado %d B%n", hilo.nombre,
+                hilo.paradas, hilo.nanosAtencion / NANOS_POR_MILISEGUNDO, hilo.getBytes()));
+        }
+        texto.append(String.format(Locale.ROOT, "Paradas: %d (%.0f/s), subidas: %d, bajadas: %d, sin lugar: %d",
+            getParadasAtendidas(), getRitmoSimulacion(), getSubidas(), getBajadas(), getSinLugar()));
+        return texto.toString();
+    }
+
+    /**
+     * Calcula el ritmo de la simulación sobre las fases terminadas que atendieron paradas.
+     * @return Paradas atendidas por segundo en esas fases.
+     */
+    private synchronized double getRitmoSimulacion() {
+        long nanos = 0;
+        long atendidas = 0;
+        for (Fase fase : fases) {
+            if (fase.paradas() > 0) {
+                nanos += fase.nanos();
+                atendidas += fase.paradas();
+            }
+        }
+        return nanos == 0 ? 0 : atendidas * NANOS_POR_SEGUNDO / nanos;
+    }
+
+    /**
+     * Crea las mediciones del hilo actual la primera vez que atiende una parada.
+     */
+    private HiloSimulacion registrarHilo() {
+        HiloSimulacion hilo = new HiloSimulacion(Thread.currentThread().getName());
+        hilos.add(hilo);
+        return hilo;
+    }
+
+    /**
+     * Guarda las mediciones de la fase en curso como diferencia con las lecturas de su inicio.
+     */
+    private void cerrarFase() {
+        Inicio inicio = enCurso;
+        if (inicio == null) return;
+        fases.add(new Fase(inicio.nombre(), System.nanoTime() - inicio.nanos(),
+            diferencia(nanosCpu(), inicio.nanosCpu()), diferencia(bytesHilo(), inicio.bytes()),
+            paradas.sum() - inicio.paradas()));
+        enCurso = null;
+    }
+
+    private long nanosCpu() {
+        return cpu.isCurrentThreadCpuTimeSupported() ? cpu.getCurrentThreadCpuTime() : -1;
+    }
+
+    private long bytesHilo() {
+        return memoria == null ? -1 : memoria.getCurrentThreadAllocatedBytes();
+    }
+
+    private static long diferencia(long fin, long inicio) {
+        return fin < 0 || inicio < 0 ? -1 : fin - inicio;
+    }
+
+    private static long milisegundos(long nanos) {
+        return nanos < 0 ? -1 : nanos / NANOS_POR_MILISEGUNDO;
+    }
+}
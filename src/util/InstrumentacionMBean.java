@@ -0,0 +1,68 @@
+package util;
+
+/**
+ * Atributos de la instrumentación de una corrida que se exponen por JMX, por ejemplo en JConsole,
+ * bajo el nombre {@value Instrumentacion#NOMBRE_JMX}. Se leen mientras la simulación avanza.
+ */
+public interface InstrumentacionMBean {
+
+    /**
+     * Obtiene el nombre de la fase en curso.
+     * @return Fase en curso, o una cadena vacía si la corrida no comenzó o ya terminó.
+     */
+    String getFase();
+
+    /**
+     * Obtiene el tiempo transcurrido en la fase en curso.
+     * @return Milisegundos desde el inicio de la fase.
+     */
+    long getMilisegundosFase();
+
+    /**
+     * Obtiene la cantidad de paradas atendidas por los colectivos.
+     * @return Paradas atendidas.
+     */
+    long getParadasAtendidas();
+
+    /**
+     * Obtiene la cantidad de pasajeros que subieron.
+     * @return Subidas.
+     */
+    long getSubidas();
+
+    /**
+     * Obtiene la cantidad de pasajeros que bajaron.
+     * @return Bajadas.
+     */
+    long getBajadas();
+
+    /**
+     * Obtiene la cantidad de pasajeros que quedaron sin lugar, sumada en cada colectivo lleno.
+     * @return Subidas rechazadas.
+     */
+    long getSinLugar();
+
+    /**
+     * Obtiene el ritmo de la simulación en la fase en curso.
+     * @return Paradas atendidas por segundo desde el inicio de la fase.
+     */
+    double getParadasPorSegundo();
+
+    /**
+     * Obtiene el tiempo acumulado atendiendo paradas: bajadas, subidas y sus mensajes.
+     * @return Milisegundos de atención de paradas, sumados en todos los hilos.
+     */
+    long getMilisegundosAtencion();
+
+    /**
+     * Obtiene la memoria asignada por los hilos de la simulación entre su primera y su última parada atendida.
+     * @return Bytes asignados, o -1 si la JVM no lo informa.
+     */
+    long getBytesAsignados();
+
+    /**
+     * Obtiene el resumen de las fases terminadas y de los contadores, como texto.
+     * @return Resumen de la corrida.
+     */
+    String getResumen();
+}
@@ -0,0 +1,394 @@
+package util;
+
+import domain.AlmacenPasajeros;
+import domain.Colectivo;
+import domain.Linea;
+import domain.Parada;
+import domain.ListaPasajeros;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+import logic.ObservadorSimulacion;
+
+/**
+ * Calcula las estadísticas de la simulación a medida que ocurren los eventos, sin retener pasajeros.
+ * Cada pasajero se califica al subir y no vuelve a cambiar, por lo que su calificación se cuenta
+ * en ese momento; los que nunca suben se cuentan al final con calificación 1.
+ * Así los pasajeros que bajan pueden liberarse y la memoria no crece con la duración de la corrida.
+ *
+ * Lleva la distribución de calificaciones, el tiempo hasta subir, la ocupación de cada tramo
+ * y, por línea y por parada, las subidas, bajadas y pasajeros que quedaron sin lugar.
+ * Las distribuciones se guardan en {@link HistogramaEnteros}, de donde se obtienen los percentiles.
+ *
+ * La simulación paralela notifica desde varios hilos a la vez. Para no serializarlos en un monitor
+ * común, cada hilo acumula en sus propios contadores y las consultas los combinan al momento;
+ * como solo se suman, el resultado no depende de cómo se repartió el trabajo entre los hilos.
+ * Las consultas deben hacerse cuando la simulación no está notificando (por ejemplo, al terminar)
+ * y devuelven copias que no cambian con notificaciones posteriores.
+ */
+public class RecolectorEstadisticas implements ObservadorSimulacion {
+    private static final int CALIFICACION_MINIMA = 1;
+    private static final int CALIFICACION_MAXIMA = 5;
+
+    private final LongSupplier pasajerosGenerados;
+    private final List<Acumulado> acumulados = new CopyOnWriteArrayList<>();
+    private volatile ThreadLocal<Acumulado> acumuladoDelHilo = ThreadLocal.withInitial(this::nuevoAcumulado);
+
+    /**
+     * Subidas, bajadas, pasajeros sin lugar y ocupación al partir, acumulados para una línea o parada.
+     */
+    public static final class Contadores {
+        private long subidas;
+        private long bajadas;
+        private long sinLugar;
+        private final HistogramaEnteros ocupacion = new HistogramaEnteros();
+
+        /**
+         * Obtiene la cantidad de pasajeros que subieron.
+         * @return Cantidad de pasajeros que subieron.
+         */
+        public long getSubidas() {
+            return subidas;
+        }
+
+        /**
+         * Obtiene la cantidad de pasajeros que bajaron.
+         * @return Cantidad de pasajeros que bajaron.
+         */
+        public long getBajadas() {
+            return bajadas;
+        }
+
+        /**
+         * Obtiene la cantidad de pasajeros que quedaron esperando porque el colectivo estaba lleno.
+         * @return Cantidad de pasajeros que quedaron esperando porque el colectivo estaba lleno.
+         */
+        public long getSinLugar() {
+            return sinLugar;
+        }
+
+        /**
+         * Obtiene la distribución de la cantidad de pasajeros a bordo al partir de cada parada.
+         * @return Distribución de la cantidad de pasajeros a bordo al partir de cada parada.
+         */
+        public HistogramaEnteros getOcupacion() {
+            return ocupacion;
+        }
+
+        private void sumar(Contadores otros) {
+            subidas += otros.subidas;
+            bajadas += otros.bajadas;
+            sinLugar += otros.sinLugar;
+            ocupacion.sumar(otros.ocupacion);
+        }
+    }
+
+    /**
+     * Acumulados de un solo hilo; solo lo modifica el hilo que lo creó.
+     */
+    private static final class Acumulado {
+        private final long[] calificaciones = new long[CALIFICACION_MAXIMA + 1];
+        private final HistogramaEnteros esperaHastaSubir = new HistogramaEnteros();
+        private final HistogramaEnteros ocupacionPorTramo = new HistogramaEnteros();
+        private final Map<Linea, Contadores> porLinea = new HashMap<>();
+        private final Map<Parada, Contadores> porParada = new HashMap<>();
+        private long subidas = 0;
+        private long bajadas = 0;
+        private long sinLugar = 0;
+    }
+
+    /**
+     * Crea un recolector para una simulación con la cantidad de pasajeros indicada.
+     * @param pasajerosGenerados Cantidad total de pasajeros generados.
+     */
+    public RecolectorEstadisticas(long pasajerosGenerados) {
+        this(() -> pasajerosGenerados);
+    }
+
+    /**
+     * Crea un recolector para una simulación cuyos pasajeros se generan a medida que llegan.
+     * La cantidad se consulta al calcular los resultados, que cuentan a los generados hasta ese momento.
+     * @param pasajerosGenerados Devuelve la cantidad de pasajeros generados hasta el momento.
+     */
+    public RecolectorEstadisticas(LongSupplier pasajerosGenerados) {
+        this.pasajerosGenerados = pasajerosGenerados;
+    }
+
+    private Acumulado nuevoAcumulado() {
+        Acumulado acumulado = new Acumulado();
+        acumulados.add(acumulado);
+        return acumulado;
+    }
+
+    @Override
+    public void alAtenderParada(long tiempo, Colectivo colectivo, Parada parada,
+                                ListaPasajeros bajaron, ListaPasajeros subieron) {
+        Acumulado acumulado = acumuladoDelHilo.get();
+        AlmacenPasajeros almacen = subieron.getAlmacen();
+        for (int i = 0; i < subieron.size(); i++) {
+            int id = subieron.getId(i);
+            acumulado.calificaciones[almacen.getCalificacion(id)]++;
+            acumulado.esperaHastaSubir.registrar(tiempo - almacen.getTiempoLlegada(id));
+        }
+        acumulado.subidas += subieron.size();
+        acumulado.bajadas += bajaron.size();
+        acumulado.ocupacionPorTramo.registrar(colectivo.getCantidadPasajeros());
+
+        Contadores linea = acumulado.porLinea.computeIfAbsent(colectivo.getLinea(), l -> new Contadores());
+        linea.subidas += subieron.size();
+        linea.bajadas += bajaron.size();
+        linea.ocupacion.registrar(colectivo.getCantidadPasajeros());
+
+        Contadores enParada = acumulado.porParada.computeIfAbsent(parada, p -> new Contadores());
+        enParada.subidas += subieron.size();
+        enParada.bajadas += bajaron.size();
+        enParada.ocupacion.registrar(colectivo.getCantidadPasajeros());
+    }
+
+    @Override
+    public void alQuedarPasajerosSinLugar(long tiempo, Colectivo colectivo, Parada parada, int esperando) {
+        Acumulado acumulado = acumuladoDelHilo.get();
+        acumulado.sinLugar += esperando;
+        acumulado.porLinea.computeIfAbsent(colectivo.getLinea(), l -> new Contadores()).sinLugar += esperando;
+        acumulado.porParada.computeIfAbsent(parada, p -> new Contadores()).sinLugar += esperando;
+    }
+
+    /**
+     * Combina los acumulados de todos los hilos en uno nuevo.
+     */
+    private Acumulado combinar() {
+        Acumulado total = new Acumulado();
+        for (Acumulado acumulado : acumulados) {
+            for (int c = 0; c < total.calificaciones.length; c++) {
+                total.calificaciones[c] += acumulado.calificaciones[c];
+            }
+            total.esperaHastaSubir.sumar(acumulado.esperaHastaSubir);
+            total.ocupacionPorTramo.sumar(acumulado.ocupacionPorTramo);
+            acumulado.porLinea.forEach((linea, c) -> total.porLinea.computeIfAbsent(linea, l -> new Contadores()).sumar(c));
+            acumulado.porParada.forEach((parada, c) -> total.porParada.computeIfAbsent(parada, p -> new Contadores()).sumar(c));
+            total.subidas += acumulado.subidas;
+            total.bajadas += acumulado.bajadas;
+            total.sinLugar += acumulado.sinLugar;
+        }
+        return total;
+    }
+
+    /**
+     * Escribe los acumulados para un punto de control. Los contadores por línea se identifican
+     * por el código de la línea y los de cada parada por su ID.
+     * @param out Destino del estado.
+     * @throws IOException si no se puede escribir.
+     */
+    void guardarEstado(DataOutput out) throws IOException {
+        Acumulado total = combinar();
+        for (long cantidad : total.calificaciones) {
+            out.writeLong(cantidad);
+        }
+        total.esperaHastaSubir.guardarEstado(out);
+        total.ocupacionPorTramo.guardarEstado(out);
+        out.writeLong(total.subidas);
+        out.writeLong(total.bajadas);
+        out.writeLong(total.sinLugar);
+
+        out.writeInt(total.porLinea.size());
+        for (Map.Entry<Linea, Contadores> entrada : total.porLinea.entrySet()) {
+            out.writeUTF(entrada.getKey().getCodigo());
+            guardarContadores(out, entrada.getValue());
+        }
+        out.writeInt(total.porParada.size());
+        for (Map.Entry<Parada, Contadores> entrada : total.porParada.entrySet()) {
+            out.writeInt(entrada.getKey().getId());
+            guardarContadores(out, entrada.getValue());
+        }
+    }
+
+    /**
+     * Reemplaza los acumulados por los guardados con {@link #guardarEstado(DataOutput)}.
+     * Debe llamarse antes de reanudar la simulación, mientras nadie notifica.
+     * @param in Origen del estado.
+     * @param lineas Líneas de la red, por código.
+     * @param paradas Paradas de la red, por ID.
+     * @throws IOException si no se puede leer.
+     * @throws IllegalStateException si el estado nombra una línea o parada que no está en la red.
+     */
+    void restaurarEstado(DataInput in, Map<String, Linea> lineas, Map<Integer, Parada> paradas) throws IOException {
+        Acumulado restaurado = new Acumulado();
+        for (int c = 0; c < restaurado.calificaciones.length; c++) {
+            restaurado.calificaciones[c] = in.readLong();
+        }
+        restaurado.esperaHastaSubir.restaurarEstado(in);
+        restaurado.ocupacionPorTramo.restaurarEstado(in);
+        restaurado.subidas = in.readLong();
+        restaurado.bajadas = in.readLong();
+        restaurado.sinLugar = in.readLong();
+
+        int cantidadLineas = in.readInt();
+        for (int i = 0; i < cantidadLineas; i++) {
+            String codigo = in.readUTF();
+            Linea linea = lineas.get(codigo);
+            if (linea == null) throw new IllegalStateException("La línea " + codigo + " no está en la red");
+            restaurado.porLinea.put(linea, restaurarContadores(in));
+        }
+        int cantidadParadas = in.readInt();
+        for (int i = 0; i < cantidadParadas; i++) {
+            int id = in.readInt();
+            Parada parada = paradas.get(id);
+            if (parada == null) throw new IllegalStateException("La parada " + id + " no está en la red");
+            restaurado.porParada.put(parada, restaurarContadores(in));
+        }
+
+        // Los acumulados anteriores se descartan; los hilos que vuelvan a notificar crean uno nuevo
+        acumulados.clear();
+        acumulados.add(restaurado);
+        acumuladoDelHilo = ThreadLocal.withInitial(this::nuevoAcumulado);
+    }
+
+    private static void guardarContadores(DataOutput out, Contadores contadores) throws IOException {
+        out.writeLong(contadores.subidas);
+        out.writeLong(contadores.bajadas);
+        out.writeLong(contadores.sinLugar);
+        contadores.ocupacion.guardarEstado(out);
+    }
+
+    private static Contadores restaurarContadores(DataInput in) throws IOException {
+        Contadores contadores = new Contadores();
+        contadores.subidas = in.readLong();
+        contadores.bajadas = in.readLong();
+        contadores.sinLugar = in.readLong();
+        contadores.ocupacion.restaurarEstado(in);
+        return contadores;
+    }
+
+    /**
+     * Calcula el índice de satisfacción: la suma de las calificaciones dividida por el máximo posible.
+     * Los pasajeros que no llegaron a subir cuentan con la calificación mínima.
+     * @return Índice de satisfacción entre 0 y 1.
+     */
+    public double getIndiceSatisfaccion() {
+        long suma = 0;
+        long[] distribucion = getDistribucionCalificaciones();
+        for (int c = CALIFICACION_MINIMA; c <= CALIFICACION_MAXIMA; c++) {
+            suma += c * distribucion[c];
+        }
+        return (double) suma / (pasajerosGenerados.getAsLong() * CALIFICACION_MAXIMA);
+    }
+
+    /**
+     * Obtiene la cantidad de pasajeros con cada calificación, contando con calificación mínima
+     * a los que no llegaron a subir.
+     * @return Arreglo indexado por calificación (de 1 a 5); la posición 0 no se usa.
+     */
+    public long[] getDistribucionCalificaciones() {
+        long[] distribucion = new long[CALIFICACION_MAXIMA + 1];
+        for (Acumulado acumulado : acumulados) {
+            for (int c = 0; c < distribucion.length; c++) {
+                distribucion[c] += acumulado.calificaciones[c];
+            }
+        }
+        distribucion[CALIFICACION_MINIMA] += Math.max(pasajerosGenerados.getAsLong() - getSubidas(), 0);
+        return distribucion;
+    }
+
+    /**
+     * Obtiene la distribución del tiempo que cada pasajero esperó en su parada hasta subir,
+     * desde su llegada, en pasos o en segundos simulados según el motor.
+     * @return Copia del histograma del tiempo hasta subir.
+     */
+    public HistogramaEnteros getEsperaHastaSubir() {
+        HistogramaEnteros espera = new HistogramaEnteros();
+        acumulados.forEach(a -> espera.sumar(a.esperaHastaSubir));
+        return espera;
+    }
+
+    /**
+     * Obtiene la distribución de la cantidad de pasajeros a bordo al partir de cada parada.
+     * @return Copia del histograma de la ocupación por tramo.
+     */
+    public HistogramaEnteros getOcupacionPorTramo() {
+        HistogramaEnteros ocupacion = new HistogramaEnteros();
+        acumulados.forEach(a -> ocupacion.sumar(a.ocupacionPorTramo));
+        return ocupacion;
+    }
+
+    /**
+     * Obtiene los contadores de una línea.
+     * @param linea Línea consultada.
+     * @return Copia de los contadores de la línea, o null si ningún colectivo la recorrió.
+     */
+    public Contadores getContadores(Linea linea) {
+        Contadores total = null;
+        for (Acumulado acumulado : acumulados) {
+            Contadores contadores = acumulado.porLinea.get(linea);
+            if (contadores == null) continue;
+            if (total == null) total = new Contadores();
+            total.sumar(contadores);
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene las paradas donde más pasajeros quedaron sin lugar, de mayor a menor.
+     * @param cantidad Cantidad máxima de paradas a devolver.
+     * @return Paradas con pasajeros sin lugar, ordenadas por esa cantidad y luego por ID, con copias de sus contadores.
+     */
+    public List<Map.Entry<Parada, Contadores>> getParadasConMasSinLugar(int cantidad) {
+        List<Map.Entry<Parada, Contadores>> paradas = new ArrayList<>();
+        for (Map.Entry<Parada, Contadores> entrada : combinar().porParada.entrySet()) {
+            if (entrada.getValue().sinLugar > 0) paradas.add(entrada);
+        }
+        paradas.sort(Comparator.comparingLong((Map.Entry<Parada, Contadores> e) -> -e.getValue().sinLugar)
+            .thenComparingInt(e -> e.getKey().getId()));
+        return paradas.subList(0, Math.min(cantidad, paradas.size()));
+    }
+
+    /**
+     * Obtiene la cantidad total de pasajeros generados.
+     * @return Cantidad total de pasajeros generados.
+     */
+    public long getPasajerosGenerados() {
+        return pasajerosGenerados.getAsLong();
+    }
+
+    /**
+     * Obtiene la cantidad total de subidas.
+     * @return Cantidad total de subidas.
+     */
+    public long getSubidas() {
+        long subidas = 0;
+        for (Acumulado acumulado : acumulados) {
+            subidas += acumulado.subidas;
+        }
+        return subidas;
+    }
+
+    /**
+     * Obtiene la cantidad total de bajadas.
+     * @return Cantidad total de bajadas.
+     */
+    public long getBajadas() {
+        long bajadas = 0;
+        for (Acumulado acumulado : acumulados) {
+            bajadas += acumulado.bajadas;
+        }
+        return bajadas;
+    }
+
+    /**
+     * Obtiene la cantidad total de pasajeros que quedaron sin lugar, sumada en cada colectivo lleno.
+     * @return Cantidad total de pasajeros que quedaron sin lugar, sumada en cada colectivo lleno.
+     */
+    public long getSinLugar() {
+        long sinLugar = 0;
+        for (Acumulado acumulado : acumulados) {
+            sinLugar += acumulado.sinLugar;
+        }
+        return sinLugar;
+    }
+}
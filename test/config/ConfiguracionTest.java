@@ -0,0 +1,67 @@
+package config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+import presentacion.NivelDetalle;
+
+/**
+ * Verifica la validación de la configuración al cargarla.
+ */
+class ConfiguracionTest {
+
+    private static Properties propiedades(String... claveValor) {
+        Properties properties = Configuracion.leerPropiedades(Configuracion.ARCHIVO_CONFIG);
+        for (int i = 0; i < claveValor.length; i += 2) {
+            properties.setProperty(claveValor[i], claveValor[i + 1]);
+        }
+        return properties;
+    }
+
+    @Test
+    void elNivelDeDetalleSeLeeAlCargar() {
+        Configuracion config = Configuracion.desde(propiedades("nivelDetalle", " Parada "));
+
+        assertEquals(NivelDetalle.PARADA, config.getNivelDetalle());
+    }
+
+    @Test
+    void rechazaUnNivelDeDetalleDesconocido() {
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+            () -> Configuracion.desde(propiedades("nivelDetalle", "pasajeros")));
+
+        assertTrue(error.getMessage().contains("nivelDetalle"));
+    }
+
+    @Test
+    void rechazaMasAsientosQueCapacidad() {
+        assertThrows(IllegalStateException.class,
+            () -> Configuracion.desde(propiedades("cantidadPasajeros", "30", "cantidadAsientos", "31")));
+    }
+
+    @Test
+    void admiteTantosAsientosComoCapacidad() {
+        Configuracion config = Configuracion.desde(propiedades("cantidadPasajeros", "30", "cantidadAsientos", "30"));
+
+        assertEquals(30, config.getCantidadAsientos());
+    }
+
+    @Test
+    void rechazaElRegistroDeEventosConVariosHilos() {
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+            () -> Configuracion.desde(propiedades("archivoRegistroEventos", "eventos.bin", "hilosSimulacion", "2")));
+
+        assertTrue(error.getMessage().contains("archivoRegistroEventos"));
+    }
+
+    @Test
+    void rechazaTiemposDeViajeNulosAlParticionarPorLinea() {
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> Configuracion.desde(propiedades(
+            "hilosSimulacion", "2", "particionParalela", "lineas", "modoSimulacion", "eventos", "tiemposTramo", "1-2:0")));
+
+        assertTrue(error.getMessage().contains("tiemposTramo"));
+    }
+}
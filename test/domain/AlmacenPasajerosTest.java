@@ -0,0 +1,145 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Verifica las dos implementaciones del almacén de pasajeros, con los tres modos de almacenamiento.
+ */
+class AlmacenPasajerosTest {
+    private static final Parada ORIGEN = new Parada(1, "Origen");
+    private static final Parada DESTINO = new Parada(2, "Destino");
+
+    @TempDir
+    Path directorio;
+
+    private Supplier<AlmacenPasajeros> almacen(String tipo) {
+        return switch (tipo) {
+            case "heap" -> () -> new AlmacenPasajerosEnArreglos(16);
+            case "directo" -> () -> AlmacenPasajerosFueraDeHeap.enMemoriaDirecta(16);
+            default -> () -> AlmacenPasajerosFueraDeHeap.enArchivo(directorio.resolve("pasajeros.bin").toString(), 16);
+        };
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"heap", "directo", "archivo"})
+    void guardaLosDatosDeCadaPasajero(String tipo) {
+        try (AlmacenPasajeros pasajeros = almacen(tipo).get()) {
+            int primero = pasajeros.agregar(ORIGEN, DESTINO);
+            int segundo = pasajeros.agregar(DESTINO, ORIGEN, 300);
+
+            assertEquals(0, primero);
+            assertEquals(1, segundo);
+            assertEquals(2, pasajeros.getCantidad());
+            assertSame(ORIGEN, pasajeros.getOrigen(primero));
+            assertSame(DESTINO, pasajeros.getDestino(primero));
+            assertEquals(300, pasajeros.getTiempoLlegada(segundo));
+            assertEquals(AlmacenPasajeros.ESPERANDO, pasajeros.getEstado(segundo));
+            assertEquals(AlmacenPasajeros.SIN_CALIFICAR, pasajeros.getCalificacion(segundo));
+
+            pasajeros.incrementarEspera(segundo);
+            pasajeros.calificarAlSubir(segundo, 0, 10);
+            assertEquals(1, pasajeros.getColectivosEsperados(segundo));
+            assertEquals(3, pasajeros.getCalificacion(segundo));
+            assertEquals(AlmacenPasajeros.A_BORDO, pasajeros.getEstado(segundo));
+            assertEquals(AlmacenPasajeros.ESPERANDO, pasajeros.getEstado(primero));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"heap", "directo"})
+    void liberaLosSegmentosCompletosSinPasajeros(String tipo) {
+        try (AlmacenPasajeros pasajeros = almacen(tipo).get()) {
+            int cantidad = 100;
+            for (int i = 0; i < cantidad; i++) {
+                pasajeros.agregar(ORIGEN, DESTINO);
+            }
+            for (int i = 0; i < cantidad - 1; i++) {
+                pasajeros.registrarBajada(i);
+            }
+
+            assertFalse(pasajeros.estaDisponible(0));
+            assertTrue(pasajeros.estaDisponible(cantidad - 1));
+            assertEquals(AlmacenPasajeros.ESPERANDO, pasajeros.getEstado(cantidad - 1));
+            assertEquals(cantidad, pasajeros.getCantidad());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"heap", "directo"})
+    void liberaLosSegmentosAunqueBajenPasajerosDesdeVariosHilos(String tipo) throws InterruptedException {
+        try (AlmacenPasajeros pasajeros = almacen(tipo).get()) {
+            int cantidad = 16 * 64 + 1;
+            for (int i = 0; i < cantidad; i++) {
+                pasajeros.agregar(ORIGEN, DESTINO);
+            }
+            // Cada hilo da de baja pasajeros intercalados, de modo que todos comparten cada segmento
+            int cantidadHilos = 4;
+            Thread[] hilos = new Thread[cantidadHilos];
+            for (int h = 0; h < cantidadHilos; h++) {
+                int primero = h;
+                hilos[h] = new Thread(() -> {
+                    for (int i = primero; i < cantidad - 1; i += cantidadHilos) {
+                        pasajeros.registrarBajada(i);
+                    }
+                });
+                hilos[h].start();
+            }
+            for (Thread hilo : hilos) {
+                hilo.join();
+            }
+
+            for (int id = 0; id < cantidad - 1; id += 16) {
+                assertFalse(pasajeros.estaDisponible(id), "segmento del pasajero " + id);
+            }
+            assertTrue(pasajeros.estaDisponible(cantidad - 1));
+        }
+    }
+
+    @Test
+    void conservaLosSegmentosDelArchivo() {
+        try (AlmacenPasajeros pasajeros = almacen("archivo").get()) {
+            for (int i = 0; i < 100; i++) {
+                pasajeros.registrarBajada(pasajeros.agregar(ORIGEN, DESTINO));
+            }
+
+            assertTrue(pasajeros.estaDisponible(0));
+            assertEquals(AlmacenPasajeros.BAJO, pasajeros.getEstado(0));
+        }
+    }
+
+    @Test
+    void noDejaElArchivoAlCerrar() {
+        Path archivo = directorio.resolve("pasajeros.bin");
+        AlmacenPasajeros pasajeros = almacen("archivo").get();
+        for (int i = 0; i < 100; i++) {
+            pasajeros.agregar(ORIGEN, DESTINO);
+        }
+        pasajeros.close();
+
+        assertFalse(Files.exists(archivo));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"heap", "directo", "archivo"})
+    void conservaElUltimoSegmentoAunqueNoTengaPasajeros(String tipo) {
+        try (AlmacenPasajeros pasajeros = almacen(tipo).get()) {
+            int id = pasajeros.agregar(ORIGEN, DESTINO);
+            pasajeros.registrarBajada(id);
+
+            assertTrue(pasajeros.estaDisponible(id));
+            assertEquals(AlmacenPasajeros.BAJO, pasajeros.getEstado(id));
+            assertEquals(1, pasajeros.agregar(ORIGEN, DESTINO));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import benchmark.RedSintetica;
+import domain.Linea;
+import domain.Red;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import presentacion.SimulacionOutput;
+
+/**
+ * Verifica que la caché de la red reproduzca la red de los archivos de texto
+ * y que se descarte cuando esos archivos cambian.
+ */
+class CacheRedTest {
+    private static final Advertencias SIN_ADVERTENCIAS = new Advertencias() {
+        @Override
+        public void paradaNoEncontrada(int idParada) {}
+
+        @Override
+        public void paradaNoValida(String idParada) {}
+    };
+
+    @TempDir
+    Path directorio;
+
+    private Path archivoParadas;
+    private Path archivoLineas;
+
+    @BeforeEach
+    void escribirRed() {
+        archivoParadas = directorio.resolve("parada.txt");
+        archivoLineas = directorio.resolve("linea.txt");
+        new RedSintetica(10, 4).escribirArchivos(archivoParadas, archivoLineas);
+    }
+
+    private Red cargarDeTexto() {
+        return new Datos(archivoParadas.toString(), archivoLineas.toString(), SimulacionOutput.crearSilenciosa())
+            .cargarRed(false);
+    }
+
+    private static List<String> recorridos(Red red) {
+        List<String> recorridos = new ArrayList<>();
+        for (Linea linea : red.lineas()) {
+            StringBuilder sb = new StringBuilder(linea.getCodigo());
+            linea.getParadas().forEach(p -> sb.append(';').append(p.getId()).append('=').append(p.getDireccion()));
+            recorridos.add(sb.toString());
+        }
+        return recorridos;
+    }
+
+    @Test
+    void laCacheGuardadaReproduceLaRed() {
+        CacheRed cache = new CacheRed(archivoParadas.toString(), archivoLineas.toString());
+        assertNull(cache.leer(SIN_ADVERTENCIAS));
+        Red red = cargarDeTexto();
+        assertTrue(cache.guardar(red, new RegistroAdvertencias()));
+
+        Red leida = new CacheRed(archivoParadas.toString(), archivoLineas.toString()).leer(SIN_ADVERTENCIAS);
+
+        assertNotNull(leida);
+        assertEquals(red.paradas().keySet(), leida.paradas().keySet());
+        assertEquals(recorridos(red), recorridos(leida));
+    }
+
+    @Test
+    void seDescartaSiCambiaElArchivoDeLineas() throws IOException {
+        CacheRed cache = new CacheRed(archivoParadas.toString(), archivoLineas.toString());
+        cache.leer(SIN_ADVERTENCIAS);
+        assertTrue(cache.guardar(cargarDeTexto(), new RegistroAdvertencias()));
+
+        Files.writeString(archivoLineas, "S9;1;2;\n", StandardOpenOption.APPEND);
+
+        assertNull(new CacheRed(archivoParadas.toString(), archivoLineas.toString()).leer(SIN_ADVERTENCIAS));
+    }
+
+    @Test
+    void conElMismoTamanoYFechaNoLeeLosArchivos() throws IOException {
+        CacheRed cache = new CacheRed(archivoParadas.toString(), archivoLineas.toString());
+        cache.leer(SIN_ADVERTENCIAS);
+        assertTrue(cache.guardar(cargarDeTexto(), new RegistroAdvertencias()));
+        FileTime fecha = Files.getLastModifiedTime(archivoParadas);
+
+        // Mismo tamaño y misma fecha: la caché se usa sin calcular el CRC, aunque el contenido haya cambiado
+        Files.writeString(archivoParadas, Files.readString(archivoParadas).replace("Calle 1,", "Calle 9,"));
+        Files.setLastModifiedTime(archivoParadas, fecha);
+        Red leida = new CacheRed(archivoParadas.toString(), archivoLineas.toString()).leer(SIN_ADVERTENCIAS);
+
+        assertNotNull(leida);
+        assertTrue(leida.paradas().get(1).getDireccion().startsWith("Calle 1,"));
+    }
+
+    @Test
+    void siSoloCambiaLaFechaComparaElContenido() throws IOException {
+        CacheRed cache = new CacheRed(archivoParadas.toString(), archivoLineas.toString());
+        cache.leer(SIN_ADVERTENCIAS);
+        assertTrue(cache.guardar(cargarDeTexto(), new RegistroAdvertencias()));
+        FileTime posterior = FileTime.fromMillis(Files.getLastModifiedTime(archivoParadas).toMillis() + 60_000);
+
+        Files.setLastModifiedTime(archivoParadas, posterior);
+        assertNotNull(new CacheRed(archivoParadas.toString(), archivoLineas.toString()).leer(SIN_ADVERTENCIAS));
+
+        Files.writeString(archivoParadas, Files.readString(archivoParadas).replace("Calle 1,", "Calle 9,"));
+        Files.setLastModifiedTime(archivoParadas, FileTime.fromMillis(posterior.toMillis() + 60_000));
+        assertNull(new CacheRed(archivoParadas.toString(), archivoLineas.toString()).leer(SIN_ADVERTENCIAS));
+    }
+
+    @Test
+    void borraElTemporalSiNoPuedeGuardar() throws IOException {
+        Path destino = Path.of(archivoLineas + ".red");
+        Files.createDirectory(destino);
+        Files.writeString(destino.resolve("ocupado"), "x"); // Un directorio no vacío no se puede reemplazar
+        CacheRed cache = new CacheRed(archivoParadas.toString(), archivoLineas.toString());
+        assertNull(cache.leer(SIN_ADVERTENCIAS));
+
+        assertFalse(cache.guardar(cargarDeTexto(), new RegistroAdvertencias()));
+        assertFalse(Files.exists(Path.of(destino + ".tmp")));
+    }
+
+    @Test
+    void laCargaUsaLaCacheEnLaSegundaCorrida() {
+        Datos datos = new Datos(archivoParadas.toString(), archivoLineas.toString(), SimulacionOutput.crearSilenciosa());
+        Red primera = datos.cargarRed(true);
+        assertTrue(Files.isRegularFile(Path.of(archivoLineas + ".red")));
+
+        Red segunda = datos.cargarRed(true);
+
+        assertEquals(recorridos(primera), recorridos(segunda));
+    }
+}
@@ -0,0 +1,119 @@
+package logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import config.Configuracion;
+import domain.AlmacenPasajeros;
+import domain.Colectivo;
+import domain.Linea;
+import domain.ListaPasajeros;
+import domain.Parada;
+import io.Datos;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+import presentacion.SimulacionOutput;
+import util.AdministracionColectivos;
+import util.AdministracionPasajeros;
+
+/**
+ * Verifica el motor de eventos sobre la red de los archivos de datos.
+ */
+class SimuladorEventosTest {
+
+    private static Configuracion configuracion(String... claveValor) {
+        Properties properties = Configuracion.leerPropiedades(Configuracion.ARCHIVO_CONFIG);
+        properties.setProperty("modoSimulacion", "eventos");
+        properties.setProperty("semilla", "7");
+        for (int i = 0; i < claveValor.length; i += 2) {
+            properties.setProperty(claveValor[i], claveValor[i + 1]);
+        }
+        return Configuracion.desde(properties);
+    }
+
+    /**
+     * Ejecuta una corrida y devuelve cada atención de parada, en orden, como texto.
+     */
+    private static List<String> simular(Configuracion config) {
+        List<Linea> lineas = new Datos(config.getArchivoParadas(), config.getArchivoLineas(),
+            SimulacionOutput.crearSilenciosa()).cargarRed(false).lineas();
+        List<Colectivo> colectivos = AdministracionColectivos.generarColectivos(lineas, config);
+        List<String> traza = new ArrayList<>();
+        AlmacenPasajeros pasajeros = new AdministracionPasajeros(config).generarPasajeros(lineas);
+        try {
+            SimuladorEventos simulador = new SimuladorEventos(colectivos, SimulacionOutput.crearSilenciosa(), config);
+            simulador.setObservador(new ObservadorSimulacion() {
+                @Override
+                public void alAtenderParada(long tiempo, Colectivo colectivo, Parada parada,
+                                            ListaPasajeros bajaron, ListaPasajeros subieron) {
+                    traza.add(tiempo + " " + colectivo.getId() + " " + parada.getId()
+                        + " -" + bajaron.size() + " +" + subieron.size());
+                }
+
+                @Override
+                public void alFinalizarRecorrido(long tiempo, Colectivo colectivo) {
+                    traza.add(tiempo + " " + colectivo.getId() + " fin");
+                }
+            });
+            simulador.ejecutar();
+        } finally {
+            pasajeros.close();
+        }
+        return traza;
+    }
+
+    @Test
+    void laMismaSemillaProduceLaMismaCorrida() {
+        Configuracion config = configuracion();
+
+        assertEquals(simular(config), simular(config));
+    }
+
+    @Test
+    void cadaColectivoCompletaSusVueltas() {
+        Configuracion config = configuracion("maxVueltas", "3", "colectivosPorLinea", "2");
+        List<String> traza = simular(config);
+
+        long fines = traza.stream().filter(e -> e.endsWith(" fin")).count();
+        List<Linea> lineas = new Datos(config.getArchivoParadas(), config.getArchivoLineas(),
+            SimulacionOutput.crearSilenciosa()).cargarRed(false).lineas();
+        assertEquals(lineas.size() * 2L * 3, fines);
+    }
+
+    @Test
+    void cadaTramoUsaSuPropioTiempoDeViaje() {
+        Configuracion config = configuracion("tiemposTramo", "1-2:100,2-3:300",
+            "tiempoDetencion", "20", "maxVueltas", "1", "colectivosPorLinea", "1", "frecuenciaDespacho", "0");
+        Linea linea = Linea.builder("T").agregarParada(new Parada(1, "Uno")).agregarParada(new Parada(2, "Dos"))
+            .agregarParada(new Parada(3, "Tres")).agregarParada(new Parada(4, "Cuatro")).construir();
+        List<Long> llegadas = new ArrayList<>();
+        SimuladorEventos simulador = new SimuladorEventos(
+            List.of(new Colectivo(0, linea, 10, 5)), SimulacionOutput.crearSilenciosa(), config);
+        simulador.setObservador(new ObservadorSimulacion() {
+            @Override
+            public void alLlegarColectivo(long tiempo, Colectivo colectivo, Parada parada) {
+                llegadas.add(tiempo);
+            }
+        });
+        simulador.ejecutar();
+
+        // Sin pasajeros, cada parada demora la detención; el tramo 3-4 no figura y usa tiempoEntreParadas
+        assertEquals(List.of(0L, 120L, 440L, 440L + 20 + config.getTiempoEntreParadas()), llegadas);
+    }
+
+    @Test
+    void losEventosAvanzanEnElTiempo() {
+        List<String> traza = simular(configuracion());
+
+        assertFalse(traza.isEmpty());
+        long anterior = 0;
+        for (String evento : traza) {
+            long tiempo = Long.parseLong(evento.substring(0, evento.indexOf(' ')));
+            assertTrue(tiempo >= anterior, evento);
+            anterior = tiempo;
+        }
+    }
+}
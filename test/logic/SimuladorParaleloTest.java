@@ -0,0 +1,185 @@
+package logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import benchmark.RedSintetica;
+import config.Configuracion;
+import domain.AlmacenPasajeros;
+import domain.Colectivo;
+import domain.Linea;
+import domain.Parada;
+import io.Datos;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import presentacion.SimulacionOutput;
+import util.AdministracionColectivos;
+import util.AdministracionPasajeros;
+import util.GeneradorRed;
+import util.RecolectorEstadisticas;
+
+/**
+ * Verifica la simulación paralela contra la secuencial, con grupos sin paradas en común
+ * y con paradas compartidas entre grupos.
+ */
+class SimuladorParaleloTest {
+    private static final int HILOS = 3;
+
+    @TempDir
+    Path directorio;
+
+    private static Configuracion configuracion(String modo, int hilos, String particion) {
+        Properties properties = Configuracion.leerPropiedades(Configuracion.ARCHIVO_CONFIG);
+        properties.setProperty("modoSimulacion", modo);
+        properties.setProperty("semilla", "7");
+        properties.setProperty("hilosSimulacion", String.valueOf(hilos));
+        properties.setProperty("particionParalela", particion);
+        properties.setProperty("colectivosPorLinea", "2");
+        return Configuracion.desde(properties);
+    }
+
+    /**
+     * Genera una red de seis líneas sin paradas en común: cada línea es un componente.
+     */
+    private void generarRedDeComponentes() {
+        new GeneradorRed(60, 6, 5, 10, 0, 1).generar(directorio.resolve("paradas.txt"), directorio.resolve("lineas.txt"));
+    }
+
+    /**
+     * Genera un anillo de seis líneas en el que cada una comparte la mitad del recorrido con la siguiente.
+     */
+    private void generarRedCompartida() {
+        new RedSintetica(8, 6).escribirArchivos(directorio.resolve("paradas.txt"), directorio.resolve("lineas.txt"));
+    }
+
+    /**
+     * Carga la red generada; cada corrida necesita la suya porque las paradas guardan a los pasajeros que esperan.
+     */
+    private List<Linea> cargarRed() {
+        return new Datos(directorio.resolve("paradas.txt").toString(), directorio.resolve("lineas.txt").toString(),
+            SimulacionOutput.crearSilenciosa()).cargarRed(false).lineas();
+    }
+
+    /**
+     * Ejecuta una corrida y resume su resultado: totales de pasajeros, satisfacción y ocupación de cada colectivo.
+     * @param hilosUsados Recibe los hilos que atendieron paradas.
+     */
+    private List<Object> simular(Configuracion config, Set<Thread> hilosUsados) {
+        List<Linea> lineas = cargarRed();
+        List<Colectivo> colectivos = AdministracionColectivos.generarColectivos(lineas, config);
+        try (AlmacenPasajeros pasajeros = new AdministracionPasajeros(config).generarPasajeros(lineas)) {
+            RecolectorEstadisticas estadisticas = new RecolectorEstadisticas(pasajeros::getCantidad);
+            ObservadorSimulacion observador = ObservadorSimulacion.combinar(List.of(estadisticas, new ObservadorSimulacion() {
+                @Override
+                public void alLlegarColectivo(long tiempo, Colectivo colectivo, Parada parada) {
+                    hilosUsados.add(Thread.currentThread());
+                }
+            }));
+            SimulacionOutput vista = SimulacionOutput.crearSilenciosa();
+            if (config.getHilosSimulacion() > 1) {
+                SimuladorParalelo simulador = new SimuladorParalelo(colectivos, vista, config);
+                simulador.setObservador(observador);
+                simulador.ejecutar();
+            } else if (config.usarMotorEventos()) {
+                SimuladorEventos simulador = new SimuladorEventos(colectivos, vista, config);
+                simulador.setObservador(observador);
+                simulador.ejecutar();
+            } else {
+                Simulador simulador = new Simulador(colectivos, vista, config);
+                simulador.setObservador(observador);
+                simulador.ejecutar();
+            }
+
+            List<Object> resultado = new ArrayList<>(List.of(estadisticas.getSubidas(), estadisticas.getBajadas(),
+                estadisticas.getSinLugar(), estadisticas.getIndiceSatisfaccion()));
+            for (Colectivo colectivo : colectivos) {
+                resultado.add(colectivo.getSumaOcupacion());
+            }
+            return resultado;
+        }
+    }
+
+    private List<Object> simular(Configuracion config) {
+        return simular(config, ConcurrentHashMap.newKeySet());
+    }
+
+    private List<List<Colectivo>> grupos(Configuracion config) {
+        List<Colectivo> colectivos = AdministracionColectivos.generarColectivos(cargarRed(), config);
+        return new SimuladorParalelo(colectivos, SimulacionOutput.crearSilenciosa(), config).agrupar();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"eventos", "pasos"})
+    void porComponentesCoincideConLaSimulacionSecuencial(String modo) {
+        generarRedDeComponentes();
+        Configuracion paralela = configuracion(modo, HILOS, "componentes");
+        List<List<Colectivo>> grupos = grupos(paralela);
+        assertEquals(HILOS, grupos.size());
+        assertTrue(SimuladorParalelo.crearParadasCompartidas(grupos).isEmpty());
+
+        Set<Thread> hilosUsados = ConcurrentHashMap.newKeySet();
+        List<Object> resultado = simular(paralela, hilosUsados);
+
+        assertEquals(HILOS, hilosUsados.size());
+        assertEquals(simular(configuracion(modo, 1, "componentes")), resultado);
+    }
+
+    @Test
+    void porLineasEnPasosCoincideConLaSimulacionSecuencial() {
+        generarRedCompartida();
+        Configuracion paralela = configuracion("pasos", HILOS, "lineas");
+        assertFalse(SimuladorParalelo.crearParadasCompartidas(grupos(paralela)).isEmpty());
+
+        Set<Thread> hilosUsados = ConcurrentHashMap.newKeySet();
+        List<Object> resultado = simular(paralela, hilosUsados);
+
+        assertEquals(HILOS, hilosUsados.size());
+        assertEquals(simular(configuracion("pasos", 1, "lineas")), resultado);
+    }
+
+    @Test
+    void porLineasEnEventosEsDeterminista() {
+        generarRedCompartida();
+        Configuracion paralela = configuracion("eventos", HILOS, "lineas");
+        assertFalse(SimuladorParalelo.crearParadasCompartidas(grupos(paralela)).isEmpty());
+
+        List<Object> primera = simular(paralela);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(primera, simular(paralela));
+        }
+        assertEquals(primera.get(0), primera.get(1)); // Todos los que subieron bajaron
+    }
+
+    @Test
+    void unaParadaCompartidaRespetaLosTurnosDeOtrosGrupos() throws InterruptedException {
+        ParadaCompartida parada = new ParadaCompartida();
+        parada.reservar(20, 0, 0);
+        parada.reservar(10, 1, 1);
+        parada.planificar();
+        List<Integer> atendidos = Collections.synchronizedList(new ArrayList<>());
+
+        // El turno del grupo 0 es posterior en el tiempo simulado: espera al grupo 1 aunque lo pida antes
+        Thread grupoCero = new Thread(() -> {
+            parada.esperarTurno(0);
+            atendidos.add(0);
+            parada.cederTurno();
+        });
+        grupoCero.start();
+        parada.esperarTurno(1);
+        atendidos.add(1);
+        parada.cederTurno();
+        grupoCero.join();
+
+        assertEquals(List.of(1, 0), atendidos);
+    }
+}
@@ -0,0 +1,188 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import config.Configuracion;
+import domain.AlmacenPasajeros;
+import domain.AlmacenPasajerosEnArreglos;
+import domain.Colectivo;
+import domain.Linea;
+import io.Datos;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import logic.Simulador;
+import logic.SimuladorEventos;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import presentacion.SimulacionOutput;
+
+/**
+ * Verifica que una simulación reanudada desde un punto de control termine igual que sin interrumpirla.
+ */
+class ArchivoPuntoControlTest {
+
+    @TempDir
+    Path directorio;
+
+    private Configuracion configuracion() {
+        return configuracion("pasos", "inicio", 10);
+    }
+
+    private Configuracion configuracion(String modo, String llegadas, int intervalo) {
+        Properties properties = Configuracion.leerPropiedades(Configuracion.ARCHIVO_CONFIG);
+        properties.setProperty("modoSimulacion", modo);
+        properties.setProperty("llegadaPasajeros", llegadas);
+        properties.setProperty("semilla", "7");
+        properties.setProperty("maxVueltas", "3");
+        properties.setProperty("intervaloPuntoControl", String.valueOf(intervalo));
+        properties.setProperty("archivoPuntoControl", directorio.resolve("pc-" + ArchivoPuntoControl.PASO + ".bin").toString());
+        return Configuracion.desde(properties);
+    }
+
+    private static List<Linea> cargarLineas(Configuracion config) {
+        return new Datos(config.getArchivoParadas(), config.getArchivoLineas(), SimulacionOutput.crearSilenciosa())
+            .cargarRed(false).lineas();
+    }
+
+    private static List<Object> resultado(RecolectorEstadisticas estadisticas, List<Colectivo> colectivos) {
+        List<Object> resultado = new ArrayList<>(List.of(estadisticas.getSubidas(), estadisticas.getBajadas(),
+            estadisticas.getSinLugar(), estadisticas.getIndiceSatisfaccion(), estadisticas.getPasajerosGenerados()));
+        for (Colectivo colectivo : colectivos) {
+            resultado.add(colectivo.getSumaOcupacion());
+        }
+        return resultado;
+    }
+
+    @Test
+    void laCorridaReanudadaTerminaIgualQueLaCompleta() {
+        Configuracion config = configuracion();
+        List<Linea> lineas = cargarLineas(config);
+        List<Colectivo> colectivos = AdministracionColectivos.generarColectivos(lineas, config);
+        List<Object> completa;
+        try (AlmacenPasajeros pasajeros = new AdministracionPasajeros(config).generarPasajeros(lineas)) {
+            RecolectorEstadisticas estadisticas = new RecolectorEstadisticas(pasajeros::getCantidad);
+            Simulador simulador = new Simulador(colectivos, SimulacionOutput.crearSilenciosa(), config);
+            simulador.setObservador(estadisticas);
+            simulador.setPuntosControl(config.getIntervaloPuntoControl(), new ArchivoPuntoControl(
+                config.getArchivoPuntoControl(), lineas, pasajeros, estadisticas, config.getSemilla()));
+            simulador.ejecutar();
+            completa = resultado(estadisticas, colectivos);
+        }
+
+        Path punto = directorio.resolve("pc-20.bin");
+        assertTrue(Files.isRegularFile(punto));
+        List<Linea> nuevas = cargarLineas(config);
+        List<Colectivo> reanudados = AdministracionColectivos.generarColectivos(nuevas, config);
+        try (ArchivoPuntoControl.Lectura lectura = ArchivoPuntoControl.abrir(punto.toString(), nuevas)) {
+            assertEquals(7, lectura.getSemilla());
+            try (AlmacenPasajeros pasajeros = lectura.leerPasajeros(AlmacenPasajerosEnArreglos::new)) {
+                RecolectorEstadisticas estadisticas = new RecolectorEstadisticas(pasajeros::getCantidad);
+                Simulador simulador = new Simulador(reanudados, SimulacionOutput.crearSilenciosa(), config);
+                simulador.setObservador(estadisticas);
+                lectura.leerSimulacion(simulador, estadisticas);
+                assertEquals(21, simulador.getPaso());
+                simulador.ejecutar();
+
+                assertEquals(completa, resultado(estadisticas, reanudados));
+            }
+        }
+    }
+
+    @Test
+    void laCorridaDeEventosConLlegadasReanudadaTerminaIgualQueLaCompleta() {
+        Configuracion config = configuracion("eventos", "poisson", 900);
+        List<Linea> lineas = cargarLineas(config);
+        List<Colectivo> colectivos = AdministracionColectivos.generarColectivos(lineas, config);
+        List<Object> completa;
+        AdministracionPasajeros administracion = new AdministracionPasajeros(config);
+        try (AlmacenPasajeros pasajeros = administracion.crearAlmacen(1024)) {
+            RecolectorEstadisticas estadisticas = new RecolectorEstadisticas(pasajeros::getCantidad);
+            SimuladorEventos simulador = new SimuladorEventos(colectivos, SimulacionOutput.crearSilenciosa(), config);
+            simulador.setObservador(estadisticas);
+            simulador.setLlegadas(new GeneradorLlegadas(lineas, pasajeros, config.getPasajerosPorHora(),
+                config.getPerfilLlegadas(), config.getSemilla()));
+            simulador.setPuntosControl(config.getIntervaloPuntoControl(), new ArchivoPuntoControl(
+                config.getArchivoPuntoControl(), lineas, pasajeros, estadisticas, config.getSemilla()));
+            simulador.ejecutar();
+            completa = resultado(estadisticas, colectivos);
+        }
+
+        Path punto = directorio.resolve("pc-1800.bin");
+        assertTrue(Files.isRegularFile(punto));
+        List<Linea> nuevas = cargarLineas(config);
+        List<Colectivo> reanudados = AdministracionColectivos.generarColectivos(nuevas, config);
+        try (ArchivoPuntoControl.Lectura lectura = ArchivoPuntoControl.abrir(punto.toString(), nuevas);
+             AlmacenPasajeros pasajeros = lectura.leerPasajeros(administracion::crearAlmacen)) {
+            RecolectorEstadisticas estadisticas = new RecolectorEstadisticas(pasajeros::getCantidad);
+            SimuladorEventos simulador = new SimuladorEventos(reanudados, SimulacionOutput.crearSilenciosa(), config);
+            simulador.setObservador(estadisticas);
+            simulador.setLlegadas(new GeneradorLlegadas(nuevas, pasajeros, config.getPasajerosPorHora(),
+                config.getPerfilLlegadas(), lectura.getSemilla()));
+            lectura.leerSimulacion(simulador, estadisticas);
+            assertEquals(1800, simulador.getAvance());
+            simulador.ejecutar();
+
+            assertEquals(completa, resultado(estadisticas, reanudados));
+        }
+    }
+
+    @Test
+    void rechazaUnPuntoDeControlDeOtroMotor() {
+        Configuracion config = configuracion();
+        List<Linea> lineas = cargarLineas(config);
+        List<Colectivo> colectivos = AdministracionColectivos.generarColectivos(lineas, config);
+        try (AlmacenPasajeros pasajeros = new AdministracionPasajeros(config).generarPasajeros(lineas)) {
+            RecolectorEstadisticas estadisticas = new RecolectorEstadisticas(pasajeros::getCantidad);
+            Simulador simulador = new Simulador(colectivos, SimulacionOutput.crearSilenciosa(), config);
+            simulador.setObservador(estadisticas);
+            simulador.setPuntosControl(config.getIntervaloPuntoControl(), new ArchivoPuntoControl(
+                config.getArchivoPuntoControl(), lineas, pasajeros, estadisticas, config.getSemilla()));
+            simulador.ejecutar();
+        }
+
+        Configuracion eventos = configuracion("eventos", "inicio", 600);
+        List<Linea> nuevas = cargarLineas(eventos);
+        List<Colectivo> reanudados = AdministracionColectivos.generarColectivos(nuevas, eventos);
+        try (ArchivoPuntoControl.Lectura lectura = ArchivoPuntoControl.abrir(directorio.resolve("pc-10.bin").toString(), nuevas);
+             AlmacenPasajeros pasajeros = lectura.leerPasajeros(AlmacenPasajerosEnArreglos::new)) {
+            SimuladorEventos simulador = new SimuladorEventos(reanudados, SimulacionOutput.crearSilenciosa(), eventos);
+            assertThrows(IllegalStateException.class,
+                () -> lectura.leerSimulacion(simulador, new RecolectorEstadisticas(pasajeros::getCantidad)));
+        }
+    }
+
+    @Test
+    void rechazaUnPuntoDeControlDanado() throws IOException {
+        Configuracion config = configuracion();
+        List<Linea> lineas = cargarLineas(config);
+        List<Colectivo> colectivos = AdministracionColectivos.generarColectivos(lineas, config);
+        try (AlmacenPasajeros pasajeros = new AdministracionPasajeros(config).generarPasajeros(lineas)) {
+            RecolectorEstadisticas estadisticas = new RecolectorEstadisticas(pasajeros::getCantidad);
+            Simulador simulador = new Simulador(colectivos, SimulacionOutput.crearSilenciosa(), config);
+            simulador.setObservador(estadisticas);
+            simulador.setPuntosControl(config.getIntervaloPuntoControl(), new ArchivoPuntoControl(
+                config.getArchivoPuntoControl(), lineas, pasajeros, estadisticas, config.getSemilla()));
+            simulador.ejecutar();
+        }
+
+        Path punto = directorio.resolve("pc-10.bin");
+        byte[] bytes = Files.readAllBytes(punto);
+        bytes[bytes.length - 8] ^= 1;
+        Files.write(punto, bytes);
+
+        List<Linea> nuevas = cargarLineas(config);
+        List<Colectivo> reanudados = AdministracionColectivos.generarColectivos(nuevas, config);
+        try (ArchivoPuntoControl.Lectura lectura = ArchivoPuntoControl.abrir(punto.toString(), nuevas);
+             AlmacenPasajeros pasajeros = lectura.leerPasajeros(AlmacenPasajerosEnArreglos::new)) {
+            Simulador simulador = new Simulador(reanudados, SimulacionOutput.crearSilenciosa(), config);
+            assertThrows(IllegalStateException.class,
+                () -> lectura.leerSimulacion(simulador, new RecolectorEstadisticas(pasajeros::getCantidad)));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import config.Configuracion;
+import domain.Red;
+import io.Datos;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+import presentacion.SimulacionOutput;
+
+/**
+ * Verifica la búsqueda por bisección sobre los valores de la grilla y el tratamiento de combinaciones inválidas.
+ */
+class BarridoParametrosTest {
+    private static final double OBJETIVO = 0.8;
+
+    private static BarridoParametros barrido() {
+        Properties properties = Configuracion.leerPropiedades(Configuracion.ARCHIVO_CONFIG);
+        properties.setProperty("semilla", "7");
+        Configuracion config = Configuracion.desde(properties);
+        Red red = new Datos(config.getArchivoParadas(), config.getArchivoLineas(), SimulacionOutput.crearSilenciosa())
+            .cargarRed(false);
+        return new BarridoParametros(red, properties, 2, 2);
+    }
+
+    @Test
+    void laBiseccionSoloDevuelveValoresDeLaGrilla() {
+        BarridoParametros barrido = barrido();
+        List<Integer> rango = List.of(40, 60, 80, 100, 120, 140, 160, 180, 200);
+        Map<String, List<Integer>> grilla = Map.of("cantidadPasajeros", rango);
+
+        List<BarridoParametros.Busqueda> busquedas = barrido.buscar(grilla, "cantidadPasajeros", OBJETIVO);
+
+        assertEquals(1, busquedas.size());
+        BarridoParametros.Busqueda busqueda = busquedas.get(0);
+        assertTrue(busqueda.alcanzaObjetivo());
+        int encontrado = busqueda.punto().valores().get("cantidadPasajeros");
+        assertTrue(rango.contains(encontrado), "valor fuera de la grilla: " + encontrado);
+
+        // El valor anterior de la grilla no alcanza el objetivo
+        List<BarridoParametros.Punto> puntos = barrido.barrer(grilla);
+        int posicion = rango.indexOf(encontrado);
+        assertTrue(puntos.get(posicion).getSatisfaccion() >= OBJETIVO);
+        assertTrue(posicion == 0 || puntos.get(posicion - 1).getSatisfaccion() < OBJETIVO);
+    }
+
+    @Test
+    void laBusquedaDescartaLasCapacidadesMenoresQueLosAsientos() {
+        BarridoParametros barrido = barrido();
+        // La configuración base tiene 40 asientos: 20 y 30 no son capacidades válidas
+        List<Integer> rango = List.of(20, 30, 40, 60, 80, 100, 120, 140, 160, 180, 200);
+        Map<String, List<Integer>> grilla = Map.of("cantidadPasajeros", rango);
+
+        BarridoParametros.Busqueda busqueda = barrido.buscar(grilla, "cantidadPasajeros", OBJETIVO).get(0);
+
+        assertTrue(busqueda.alcanzaObjetivo());
+        assertEquals(80, busqueda.punto().valores().get("cantidadPasajeros"));
+    }
+
+    @Test
+    void elBarridoRechazaLaCombinacionInvalidaAntesDeSimular() {
+        BarridoParametros barrido = barrido();
+        Map<String, List<Integer>> grilla = Map.of("cantidadPasajeros", List.of(20, 40, 60));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> barrido.barrer(grilla));
+
+        assertTrue(error.getMessage().contains("cantidadPasajeros=20"), error.getMessage());
+    }
+}
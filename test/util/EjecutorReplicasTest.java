@@ -0,0 +1,45 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import config.Configuracion;
+import domain.Red;
+import io.Datos;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+import presentacion.SimulacionOutput;
+
+/**
+ * Verifica que las réplicas se acumulen en orden sin importar la cantidad de hilos.
+ */
+class EjecutorReplicasTest {
+
+    private static Configuracion configuracion() {
+        Properties properties = Configuracion.leerPropiedades(Configuracion.ARCHIVO_CONFIG);
+        properties.setProperty("semilla", "7");
+        properties.setProperty("maxVueltas", "2");
+        return Configuracion.desde(properties);
+    }
+
+    @Test
+    void elResultadoNoDependeDeLaCantidadDeHilos() {
+        Configuracion config = configuracion();
+        Red red = new Datos(config.getArchivoParadas(), config.getArchivoLineas(), SimulacionOutput.crearSilenciosa())
+            .cargarRed(false);
+        List<Integer> numeros = new ArrayList<>();
+
+        EjecutorReplicas.Resultado secuencial = new EjecutorReplicas(red, config, 1).ejecutar(2, 7, 0.95, 0, r -> {});
+        EjecutorReplicas.Resultado paralelo = new EjecutorReplicas(red, config, 3)
+            .ejecutar(2, 7, 0.95, 0, r -> numeros.add(r.numero()));
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), numeros);
+        assertEquals(secuencial.replicas().size(), paralelo.replicas().size());
+        for (int i = 0; i < secuencial.replicas().size(); i++) {
+            assertEquals(secuencial.replicas().get(i).semilla(), paralelo.replicas().get(i).semilla());
+            assertArrayEquals(secuencial.replicas().get(i).indicadores(), paralelo.replicas().get(i).indicadores());
+        }
+    }
+}
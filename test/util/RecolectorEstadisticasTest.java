@@ -0,0 +1,64 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import domain.Colectivo;
+import domain.Linea;
+import domain.ListaPasajeros;
+import domain.Parada;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifica que el recolector combine las notificaciones de varios hilos.
+ */
+class RecolectorEstadisticasTest {
+    private static final int HILOS = 4;
+    private static final int NOTIFICACIONES = 10_000;
+
+    @Test
+    void sumaLasNotificacionesDeTodosLosHilos() throws InterruptedException {
+        Parada parada = new Parada(1, "Uno");
+        Linea linea = Linea.builder("A").agregarParada(parada).agregarParada(new Parada(2, "Dos")).construir();
+        RecolectorEstadisticas recolector = new RecolectorEstadisticas(0);
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            Colectivo colectivo = new Colectivo(h, linea, 10, 5);
+            ListaPasajeros vacia = colectivo.bajarPasajerosEn(parada);
+            Thread hilo = new Thread(() -> {
+                for (int i = 0; i < NOTIFICACIONES; i++) {
+                    recolector.alAtenderParada(i, colectivo, parada, vacia, vacia);
+                    recolector.alQuedarPasajerosSinLugar(i, colectivo, parada, 2);
+                }
+            });
+            hilos.add(hilo);
+            hilo.start();
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        assertEquals(2L * HILOS * NOTIFICACIONES, recolector.getSinLugar());
+        assertEquals((long) HILOS * NOTIFICACIONES, recolector.getOcupacionPorTramo().getCantidad());
+        assertEquals(2L * HILOS * NOTIFICACIONES, recolector.getContadores(linea).getSinLugar());
+        assertEquals(2L * HILOS * NOTIFICACIONES, recolector.getParadasConMasSinLugar(1).get(0).getValue().getSinLugar());
+    }
+
+    @Test
+    void devuelveCopiasDeLasDistribuciones() {
+        Parada parada = new Parada(1, "Uno");
+        Linea linea = Linea.builder("A").agregarParada(parada).agregarParada(new Parada(2, "Dos")).construir();
+        Colectivo colectivo = new Colectivo(0, linea, 10, 5);
+        ListaPasajeros vacia = colectivo.bajarPasajerosEn(parada);
+        RecolectorEstadisticas recolector = new RecolectorEstadisticas(0);
+        recolector.alAtenderParada(0, colectivo, parada, vacia, vacia);
+
+        HistogramaEnteros ocupacion = recolector.getOcupacionPorTramo();
+        ocupacion.registrar(7);
+        recolector.getContadores(linea).getOcupacion().registrar(7);
+
+        assertEquals(1, recolector.getOcupacionPorTramo().getCantidad());
+        assertEquals(1, recolector.getContadores(linea).getOcupacion().getCantidad());
+    }
+}